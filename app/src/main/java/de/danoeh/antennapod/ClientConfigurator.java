@@ -3,6 +3,7 @@ package de.danoeh.antennapod;
 import android.content.Context;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
+import androidx.annotation.VisibleForTesting;
 import de.danoeh.antennapod.net.download.service.episode.autodownload.AutoDownloadManagerImpl;
 import de.danoeh.antennapod.net.download.service.feed.FeedUpdateManagerImpl;
 import de.danoeh.antennapod.net.download.serviceinterface.AutoDownloadManager;
@@ -25,36 +26,75 @@ import de.danoeh.antennapod.storage.database.PodDBAdapter;
 
 import de.danoeh.antennapod.ui.notifications.NotificationUtils;
 import java.io.File;
+import java.util.Collections;
+import java.util.Map;
 
 public class ClientConfigurator {
+    private static final String STEP_SSL_PROVIDER = "sslProvider";
     private static boolean initialized = false;
+    private static StartupInitializer startupInitializer = null;
 
     public static synchronized void initialize(Context context) {
         if (initialized) {
             return;
         }
-        try {
-            PackageInfo packageInfo = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
-            UserAgentInterceptor.USER_AGENT = "AntennaPod/" + packageInfo.versionName;
-        } catch (PackageManager.NameNotFoundException e) {
-            e.printStackTrace();
-        }
-        PodDBAdapter.init(context);
-        UserPreferences.init(context);
-        SynchronizationCredentials.init(context);
-        SynchronizationSettings.init(context);
-        UsageStatistics.init(context);
-        PlaybackPreferences.init(context);
-        SslProviderInstaller.install(context);
-        NetworkUtils.init(context);
-        DownloadServiceInterface.setImpl(new DownloadServiceInterfaceImpl());
-        FeedUpdateManager.setInstance(new FeedUpdateManagerImpl());
-        AutoDownloadManager.setInstance(new AutoDownloadManagerImpl());
-        SynchronizationQueueSink.setServiceStarterImpl(() -> SyncService.sync(context));
-        AntennapodHttpClient.setCacheDirectory(new File(context.getCacheDir(), "okhttp"));
-        AntennapodHttpClient.setProxyConfig(UserPreferences.getProxyConfig());
-        SleepTimerPreferences.init(context);
-        NotificationUtils.createChannels(context);
+        StartupInitializer initializer = new StartupInitializer();
+        initializer.run("userAgent", () -> {
+            try {
+                PackageInfo packageInfo = context.getPackageManager()
+                        .getPackageInfo(context.getPackageName(), 0);
+                UserAgentInterceptor.USER_AGENT = "AntennaPod/" + packageInfo.versionName;
+            } catch (PackageManager.NameNotFoundException e) {
+                e.printStackTrace();
+            }
+        });
+        initializer.run("preferences", () -> {
+            PodDBAdapter.init(context);
+            UserPreferences.init(context);
+            SynchronizationCredentials.init(context);
+            SynchronizationSettings.init(context);
+            UsageStatistics.init(context);
+            PlaybackPreferences.init(context);
+            SleepTimerPreferences.init(context);
+        });
+        // Independent of everything else, only needed before the first connection
+        initializer.runInBackground(STEP_SSL_PROVIDER, () -> SslProviderInstaller.install(context));
+        // Runs schema upgrades early, so that the splash screen usually does not need to wait for them
+        initializer.runInBackground("database", () -> {
+            PodDBAdapter.getInstance().open();
+            PodDBAdapter.getInstance().close();
+        });
+        initializer.shutdown();
+        // Services that start right after the app may post notifications, so the channels need to exist
+        initializer.run("notificationChannels", () -> NotificationUtils.createChannels(context));
+        initializer.run("network", () -> {
+            NetworkUtils.init(context);
+            AntennapodHttpClient.setCacheDirectory(new File(context.getCacheDir(), "okhttp"));
+            AntennapodHttpClient.setProxyConfig(UserPreferences.getProxyConfig());
+            AntennapodHttpClient.setAwaitSecurityProvider(() -> initializer.await(STEP_SSL_PROVIDER));
+        });
+        initializer.run("services", () -> {
+            DownloadServiceInterface.setImpl(new DownloadServiceInterfaceImpl());
+            FeedUpdateManager.setInstance(new FeedUpdateManagerImpl());
+            AutoDownloadManager.setInstance(new AutoDownloadManagerImpl());
+            SynchronizationQueueSink.setServiceStarterImpl(() -> SyncService.sync(context));
+        });
+        startupInitializer = initializer;
         initialized = true;
     }
+
+    /**
+     * @return Duration of each startup step in milliseconds, or an empty map if the app was not initialized yet
+     */
+    public static synchronized Map<String, Long> getStartupTrace() {
+        if (startupInitializer == null) {
+            return Collections.emptyMap();
+        }
+        return startupInitializer.getTrace();
+    }
+
+    @VisibleForTesting
+    static synchronized StartupInitializer getStartupInitializer() {
+        return startupInitializer;
+    }
 }
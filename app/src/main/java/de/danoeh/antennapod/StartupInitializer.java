@@ -0,0 +1,137 @@
+package de.danoeh.antennapod;
+
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the initialization steps of the app and records how long each of them took.
+ * Steps that are needed right away run on the calling thread. Independent steps run in parallel
+ * on background threads and can be awaited by the code that first needs them.
+ */
+class StartupInitializer {
+    private static final String TAG = "StartupInitializer";
+    private static final int NUM_THREADS = 2;
+
+    private final Map<String, Long> trace = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Future<?>> backgroundSteps = new HashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS, r -> {
+        Thread thread = new Thread(r);
+        thread.setName("StartupInitializer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Runs the step on the calling thread.
+     */
+    void run(String name, Runnable step) {
+        runAndTrace(name, step);
+    }
+
+    /**
+     * Runs the step on a background thread after the steps it depends on have finished.
+     *
+     * @param dependencies Names of background steps that need to finish first
+     */
+    synchronized void runInBackground(String name, Runnable step, String... dependencies) {
+        Future<?>[] dependencyFutures = new Future<?>[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencyFutures[i] = backgroundSteps.get(dependencies[i]);
+            if (dependencyFutures[i] == null) {
+                throw new IllegalArgumentException("Unknown dependency " + dependencies[i] + " of " + name);
+            }
+        }
+        backgroundSteps.put(name, executor.submit(() -> {
+            for (Future<?> dependency : dependencyFutures) {
+                waitFor(dependency);
+            }
+            runAndTrace(name, step);
+        }));
+    }
+
+    /**
+     * Lets the background threads end once the submitted steps are done. No more steps can be added afterwards.
+     */
+    synchronized void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Blocks until the background step has finished. Returns immediately for unknown steps.
+     */
+    void await(String name) {
+        Future<?> future;
+        synchronized (this) {
+            future = backgroundSteps.get(name);
+        }
+        if (future != null) {
+            waitFor(future);
+        }
+    }
+
+    /**
+     * Blocks until all background steps have finished.
+     */
+    void awaitAll() {
+        Future<?>[] futures;
+        synchronized (this) {
+            futures = backgroundSteps.values().toArray(new Future<?>[0]);
+        }
+        for (Future<?> future : futures) {
+            waitFor(future);
+        }
+    }
+
+    /**
+     * @return Whether the step was started with {@link #runInBackground(String, Runnable, String...)}
+     */
+    synchronized boolean isBackgroundStep(String name) {
+        return backgroundSteps.containsKey(name);
+    }
+
+    /**
+     * @return Duration of each finished step in milliseconds, in the order in which the steps finished
+     */
+    Map<String, Long> getTrace() {
+        synchronized (trace) {
+            return new LinkedHashMap<>(trace);
+        }
+    }
+
+    private void runAndTrace(String name, Runnable step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            long duration = (System.nanoTime() - start) / 1000000;
+            trace.put(name, duration);
+            Log.d(TAG, name + " took " + duration + " ms");
+        }
+    }
+
+    private static void waitFor(Future<?> future) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                future.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                Log.e(TAG, Log.getStackTraceString(e.getCause()));
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -58,6 +58,7 @@ import de.danoeh.antennapod.ui.screen.SearchFragment;
 import de.danoeh.antennapod.ui.screen.subscriptions.SubscriptionFragment;
 import de.danoeh.antennapod.ui.TransitionEffect;
 import de.danoeh.antennapod.model.download.DownloadStatus;
+import de.danoeh.antennapod.net.download.serviceinterface.DownloadProgressChannel;
 import de.danoeh.antennapod.net.download.serviceinterface.DownloadServiceInterface;
 import de.danoeh.antennapod.playback.cast.CastEnabledActivity;
 import de.danoeh.antennapod.storage.importexport.AutomaticDatabaseExportWorker;
@@ -207,7 +208,7 @@ public class MainActivity extends CastEnabledActivity {
                         } else {
                             status = DownloadStatus.STATE_COMPLETED;
                         }
-                        int progress = workInfo.getProgress().getInt(DownloadServiceInterface.WORK_DATA_PROGRESS, -1);
+                        int progress = DownloadProgressChannel.getInstance().getProgress(downloadUrl);
                         if (progress == -1 && status != DownloadStatus.STATE_COMPLETED) {
                             status = DownloadStatus.STATE_QUEUED;
                             progress = 0;
@@ -217,6 +218,12 @@ public class MainActivity extends CastEnabledActivity {
                     DownloadServiceInterface.get().setCurrentDownloads(updatedEpisodes);
                     EventBus.getDefault().postSticky(new EpisodeDownloadEvent(updatedEpisodes));
                 });
+        DownloadProgressChannel.getInstance().setListener(progress -> {
+            Map<String, DownloadStatus> updated = DownloadServiceInterface.get().updateProgress(progress);
+            if (!updated.isEmpty()) {
+                EventBus.getDefault().post(EpisodeDownloadEvent.progressUpdate(updated));
+            }
+        });
     }
 
     @Override
@@ -297,6 +304,7 @@ public class MainActivity extends CastEnabledActivity {
         if (drawerLayout != null && drawerToggle != null) {
             drawerLayout.removeDrawerListener(drawerToggle);
         }
+        DownloadProgressChannel.getInstance().setListener(null);
     }
 
     private void checkFirstLaunch() {
@@ -94,6 +94,7 @@ public class OpmlImportActivity extends AppCompatActivity {
             viewBinding.progressBar.setVisibility(View.VISIBLE);
             Completable.fromAction(() -> {
                 SparseBooleanArray checked = viewBinding.feedlist.getCheckedItemPositions();
+                List<Feed> feeds = new ArrayList<>();
                 for (int i = 0; i < checked.size(); i++) {
                     if (!checked.valueAt(i)) {
                         continue;
@@ -102,8 +103,9 @@ public class OpmlImportActivity extends AppCompatActivity {
                     Feed feed = new Feed(element.getXmlUrl(), null,
                             element.getText() != null ? element.getText() : "Unknown podcast");
                     feed.setItems(Collections.emptyList());
-                    FeedDatabaseWriter.updateFeed(this, feed, false);
+                    feeds.add(feed);
                 }
+                FeedDatabaseWriter.addNewFeeds(this, feeds);
                 FeedUpdateManager.getInstance().runOnce(this);
             })
                     .subscribeOn(Schedulers.io())
@@ -32,6 +32,7 @@ import java.util.regex.Pattern;
  * @author AntennaPod open source community
  */
 public class HtmlToPlainText {
+    private static final Pattern HTML_TAG_REGEX = Pattern.compile("<(\"[^\"]*\"|'[^']*'|[^'\">])*>");
 
     /**
      * Use this method to strip off HTML encoding from given text.
@@ -59,8 +60,7 @@ public class HtmlToPlainText {
      * @return <b>True</b> if text contains any HTML tags<br /><b>False</b> is no HTML tag is found
      */
     private static boolean isHtml(String str) {
-        final String htmlTagPattern = "<(\"[^\"]*\"|'[^']*'|[^'\">])*>";
-        return Pattern.compile(htmlTagPattern).matcher(str).find();
+        return HTML_TAG_REGEX.matcher(str).find();
     }
 
     /**
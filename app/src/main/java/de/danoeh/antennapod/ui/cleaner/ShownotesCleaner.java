@@ -7,6 +7,7 @@ import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import android.text.TextUtils;
 import android.util.Log;
+import android.util.LruCache;
 import android.util.TypedValue;
 
 import androidx.annotation.Nullable;
@@ -39,6 +40,20 @@ public class ShownotesCleaner {
     private static final Pattern LINE_BREAK_REGEX = Pattern.compile("<br */?>");
     private static final String CSS_COLOR = "(?<=(\\s|;|^))color\\s*:([^;])*;";
     private static final String CSS_COMMENT = "/\\*.*?\\*/";
+    private static final Pattern CSS_COLOR_REGEX = Pattern.compile(CSS_COLOR);
+    private static final Pattern CSS_COMMENT_REGEX = Pattern.compile(CSS_COMMENT);
+    private static final int CACHE_SIZE_CHARS = 1024 * 1024;
+
+    /**
+     * Processed shownotes by item, description, duration and style. Sized by the number of characters.
+     */
+    private static final LruCache<String, String> processedCache = new LruCache<String, String>(CACHE_SIZE_CHARS) {
+        @Override
+        protected int sizeOf(String key, String value) {
+            return key.length() + value.length();
+        }
+    };
+    private static String styleTemplate = null;
 
     private final String rawShownotes;
     private final String noShownotesLabel;
@@ -54,17 +69,25 @@ public class ShownotesCleaner {
         final String colorAccent = colorToHtml(context, R.attr.colorAccent);
         final int margin = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8,
                 context.getResources().getDisplayMetrics());
-        String styleString = "";
-        try {
-            InputStream templateStream = context.getAssets().open("shownotes-style.css");
-            styleString = IOUtils.toString(templateStream, "UTF-8");
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        webviewStyle = String.format(Locale.US, styleString, colorPrimary, colorAccent,
+        webviewStyle = String.format(Locale.US, getStyleTemplate(context), colorPrimary, colorAccent,
                 margin, margin, margin, margin);
     }
 
+    /**
+     * The template only depends on the assets, so it is read once and shared by all instances.
+     */
+    private static synchronized String getStyleTemplate(Context context) {
+        if (styleTemplate == null) {
+            try (InputStream templateStream = context.getAssets().open("shownotes-style.css")) {
+                styleTemplate = IOUtils.toString(templateStream, "UTF-8");
+            } catch (IOException e) {
+                e.printStackTrace();
+                return "";
+            }
+        }
+        return styleTemplate;
+    }
+
     private String colorToHtml(Context context, int colorAttr) {
         TypedArray res = context.getTheme().obtainStyledAttributes(new int[]{colorAttr});
         @ColorInt int col = res.getColor(0, 0);
@@ -103,11 +126,31 @@ public class ShownotesCleaner {
         return document.toString();
     }
 
+    /**
+     * Same as {@link #processShownotes()}, but returns the result of an earlier call for the same item
+     * if neither the shownotes, the duration nor the theme have changed since then.
+     * Must not be called on the main thread when the result is not cached yet.
+     *
+     * @param itemId ID of the item that the shownotes belong to
+     */
+    @NonNull
+    public String processShownotes(long itemId) {
+        String key = itemId + ":" + playableDuration + ":" + (rawShownotes == null ? 0 : rawShownotes.hashCode())
+                + ":" + webviewStyle.hashCode();
+        String cached = processedCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String processed = processShownotes();
+        processedCache.put(key, processed);
+        return processed;
+    }
+
     /**
      * Returns true if the given link is a timecode link.
      */
     public static boolean isTimecodeLink(String link) {
-        return link != null && link.matches(TIMECODE_LINK_REGEX.pattern());
+        return link != null && TIMECODE_LINK_REGEX.matcher(link).matches();
     }
 
     /**
@@ -195,7 +238,7 @@ public class ShownotesCleaner {
     private void cleanCss(Document document) {
         for (Element element : document.getAllElements()) {
             if (element.hasAttr("style")) {
-                element.attr("style", element.attr("style").replaceAll(CSS_COLOR, ""));
+                element.attr("style", CSS_COLOR_REGEX.matcher(element.attr("style")).replaceAll(""));
             } else if (element.tagName().equals("style")) {
                 element.html(cleanStyleTag(element.html()));
             }
@@ -203,6 +246,6 @@ public class ShownotesCleaner {
     }
 
     public static String cleanStyleTag(String oldCss) {
-        return oldCss.replaceAll(CSS_COMMENT, "").replaceAll(CSS_COLOR, "");
+        return CSS_COLOR_REGEX.matcher(CSS_COMMENT_REGEX.matcher(oldCss).replaceAll("")).replaceAll("");
     }
 }
@@ -12,6 +12,7 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import de.danoeh.antennapod.ui.SelectableAdapter;
@@ -19,11 +20,18 @@ import de.danoeh.antennapod.ui.common.ThemeUtils;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import de.danoeh.antennapod.R;
 import de.danoeh.antennapod.activity.MainActivity;
 import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedItemFilter;
+import de.danoeh.antennapod.model.feed.FeedMedia;
+import de.danoeh.antennapod.playback.service.PlaybackStatus;
 import de.danoeh.antennapod.ui.screen.episode.ItemPagerFragment;
 
 /**
@@ -45,6 +53,9 @@ public class EpisodeItemListAdapter extends SelectableAdapter<EpisodeItemViewHol
     }
 
     public void setDummyViews(int dummyViews) {
+        if (this.dummyViews == dummyViews) {
+            return;
+        }
         this.dummyViews = dummyViews;
         notifyDataSetChanged();
     }
@@ -55,6 +66,128 @@ public class EpisodeItemListAdapter extends SelectableAdapter<EpisodeItemViewHol
         updateTitle();
     }
 
+    /**
+     * Replaces the items and only redraws the rows that changed.
+     * If the list was modified after the changes were calculated, everything is redrawn instead.
+     */
+    public void updateItems(ItemsUpdate update) {
+        if (dummyViews != 0 || !isSameList(update.oldItems, episodes)) {
+            updateItems(update.items);
+            return;
+        }
+        episodes = update.items;
+        update.diff.dispatchUpdatesTo(this);
+        updateTitle();
+    }
+
+    /**
+     * Replaces items with their updated versions. The positions of all items are looked up by ID at once.
+     * Items that are no longer accepted by the filter are removed from the list.
+     *
+     * @param updatedItems New versions of items
+     * @param filter       Filter of the list, or null if items should never be removed
+     * @return Updated items that are not part of the list
+     */
+    @NonNull
+    public List<FeedItem> updateItemsInPlace(List<FeedItem> updatedItems, @Nullable FeedItemFilter filter) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < episodes.size(); i++) {
+            positions.put(episodes.get(i).getId(), i);
+        }
+        List<FeedItem> missingItems = new ArrayList<>();
+        List<Integer> removedPositions = new ArrayList<>();
+        for (FeedItem item : updatedItems) {
+            Integer position = positions.get(item.getId());
+            if (position == null) {
+                missingItems.add(item);
+            } else if (filter == null || filter.matches(item)) {
+                episodes.set(position, item);
+                notifyItemChangedCompat(position);
+            } else {
+                removedPositions.add(position);
+            }
+        }
+        if (!removedPositions.isEmpty()) {
+            Collections.sort(removedPositions, Collections.reverseOrder());
+            for (int position : removedPositions) {
+                episodes.remove(position);
+                notifyItemRemoved(position);
+            }
+            updateTitle();
+        }
+        return missingItems;
+    }
+
+    /**
+     * Calculates the changes between two versions of a list. Meant to be called on a background thread.
+     *
+     * @param oldItems Copy of the list that is currently displayed
+     * @param newItems New list of items
+     */
+    public static ItemsUpdate calculateUpdate(List<FeedItem> oldItems, List<FeedItem> newItems) {
+        return new ItemsUpdate(oldItems, newItems, DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldItems.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newItems.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldItems.get(oldItemPosition).getId() == newItems.get(newItemPosition).getId();
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return isSameContent(oldItems.get(oldItemPosition), newItems.get(newItemPosition));
+            }
+
+            @Nullable
+            @Override
+            public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                return "foo"; // Re-use ViewHolders, see notifyItemChangedCompat
+            }
+        }));
+    }
+
+    private static boolean isSameContent(FeedItem oldItem, FeedItem newItem) {
+        if (oldItem.getPlayState() != newItem.getPlayState()
+                || !Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                || !Objects.equals(oldItem.getPubDate(), newItem.getPubDate())
+                || !Objects.equals(oldItem.getImageLocation(), newItem.getImageLocation())
+                || oldItem.isTagged(FeedItem.TAG_QUEUE) != newItem.isTagged(FeedItem.TAG_QUEUE)
+                || oldItem.isTagged(FeedItem.TAG_FAVORITE) != newItem.isTagged(FeedItem.TAG_FAVORITE)) {
+            return false;
+        }
+        FeedMedia oldMedia = oldItem.getMedia();
+        FeedMedia newMedia = newItem.getMedia();
+        if (oldMedia == null || newMedia == null) {
+            return oldMedia == newMedia;
+        }
+        // The currently playing item is highlighted, so always redraw it when the player state changes
+        return !PlaybackStatus.isPlaying(newMedia)
+                && oldMedia.getPosition() == newMedia.getPosition()
+                && oldMedia.getDuration() == newMedia.getDuration()
+                && oldMedia.getSize() == newMedia.getSize()
+                && oldMedia.isDownloaded() == newMedia.isDownloaded();
+    }
+
+    private static boolean isSameList(List<FeedItem> a, List<FeedItem> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public final int getItemViewType(int position) {
         return R.id.view_type_episode_item;
@@ -226,4 +359,18 @@ public class EpisodeItemListAdapter extends SelectableAdapter<EpisodeItemViewHol
         return items;
     }
 
+    /**
+     * New list of items together with the changes compared to the displayed list.
+     */
+    public static class ItemsUpdate {
+        public final List<FeedItem> items;
+        private final List<FeedItem> oldItems;
+        private final DiffUtil.DiffResult diff;
+
+        private ItemsUpdate(List<FeedItem> oldItems, List<FeedItem> items, DiffUtil.DiffResult diff) {
+            this.oldItems = oldItems;
+            this.items = items;
+            this.diff = diff;
+        }
+    }
 }
@@ -48,6 +48,7 @@ import de.danoeh.antennapod.event.playback.PlaybackPositionEvent;
 import de.danoeh.antennapod.ui.swipeactions.SwipeActions;
 import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedItemFilter;
+import de.danoeh.antennapod.storage.database.DBReader;
 import de.danoeh.antennapod.ui.view.EmptyViewHandler;
 import de.danoeh.antennapod.ui.view.LiftOnScrollListener;
 import io.reactivex.Completable;
@@ -332,18 +333,7 @@ public abstract class EpisodesListFragment extends Fragment
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEventMainThread(FeedItemEvent event) {
         Log.d(TAG, "onEventMainThread() called with: " + "event = [" + event + "]");
-        for (FeedItem item : event.items) {
-            int pos = FeedItemEvent.indexOfItemWithId(episodes, item.getId());
-            if (pos >= 0) {
-                episodes.remove(pos);
-                if (getFilter().matches(item)) {
-                    episodes.add(pos, item);
-                    listAdapter.notifyItemChangedCompat(pos);
-                } else {
-                    listAdapter.notifyItemRemoved(pos);
-                }
-            }
-        }
+        listAdapter.updateItemsInPlace(event.items, getFilter());
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -391,7 +381,24 @@ public abstract class EpisodesListFragment extends Fragment
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onUnreadItemsChanged(UnreadItemsUpdateEvent event) {
-        loadItems();
+        if (event.itemIds == null || event.itemIds.length > EPISODES_PER_PAGE
+                || (disposable != null && !disposable.isDisposed())) {
+            loadItems();
+            return;
+        }
+        disposable = Observable.fromCallable(() -> DBReader.getFeedItemsByIds(event.itemIds))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        items -> {
+                            List<FeedItem> missingItems = listAdapter.updateItemsInPlace(items, getFilter());
+                            for (FeedItem item : missingItems) {
+                                if (getFilter().matches(item)) {
+                                    loadItems(); // Item needs to be inserted into the list
+                                    return;
+                                }
+                            }
+                        }, error -> Log.e(TAG, Log.getStackTraceString(error)));
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -403,17 +410,19 @@ public abstract class EpisodesListFragment extends Fragment
         if (disposable != null) {
             disposable.dispose();
         }
-        disposable = Observable.fromCallable(() -> new Pair<>(loadData(), loadTotalItemCount()))
+        final List<FeedItem> displayedItems = new ArrayList<>(episodes);
+        disposable = Observable.fromCallable(() -> new Pair<>(
+                        EpisodeItemListAdapter.calculateUpdate(displayedItems, loadData()), loadTotalItemCount()))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
                         data -> {
                             final boolean restoreScrollPosition = episodes.isEmpty();
-                            episodes = data.first;
+                            episodes = data.first.items;
                             hasMoreItems = !(page == 1 && episodes.size() < EPISODES_PER_PAGE);
                             progressBar.setVisibility(View.GONE);
+                            listAdapter.updateItems(data.first);
                             listAdapter.setDummyViews(0);
-                            listAdapter.updateItems(episodes);
                             listAdapter.setTotalNumberOfItems(data.second);
                             if (restoreScrollPosition) {
                                 recyclerView.restoreScrollPosition(getPrefName());
@@ -196,16 +196,18 @@ public class CompletedDownloadsFragment extends Fragment
 
     @Subscribe(sticky = true, threadMode = ThreadMode.MAIN)
     public void onEventMainThread(EpisodeDownloadEvent event) {
-        Set<String> newRunningDownloads = new HashSet<>();
-        for (String url : event.getUrls()) {
-            if (DownloadServiceInterface.get().isDownloadingEpisode(url)) {
-                newRunningDownloads.add(url);
+        if (!event.isProgressUpdate()) {
+            Set<String> newRunningDownloads = new HashSet<>();
+            for (String url : event.getUrls()) {
+                if (DownloadServiceInterface.get().isDownloadingEpisode(url)) {
+                    newRunningDownloads.add(url);
+                }
+            }
+            if (!newRunningDownloads.equals(runningDownloads)) {
+                runningDownloads = newRunningDownloads;
+                loadItems();
+                return; // Refreshed anyway
             }
-        }
-        if (!newRunningDownloads.equals(runningDownloads)) {
-            runningDownloads = newRunningDownloads;
-            loadItems();
-            return; // Refreshed anyway
         }
         for (String downloadUrl : event.getUrls()) {
             int pos = EpisodeDownloadEvent.indexOfItemWithDownloadUrl(items, downloadUrl);
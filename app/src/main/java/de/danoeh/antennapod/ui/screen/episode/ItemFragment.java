@@ -428,7 +428,7 @@ public class ItemFragment extends Fragment {
             int duration = feedItem.getMedia() != null ? feedItem.getMedia().getDuration() : Integer.MAX_VALUE;
             DBReader.loadDescriptionOfFeedItem(feedItem);
             ShownotesCleaner t = new ShownotesCleaner(context, feedItem.getDescription(), duration);
-            webviewData = t.processShownotes();
+            webviewData = t.processShownotes(feedItem.getId());
         }
         return feedItem;
     }
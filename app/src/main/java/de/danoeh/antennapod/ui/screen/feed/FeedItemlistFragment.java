@@ -17,6 +17,7 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.content.res.AppCompatResources;
+import androidx.core.util.Pair;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -38,6 +39,7 @@ import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -49,7 +51,6 @@ import de.danoeh.antennapod.event.FeedEvent;
 import de.danoeh.antennapod.ui.MenuItemUtils;
 import de.danoeh.antennapod.storage.database.DBReader;
 import de.danoeh.antennapod.storage.database.DBWriter;
-import de.danoeh.antennapod.storage.database.FeedItemPermutors;
 import de.danoeh.antennapod.ui.common.IntentUtils;
 import de.danoeh.antennapod.ui.share.ShareUtils;
 import de.danoeh.antennapod.ui.episodeslist.MoreContentListFooterUtil;
@@ -91,6 +92,7 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
     public static final String TAG = "ItemlistFragment";
     private static final String ARGUMENT_FEED_ID = "argument.de.danoeh.antennapod.feed_id";
     private static final String KEY_UP_ARROW = "up_arrow";
+    private static final int EPISODES_PER_PAGE = 150;
 
     private FeedItemListAdapter adapter;
     private SwipeActions swipeActions;
@@ -99,6 +101,9 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
     private long feedID;
     private Feed feed;
     private boolean headerCreated = false;
+    private int page = 1;
+    private boolean isLoadingMore = false;
+    private boolean hasMoreItems = false;
     private Disposable disposable;
     private FeedItemListFragmentBinding viewBinding;
     private MultiSelectSpeedDialBinding speedDialBinding;
@@ -178,8 +183,13 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
             @Override
             public void onScrolled(@NonNull RecyclerView view, int deltaX, int deltaY) {
                 super.onScrolled(view, deltaX, deltaY);
+                if (!isLoadingMore && hasMoreItems && viewBinding.recyclerView.isScrolledToBottom()) {
+                    /* The end of the list has been reached. Load more data. */
+                    loadMoreItems();
+                }
                 boolean hasMorePages = feed != null && feed.isPaged() && feed.getNextPageLink() != null;
-                boolean pageLoaderVisible = viewBinding.recyclerView.isScrolledToBottom() && hasMorePages;
+                boolean pageLoaderVisible = viewBinding.recyclerView.isScrolledToBottom()
+                        && hasMorePages && !hasMoreItems;
                 nextPageLoader.getRoot().setVisibility(pageLoaderVisible ? View.VISIBLE : View.GONE);
                 viewBinding.recyclerView.setPadding(
                         viewBinding.recyclerView.getPaddingLeft(), 0, viewBinding.recyclerView.getPaddingRight(),
@@ -214,9 +224,7 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
             }
         });
         speedDialBinding.fabSD.setOnActionSelectedListener(actionItem -> {
-            new EpisodeMultiSelectActionHandler(((MainActivity) getActivity()), actionItem.getId())
-                    .handleAction(adapter.getSelectedItems());
-            adapter.endSelectMode();
+            performMultiSelectAction(actionItem.getId());
             return true;
         });
         return viewBinding.getRoot();
@@ -337,15 +345,7 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
         if (feed == null || feed.getItems() == null) {
             return;
         }
-        for (int i = 0, size = event.items.size(); i < size; i++) {
-            FeedItem item = event.items.get(i);
-            int pos = FeedItemEvent.indexOfItemWithId(feed.getItems(), item.getId());
-            if (pos >= 0) {
-                feed.getItems().remove(pos);
-                feed.getItems().add(pos, item);
-                adapter.notifyItemChangedCompat(pos);
-            }
-        }
+        adapter.updateItemsInPlace(event.items, null);
     }
 
     @Subscribe(sticky = true, threadMode = ThreadMode.MAIN)
@@ -412,7 +412,26 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onUnreadItemsChanged(UnreadItemsUpdateEvent event) {
-        updateUi();
+        if (event.itemIds == null || event.itemIds.length > EPISODES_PER_PAGE || feed == null
+                || (disposable != null && !disposable.isDisposed())) {
+            updateUi();
+            return;
+        }
+        final FeedItemFilter filter = feed.getItemFilter();
+        disposable = Observable.fromCallable(() -> DBReader.getFeedItemsByIds(event.itemIds))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                    items -> {
+                        List<FeedItem> missingItems = adapter.updateItemsInPlace(items, filter);
+                        for (FeedItem item : missingItems) {
+                            if (item.getFeedId() == feedID && (filter == null || filter.matches(item))) {
+                                loadItems(); // Item needs to be inserted into the list
+                                return;
+                            }
+                        }
+                        updateToolbar();
+                    }, error -> Log.e(TAG, Log.getStackTraceString(error)));
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -531,24 +550,60 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
                 .into(viewBinding.header.imgvCover);
     }
 
+    private void performMultiSelectAction(int actionItemId) {
+        EpisodeMultiSelectActionHandler handler =
+                new EpisodeMultiSelectActionHandler(((MainActivity) getActivity()), actionItemId);
+        List<FeedItem> selectedItems = adapter.getSelectedItems();
+        if (!adapter.shouldSelectLazyLoadedItems() || !hasMoreItems) {
+            handler.handleAction(selectedItems);
+            adapter.endSelectMode();
+            return;
+        }
+        final Feed currentFeed = feed;
+        final List<FeedItem> loadedItems = feed.getItems();
+        final FeedItem previousItem = loadedItems.isEmpty() ? null : loadedItems.get(loadedItems.size() - 1);
+        final int offset = loadedItems.size();
+        Observable.fromCallable(
+                () -> {
+                    List<FeedItem> items = new ArrayList<>(selectedItems);
+                    items.addAll(DBReader.getFeedItemList(currentFeed, currentFeed.getItemFilter(),
+                            currentFeed.getSortOrder(), previousItem, offset, Integer.MAX_VALUE));
+                    return items;
+                })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(items -> {
+                    handler.handleAction(items);
+                    adapter.endSelectMode();
+                }, error -> Log.e(TAG, Log.getStackTraceString(error)));
+    }
+
     private void loadItems() {
         if (disposable != null) {
             disposable.dispose();
         }
+        final List<FeedItem> displayedItems = feed != null ? new ArrayList<>(feed.getItems()) : new ArrayList<>();
         disposable = Observable.fromCallable(this::loadData)
+                .map(result -> new Pair<>(result,
+                        EpisodeItemListAdapter.calculateUpdate(displayedItems, result.first.getItems())))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
-                    result -> {
-                        feed = result;
+                    data -> {
+                        Pair<Feed, Integer> result = data.first;
+                        feed = result.first;
+                        hasMoreItems = feed.getItems().size() < result.second;
+                        isLoadingMore = false;
                         swipeActions.setFilter(feed.getItemFilter());
                         refreshHeaderView();
                         viewBinding.progressBar.setVisibility(View.GONE);
+                        adapter.updateItems(data.second);
                         adapter.setDummyViews(0);
-                        adapter.updateItems(feed.getItems());
+                        adapter.setTotalNumberOfItems(result.second);
                         updateToolbar();
                     }, error -> {
                         feed = null;
+                        hasMoreItems = false;
                         refreshHeaderView();
                         adapter.setDummyViews(0);
                         adapter.updateItems(Collections.emptyList());
@@ -557,19 +612,60 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
                     });
     }
 
+    private void loadMoreItems() {
+        if (feed == null || feed.getItems().isEmpty()) {
+            return;
+        } else if (disposable != null && !disposable.isDisposed()) {
+            return; // Items are currently being reloaded
+        }
+        isLoadingMore = true;
+        page++;
+        adapter.setDummyViews(1);
+        adapter.notifyItemInserted(adapter.getItemCount() - 1);
+        final Feed currentFeed = feed;
+        final List<FeedItem> loadedItems = feed.getItems();
+        final FeedItem previousItem = loadedItems.get(loadedItems.size() - 1);
+        final int offset = loadedItems.size();
+        disposable = Observable.fromCallable(() -> {
+            List<FeedItem> items = DBReader.getFeedItemList(currentFeed, currentFeed.getItemFilter(),
+                    currentFeed.getSortOrder(), previousItem, offset, EPISODES_PER_PAGE);
+            DBReader.loadAdditionalFeedItemListData(items);
+            return items;
+        })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                    data -> {
+                        if (data.size() < EPISODES_PER_PAGE) {
+                            hasMoreItems = false;
+                        }
+                        loadedItems.addAll(data);
+                        adapter.setDummyViews(0);
+                        adapter.updateItems(loadedItems);
+                        if (adapter.shouldSelectLazyLoadedItems()) {
+                            adapter.setSelected(loadedItems.size() - data.size(), loadedItems.size(), true);
+                        }
+                        // Make sure to not always load 2 pages at once
+                        viewBinding.recyclerView.post(() -> isLoadingMore = false);
+                    }, error -> {
+                        adapter.setDummyViews(0);
+                        adapter.updateItems(loadedItems);
+                        isLoadingMore = false;
+                        Log.e(TAG, Log.getStackTraceString(error));
+                    });
+    }
+
+    /**
+     * Loads the feed with as many items as were loaded before, and the total number of items.
+     */
     @Nullable
-    private Feed loadData() {
-        Feed feed = DBReader.getFeed(feedID, true);
+    private Pair<Feed, Integer> loadData() {
+        Feed feed = DBReader.getFeed(feedID, true, page * EPISODES_PER_PAGE);
         if (feed == null) {
             return null;
         }
         DBReader.loadAdditionalFeedItemListData(feed.getItems());
-        if (feed.getSortOrder() != null) {
-            List<FeedItem> feedItems = feed.getItems();
-            FeedItemPermutors.getPermutor(feed.getSortOrder()).reorder(feedItems);
-            feed.setItems(feedItems);
-        }
-        return feed;
+        return new Pair<>(feed, DBReader.getFeedItemCount(feed, feed.getItemFilter()));
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
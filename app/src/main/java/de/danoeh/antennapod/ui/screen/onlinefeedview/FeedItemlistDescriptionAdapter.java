@@ -23,13 +23,16 @@ import de.danoeh.antennapod.model.playback.Playable;
 import de.danoeh.antennapod.ui.cleaner.HtmlToPlainText;
 import de.danoeh.antennapod.ui.StreamingConfirmationDialog;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * List adapter for showing a list of FeedItems with their title and description.
  */
 public class FeedItemlistDescriptionAdapter extends ArrayAdapter<FeedItem> {
     private static final int MAX_LINES_COLLAPSED = 2;
+    private final Map<FeedItem, String> plainDescriptions = new HashMap<>();
 
     public FeedItemlistDescriptionAdapter(Context context, int resource, List<FeedItem> objects) {
         super(context, resource, objects);
@@ -60,10 +63,14 @@ public class FeedItemlistDescriptionAdapter extends ArrayAdapter<FeedItem> {
         holder.title.setText(item.getTitle());
         holder.pubDate.setText(DateFormatter.formatAbbrev(getContext(), item.getPubDate()));
         if (item.getDescription() != null) {
-            String description = HtmlToPlainText.getPlainText(item.getDescription())
-                    .replaceAll("\n", " ")
-                    .replaceAll("\\s+", " ")
-                    .trim();
+            String description = plainDescriptions.get(item);
+            if (description == null) {
+                description = HtmlToPlainText.getPlainText(item.getDescription())
+                        .replaceAll("\n", " ")
+                        .replaceAll("\\s+", " ")
+                        .trim();
+                plainDescriptions.put(item, description);
+            }
             holder.description.setText(description);
             holder.description.setMaxLines(MAX_LINES_COLLAPSED);
         }
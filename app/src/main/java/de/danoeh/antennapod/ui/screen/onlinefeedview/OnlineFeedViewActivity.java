@@ -65,6 +65,7 @@ import de.danoeh.antennapod.parser.feed.UnsupportedFeedtypeException;
 import de.danoeh.antennapod.ui.common.ThemeUtils;
 import de.danoeh.antennapod.ui.glide.FastBlurTransformation;
 import de.danoeh.antennapod.ui.preferences.screen.synchronization.AuthenticationDialog;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
@@ -117,6 +118,7 @@ public class OnlineFeedViewActivity extends AppCompatActivity {
     private Disposable download;
     private Disposable parser;
     private Disposable updater;
+    private Disposable subscriber;
 
     private OnlinefeedviewHeaderBinding headerBinding;
     private OnlinefeedviewActivityBinding viewBinding;
@@ -214,6 +216,9 @@ public class OnlineFeedViewActivity extends AppCompatActivity {
         if(parser != null) {
             parser.dispose();
         }
+        if (subscriber != null) {
+            subscriber.dispose();
+        }
     }
 
     @Override
@@ -366,7 +371,9 @@ public class OnlineFeedViewActivity extends AppCompatActivity {
     @Nullable
     private FeedHandlerResult doParseFeed(String destination) throws Exception {
         FeedHandler handler = new FeedHandler();
-        Feed feed = new Feed(selectedDownloadUrl, null);
+        // Keep the validators of the preview download, so that the first refresh after subscribing
+        // can be a conditional request instead of downloading and parsing the same document again.
+        Feed feed = new Feed(selectedDownloadUrl, downloader.getDownloadRequest().getLastModified());
         feed.setLocalFileUrl(destination);
         File destinationFile = new File(destination);
         try {
@@ -437,9 +444,16 @@ public class OnlineFeedViewActivity extends AppCompatActivity {
             if (feedInFeedlist()) {
                 openFeed();
             } else {
-                FeedDatabaseWriter.updateFeed(this, feed, false);
-                didPressSubscribe = true;
-                handleUpdatedFeedStatus();
+                viewBinding.subscribeButton.setEnabled(false);
+                feed.setLastRefreshAttempt(System.currentTimeMillis());
+                // The feed was parsed for the preview already, so it is stored without downloading it again
+                subscriber = Completable.fromAction(() -> FeedDatabaseWriter.updateFeed(this, feed, false))
+                        .subscribeOn(Schedulers.io())
+                        .observeOn(AndroidSchedulers.mainThread())
+                        .subscribe(() -> {
+                            didPressSubscribe = true;
+                            handleUpdatedFeedStatus();
+                        }, error -> Log.e(TAG, Log.getStackTraceString(error)));
             }
         });
 
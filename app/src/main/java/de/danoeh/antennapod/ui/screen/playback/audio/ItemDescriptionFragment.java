@@ -106,7 +106,11 @@ public class ItemDescriptionFragment extends Fragment {
             }
             ShownotesCleaner shownotesCleaner = new ShownotesCleaner(
                     context, media.getDescription(), media.getDuration());
-            emitter.onSuccess(shownotesCleaner.processShownotes());
+            if (media instanceof FeedMedia) {
+                emitter.onSuccess(shownotesCleaner.processShownotes(((FeedMedia) media).getItemId()));
+            } else {
+                emitter.onSuccess(shownotesCleaner.processShownotes());
+            }
         })
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
@@ -27,10 +27,6 @@ import androidx.preference.PreferenceFragmentCompat;
 import com.google.android.material.snackbar.Snackbar;
 import de.danoeh.antennapod.R;
 import de.danoeh.antennapod.activity.OpmlImportActivity;
-import de.danoeh.antennapod.storage.database.DBReader;
-import de.danoeh.antennapod.model.feed.FeedItem;
-import de.danoeh.antennapod.model.feed.FeedItemFilter;
-import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.storage.importexport.AutomaticDatabaseExportWorker;
 import de.danoeh.antennapod.storage.importexport.DatabaseExporter;
 import de.danoeh.antennapod.storage.importexport.FavoritesWriter;
@@ -51,7 +47,6 @@ import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 
 public class ImportExportPreferencesFragment extends PreferenceFragmentCompat {
@@ -69,6 +64,7 @@ public class ImportExportPreferencesFragment extends PreferenceFragmentCompat {
     private static final String CONTENT_TYPE_HTML = "text/html";
     private static final String DEFAULT_FAVORITES_OUTPUT_NAME = "antennapod-favorites-%s.html";
     private static final String DATABASE_EXPORT_FILENAME = "AntennaPodBackup-%s.db";
+    private static final String KEY_PENDING_DELTA_BACKUP = "pendingDeltaBackup";
 
     private final ActivityResultLauncher<Intent> chooseOpmlExportPathLauncher =
             registerForActivityResult(new StartActivityForResult(),
@@ -81,6 +77,8 @@ public class ImportExportPreferencesFragment extends PreferenceFragmentCompat {
                     result -> exportToDocument(result, Export.FAVORITES));
     private final ActivityResultLauncher<Intent> restoreDatabaseLauncher =
             registerForActivityResult(new StartActivityForResult(), this::restoreDatabaseResult);
+    private final ActivityResultLauncher<Intent> restoreFullBackupLauncher =
+            registerForActivityResult(new StartActivityForResult(), this::restoreFullBackupResult);
     private final ActivityResultLauncher<String> backupDatabaseLauncher =
             registerForActivityResult(new BackupDatabase(), this::backupDatabaseResult);
     private final ActivityResultLauncher<String> chooseOpmlImportPathLauncher =
@@ -96,16 +94,29 @@ public class ImportExportPreferencesFragment extends PreferenceFragmentCompat {
 
     private Disposable disposable;
     private ProgressDialog progressDialog;
+    /**
+     * Delta backup that is restored as soon as the user selected its full backup.
+     */
+    private Uri pendingDeltaBackupUri;
 
     @Override
     public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
         addPreferencesFromResource(R.xml.preferences_import_export);
+        if (savedInstanceState != null) {
+            pendingDeltaBackupUri = savedInstanceState.getParcelable(KEY_PENDING_DELTA_BACKUP);
+        }
         setupStorageScreen();
         progressDialog = new ProgressDialog(getContext());
         progressDialog.setIndeterminate(true);
         progressDialog.setMessage(getContext().getString(R.string.please_wait));
     }
 
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putParcelable(KEY_PENDING_DELTA_BACKUP, pendingDeltaBackupUri);
+    }
+
     @Override
     public void onStart() {
         super.onStart();
@@ -232,15 +243,53 @@ public class ImportExportPreferencesFragment extends PreferenceFragmentCompat {
         if (result.getResultCode() != Activity.RESULT_OK || result.getData() == null) {
             return;
         }
-        final Uri uri = result.getData().getData();
+        restoreDatabase(result.getData().getData(), null);
+    }
+
+    private void restoreFullBackupResult(final ActivityResult result) {
+        Uri deltaBackupUri = pendingDeltaBackupUri;
+        pendingDeltaBackupUri = null;
+        if (result.getResultCode() != Activity.RESULT_OK || result.getData() == null || deltaBackupUri == null) {
+            return;
+        }
+        restoreDatabase(deltaBackupUri, result.getData().getData());
+    }
+
+    private void restoreDatabase(Uri uri, @Nullable Uri fullBackupUri) {
         progressDialog.show();
-        disposable = Completable.fromAction(() -> DatabaseExporter.importBackup(uri, getContext()))
+        disposable = Completable.fromAction(() -> DatabaseExporter.importBackup(uri, fullBackupUri, getContext()))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(() -> {
                     showDatabaseImportSuccessDialog();
                     progressDialog.dismiss();
-                }, this::showExportErrorDialog);
+                }, error -> {
+                    if (error instanceof DatabaseExporter.MissingFullBackupException && fullBackupUri == null) {
+                        progressDialog.dismiss();
+                        askForFullBackup(uri, ((DatabaseExporter.MissingFullBackupException) error)
+                                .getFullBackupName());
+                    } else {
+                        showExportErrorDialog(error);
+                    }
+                });
+    }
+
+    /**
+     * The app can usually not look into the folder of a selected delta backup, so the user needs to select
+     * the full backup it is based on.
+     */
+    private void askForFullBackup(Uri deltaBackupUri, String fullBackupName) {
+        MaterialAlertDialogBuilder builder = new MaterialAlertDialogBuilder(getContext());
+        builder.setTitle(R.string.database_import_label);
+        builder.setMessage(getString(R.string.import_select_full_backup, fullBackupName));
+        builder.setNegativeButton(R.string.cancel_label, null);
+        builder.setPositiveButton(R.string.confirm_label, (dialog, which) -> {
+            pendingDeltaBackupUri = deltaBackupUri;
+            Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+            intent.setType("*/*");
+            restoreFullBackupLauncher.launch(intent);
+        });
+        builder.show();
     }
 
     private void backupDatabaseResult(final Uri uri) {
@@ -333,15 +382,13 @@ public class ImportExportPreferencesFragment extends PreferenceFragmentCompat {
         try (OutputStreamWriter writer = new OutputStreamWriter(outputStream, Charset.forName("UTF-8"))) {
             switch (type) {
                 case HTML:
-                    HtmlWriter.writeDocument(DBReader.getFeedList(), writer, getContext());
+                    HtmlWriter.writeDocument(writer, getContext());
                     break;
                 case OPML:
-                    OpmlWriter.writeDocument(DBReader.getFeedList(), writer);
+                    OpmlWriter.writeDocument(writer);
                     break;
                 case FAVORITES:
-                    List<FeedItem> allFavorites = DBReader.getEpisodes(0, Integer.MAX_VALUE,
-                            new FeedItemFilter(FeedItemFilter.IS_FAVORITE), SortOrder.DATE_NEW_OLD);
-                    FavoritesWriter.writeDocument(allFavorites, writer, getContext());
+                    FavoritesWriter.writeDocument(writer, getContext());
                     break;
                 default:
                     showExportErrorDialog(new Exception("Invalid export type"));
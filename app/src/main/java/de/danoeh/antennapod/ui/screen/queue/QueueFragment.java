@@ -35,6 +35,7 @@ import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import de.danoeh.antennapod.R;
@@ -175,15 +176,9 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
             loadItems(true);
             return;
         }
-        for (int i = 0, size = event.items.size(); i < size; i++) {
-            FeedItem item = event.items.get(i);
-            int pos = FeedItemEvent.indexOfItemWithId(queue, item.getId());
-            if (pos >= 0) {
-                queue.remove(pos);
-                queue.add(pos, item);
-                recyclerAdapter.notifyItemChangedCompat(pos);
-                refreshInfoBar();
-            }
+        List<FeedItem> missingItems = recyclerAdapter.updateItemsInPlace(event.items, null);
+        if (missingItems.size() < event.items.size()) {
+            refreshInfoBar();
         }
     }
 
@@ -223,7 +218,12 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onUnreadItemsChanged(UnreadItemsUpdateEvent event) {
         // Sent when playback position is reset
-        loadItems(false);
+        if (event.itemIds == null || queue == null || recyclerAdapter == null
+                || (disposable != null && !disposable.isDisposed())) {
+            loadItems(false);
+        } else {
+            loadChangedItems(event.itemIds);
+        }
         refreshToolbarState();
     }
 
@@ -502,14 +502,16 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
         if (queue == null) {
             emptyView.hide();
         }
-        disposable = Observable.fromCallable(DBReader::getQueue)
+        final List<FeedItem> displayedItems = queue != null ? new ArrayList<>(queue) : new ArrayList<>();
+        disposable = Observable.fromCallable(() ->
+                        EpisodeItemListAdapter.calculateUpdate(displayedItems, DBReader.getQueue()))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(items -> {
-                    queue = items;
+                .subscribe(update -> {
+                    queue = update.items;
                     progressBar.setVisibility(View.GONE);
+                    recyclerAdapter.updateItems(update);
                     recyclerAdapter.setDummyViews(0);
-                    recyclerAdapter.updateItems(queue);
                     if (restoreScrollPosition) {
                         recyclerView.restoreScrollPosition(QueueFragment.TAG);
                     }
@@ -517,6 +519,19 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
                 }, error -> Log.e(TAG, Log.getStackTraceString(error)));
     }
 
+    /**
+     * Reloads only the given items. Items that are not in the queue are ignored.
+     */
+    private void loadChangedItems(long[] itemIds) {
+        disposable = Observable.fromCallable(() -> DBReader.getFeedItemsByIds(itemIds))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(items -> {
+                    recyclerAdapter.updateItemsInPlace(items, null);
+                    refreshInfoBar();
+                }, error -> Log.e(TAG, Log.getStackTraceString(error)));
+    }
+
     @Override
     public void onStartSelectMode() {
         swipeActions.detach();
@@ -0,0 +1,63 @@
+package de.danoeh.antennapod;
+
+import android.content.Context;
+import androidx.test.platform.app.InstrumentationRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link ClientConfigurator}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ClientConfiguratorTest {
+    private static final List<String> FOREGROUND_STEPS = Arrays.asList(
+            "userAgent", "preferences", "notificationChannels", "network", "services");
+    private static final List<String> BACKGROUND_STEPS = Arrays.asList("sslProvider", "database");
+
+    @Test
+    public void testStartupTraceContainsAllSteps() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ClientConfigurator.initialize(context);
+        StartupInitializer initializer = ClientConfigurator.getStartupInitializer();
+        assertNotNull(initializer);
+        initializer.awaitAll();
+
+        Map<String, Long> trace = ClientConfigurator.getStartupTrace();
+        HashSet<String> expectedSteps = new HashSet<>(FOREGROUND_STEPS);
+        expectedSteps.addAll(BACKGROUND_STEPS);
+        assertEquals(expectedSteps, trace.keySet());
+        for (Long duration : trace.values()) {
+            assertTrue(duration >= 0);
+        }
+    }
+
+    @Test
+    public void testDatabaseAndSecurityProviderRunInBackground() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ClientConfigurator.initialize(context);
+        StartupInitializer initializer = ClientConfigurator.getStartupInitializer();
+        assertNotNull(initializer);
+
+        for (String step : BACKGROUND_STEPS) {
+            assertTrue(step, initializer.isBackgroundStep(step));
+            initializer.await(step);
+            assertTrue(step, ClientConfigurator.getStartupTrace().containsKey(step));
+        }
+        for (String step : FOREGROUND_STEPS) {
+            assertFalse(step, initializer.isBackgroundStep(step));
+            // Foreground steps have finished by the time initialize returns
+            assertTrue(step, ClientConfigurator.getStartupTrace().containsKey(step));
+        }
+    }
+}
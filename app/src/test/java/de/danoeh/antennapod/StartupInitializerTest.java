@@ -0,0 +1,111 @@
+package de.danoeh.antennapod;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link StartupInitializer}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class StartupInitializerTest {
+
+    @Test
+    public void testTraceContainsAllSteps() {
+        StartupInitializer initializer = new StartupInitializer();
+        initializer.run("first", () -> { });
+        initializer.runInBackground("background", () -> sleep(20));
+        initializer.run("second", () -> { });
+        initializer.awaitAll();
+
+        Map<String, Long> trace = initializer.getTrace();
+        assertEquals(3, trace.size());
+        assertTrue(trace.containsKey("first"));
+        assertTrue(trace.containsKey("second"));
+        assertTrue(trace.get("background") >= 20);
+    }
+
+    @Test
+    public void testBackgroundStepsRunAfterDependencies() {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        StartupInitializer initializer = new StartupInitializer();
+        initializer.runInBackground("slow", () -> {
+            sleep(50);
+            order.add("slow");
+        });
+        initializer.runInBackground("dependent", () -> order.add("dependent"), "slow");
+        initializer.await("dependent");
+        assertEquals(Arrays.asList("slow", "dependent"), order);
+    }
+
+    @Test
+    public void testIndependentStepsRunInParallel() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        StartupInitializer initializer = new StartupInitializer();
+        Runnable step = () -> {
+            bothStarted.countDown();
+            try {
+                bothStarted.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        initializer.runInBackground("a", step);
+        initializer.runInBackground("b", step);
+        assertTrue(bothStarted.await(2, TimeUnit.SECONDS));
+        initializer.awaitAll();
+    }
+
+    @Test
+    public void testFailingStepDoesNotBlockOthers() {
+        StartupInitializer initializer = new StartupInitializer();
+        initializer.runInBackground("failing", () -> {
+            throw new IllegalStateException("Expected");
+        });
+        initializer.runInBackground("dependent", () -> { }, "failing");
+        initializer.awaitAll();
+        assertTrue(initializer.getTrace().containsKey("failing"));
+        assertTrue(initializer.getTrace().containsKey("dependent"));
+    }
+
+    @Test
+    public void testStepsFinishAfterShutdown() {
+        StartupInitializer initializer = new StartupInitializer();
+        initializer.runInBackground("slow", () -> sleep(20));
+        initializer.shutdown();
+        initializer.await("slow");
+        assertTrue(initializer.getTrace().containsKey("slow"));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testNoStepsAfterShutdown() {
+        StartupInitializer initializer = new StartupInitializer();
+        initializer.shutdown();
+        initializer.runInBackground("step", () -> { });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new StartupInitializer().runInBackground("step", () -> { }, "missing");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -42,6 +42,21 @@ public class ShownotesCleanerTest {
         checkLinkCorrect(res, new long[]{time}, new String[]{timeStr});
     }
 
+    @Test
+    public void testProcessShownotesCached() {
+        String shownotes = "<p> Some test text with a timecode 10:11 here.</p>";
+        String uncached = new ShownotesCleaner(context, shownotes, Integer.MAX_VALUE).processShownotes();
+        String first = new ShownotesCleaner(context, shownotes, Integer.MAX_VALUE).processShownotes(42);
+        String second = new ShownotesCleaner(context, shownotes, Integer.MAX_VALUE).processShownotes(42);
+        assertEquals(uncached, first);
+        assertEquals(first, second);
+
+        String changed = new ShownotesCleaner(context, "<p>Changed 10:11</p>", Integer.MAX_VALUE).processShownotes(42);
+        assertTrue(changed.contains("Changed"));
+        String shortDuration = new ShownotesCleaner(context, shownotes, 11 * 60 * 1000).processShownotes(42);
+        assertFalse(shortDuration.equals(first));
+    }
+
     @Test
     public void testProcessShownotesAddTimecodeHhmmssMoreThen24HoursNoChapters() {
         final String timeStr = "25:00:00";
@@ -9,15 +9,32 @@ import java.util.Set;
 
 public class EpisodeDownloadEvent {
     private final Map<String, DownloadStatus> map;
+    private final boolean isProgressUpdate;
 
     public EpisodeDownloadEvent(Map<String, DownloadStatus> map) {
+        this(map, false);
+    }
+
+    private EpisodeDownloadEvent(Map<String, DownloadStatus> map, boolean isProgressUpdate) {
         this.map = map;
+        this.isProgressUpdate = isProgressUpdate;
+    }
+
+    /**
+     * Event that only contains the downloads whose progress changed. Their state did not change.
+     */
+    public static EpisodeDownloadEvent progressUpdate(Map<String, DownloadStatus> map) {
+        return new EpisodeDownloadEvent(map, true);
     }
 
     public Set<String> getUrls() {
         return map.keySet();
     }
 
+    public boolean isProgressUpdate() {
+        return isProgressUpdate;
+    }
+
     public static int indexOfItemWithDownloadUrl(List<FeedItem> items, String downloadUrl) {
         for (int i = 0; i < items.size(); i++) {
             FeedItem item = items.get(i);
@@ -1,6 +1,20 @@
 package de.danoeh.antennapod.event;
 
+import androidx.annotation.Nullable;
+
 public class UnreadItemsUpdateEvent {
+    /**
+     * IDs of the items whose played state changed, or null if it is unknown which items changed.
+     * Lists can use this to reload only the affected items.
+     */
+    @Nullable
+    public final long[] itemIds;
+
     public UnreadItemsUpdateEvent() {
+        this(null);
+    }
+
+    public UnreadItemsUpdateEvent(@Nullable long[] itemIds) {
+        this.itemIds = itemIds;
     }
 }
@@ -8,9 +8,16 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class FeedFilter implements Serializable {
+    // from http://stackoverflow.com/questions/7804335/split-string-on-spaces-in-java-except-if-between-quotes-i-e-treat-hello-wor
+    private static final Pattern TERM_PATTERN = Pattern.compile("([^\"]\\S*|\".+?\")\\s*");
+
     private final String includeFilter;
     private final String excludeFilter;
     private final int minimalDuration;
+    /**
+     * The filter is immutable, so the terms are only compiled once, when the filter is first used.
+     */
+    private transient volatile CompiledTerms compiledTerms;
 
     public FeedFilter() {
         this("", "", -1);
@@ -36,10 +43,9 @@ public class FeedFilter implements Serializable {
      * @param filter string to parse in to terms
      * @return list of terms
      */
-    private List<String> parseTerms(String filter) {
-        // from http://stackoverflow.com/questions/7804335/split-string-on-spaces-in-java-except-if-between-quotes-i-e-treat-hello-wor
+    private static List<String> parseTerms(String filter) {
         List<String> list = new ArrayList<>();
-        Matcher m = Pattern.compile("([^\"]\\S*|\".+?\")\\s*").matcher(filter);
+        Matcher m = TERM_PATTERN.matcher(filter);
         while (m.find()) {
             list.add(m.group(1).replace("\"", ""));
         }
@@ -51,11 +57,27 @@ public class FeedFilter implements Serializable {
      * @return true if the item should be downloaded
      */
     public boolean shouldAutoDownload(FeedItem item) {
+        return shouldAutoDownload(item, getCompiledTerms());
+    }
 
-        List<String> includeTerms = parseTerms(includeFilter);
-        List<String> excludeTerms = parseTerms(excludeFilter);
+    /**
+     * Applies the filter to a list of candidates in one pass.
+     *
+     * @return The items that should be downloaded, in their original order
+     */
+    public List<FeedItem> filterAutoDownload(List<FeedItem> items) {
+        CompiledTerms terms = getCompiledTerms();
+        List<FeedItem> result = new ArrayList<>(items.size());
+        for (FeedItem item : items) {
+            if (shouldAutoDownload(item, terms)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
 
-        if (includeTerms.size() == 0 && excludeTerms.size() == 0 && minimalDuration <= -1) {
+    private boolean shouldAutoDownload(FeedItem item, CompiledTerms terms) {
+        if (terms.include == null && terms.exclude == null && minimalDuration <= -1) {
             // nothing has been specified, so include everything
             return true;
         }
@@ -74,16 +96,12 @@ public class FeedFilter implements Serializable {
 
         // if it's explicitly excluded, it shouldn't be autodownloaded
         // even if it has include terms
-        for (String term : excludeTerms) {
-            if (title.contains(term.trim().toLowerCase(Locale.getDefault()))) {
-                return false;
-            }
+        if (terms.exclude != null && terms.exclude.matches(title)) {
+            return false;
         }
 
-        for (String term : includeTerms) {
-            if (title.contains(term.trim().toLowerCase(Locale.getDefault()))) {
-                return true;
-            }
+        if (terms.include != null && terms.include.matches(title)) {
+            return true;
         }
 
         // now's the tricky bit
@@ -102,6 +120,26 @@ public class FeedFilter implements Serializable {
         return false;
     }
 
+    private CompiledTerms getCompiledTerms() {
+        CompiledTerms terms = compiledTerms;
+        if (terms == null) {
+            terms = new CompiledTerms(compile(getIncludeFilter()), compile(getExcludeFilter()));
+            compiledTerms = terms;
+        }
+        return terms;
+    }
+
+    private static TermMatcher compile(List<String> terms) {
+        if (terms.isEmpty()) {
+            return null;
+        }
+        List<String> normalizedTerms = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            normalizedTerms.add(term.trim().toLowerCase(Locale.getDefault()));
+        }
+        return new TermMatcher(normalizedTerms);
+    }
+
     public String getIncludeFilterRaw() {
         return includeFilter;
     }
@@ -147,4 +185,14 @@ public class FeedFilter implements Serializable {
     public boolean hasMinimalDurationFilter() {
         return minimalDuration > -1;
     }
+
+    private static class CompiledTerms {
+        final TermMatcher include;
+        final TermMatcher exclude;
+
+        CompiledTerms(TermMatcher include, TermMatcher exclude) {
+            this.include = include;
+            this.exclude = exclude;
+        }
+    }
 }
@@ -25,6 +25,11 @@ public class FeedItem implements Serializable {
     /** tag that indicates this item is in favorites */
     public static final String TAG_FAVORITE = "Favorite";
 
+    private static final int TAG_FLAG_QUEUE = 1;
+    private static final int TAG_FLAG_FAVORITE = 1 << 1;
+    /** Value of {@link #pubDate} if the item has no publication date */
+    private static final long NO_DATE = Long.MIN_VALUE;
+
     private long id;
     /**
      * The id/guid that can be found in the rss/atom feed. Might not be set.
@@ -37,7 +42,7 @@ public class FeedItem implements Serializable {
     private String description;
 
     private String link;
-    private Date pubDate;
+    private long pubDate = NO_DATE;
     private FeedMedia media;
 
     private transient Feed feed;
@@ -69,9 +74,13 @@ public class FeedItem implements Serializable {
     private boolean autoDownloadEnabled = true;
 
     /**
-     * Any tags assigned to this item
+     * The queue and favorite tags, stored as flags because lists of thousands of items are kept in memory
+     */
+    private int tagFlags;
+    /**
+     * Any other tags assigned to this item. Only created when needed.
      */
-    private final Set<String> tags = new HashSet<>();
+    private Set<String> otherTags;
 
     public FeedItem() {
         this.state = UNPLAYED;
@@ -84,6 +93,16 @@ public class FeedItem implements Serializable {
     public FeedItem(long id, String title, String link, Date pubDate, String paymentLink, long feedId,
                     boolean hasChapters, String imageUrl, int state,
                     String itemIdentifier, boolean autoDownloadEnabled, String podcastIndexChapterUrl) {
+        this(id, title, link, pubDate != null ? pubDate.getTime() : NO_DATE, paymentLink, feedId, hasChapters,
+                imageUrl, state, itemIdentifier, autoDownloadEnabled, podcastIndexChapterUrl);
+    }
+
+    /**
+     * This constructor is used by DBReader. The publication date is given in milliseconds since the epoch.
+     * */
+    public FeedItem(long id, String title, String link, long pubDate, String paymentLink, long feedId,
+                    boolean hasChapters, String imageUrl, int state,
+                    String itemIdentifier, boolean autoDownloadEnabled, String podcastIndexChapterUrl) {
         this.id = id;
         this.title = title;
         this.link = link;
@@ -106,7 +125,7 @@ public class FeedItem implements Serializable {
         this.title = title;
         this.itemIdentifier = itemIdentifier;
         this.link = link;
-        this.pubDate = (pubDate != null) ? (Date) pubDate.clone() : null;
+        this.pubDate = (pubDate != null) ? pubDate.getTime() : NO_DATE;
         this.state = state;
         this.feed = feed;
         this.hasChapters = false;
@@ -120,7 +139,7 @@ public class FeedItem implements Serializable {
         this.title = title;
         this.itemIdentifier = itemIdentifier;
         this.link = link;
-        this.pubDate = (pubDate != null) ? (Date) pubDate.clone() : null;
+        this.pubDate = (pubDate != null) ? pubDate.getTime() : NO_DATE;
         this.state = state;
         this.feed = feed;
         this.hasChapters = hasChapters;
@@ -139,7 +158,7 @@ public class FeedItem implements Serializable {
         if (other.link != null) {
             link = other.link;
         }
-        if (other.pubDate != null && !other.pubDate.equals(pubDate)) {
+        if (other.pubDate != NO_DATE) {
             pubDate = other.pubDate;
         }
         if (other.media != null) {
@@ -224,8 +243,8 @@ public class FeedItem implements Serializable {
     }
 
     public Date getPubDate() {
-        if (pubDate != null) {
-            return (Date) pubDate.clone();
+        if (pubDate != NO_DATE) {
+            return new Date(pubDate);
         } else {
             return null;
         }
@@ -233,12 +252,21 @@ public class FeedItem implements Serializable {
 
     public void setPubDate(Date pubDate) {
         if (pubDate != null) {
-            this.pubDate = (Date) pubDate.clone();
+            this.pubDate = pubDate.getTime();
         } else {
-            this.pubDate = null;
+            this.pubDate = NO_DATE;
         }
     }
 
+    /**
+     * Returns the publication date without creating a {@link Date} object, for example for sorting.
+     *
+     * @return Milliseconds since the epoch, or 0 if the item has no publication date
+     */
+    public long getPubDateMillis() {
+        return pubDate != NO_DATE ? pubDate : 0;
+    }
+
     @Nullable
     public FeedMedia getMedia() {
         return media;
@@ -388,21 +416,47 @@ public class FeedItem implements Serializable {
      * @return true if the item has this tag
      */
     public boolean isTagged(String tag) {
-        return tags.contains(tag);
+        int flag = getTagFlag(tag);
+        if (flag != 0) {
+            return (tagFlags & flag) != 0;
+        }
+        return otherTags != null && otherTags.contains(tag);
     }
 
     /**
      * @param tag adds this tag to the item. NOTE: does NOT persist to the database
      */
     public void addTag(String tag) {
-        tags.add(tag);
+        int flag = getTagFlag(tag);
+        if (flag != 0) {
+            tagFlags |= flag;
+            return;
+        }
+        if (otherTags == null) {
+            otherTags = new HashSet<>();
+        }
+        otherTags.add(tag);
     }
 
     /**
      * @param tag the to remove
      */
     public void removeTag(String tag) {
-        tags.remove(tag);
+        int flag = getTagFlag(tag);
+        if (flag != 0) {
+            tagFlags &= ~flag;
+        } else if (otherTags != null) {
+            otherTags.remove(tag);
+        }
+    }
+
+    private static int getTagFlag(String tag) {
+        if (TAG_QUEUE.equals(tag)) {
+            return TAG_FLAG_QUEUE;
+        } else if (TAG_FAVORITE.equals(tag)) {
+            return TAG_FLAG_FAVORITE;
+        }
+        return 0;
     }
 
     public String getPodcastIndexChapterUrl() {
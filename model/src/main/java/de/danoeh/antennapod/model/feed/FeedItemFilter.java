@@ -110,7 +110,7 @@ public class FeedItemFilter implements Serializable {
         } else if (showNotFavorite && item.isTagged(FeedItem.TAG_FAVORITE)) {
             return false;
         } else if (showInHistory && item.getMedia() != null
-                && item.getMedia().getPlaybackCompletionDate().getTime() == 0) {
+                && item.getMedia().getPlaybackCompletionTime() == 0) {
             return false;
         }
         return true;
@@ -30,6 +30,11 @@ public class FeedMedia implements Playable {
      *    so this won't conflict with existing practice.
      */
     private static final int CHECKED_ON_SIZE_BUT_UNKNOWN = Integer.MIN_VALUE;
+    /** Value of {@link #playbackCompletionDate} if no date is set */
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final byte EMBEDDED_PICTURE_UNKNOWN = -1;
+    private static final byte EMBEDDED_PICTURE_NO = 0;
+    private static final byte EMBEDDED_PICTURE_YES = 1;
 
     private long id;
     private String localFileUrl;
@@ -40,14 +45,15 @@ public class FeedMedia implements Playable {
     private long lastPlayedTime; // Last time this media was played (in ms)
     private int playedDuration; // How many ms of this file have been played
     private long size; // File size in Byte
+    private long lastModified; // Last modification of local folder files (in ms), 0 if unknown
     private String mimeType;
     @Nullable private volatile FeedItem item;
-    private Date playbackCompletionDate;
+    private long playbackCompletionDate = NO_DATE;
     private int startPosition = -1;
     private int playedDurationWhenStarted;
 
-    // if null: unknown, will be checked
-    private Boolean hasEmbeddedPicture;
+    // if unknown, will be checked
+    private byte hasEmbeddedPicture = EMBEDDED_PICTURE_UNKNOWN;
 
     /* Used for loading item when restoring from parcel. */
     private long itemID;
@@ -66,6 +72,20 @@ public class FeedMedia implements Playable {
                      long size, String mimeType, String localFileUrl, String downloadUrl,
                      boolean downloaded, Date playbackCompletionDate, int playedDuration,
                      long lastPlayedTime) {
+        this(id, item, duration, position, size, mimeType, localFileUrl, downloadUrl, downloaded, 0,
+                playedDuration, lastPlayedTime);
+        setPlaybackCompletionDate(playbackCompletionDate);
+    }
+
+    /**
+     * This constructor is used by DBReader.
+     *
+     * @param playbackCompletionTime Milliseconds since the epoch, or 0 if the media was not completed
+     */
+    public FeedMedia(long id, FeedItem item, int duration, int position,
+                     long size, String mimeType, String localFileUrl, String downloadUrl,
+                     boolean downloaded, long playbackCompletionTime, int playedDuration,
+                     long lastPlayedTime) {
         this.localFileUrl = localFileUrl;
         this.downloadUrl = downloadUrl;
         this.downloaded = downloaded;
@@ -77,8 +97,7 @@ public class FeedMedia implements Playable {
         this.playedDurationWhenStarted = playedDuration;
         this.size = size;
         this.mimeType = mimeType;
-        this.playbackCompletionDate = playbackCompletionDate == null
-                ? null : (Date) playbackCompletionDate.clone();
+        this.playbackCompletionDate = playbackCompletionTime > 0 ? playbackCompletionTime : NO_DATE;
         this.lastPlayedTime = lastPlayedTime;
     }
 
@@ -88,7 +107,7 @@ public class FeedMedia implements Playable {
                      Boolean hasEmbeddedPicture, long lastPlayedTime) {
         this(id, item, duration, position, size, mimeType, localFileUrl, downloadUrl, downloaded,
                 playbackCompletionDate, playedDuration, lastPlayedTime);
-        this.hasEmbeddedPicture = hasEmbeddedPicture;
+        setHasEmbeddedPicture(hasEmbeddedPicture);
     }
 
     public String getHumanReadableIdentifier() {
@@ -139,6 +158,9 @@ public class FeedMedia implements Playable {
         if (other.mimeType != null) {
             mimeType = other.mimeType;
         }
+        if (other.lastModified > 0) {
+            lastModified = other.lastModified;
+        }
     }
 
     /**
@@ -163,9 +185,20 @@ public class FeedMedia implements Playable {
         if (other.duration > 0 && duration <= 0) {
             return true;
         }
+        if (other.lastModified > 0 && other.lastModified != lastModified) {
+            return true;
+        }
         return false;
     }
 
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
     public int getDuration() {
         return duration;
     }
@@ -257,13 +290,20 @@ public class FeedMedia implements Playable {
     }
 
     public Date getPlaybackCompletionDate() {
-        return playbackCompletionDate == null
-                ? null : (Date) playbackCompletionDate.clone();
+        return playbackCompletionDate == NO_DATE ? null : new Date(playbackCompletionDate);
+    }
+
+    /**
+     * Returns the playback completion date without creating a {@link Date} object, for example for sorting.
+     *
+     * @return Milliseconds since the epoch, or 0 if no date is set
+     */
+    public long getPlaybackCompletionTime() {
+        return playbackCompletionDate == NO_DATE ? 0 : playbackCompletionDate;
     }
 
     public void setPlaybackCompletionDate(Date playbackCompletionDate) {
-        this.playbackCompletionDate = playbackCompletionDate == null
-                ? null : (Date) playbackCompletionDate.clone();
+        this.playbackCompletionDate = playbackCompletionDate == null ? NO_DATE : playbackCompletionDate.getTime();
     }
 
     public boolean isInProgress() {
@@ -276,10 +316,10 @@ public class FeedMedia implements Playable {
     }
 
     public boolean hasEmbeddedPicture() {
-        if(hasEmbeddedPicture == null) {
+        if (hasEmbeddedPicture == EMBEDDED_PICTURE_UNKNOWN) {
             checkEmbeddedPicture();
         }
-        return hasEmbeddedPicture;
+        return hasEmbeddedPicture == EMBEDDED_PICTURE_YES;
     }
 
     @Override
@@ -294,7 +334,7 @@ public class FeedMedia implements Playable {
         dest.writeString(localFileUrl);
         dest.writeString(downloadUrl);
         dest.writeByte((byte) ((downloaded) ? 1 : 0));
-        dest.writeLong((playbackCompletionDate != null) ? playbackCompletionDate.getTime() : 0);
+        dest.writeLong(getPlaybackCompletionTime());
         dest.writeInt(playedDuration);
         dest.writeLong(lastPlayedTime);
     }
@@ -463,7 +503,11 @@ public class FeedMedia implements Playable {
     }
 
     public void setHasEmbeddedPicture(Boolean hasEmbeddedPicture) {
-        this.hasEmbeddedPicture = hasEmbeddedPicture;
+        if (hasEmbeddedPicture == null) {
+            this.hasEmbeddedPicture = EMBEDDED_PICTURE_UNKNOWN;
+        } else {
+            this.hasEmbeddedPicture = hasEmbeddedPicture ? EMBEDDED_PICTURE_YES : EMBEDDED_PICTURE_NO;
+        }
     }
 
     public void setDownloaded(boolean downloaded) {
@@ -482,20 +526,20 @@ public class FeedMedia implements Playable {
 
     public void checkEmbeddedPicture() {
         if (!localFileAvailable()) {
-            hasEmbeddedPicture = Boolean.FALSE;
+            hasEmbeddedPicture = EMBEDDED_PICTURE_NO;
             return;
         }
         try (MediaMetadataRetrieverCompat mmr = new MediaMetadataRetrieverCompat()) {
             mmr.setDataSource(getLocalFileUrl());
             byte[] image = mmr.getEmbeddedPicture();
             if (image != null) {
-                hasEmbeddedPicture = Boolean.TRUE;
+                hasEmbeddedPicture = EMBEDDED_PICTURE_YES;
             } else {
-                hasEmbeddedPicture = Boolean.FALSE;
+                hasEmbeddedPicture = EMBEDDED_PICTURE_NO;
             }
         } catch (Exception e) {
             e.printStackTrace();
-            hasEmbeddedPicture = Boolean.FALSE;
+            hasEmbeddedPicture = EMBEDDED_PICTURE_NO;
         }
     }
 
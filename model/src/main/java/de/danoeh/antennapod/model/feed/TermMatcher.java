@@ -0,0 +1,133 @@
+package de.danoeh.antennapod.model.feed;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Checks if a text contains any of a set of terms, using an Aho-Corasick automaton.
+ * The automaton is built once. Each text is then scanned in a single pass, independent of the number of terms.
+ * Matching is case-sensitive, so terms and texts need to be normalized by the caller.
+ */
+class TermMatcher {
+    private static final int ASCII_SIZE = 128;
+
+    /**
+     * Maps characters that occur in the terms to columns of the transition table.
+     * Column 0 is used for all other characters.
+     */
+    private final int[] asciiColumns = new int[ASCII_SIZE];
+    private final Map<Character, Integer> otherColumns = new HashMap<>();
+    private final int numColumns;
+    private final int[] transitions;
+    private final boolean[] isMatch;
+    private final boolean matchesEverything;
+
+    TermMatcher(List<String> terms) {
+        boolean hasEmptyTerm = false;
+        int nextColumn = 1;
+        for (String term : terms) {
+            hasEmptyTerm |= term.isEmpty();
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                if (getColumn(c) == 0) {
+                    if (c < ASCII_SIZE) {
+                        asciiColumns[c] = nextColumn;
+                    } else {
+                        otherColumns.put(c, nextColumn);
+                    }
+                    nextColumn++;
+                }
+            }
+        }
+        matchesEverything = hasEmptyTerm; // Every text contains the empty string
+        numColumns = nextColumn;
+
+        // Build the trie. Missing edges are marked with -1.
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(newNode());
+        terminal.add(false);
+        for (String term : terms) {
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int column = getColumn(term.charAt(i));
+                if (trie.get(state)[column] == -1) {
+                    trie.get(state)[column] = trie.size();
+                    trie.add(newNode());
+                    terminal.add(false);
+                }
+                state = trie.get(state)[column];
+            }
+            terminal.set(state, true);
+        }
+
+        // Turn the trie into a deterministic automaton by following the failure links breadth-first
+        int numStates = trie.size();
+        transitions = new int[numStates * numColumns];
+        isMatch = new boolean[numStates];
+        int[] failure = new int[numStates];
+        Queue<Integer> queue = new ArrayDeque<>();
+        isMatch[0] = terminal.get(0);
+        for (int column = 0; column < numColumns; column++) {
+            int child = trie.get(0)[column];
+            if (child == -1) {
+                transitions[column] = 0;
+            } else {
+                transitions[column] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            isMatch[state] = terminal.get(state) || isMatch[failure[state]];
+            for (int column = 0; column < numColumns; column++) {
+                int child = trie.get(state)[column];
+                int fallback = transitions[failure[state] * numColumns + column];
+                if (child == -1) {
+                    transitions[state * numColumns + column] = fallback;
+                } else {
+                    transitions[state * numColumns + column] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    private int[] newNode() {
+        int[] node = new int[numColumns];
+        Arrays.fill(node, -1);
+        return node;
+    }
+
+    private int getColumn(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiColumns[c];
+        }
+        Integer column = otherColumns.get(c);
+        return column != null ? column : 0;
+    }
+
+    /**
+     * @return true if the text contains at least one of the terms
+     */
+    boolean matches(String text) {
+        if (matchesEverything) {
+            return true;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * numColumns + getColumn(text.charAt(i))];
+            if (isMatch[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
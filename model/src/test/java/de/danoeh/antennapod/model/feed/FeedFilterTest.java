@@ -2,6 +2,11 @@ package de.danoeh.antennapod.model.feed;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
@@ -153,4 +158,67 @@ public class FeedFilterTest {
         assertTrue(filter.shouldAutoDownload(download2));
     }
 
+    @Test
+    public void testOverlappingTerms() {
+        FeedFilter filter = new FeedFilter("\"news update\" she hers", "");
+        assertTrue(filter.shouldAutoDownload(titled("Ushers of the world")));
+        assertTrue(filter.shouldAutoDownload(titled("Latest NEWS UPDATE")));
+        assertFalse(filter.shouldAutoDownload(titled("news of the week")));
+        assertFalse(filter.shouldAutoDownload(titled("He said")));
+    }
+
+    @Test
+    public void testNonAsciiTerms() {
+        FeedFilter filter = new FeedFilter("Überraschung", "Ärger");
+        assertTrue(filter.shouldAutoDownload(titled("Eine überraschung")));
+        assertFalse(filter.shouldAutoDownload(titled("Überraschung und Ärger")));
+        assertFalse(filter.shouldAutoDownload(titled("Nichts")));
+    }
+
+    @Test
+    public void testFilterAutoDownload() {
+        FeedFilter filter = new FeedFilter("hello", "world");
+        FeedItem item1 = titled("Hello friend");
+        FeedItem item2 = titled("Hello world");
+        FeedItem item3 = titled("Goodbye");
+        FeedItem item4 = titled("hello again");
+        assertEquals(Arrays.asList(item1, item4),
+                filter.filterAutoDownload(Arrays.asList(item1, item2, item3, item4)));
+    }
+
+    @Test
+    public void testFilterAutoDownloadMatchesShouldAutoDownload() {
+        String[] words = {"news", "update", "interview", "live", "bonus", "über", "café", "recap"};
+        Random random = new Random(42);
+        List<FeedItem> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int j = 0; j < 4; j++) {
+                String word = words[random.nextInt(words.length)];
+                title.append(random.nextBoolean() ? word.toUpperCase(Locale.ROOT) : word).append(' ');
+            }
+            items.add(titled(title.toString().trim()));
+        }
+        FeedFilter[] filters = {
+            new FeedFilter(),
+            new FeedFilter("news \"live bonus\"", ""),
+            new FeedFilter("", "update Über"),
+            new FeedFilter("interview café", "recap \"news news\""),
+        };
+        for (FeedFilter filter : filters) {
+            List<FeedItem> expected = new ArrayList<>();
+            for (FeedItem item : items) {
+                if (filter.shouldAutoDownload(item)) {
+                    expected.add(item);
+                }
+            }
+            assertEquals(expected, filter.filterAutoDownload(items));
+        }
+    }
+
+    static FeedItem titled(String title) {
+        FeedItem item = new FeedItem();
+        item.setTitle(title);
+        return item;
+    }
 }
@@ -0,0 +1,65 @@
+package de.danoeh.antennapod.model.feed;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Episode lists keep many items in memory, so dates, tags and flags are stored in primitive fields
+ * instead of one object per item.
+ */
+public class FeedItemLayoutTest {
+
+    @Test
+    public void testNoBoxedFields() {
+        for (Class<?> clazz : new Class<?>[] {FeedItem.class, FeedMedia.class}) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                String name = clazz.getSimpleName() + "." + field.getName();
+                assertFalse(name, field.getType() == Date.class);
+                assertFalse(name, field.getType() == Boolean.class);
+            }
+        }
+    }
+
+    @Test
+    public void testKnownTagsDoNotAllocateSet() throws Exception {
+        FeedItem item = new FeedItem();
+        item.addTag(FeedItem.TAG_QUEUE);
+        item.addTag(FeedItem.TAG_FAVORITE);
+        assertTrue(item.isTagged(FeedItem.TAG_QUEUE));
+        assertTrue(item.isTagged(FeedItem.TAG_FAVORITE));
+
+        Field otherTags = FeedItem.class.getDeclaredField("otherTags");
+        otherTags.setAccessible(true);
+        assertNull(otherTags.get(item));
+
+        item.removeTag(FeedItem.TAG_QUEUE);
+        assertFalse(item.isTagged(FeedItem.TAG_QUEUE));
+        assertTrue(item.isTagged(FeedItem.TAG_FAVORITE));
+    }
+
+    @Test
+    public void testDatesKeepValue() {
+        FeedItem item = new FeedItem();
+        assertNull(item.getPubDate());
+        item.setPubDate(new Date(1234));
+        assertEquals(new Date(1234), item.getPubDate());
+        assertEquals(1234, item.getPubDateMillis());
+
+        FeedMedia media = new FeedMedia(item, "https://example.com/1.mp3", 0, "audio/mpeg");
+        assertNull(media.getPlaybackCompletionDate());
+        media.setPlaybackCompletionDate(new Date(5678));
+        assertEquals(new Date(5678), media.getPlaybackCompletionDate());
+        assertEquals(5678, media.getPlaybackCompletionTime());
+    }
+}
@@ -9,6 +9,8 @@ import java.util.Date;
 import static de.danoeh.antennapod.model.feed.FeedItemMother.anyFeedItemWithImage;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class FeedItemTest {
 
@@ -56,6 +58,45 @@ public class FeedItemTest {
         assertEquals(changedDate.getTime(), original.getPubDate().getTime());
     }
 
+    @Test
+    public void testPubDateIsCopied() {
+        Date date = new Date(1000);
+        original.setPubDate(date);
+        date.setTime(2000);
+        original.getPubDate().setTime(3000);
+        assertEquals(1000, original.getPubDate().getTime());
+        assertEquals(1000, original.getPubDateMillis());
+
+        original.setPubDate(null);
+        assertNull(original.getPubDate());
+        assertEquals(0, original.getPubDateMillis());
+    }
+
+    @Test
+    public void testUpdateFromOther_dateRemoved() {
+        Date originalDate = original.getPubDate();
+        changedFeedItem.setPubDate(null);
+        original.updateFromOther(changedFeedItem);
+        assertEquals(originalDate, original.getPubDate());
+    }
+
+    @Test
+    public void testTags() {
+        assertFalse(original.isTagged(FeedItem.TAG_QUEUE));
+        original.addTag(FeedItem.TAG_QUEUE);
+        original.addTag(FeedItem.TAG_FAVORITE);
+        original.addTag("Other");
+        assertTrue(original.isTagged(FeedItem.TAG_QUEUE));
+        assertTrue(original.isTagged(FeedItem.TAG_FAVORITE));
+        assertTrue(original.isTagged("Other"));
+
+        original.removeTag(FeedItem.TAG_QUEUE);
+        original.removeTag("Other");
+        assertFalse(original.isTagged(FeedItem.TAG_QUEUE));
+        assertTrue(original.isTagged(FeedItem.TAG_FAVORITE));
+        assertFalse(original.isTagged("Other"));
+    }
+
     /**
      * Test that a played item loses that state after being marked as new.
      */
@@ -3,7 +3,13 @@ package de.danoeh.antennapod.model.feed;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Date;
+
 import static de.danoeh.antennapod.model.feed.FeedMediaMother.anyFeedMedia;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -69,4 +75,33 @@ public class FeedMediaTest {
         verify(item, never()).setPlayed(true);
     }
 
+    @Test
+    public void testPlaybackCompletionDate() {
+        assertNull(media.getPlaybackCompletionDate());
+        assertEquals(0, media.getPlaybackCompletionTime());
+
+        // Date 0 is used for items that are removed from the history
+        media.setPlaybackCompletionDate(new Date(0));
+        assertEquals(new Date(0), media.getPlaybackCompletionDate());
+        assertEquals(0, media.getPlaybackCompletionTime());
+
+        Date date = new Date(1000);
+        media.setPlaybackCompletionDate(date);
+        date.setTime(2000);
+        assertEquals(1000, media.getPlaybackCompletionDate().getTime());
+        assertEquals(1000, media.getPlaybackCompletionTime());
+
+        media.setPlaybackCompletionDate(null);
+        assertNull(media.getPlaybackCompletionDate());
+    }
+
+    @Test
+    public void testHasEmbeddedPicture() {
+        media.setHasEmbeddedPicture(true);
+        assertTrue(media.hasEmbeddedPicture());
+        media.setHasEmbeddedPicture(false);
+        assertFalse(media.hasEmbeddedPicture());
+        media.setHasEmbeddedPicture(null);
+        assertFalse(media.hasEmbeddedPicture()); // Checked again, no local file
+    }
 }
@@ -3,6 +3,7 @@ package de.danoeh.antennapod.net.common;
 import android.text.TextUtils;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import de.danoeh.antennapod.model.download.ProxyConfig;
 import de.danoeh.antennapod.net.ssl.SslClientSetup;
 import okhttp3.Cache;
@@ -27,6 +28,7 @@ public class AntennapodHttpClient {
     private static final int MAX_CONNECTIONS = 8;
     private static File cacheDirectory;
     private static ProxyConfig proxyConfig;
+    private static volatile Runnable awaitSecurityProvider = () -> { };
 
     private static volatile OkHttpClient httpClient = null;
 
@@ -48,6 +50,14 @@ public class AntennapodHttpClient {
         httpClient = newBuilder().build();
     }
 
+    /**
+     * Replaces the singleton, for example with a client that sends all requests to a local server.
+     */
+    @VisibleForTesting
+    public static synchronized void setHttpClient(OkHttpClient client) {
+        httpClient = client;
+    }
+
     /**
      * Creates a new HTTP client.  Most users should just use
      * getHttpClient() to get the standard AntennaPod client,
@@ -58,6 +68,7 @@ public class AntennapodHttpClient {
     @NonNull
     public static OkHttpClient.Builder newBuilder() {
         Log.d(TAG, "Creating new instance of HTTP client");
+        awaitSecurityProvider.run();
 
         System.setProperty("http.maxConnections", String.valueOf(MAX_CONNECTIONS));
 
@@ -102,6 +113,14 @@ public class AntennapodHttpClient {
         AntennapodHttpClient.cacheDirectory = cacheDirectory;
     }
 
+    /**
+     * The security provider is installed in the background while the app starts.
+     * Clients are only created after the given runnable returns, so that they use the new provider.
+     */
+    public static void setAwaitSecurityProvider(Runnable awaitSecurityProvider) {
+        AntennapodHttpClient.awaitSecurityProvider = awaitSecurityProvider;
+    }
+
     public static void setProxyConfig(ProxyConfig proxyConfig) {
         AntennapodHttpClient.proxyConfig = proxyConfig;
     }
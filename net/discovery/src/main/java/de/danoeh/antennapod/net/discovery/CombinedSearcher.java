@@ -2,65 +2,147 @@ package de.danoeh.antennapod.net.discovery;
 
 import android.text.TextUtils;
 import android.util.Log;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.reactivex.Observable;
 import io.reactivex.Single;
-import io.reactivex.SingleOnSubscribe;
 import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class CombinedSearcher implements PodcastSearcher {
     private static final String TAG = "CombinedSearcher";
+    private static final int PROVIDER_TIMEOUT_SECONDS = 10;
+    private static final int CACHE_SIZE = 20;
+    private static final long CACHE_TIME_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Recent queries and their combined results, least recently used first.
+     */
+    private static final Map<String, CachedResults> resultCache =
+            new LinkedHashMap<String, CachedResults>(CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResults> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    private final long providerTimeoutMillis;
 
     public CombinedSearcher() {
+        this(TimeUnit.SECONDS.toMillis(PROVIDER_TIMEOUT_SECONDS));
+    }
+
+    @VisibleForTesting
+    CombinedSearcher(long providerTimeoutMillis) {
+        this.providerTimeoutMillis = providerTimeoutMillis;
     }
 
     public Single<List<PodcastSearchResult>> search(String query) {
-        ArrayList<Disposable> disposables = new ArrayList<>();
-        List<List<PodcastSearchResult>> singleResults = new ArrayList<>(
-                Collections.nCopies(PodcastSearcherRegistry.getSearchProviders().size(), null));
-        CountDownLatch latch = new CountDownLatch(PodcastSearcherRegistry.getSearchProviders().size());
-        for (int i = 0; i < PodcastSearcherRegistry.getSearchProviders().size(); i++) {
-            PodcastSearcherRegistry.SearcherInfo searchProviderInfo
-                    = PodcastSearcherRegistry.getSearchProviders().get(i);
-            PodcastSearcher searcher = searchProviderInfo.searcher;
-            if (searchProviderInfo.weight <= 0.00001f || searcher.getClass() == CombinedSearcher.class) {
-                latch.countDown();
-                continue;
-            }
-            final int index = i;
-            disposables.add(searcher.search(query).subscribe(e -> {
-                        singleResults.set(index, e);
-                        latch.countDown();
-                    }, throwable -> {
-                        Log.d(TAG, Log.getStackTraceString(throwable));
-                        latch.countDown();
-                    }
-            ));
-        }
+        return searchIncremental(query).lastOrError();
+    }
 
-        return Single.create((SingleOnSubscribe<List<PodcastSearchResult>>) subscriber -> {
-            latch.await();
-            List<PodcastSearchResult> results = weightSearchResults(singleResults);
-            subscriber.onSuccess(results);
-        })
-                .doOnDispose(() -> {
-                    for (Disposable disposable : disposables) {
-                        if (disposable != null) {
-                            disposable.dispose();
+    /**
+     * Searches all providers in parallel. Emits the combined and re-ranked results every time a provider
+     * answers, so that slow providers do not delay the results of the fast ones. Providers that fail or do not
+     * answer within {@link #PROVIDER_TIMEOUT_SECONDS} are left out. Completes after all providers are done.
+     */
+    public Observable<List<PodcastSearchResult>> searchIncremental(String query) {
+        List<PodcastSearchResult> cached = getCachedResults(query);
+        if (cached != null) {
+            return Observable.just(cached);
+        }
+        return Observable.defer(() -> {
+            List<PodcastSearcherRegistry.SearcherInfo> providers = PodcastSearcherRegistry.getSearchProviders();
+            List<List<PodcastSearchResult>> singleResults = new ArrayList<>(
+                    Collections.nCopies(providers.size(), null));
+            List<Observable<ProviderResult>> providerSearches = new ArrayList<>();
+            for (int i = 0; i < providers.size(); i++) {
+                PodcastSearcherRegistry.SearcherInfo searchProviderInfo = providers.get(i);
+                PodcastSearcher searcher = searchProviderInfo.searcher;
+                if (searchProviderInfo.weight <= 0.00001f || searcher.getClass() == CombinedSearcher.class) {
+                    continue;
+                }
+                final int index = i;
+                providerSearches.add(searcher.search(query)
+                        .timeout(providerTimeoutMillis, TimeUnit.MILLISECONDS)
+                        .map(results -> new ProviderResult(index, results))
+                        .onErrorReturn(throwable -> {
+                            Log.d(TAG, Log.getStackTraceString(throwable));
+                            return new ProviderResult(index, null);
+                        })
+                        .toObservable());
+            }
+            return Observable.merge(providerSearches)
+                    .filter(providerResult -> providerResult.results != null)
+                    .map(providerResult -> {
+                        singleResults.set(providerResult.index, providerResult.results);
+                        return weightSearchResults(singleResults);
+                    })
+                    .defaultIfEmpty(Collections.emptyList())
+                    .doOnComplete(() -> {
+                        // Only complete results are cached, not those of a search that was cancelled
+                        // or where a provider failed, so that the next search asks that provider again
+                        int answeredProviders = 0;
+                        for (List<PodcastSearchResult> providerResults : singleResults) {
+                            if (providerResults != null) {
+                                answeredProviders++;
+                            }
                         }
-                    }
-                })
+                        List<PodcastSearchResult> results = weightSearchResults(singleResults);
+                        if (answeredProviders == providerSearches.size() && !results.isEmpty()) {
+                            putCachedResults(query, results);
+                        }
+                    });
+        })
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread());
     }
 
+    @Nullable
+    private static List<PodcastSearchResult> getCachedResults(String query) {
+        synchronized (resultCache) {
+            CachedResults cached = resultCache.get(query);
+            if (cached == null || System.currentTimeMillis() - cached.time > CACHE_TIME_MILLIS) {
+                return null;
+            }
+            return cached.results;
+        }
+    }
+
+    private static void putCachedResults(String query, List<PodcastSearchResult> results) {
+        synchronized (resultCache) {
+            resultCache.put(query, new CachedResults(System.currentTimeMillis(), results));
+        }
+    }
+
+    private static class ProviderResult {
+        final int index;
+        final List<PodcastSearchResult> results;
+
+        ProviderResult(int index, List<PodcastSearchResult> results) {
+            this.index = index;
+            this.results = results;
+        }
+    }
+
+    private static class CachedResults {
+        final long time;
+        final List<PodcastSearchResult> results;
+
+        CachedResults(long time, List<PodcastSearchResult> results) {
+            this.time = time;
+            this.results = results;
+        }
+    }
+
     private List<PodcastSearchResult> weightSearchResults(List<List<PodcastSearchResult>> singleResults) {
         HashMap<String, Float> resultRanking = new HashMap<>();
         HashMap<String, PodcastSearchResult> urlToResult = new HashMap<>();
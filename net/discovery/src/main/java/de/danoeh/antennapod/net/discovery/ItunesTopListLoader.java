@@ -14,9 +14,11 @@ import org.json.JSONObject;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -29,6 +31,9 @@ public class ItunesTopListLoader {
     public static final String PREFS = "CountryRegionPrefs";
     public static final String COUNTRY_CODE_UNSET = "99";
     private static final int NUM_LOADED = 25;
+    private static final long CACHE_TIME_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final Map<String, List<PodcastSearchResult>> toplistCache = new HashMap<>();
+    private static final Map<String, Long> toplistCacheTime = new HashMap<>();
 
     public ItunesTopListLoader(Context context) {
         this.context = context;
@@ -36,12 +41,16 @@ public class ItunesTopListLoader {
 
     public List<PodcastSearchResult> loadToplist(String country, int limit, List<Feed> subscribed)
             throws JSONException, IOException {
-        OkHttpClient client = AntennapodHttpClient.getHttpClient();
-        String feedString;
         String loadCountry = country;
         if (COUNTRY_CODE_UNSET.equals(country)) {
             loadCountry = Locale.getDefault().getCountry();
         }
+        List<PodcastSearchResult> cached = getCachedToplist(loadCountry);
+        if (cached != null) {
+            return removeSubscribed(cached, subscribed, limit);
+        }
+        OkHttpClient client = AntennapodHttpClient.getHttpClient();
+        String feedString;
         try {
             feedString = getTopListFeed(client, loadCountry);
         } catch (IOException e) {
@@ -51,7 +60,26 @@ public class ItunesTopListLoader {
                 throw e;
             }
         }
-        return removeSubscribed(parseFeed(feedString), subscribed, limit);
+        List<PodcastSearchResult> toplist = parseFeed(feedString);
+        synchronized (toplistCache) {
+            toplistCache.put(loadCountry, toplist);
+            toplistCacheTime.put(loadCountry, System.currentTimeMillis());
+        }
+        return removeSubscribed(toplist, subscribed, limit);
+    }
+
+    /**
+     * Parsed top lists are kept for a while, so that opening the discovery screens again
+     * does not need to load and parse the feed again.
+     */
+    private static List<PodcastSearchResult> getCachedToplist(String country) {
+        synchronized (toplistCache) {
+            Long time = toplistCacheTime.get(country);
+            if (time == null || System.currentTimeMillis() - time > CACHE_TIME_MILLIS) {
+                return null;
+            }
+            return toplistCache.get(country);
+        }
     }
 
     private static List<PodcastSearchResult> removeSubscribed(
@@ -0,0 +1,227 @@
+package de.danoeh.antennapod.net.discovery;
+
+import de.danoeh.antennapod.net.common.AntennapodHttpClient;
+import io.reactivex.android.plugins.RxAndroidPlugins;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the search providers against a local server that answers in place of their APIs.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CombinedSearcherTest {
+    private static final String FYYD_HOST = "api.fyyd.de";
+    private static final String ITUNES_HOST = "itunes.apple.com";
+    private static final String PODCASTINDEX_HOST = "api.podcastindex.org";
+    private static final String ORIGINAL_HOST_HEADER = "X-Original-Host";
+    private static final long SLOW_PROVIDER_DELAY_MILLIS = 3000;
+    private static final long PROVIDER_TIMEOUT_MILLIS = 500;
+
+    private static MockWebServer server;
+    private static final Map<String, MockResponse> responses = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+
+    @BeforeClass
+    public static void setUpServer() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String host = request.getHeader(ORIGINAL_HOST_HEADER);
+                requestCounts.computeIfAbsent(host, key -> new AtomicInteger()).incrementAndGet();
+                MockResponse response = responses.get(host);
+                return response != null ? response : new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+
+        // The providers use the shared client, which sends everything to the local server
+        AntennapodHttpClient.setHttpClient(new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    HttpUrl url = chain.request().url();
+                    return chain.proceed(chain.request().newBuilder()
+                            .url(url.newBuilder().scheme("http")
+                                    .host(server.getHostName()).port(server.getPort()).build())
+                            .header(ORIGINAL_HOST_HEADER, url.host())
+                            .build());
+                })
+                .build());
+    }
+
+    @AfterClass
+    public static void tearDownServer() throws IOException {
+        server.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        RxAndroidPlugins.setMainThreadSchedulerHandler(scheduler -> Schedulers.trampoline());
+        responses.clear();
+        requestCounts.clear();
+    }
+
+    @After
+    public void tearDown() {
+        RxAndroidPlugins.reset();
+    }
+
+    @Test
+    public void testItunesSearch() {
+        respondItunes("https://example.com/itunes.xml");
+        List<PodcastSearchResult> results = new ItunesPodcastSearcher().search("itunes").blockingGet();
+        assertEquals(1, results.size());
+        assertEquals("https://example.com/itunes.xml", results.get(0).feedUrl);
+        assertEquals("Itunes Podcast", results.get(0).title);
+    }
+
+    @Test
+    public void testPodcastIndexSearch() {
+        respondPodcastIndex("https://example.com/podcastindex.xml");
+        List<PodcastSearchResult> results = new PodcastIndexPodcastSearcher().search("index").blockingGet();
+        assertEquals(1, results.size());
+        assertEquals("https://example.com/podcastindex.xml", results.get(0).feedUrl);
+        assertEquals("Podcast Index Podcast", results.get(0).title);
+    }
+
+    @Test
+    public void testFyydSearch() {
+        respondFyyd();
+        assertTrue(new FyydPodcastSearcher().search("fyyd").blockingGet().isEmpty());
+        assertEquals(1, requestCount(FYYD_HOST));
+    }
+
+    @Test
+    public void testFailedProviderIsLeftOut() {
+        responses.put(FYYD_HOST, new MockResponse().setResponseCode(500));
+        respondItunes("https://example.com/itunes.xml");
+        respondPodcastIndex("https://example.com/podcastindex.xml");
+        List<String> feedUrls = feedUrls(new CombinedSearcher().search("failed provider").blockingGet());
+        assertEquals(2, feedUrls.size());
+        assertTrue(feedUrls.contains("https://example.com/itunes.xml"));
+        assertTrue(feedUrls.contains("https://example.com/podcastindex.xml"));
+    }
+
+    @Test
+    public void testResultsWithFailedProviderAreNotCached() {
+        responses.put(FYYD_HOST, new MockResponse().setResponseCode(500));
+        respondItunes("https://example.com/itunes.xml");
+        respondPodcastIndex("https://example.com/podcastindex.xml");
+        new CombinedSearcher().search("not cached").blockingGet();
+        assertEquals(1, requestCount(ITUNES_HOST));
+
+        respondFyyd();
+        new CombinedSearcher().search("not cached").blockingGet();
+        assertEquals(2, requestCount(FYYD_HOST));
+        assertEquals(2, requestCount(ITUNES_HOST));
+        assertEquals(2, requestCount(PODCASTINDEX_HOST));
+    }
+
+    @Test
+    public void testCompleteResultsAreCached() {
+        respondFyyd();
+        respondItunes("https://example.com/itunes.xml");
+        respondPodcastIndex("https://example.com/podcastindex.xml");
+        List<PodcastSearchResult> first = new CombinedSearcher().search("cached").blockingGet();
+        List<PodcastSearchResult> second = new CombinedSearcher().search("cached").blockingGet();
+        assertEquals(feedUrls(first), feedUrls(second));
+        assertEquals(1, requestCount(FYYD_HOST));
+        assertEquals(1, requestCount(ITUNES_HOST));
+        assertEquals(1, requestCount(PODCASTINDEX_HOST));
+    }
+
+    @Test
+    public void testPartialResultsBeforeSlowestProvider() {
+        respondFyyd();
+        respondItunes("https://example.com/itunes.xml");
+        respondPodcastIndex("https://example.com/podcastindex.xml");
+        responses.get(PODCASTINDEX_HOST).setHeadersDelay(SLOW_PROVIDER_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+
+        long start = System.currentTimeMillis();
+        TestObserver<List<PodcastSearchResult>> observer = new CombinedSearcher().searchIncremental("partial").test();
+        assertTrue(observer.awaitCount(2).values().size() >= 2);
+        assertTrue(System.currentTimeMillis() - start < SLOW_PROVIDER_DELAY_MILLIS);
+        // Fyyd and iTunes have answered, Podcast Index has not
+        List<String> partialFeedUrls = feedUrls(observer.values().get(1));
+        assertEquals(1, partialFeedUrls.size());
+        assertTrue(partialFeedUrls.contains("https://example.com/itunes.xml"));
+
+        observer.awaitTerminalEvent();
+        observer.assertNoErrors();
+        observer.assertComplete();
+        assertEquals(3, observer.valueCount());
+        List<String> feedUrls = feedUrls(observer.values().get(2));
+        assertEquals(2, feedUrls.size());
+        assertTrue(feedUrls.contains("https://example.com/podcastindex.xml"));
+    }
+
+    @Test
+    public void testProviderAfterTimeoutIsLeftOut() {
+        respondFyyd();
+        respondItunes("https://example.com/itunes.xml");
+        respondPodcastIndex("https://example.com/podcastindex.xml");
+        responses.get(PODCASTINDEX_HOST).setHeadersDelay(SLOW_PROVIDER_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+
+        TestObserver<List<PodcastSearchResult>> observer = new CombinedSearcher(PROVIDER_TIMEOUT_MILLIS)
+                .searchIncremental("timeout").test();
+        observer.awaitTerminalEvent();
+        observer.assertNoErrors();
+        observer.assertComplete();
+        List<String> feedUrls = feedUrls(observer.values().get(observer.valueCount() - 1));
+        assertEquals(1, feedUrls.size());
+        assertTrue(feedUrls.contains("https://example.com/itunes.xml"));
+        assertEquals(1, requestCount(PODCASTINDEX_HOST));
+    }
+
+    private static void respondFyyd() {
+        responses.put(FYYD_HOST, new MockResponse().setBody("{\"status\": 1, \"msg\": \"ok\", \"data\": []}"));
+    }
+
+    private static void respondItunes(String feedUrl) {
+        responses.put(ITUNES_HOST, new MockResponse().setBody("{\"resultCount\": 1, \"results\": [{"
+                + "\"collectionName\": \"Itunes Podcast\", \"artistName\": \"Author\", "
+                + "\"feedUrl\": \"" + feedUrl + "\"}]}"));
+    }
+
+    private static void respondPodcastIndex(String feedUrl) {
+        responses.put(PODCASTINDEX_HOST, new MockResponse().setBody("{\"status\": \"true\", \"feeds\": [{"
+                + "\"title\": \"Podcast Index Podcast\", \"author\": \"Author\", "
+                + "\"url\": \"" + feedUrl + "\"}]}"));
+    }
+
+    private static int requestCount(String host) {
+        AtomicInteger count = requestCounts.get(host);
+        return count == null ? 0 : count.get();
+    }
+
+    private static List<String> feedUrls(List<PodcastSearchResult> results) {
+        List<String> feedUrls = new ArrayList<>();
+        for (PodcastSearchResult result : results) {
+            feedUrls.add(result.feedUrl);
+        }
+        return feedUrls;
+    }
+}
@@ -0,0 +1,105 @@
+package de.danoeh.antennapod.net.download.serviceinterface;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory channel for the progress of running episode downloads, keyed by download URL.
+ * Downloads publish their progress from any thread. Updates are coalesced per episode and delivered
+ * on the main thread at most once per frame. WorkManager is only used for the download lifecycle,
+ * so progress updates neither cause database writes nor rebuild the state of all downloads.
+ */
+public class DownloadProgressChannel {
+    private static final long FRAME_MILLIS = 16;
+    private static DownloadProgressChannel instance;
+
+    /**
+     * Receives progress updates on the main thread.
+     */
+    public interface Listener {
+        /**
+         * @param updates Download URLs of the episodes whose progress changed, and their new progress in percent
+         */
+        void onProgressUpdated(@NonNull Map<String, Integer> updates);
+    }
+
+    private final Handler handler;
+    private final Map<String, Integer> progress = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pendingUpdates = new HashMap<>();
+    private boolean isFlushScheduled = false;
+    private Listener listener;
+
+    DownloadProgressChannel(Looper looper) {
+        handler = new Handler(looper);
+    }
+
+    public static synchronized DownloadProgressChannel getInstance() {
+        if (instance == null) {
+            instance = new DownloadProgressChannel(Looper.getMainLooper());
+        }
+        return instance;
+    }
+
+    /**
+     * Publishes the progress of a download. Can be called from any thread.
+     */
+    public void publish(@NonNull String downloadUrl, int percent) {
+        Integer previous = progress.put(downloadUrl, percent);
+        if (previous != null && previous == percent) {
+            return;
+        }
+        synchronized (pendingUpdates) {
+            pendingUpdates.put(downloadUrl, percent);
+            if (!isFlushScheduled) {
+                isFlushScheduled = true;
+                handler.postDelayed(this::flush, FRAME_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Forgets the progress of a download that is no longer running.
+     */
+    public void remove(@NonNull String downloadUrl) {
+        progress.remove(downloadUrl);
+        synchronized (pendingUpdates) {
+            pendingUpdates.remove(downloadUrl);
+        }
+    }
+
+    /**
+     * @return The last published progress in percent, or -1 if the download did not publish any progress
+     */
+    public int getProgress(@NonNull String downloadUrl) {
+        Integer percent = progress.get(downloadUrl);
+        return percent != null ? percent : -1;
+    }
+
+    @MainThread
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    private void flush() {
+        Map<String, Integer> updates;
+        synchronized (pendingUpdates) {
+            isFlushScheduled = false;
+            if (pendingUpdates.isEmpty()) {
+                return;
+            }
+            updates = new HashMap<>(pendingUpdates);
+            pendingUpdates.clear();
+        }
+        if (listener != null) {
+            listener.onProgressUpdated(updates);
+        }
+    }
+}
@@ -11,7 +11,6 @@ import java.util.Map;
 public abstract class DownloadServiceInterface {
     public static final String WORK_TAG = "episodeDownload";
     public static final String WORK_TAG_EPISODE_URL = "episodeUrl:";
-    public static final String WORK_DATA_PROGRESS = "progress";
     public static final String WORK_DATA_MEDIA_ID = "media_id";
     public static final String WORK_DATA_WAS_QUEUED = "was_queued";
     private static DownloadServiceInterface impl;
@@ -29,6 +28,25 @@ public abstract class DownloadServiceInterface {
         this.currentDownloads = currentDownloads;
     }
 
+    /**
+     * Applies progress updates from {@link DownloadProgressChannel} to the current downloads.
+     *
+     * @return The new status of the downloads that were updated
+     */
+    public Map<String, DownloadStatus> updateProgress(Map<String, Integer> progress) {
+        Map<String, DownloadStatus> updated = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : progress.entrySet()) {
+            DownloadStatus status = currentDownloads.get(entry.getKey());
+            if (status == null || status.getState() == DownloadStatus.STATE_COMPLETED) {
+                continue;
+            }
+            DownloadStatus newStatus = new DownloadStatus(DownloadStatus.STATE_RUNNING, entry.getValue());
+            currentDownloads.put(entry.getKey(), newStatus);
+            updated.put(entry.getKey(), newStatus);
+        }
+        return updated;
+    }
+
     /**
      * Download immediately after user action.
      */
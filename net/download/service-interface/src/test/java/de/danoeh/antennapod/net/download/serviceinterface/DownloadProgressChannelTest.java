@@ -0,0 +1,66 @@
+package de.danoeh.antennapod.net.download.serviceinterface;
+
+import android.os.Looper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class DownloadProgressChannelTest {
+    private static final String URL_1 = "https://example.com/episode1.mp3";
+    private static final String URL_2 = "https://example.com/episode2.mp3";
+
+    private DownloadProgressChannel channel;
+    private List<Map<String, Integer>> deliveredUpdates;
+
+    @Before
+    public void setUp() {
+        channel = new DownloadProgressChannel(Looper.getMainLooper());
+        deliveredUpdates = new ArrayList<>();
+        channel.setListener(deliveredUpdates::add);
+    }
+
+    @Test
+    public void testUpdatesAreCoalesced() {
+        channel.publish(URL_1, 10);
+        channel.publish(URL_1, 20);
+        channel.publish(URL_2, 5);
+        assertTrue(deliveredUpdates.isEmpty());
+
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+        assertEquals(1, deliveredUpdates.size());
+        assertEquals(2, deliveredUpdates.get(0).size());
+        assertEquals(20, (int) deliveredUpdates.get(0).get(URL_1));
+        assertEquals(5, (int) deliveredUpdates.get(0).get(URL_2));
+        assertEquals(20, channel.getProgress(URL_1));
+    }
+
+    @Test
+    public void testUnchangedProgressIsNotDelivered() {
+        channel.publish(URL_1, 10);
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+        channel.publish(URL_1, 10);
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+        assertEquals(1, deliveredUpdates.size());
+    }
+
+    @Test
+    public void testRemove() {
+        channel.publish(URL_1, 10);
+        channel.remove(URL_1);
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+        assertTrue(deliveredUpdates.isEmpty());
+        assertEquals(-1, channel.getProgress(URL_1));
+    }
+}
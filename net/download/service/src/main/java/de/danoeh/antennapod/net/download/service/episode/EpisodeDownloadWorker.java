@@ -13,7 +13,6 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.core.app.NotificationCompat;
 import androidx.core.content.ContextCompat;
-import androidx.work.Data;
 import androidx.work.ForegroundInfo;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
@@ -22,6 +21,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import de.danoeh.antennapod.net.download.service.R;
 import de.danoeh.antennapod.net.download.service.feed.remote.DefaultDownloaderFactory;
 import de.danoeh.antennapod.net.download.service.feed.remote.Downloader;
+import de.danoeh.antennapod.net.download.serviceinterface.DownloadProgressChannel;
 import de.danoeh.antennapod.net.download.serviceinterface.DownloadRequestCreator;
 import de.danoeh.antennapod.storage.database.DBReader;
 import de.danoeh.antennapod.storage.database.DBWriter;
@@ -41,7 +41,6 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
 
 public class EpisodeDownloadWorker extends Worker {
     private static final String TAG = "EpisodeDownloadWorker";
@@ -74,11 +73,8 @@ public class EpisodeDownloadWorker extends Worker {
                             }
                             notificationProgress.put(media.getEpisodeTitle(), request.getProgressPercent());
                         }
-                        setProgressAsync(
-                                new Data.Builder()
-                                    .putInt(DownloadServiceInterface.WORK_DATA_PROGRESS, request.getProgressPercent())
-                                    .build())
-                                .get();
+                        DownloadProgressChannel.getInstance()
+                                .publish(media.getDownloadUrl(), request.getProgressPercent());
                         NotificationManager nm = (NotificationManager) getApplicationContext()
                                 .getSystemService(Context.NOTIFICATION_SERVICE);
                         if (ContextCompat.checkSelfPermission(getApplicationContext(),
@@ -86,7 +82,7 @@ public class EpisodeDownloadWorker extends Worker {
                             nm.notify(R.id.notification_downloading, generateProgressNotification());
                         }
                         Thread.sleep(1000);
-                    } catch (InterruptedException | ExecutionException e) {
+                    } catch (InterruptedException e) {
                         return;
                     }
                 }
@@ -109,6 +105,7 @@ public class EpisodeDownloadWorker extends Worker {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        DownloadProgressChannel.getInstance().remove(media.getDownloadUrl());
         synchronized (notificationProgress) {
             notificationProgress.remove(media.getEpisodeTitle());
             if (notificationProgress.isEmpty()) {
@@ -61,7 +61,8 @@ public class MediaDownloadedHandler implements Runnable {
                 media.setChapters(ChapterUtils.loadChaptersFromMediaFile(media, context));
             }
             if (media.getItem() != null && media.getItem().getPodcastIndexChapterUrl() != null) {
-                ChapterUtils.loadChaptersFromUrl(media.getItem().getPodcastIndexChapterUrl(), false);
+                ChapterUtils.loadChaptersFromUrl(media.getItem().getId(),
+                        media.getItem().getPodcastIndexChapterUrl(), false);
             }
         } catch (InterruptedIOException ignore) {
             // Ignore
@@ -93,7 +94,7 @@ public class MediaDownloadedHandler implements Runnable {
                 // to ensure subscribers will get the updated FeedMedia as well
                 DBWriter.setFeedItem(item).get();
                 if (broadcastUnreadStateUpdate) {
-                    EventBus.getDefault().post(new UnreadItemsUpdateEvent());
+                    EventBus.getDefault().post(new UnreadItemsUpdateEvent(new long[] {item.getId()}));
                 }
             }
         } catch (InterruptedException e) {
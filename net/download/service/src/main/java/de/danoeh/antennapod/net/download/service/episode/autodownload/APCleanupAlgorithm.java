@@ -26,6 +26,8 @@ import de.danoeh.antennapod.storage.database.DBWriter;
 public class APCleanupAlgorithm extends EpisodeCleanupAlgorithm {
 
     private static final String TAG = "APCleanupAlgorithm";
+    private static final FeedItemFilter CANDIDATE_FILTER = new FeedItemFilter(FeedItemFilter.DOWNLOADED,
+            FeedItemFilter.NOT_QUEUED, FeedItemFilter.PLAYED, FeedItemFilter.NOT_FAVORITE);
     /** the number of days after playback to wait before an item is eligible to be cleaned up.
         Fractional for number of hours, e.g., 0.5 = 12 hours, 0.0416 = 1 hour.  */
     private final int numberOfHoursAfterPlayback;
@@ -92,26 +94,17 @@ public class APCleanupAlgorithm extends EpisodeCleanupAlgorithm {
     @NonNull
     private List<FeedItem> getCandidates() {
         List<FeedItem> candidates = new ArrayList<>();
-        List<FeedItem> downloadedItems = DBReader.getEpisodes(0, Integer.MAX_VALUE,
-                new FeedItemFilter(FeedItemFilter.DOWNLOADED), SortOrder.DATE_NEW_OLD);
-
-        Date mostRecentDateForDeletion = calcMostRecentDateForDeletion(new Date());
-        for (FeedItem item : downloadedItems) {
-            if (item.hasMedia()
-                    && item.getMedia().isDownloaded()
-                    && !item.isTagged(FeedItem.TAG_QUEUE)
-                    && item.isPlayed()
-                    && !item.isTagged(FeedItem.TAG_FAVORITE)) {
-                FeedMedia media = item.getMedia();
-                // make sure this candidate was played at least the proper amount of days prior
-                // to now
-                if (media != null
-                        && media.getPlaybackCompletionDate() != null
-                        && media.getPlaybackCompletionDate().before(mostRecentDateForDeletion)) {
-                    candidates.add(item);
-                }
+        long mostRecentDateForDeletion = calcMostRecentDateForDeletion(new Date()).getTime();
+        DBReader.forEachEpisode(CANDIDATE_FILTER, SortOrder.DATE_NEW_OLD, item -> {
+            FeedMedia media = item.getMedia();
+            // make sure this candidate was played at least the proper amount of days prior
+            // to now
+            if (media != null
+                    && media.getPlaybackCompletionDate() != null
+                    && media.getPlaybackCompletionTime() < mostRecentDateForDeletion) {
+                candidates.add(item);
             }
-        }
+        });
         return candidates;
     }
 
@@ -1,12 +1,8 @@
 package de.danoeh.antennapod.net.download.service.episode.autodownload;
 
 import android.content.Context;
-import androidx.annotation.NonNull;
 import android.util.Log;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ExecutionException;
@@ -16,6 +12,7 @@ import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.storage.database.DBReader;
 import de.danoeh.antennapod.storage.database.DBWriter;
+import de.danoeh.antennapod.storage.database.LongList;
 
 /**
  * A cleanup algorithm that removes any item that isn't in the queue and isn't a favorite
@@ -24,39 +21,22 @@ import de.danoeh.antennapod.storage.database.DBWriter;
 public class APQueueCleanupAlgorithm extends EpisodeCleanupAlgorithm {
 
     private static final String TAG = "APQueueCleanupAlgorithm";
+    private static final FeedItemFilter CANDIDATE_FILTER = new FeedItemFilter(
+            FeedItemFilter.DOWNLOADED, FeedItemFilter.NOT_QUEUED, FeedItemFilter.NOT_FAVORITE);
 
     /**
      * @return the number of episodes that *could* be cleaned up, if needed
      */
     public int getReclaimableItems()
     {
-        return getCandidates().size();
+        return DBReader.getTotalEpisodeCount(CANDIDATE_FILTER);
     }
 
     @Override
     public int performCleanup(Context context, int numberOfEpisodesToDelete) {
-        List<FeedItem> candidates = getCandidates();
-        List<FeedItem> delete;
-
         // in the absence of better data, we'll sort by item publication date
-        Collections.sort(candidates, (lhs, rhs) -> {
-            Date l = lhs.getPubDate();
-            Date r = rhs.getPubDate();
-
-            if (l == null) {
-                l = new Date();
-            }
-            if (r == null) {
-                r = new Date();
-            }
-            return l.compareTo(r);
-        });
-
-        if (candidates.size() > numberOfEpisodesToDelete) {
-            delete = candidates.subList(0, numberOfEpisodesToDelete);
-        } else {
-            delete = candidates;
-        }
+        LongList candidates = DBReader.getEpisodeIds(CANDIDATE_FILTER, SortOrder.DATE_OLD_NEW);
+        List<FeedItem> delete = loadFirstCandidates(candidates, numberOfEpisodesToDelete);
 
         for (FeedItem item : delete) {
             try {
@@ -76,22 +56,6 @@ public class APQueueCleanupAlgorithm extends EpisodeCleanupAlgorithm {
         return counter;
     }
 
-    @NonNull
-    private List<FeedItem> getCandidates() {
-        List<FeedItem> candidates = new ArrayList<>();
-        List<FeedItem> downloadedItems = DBReader.getEpisodes(0, Integer.MAX_VALUE,
-                new FeedItemFilter(FeedItemFilter.DOWNLOADED), SortOrder.DATE_NEW_OLD);
-        for (FeedItem item : downloadedItems) {
-            if (item.hasMedia()
-                    && item.getMedia().isDownloaded()
-                    && !item.isTagged(FeedItem.TAG_QUEUE)
-                    && !item.isTagged(FeedItem.TAG_FAVORITE)) {
-                candidates.add(item);
-            }
-        }
-        return candidates;
-    }
-
     @Override
     public int getDefaultCleanupParameter() {
         return getNumEpisodesToCleanup(0);
@@ -7,8 +7,12 @@ import android.os.BatteryManager;
 import android.util.Log;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.model.feed.SortOrder;
@@ -57,11 +61,27 @@ public class AutomaticDownloadAlgorithm {
                         new FeedItemFilter(FeedItemFilter.NEW), SortOrder.DATE_NEW_OLD);
                 candidates = new ArrayList<>(queue.size() + newItems.size());
                 candidates.addAll(queue);
+                // Each feed's filter is applied to all of its new items at once
+                Map<Long, List<FeedItem>> newItemsByFeed = new HashMap<>();
                 for (FeedItem newItem : newItems) {
-                    FeedPreferences feedPrefs = newItem.getFeed().getPreferences();
-                    if (feedPrefs.getAutoDownload()
-                            && !candidates.contains(newItem)
-                            && feedPrefs.getFilter().shouldAutoDownload(newItem)) {
+                    if (newItem.getFeed().getPreferences().getAutoDownload() && !candidates.contains(newItem)) {
+                        List<FeedItem> feedItems = newItemsByFeed.get(newItem.getFeedId());
+                        if (feedItems == null) {
+                            feedItems = new ArrayList<>();
+                            newItemsByFeed.put(newItem.getFeedId(), feedItems);
+                        }
+                        feedItems.add(newItem);
+                    }
+                }
+                Set<Long> acceptedItemIds = new HashSet<>();
+                for (List<FeedItem> feedItems : newItemsByFeed.values()) {
+                    FeedPreferences feedPrefs = feedItems.get(0).getFeed().getPreferences();
+                    for (FeedItem item : feedPrefs.getFilter().filterAutoDownload(feedItems)) {
+                        acceptedItemIds.add(item.getId());
+                    }
+                }
+                for (FeedItem newItem : newItems) {
+                    if (acceptedItemIds.contains(newItem.getId())) {
                         candidates.add(newItem);
                     }
                 }
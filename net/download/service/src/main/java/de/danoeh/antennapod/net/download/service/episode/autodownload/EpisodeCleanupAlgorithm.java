@@ -2,8 +2,12 @@ package de.danoeh.antennapod.net.download.service.episode.autodownload;
 
 import android.content.Context;
 
+import java.util.List;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.storage.database.DBReader;
+import de.danoeh.antennapod.storage.database.LongList;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 
 public abstract class EpisodeCleanupAlgorithm {
@@ -46,6 +50,21 @@ public abstract class EpisodeCleanupAlgorithm {
      */
     public abstract int getReclaimableItems();
 
+    /**
+     * Loads only the items that are going to be deleted from a sorted list of candidates.
+     *
+     * @param candidateIds IDs of the candidates, the ones to delete first at the start
+     * @param count        The maximum number of items to load
+     */
+    static List<FeedItem> loadFirstCandidates(LongList candidateIds, int count) {
+        int numItems = Math.max(0, Math.min(candidateIds.size(), count));
+        long[] ids = new long[numItems];
+        for (int i = 0; i < numItems; i++) {
+            ids[i] = candidateIds.get(i);
+        }
+        return DBReader.getFeedItemsByIds(ids);
+    }
+
     /**
      * @param amountOfRoomNeeded the number of episodes we want to download
      * @return the number of episodes to delete in order to make room
@@ -3,11 +3,6 @@ package de.danoeh.antennapod.net.download.service.episode.autodownload;
 import android.content.Context;
 import android.util.Log;
 
-import androidx.annotation.NonNull;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ExecutionException;
@@ -17,6 +12,7 @@ import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.storage.database.DBReader;
 import de.danoeh.antennapod.storage.database.DBWriter;
+import de.danoeh.antennapod.storage.database.LongList;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 
 /**
@@ -25,6 +21,8 @@ import de.danoeh.antennapod.storage.preferences.UserPreferences;
 public class ExceptFavoriteCleanupAlgorithm extends EpisodeCleanupAlgorithm {
 
     private static final String TAG = "ExceptFavCleanupAlgo";
+    private static final FeedItemFilter CANDIDATE_FILTER = new FeedItemFilter(
+            FeedItemFilter.DOWNLOADED, FeedItemFilter.NOT_FAVORITE);
 
     /**
      * The maximum number of episodes that could be cleaned up.
@@ -32,32 +30,14 @@ public class ExceptFavoriteCleanupAlgorithm extends EpisodeCleanupAlgorithm {
      * @return the number of episodes that *could* be cleaned up, if needed
      */
     public int getReclaimableItems() {
-        return getCandidates().size();
+        return DBReader.getTotalEpisodeCount(CANDIDATE_FILTER);
     }
 
     @Override
     public int performCleanup(Context context, int numberOfEpisodesToDelete) {
-        List<FeedItem> candidates = getCandidates();
-        List<FeedItem> delete;
-
-        // in the absence of better data, we'll sort by item publication date
-        Collections.sort(candidates, (lhs, rhs) -> {
-            Date l = lhs.getPubDate();
-            Date r = rhs.getPubDate();
-
-            if (l != null && r != null) {
-                return l.compareTo(r);
-            } else {
-                // No date - compare by id which should be always incremented
-                return Long.compare(lhs.getId(), rhs.getId());
-            }
-        });
-
-        if (candidates.size() > numberOfEpisodesToDelete) {
-            delete = candidates.subList(0, numberOfEpisodesToDelete);
-        } else {
-            delete = candidates;
-        }
+        // in the absence of better data, we'll sort by item publication date, then by ID
+        LongList candidates = DBReader.getEpisodeIds(CANDIDATE_FILTER, SortOrder.DATE_OLD_NEW);
+        List<FeedItem> delete = loadFirstCandidates(candidates, numberOfEpisodesToDelete);
 
         for (FeedItem item : delete) {
             try {
@@ -75,21 +55,6 @@ public class ExceptFavoriteCleanupAlgorithm extends EpisodeCleanupAlgorithm {
         return counter;
     }
 
-    @NonNull
-    private List<FeedItem> getCandidates() {
-        List<FeedItem> candidates = new ArrayList<>();
-        List<FeedItem> downloadedItems = DBReader.getEpisodes(0, Integer.MAX_VALUE,
-                new FeedItemFilter(FeedItemFilter.DOWNLOADED), SortOrder.DATE_NEW_OLD);
-        for (FeedItem item : downloadedItems) {
-            if (item.hasMedia()
-                    && item.getMedia().isDownloaded()
-                    && !item.isTagged(FeedItem.TAG_FAVORITE)) {
-                candidates.add(item);
-            }
-        }
-        return candidates;
-    }
-
     @Override
     public int getDefaultCleanupParameter() {
         int cacheSize = UserPreferences.getEpisodeCacheSize();
@@ -30,6 +30,7 @@ import de.danoeh.antennapod.net.common.NetworkUtils;
 import de.danoeh.antennapod.model.download.DownloadError;
 import de.danoeh.antennapod.model.download.DownloadResult;
 import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.download.DownloadRequest;
 
 import de.danoeh.antennapod.net.download.serviceinterface.DownloadRequestBuilder;
@@ -94,6 +95,7 @@ public class FeedUpdateWorker extends Worker {
             }
         }
         refreshFeeds(toUpdate,  force);
+        newEpisodesNotification.showPendingNotifications(getApplicationContext());
 
         notificationManager.cancel(R.id.notification_updating_feeds);
         AutoDownloadManager.getInstance().autodownloadUndownloadedItems(getApplicationContext());
@@ -196,7 +198,9 @@ public class FeedUpdateWorker extends Worker {
             return;
         }
         feedHandlerResult.feed.setLastRefreshAttempt(System.currentTimeMillis());
-        Feed savedFeed = FeedDatabaseWriter.updateFeed(getApplicationContext(), feedHandlerResult.feed, false);
+        List<FeedItem> newInboxItems = new ArrayList<>();
+        Feed savedFeed = FeedDatabaseWriter.updateFeed(getApplicationContext(),
+                feedHandlerResult.feed, false, newInboxItems);
 
         if (request.getFeedfileId() == 0) {
             return; // No download logs for new subscriptions
@@ -206,7 +210,7 @@ public class FeedUpdateWorker extends Worker {
         if (!log.isEmpty() && !log.get(0).isSuccessful()) {
             DBWriter.addDownloadStatus(parserTask.getDownloadStatus());
         }
-        newEpisodesNotification.showIfNeeded(getApplicationContext(), savedFeed);
+        newEpisodesNotification.addNewEpisodes(savedFeed, newInboxItems);
         if (downloader.permanentRedirectUrl != null) {
             DBWriter.updateFeedDownloadURL(request.getSource(), downloader.permanentRedirectUrl);
         } else if (feedHandlerResult.redirectUrl != null
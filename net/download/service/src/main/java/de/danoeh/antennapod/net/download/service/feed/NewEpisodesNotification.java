@@ -12,26 +12,36 @@ import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.os.Build;
 import android.util.Log;
+import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 import androidx.core.content.ContextCompat;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.request.FutureTarget;
 import com.bumptech.glide.request.RequestOptions;
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.model.feed.FeedCounter;
+import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedPreferences;
 import de.danoeh.antennapod.net.download.service.R;
 import de.danoeh.antennapod.storage.database.PodDBAdapter;
 
 import de.danoeh.antennapod.ui.notifications.NotificationUtils;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class NewEpisodesNotification {
     private static final String TAG = "NewEpisodesNotification";
     private static final String GROUP_KEY = "de.danoeh.antennapod.EPISODES";
+    private static final int ICON_TIMEOUT_SECONDS = 10;
 
     private Map<Long, Integer> countersBefore;
+    private final Map<Long, Feed> feedsWithNewEpisodes = new LinkedHashMap<>();
+    private final Map<Long, Integer> numNewEpisodes = new HashMap<>();
 
     public NewEpisodesNotification() {
     }
@@ -43,23 +53,57 @@ public class NewEpisodesNotification {
         adapter.close();
     }
 
-    public void showIfNeeded(Context context, Feed feed) {
+    /**
+     * Remembers episodes that were added to the inbox of a feed during the refresh.
+     * The notifications are shown for all feeds at once by {@link #showPendingNotifications}.
+     *
+     * @param newInboxItems Items reported by the database writer when merging the feed
+     */
+    public void addNewEpisodes(Feed feed, List<FeedItem> newInboxItems) {
         FeedPreferences prefs = feed.getPreferences();
-        if (!prefs.getKeepUpdated() || !prefs.getShowEpisodeNotification()) {
+        if (!prefs.getKeepUpdated() || !prefs.getShowEpisodeNotification() || newInboxItems.isEmpty()) {
             return;
         }
+        feedsWithNewEpisodes.put(feed.getId(), feed);
+        Integer previous = numNewEpisodes.get(feed.getId());
+        numNewEpisodes.put(feed.getId(), (previous != null ? previous : 0) + newInboxItems.size());
+    }
 
-        int newEpisodesBefore = countersBefore.containsKey(feed.getId()) ? countersBefore.get(feed.getId()) : 0;
-        int newEpisodesAfter = getNewEpisodeCount(feed.getId());
+    /**
+     * Shows a notification for every feed that got new episodes, and the group summary.
+     * The feed icons are loaded in parallel.
+     */
+    public void showPendingNotifications(Context context) {
+        if (feedsWithNewEpisodes.isEmpty()) {
+            return;
+        }
+        int iconSize = (int) (128 * context.getResources().getDisplayMetrics().density);
+        Map<Long, FutureTarget<Bitmap>> icons = new HashMap<>();
+        for (Feed feed : feedsWithNewEpisodes.values()) {
+            icons.put(feed.getId(), Glide.with(context)
+                    .asBitmap()
+                    .load(feed.getImageUrl())
+                    .apply(new RequestOptions().centerCrop())
+                    .submit(iconSize, iconSize));
+        }
 
-        Log.d(TAG, "New episodes before: " + newEpisodesBefore + ", after: " + newEpisodesAfter);
-        if (newEpisodesAfter > newEpisodesBefore) {
-            NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
-            showNotification(newEpisodesAfter, feed, context, notificationManager);
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+        for (Feed feed : feedsWithNewEpisodes.values()) {
+            int newEpisodesBefore = countersBefore != null && countersBefore.containsKey(feed.getId())
+                    ? countersBefore.get(feed.getId()) : 0;
+            int newEpisodesAfter = newEpisodesBefore + numNewEpisodes.get(feed.getId());
+            Log.d(TAG, "New episodes before: " + newEpisodesBefore + ", after: " + newEpisodesAfter);
+            showNotification(newEpisodesAfter, feed, getIcon(icons.get(feed.getId())), context, notificationManager);
+        }
+        showGroupSummaryNotification(context, notificationManager);
+        for (FutureTarget<Bitmap> icon : icons.values()) {
+            Glide.with(context).clear(icon);
         }
+        feedsWithNewEpisodes.clear();
+        numNewEpisodes.clear();
     }
 
-    private static void showNotification(int newEpisodes, Feed feed, Context context,
+    private static void showNotification(int newEpisodes, Feed feed, @Nullable Bitmap icon, Context context,
                                          NotificationManagerCompat notificationManager) {
         Resources res = context.getResources();
         String text = res.getQuantityString(
@@ -79,7 +123,7 @@ public class NewEpisodesNotification {
                 context, NotificationUtils.CHANNEL_ID_EPISODE_NOTIFICATIONS)
                 .setSmallIcon(R.drawable.ic_notification_new)
                 .setContentTitle(title)
-                .setLargeIcon(loadIcon(context, feed))
+                .setLargeIcon(icon)
                 .setContentText(text)
                 .setContentIntent(pendingIntent)
                 .setGroup(GROUP_KEY)
@@ -92,7 +136,6 @@ public class NewEpisodesNotification {
             notificationManager.notify(NotificationUtils.CHANNEL_ID_EPISODE_NOTIFICATIONS,
                     feed.hashCode(), notification);
         }
-        showGroupSummaryNotification(context, notificationManager);
     }
 
     private static void showGroupSummaryNotification(Context context, NotificationManagerCompat notificationManager) {
@@ -122,26 +165,12 @@ public class NewEpisodesNotification {
         }
     }
 
-    private static Bitmap loadIcon(Context context, Feed feed) {
-        int iconSize = (int) (128 * context.getResources().getDisplayMetrics().density);
+    @Nullable
+    private static Bitmap getIcon(FutureTarget<Bitmap> icon) {
         try {
-            return Glide.with(context)
-                    .asBitmap()
-                    .load(feed.getImageUrl())
-                    .apply(new RequestOptions().centerCrop())
-                    .submit(iconSize, iconSize)
-                    .get();
+            return icon.get(ICON_TIMEOUT_SECONDS, TimeUnit.SECONDS);
         } catch (Throwable tr) {
             return null;
         }
     }
-
-    private static int getNewEpisodeCount(long feedId) {
-        PodDBAdapter adapter = PodDBAdapter.getInstance();
-        adapter.open();
-        Map<Long, Integer> counters = adapter.getFeedCounters(FeedCounter.SHOW_NEW, feedId);
-        int episodeCount = counters.containsKey(feedId) ? counters.get(feedId) : 0;
-        adapter.close();
-        return episodeCount;
-    }
 }
@@ -9,7 +9,6 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
@@ -17,12 +16,18 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import androidx.annotation.VisibleForTesting;
 import androidx.documentfile.provider.DocumentFile;
@@ -39,15 +44,17 @@ import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.model.playback.MediaType;
 import de.danoeh.antennapod.parser.feed.util.MimeTypeUtils;
+import de.danoeh.antennapod.parser.media.id3.ID3Reader;
 import de.danoeh.antennapod.parser.media.id3.ID3ReaderException;
 import de.danoeh.antennapod.parser.media.id3.Id3MetadataReader;
 import de.danoeh.antennapod.parser.media.vorbis.VorbisCommentMetadataReader;
 import de.danoeh.antennapod.parser.media.vorbis.VorbisCommentReaderException;
-import org.apache.commons.io.input.CountingInputStream;
 
 public class LocalFeedUpdater {
     private static final String TAG = "LocalFeedUpdater";
 
+    private static final int NUM_SCAN_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
     static final String[] PREFERRED_FEED_IMAGE_FILENAMES = {"folder.jpg", "Folder.jpg", "folder.png", "Folder.png"};
 
     public static void updateFeed(Feed feed, Context context,
@@ -97,18 +104,24 @@ public class LocalFeedUpdater {
         }
 
         // add new files to feed and update item data
+        Map<String, FeedItem> itemsByFileName = new HashMap<>();
+        Map<String, FeedItem> itemsByUri = new HashMap<>();
+        for (FeedItem item : feed.getItems()) {
+            if (item.getMedia() != null) {
+                itemsByFileName.putIfAbsent(item.getLink(), item);
+                itemsByUri.putIfAbsent(item.getMedia().getDownloadUrl(), item);
+            }
+        }
+        List<FeedItem> scannedItems = createFeedItems(feed, mediaFiles, itemsByUri, context, updaterProgressListener);
         List<FeedItem> newItems = feed.getItems();
         for (int i = 0; i < mediaFiles.size(); i++) {
-            FeedItem oldItem = feedContainsFile(feed, mediaFiles.get(i).getName());
-            FeedItem newItem = createFeedItem(feed, mediaFiles.get(i), context);
+            FeedItem oldItem = itemsByFileName.get(mediaFiles.get(i).getName());
+            FeedItem newItem = scannedItems.get(i);
             if (oldItem == null) {
                 newItems.add(newItem);
             } else {
                 oldItem.updateFromOther(newItem);
             }
-            if (updaterProgressListener != null) {
-                updaterProgressListener.onLocalFileScanned(i, mediaFiles.size());
-            }
         }
 
         // remove feed items without corresponding file
@@ -155,17 +168,84 @@ public class LocalFeedUpdater {
         return Feed.PREFIX_GENERATIVE_COVER + folderUri;
     }
 
-    private static FeedItem feedContainsFile(Feed feed, String filename) {
-        List<FeedItem> items = feed.getItems();
-        for (FeedItem i : items) {
-            if (i.getMedia() != null && i.getLink().equals(filename)) {
-                return i;
+    /**
+     * Creates the items for the given files. Metadata is only extracted for files that are new or were modified
+     * since the last scan. Extraction runs on a small pool of worker threads.
+     */
+    private static List<FeedItem> createFeedItems(Feed feed, List<FastDocumentFile> files,
+                                                  Map<String, FeedItem> existingItemsByUri, Context context,
+                                                  @Nullable UpdaterProgressListener updaterProgressListener)
+            throws IOException {
+        List<Future<FeedItem>> scanResults = new ArrayList<>(Collections.nCopies(files.size(), null));
+        List<FeedItem> items = new ArrayList<>(Collections.nCopies(files.size(), null));
+        ExecutorService scanExecutor = null;
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                FastDocumentFile file = files.get(i);
+                FeedItem existingItem = existingItemsByUri.get(file.getUri().toString());
+                if (existingItem != null && isUnchanged(existingItem.getMedia(), file)) {
+                    items.set(i, reuseFeedItem(feed, file, existingItem));
+                    continue;
+                }
+                if (scanExecutor == null) {
+                    scanExecutor = Executors.newFixedThreadPool(NUM_SCAN_THREADS, r -> {
+                        Thread t = new Thread(r, "LocalFeedScanner");
+                        t.setPriority(Thread.MIN_PRIORITY);
+                        return t;
+                    });
+                }
+                scanResults.set(i, scanExecutor.submit(() -> createFeedItem(feed, file, context)));
+            }
+
+            // Collect results in order, so that progress is reported on the calling thread
+            for (int i = 0; i < files.size(); i++) {
+                if (scanResults.get(i) != null) {
+                    items.set(i, scanResults.get(i).get());
+                }
+                if (updaterProgressListener != null) {
+                    updaterProgressListener.onLocalFileScanned(i, files.size());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scanning local folder", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            if (scanExecutor != null) {
+                scanExecutor.shutdownNow();
             }
         }
-        return null;
+        return items;
+    }
+
+    /**
+     * Checks if a file is still the one that was scanned before. Items scanned before
+     * the modification date was stored are identified by size only.
+     */
+    private static boolean isUnchanged(FeedMedia existingMedia, FastDocumentFile file) {
+        return existingMedia.getSize() == file.getLength()
+                && (existingMedia.getLastModified() == 0 || existingMedia.getLastModified() == file.getLastModified());
+    }
+
+    private static FeedItem reuseFeedItem(Feed feed, FastDocumentFile file, @NonNull FeedItem existingItem) {
+        FeedItem item = createEmptyFeedItem(feed, file);
+        // We found an old file that we already scanned. Re-use metadata.
+        item.updateFromOther(existingItem);
+        return item;
     }
 
     private static FeedItem createFeedItem(Feed feed, FastDocumentFile file, Context context) {
+        FeedItem item = createEmptyFeedItem(feed, file);
+        try {
+            loadMetadata(item, file, context);
+        } catch (Exception e) {
+            item.setDescriptionIfLonger(e.getMessage());
+        }
+        return item;
+    }
+
+    private static FeedItem createEmptyFeedItem(Feed feed, FastDocumentFile file) {
         FeedItem item = new FeedItem(0, file.getName(), UUID.randomUUID().toString(),
                 file.getName(), new Date(file.getLastModified()), FeedItem.UNPLAYED, feed);
         item.disableAutoDownload();
@@ -173,24 +253,8 @@ public class LocalFeedUpdater {
         long size = file.getLength();
         FeedMedia media = new FeedMedia(0, item, 0, 0, size, file.getType(),
                 file.getUri().toString(), file.getUri().toString(), false, null, 0, 0);
+        media.setLastModified(file.getLastModified());
         item.setMedia(media);
-
-        for (FeedItem existingItem : feed.getItems()) {
-            if (existingItem.getMedia() != null
-                    && existingItem.getMedia().getDownloadUrl().equals(file.getUri().toString())
-                    && file.getLength() == existingItem.getMedia().getSize()) {
-                // We found an old file that we already scanned. Re-use metadata.
-                item.updateFromOther(existingItem);
-                return item;
-            }
-        }
-
-        // Did not find existing item. Scan metadata.
-        try {
-            loadMetadata(item, file, context);
-        } catch (Exception e) {
-            item.setDescriptionIfLonger(e.getMessage());
-        }
         return item;
     }
 
@@ -222,8 +286,7 @@ public class LocalFeedUpdater {
             item.getMedia().setHasEmbeddedPicture(mediaMetadataRetriever.getEmbeddedPicture() != null);
 
             try (InputStream inputStream = context.getContentResolver().openInputStream(file.getUri())) {
-                Id3MetadataReader reader = new Id3MetadataReader(
-                        new CountingInputStream(new BufferedInputStream(inputStream)));
+                Id3MetadataReader reader = new Id3MetadataReader(ID3Reader.readTag(inputStream));
                 reader.readInputStream();
                 item.setDescriptionIfLonger(reader.getComment());
             } catch (IOException | ID3ReaderException e) {
@@ -6,11 +6,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 import androidx.test.platform.app.InstrumentationRegistry;
 
+import de.danoeh.antennapod.model.feed.Chapter;
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.model.feed.FeedCounter;
 import de.danoeh.antennapod.model.feed.FeedItem;
@@ -18,8 +21,10 @@ import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.model.feed.FeedOrder;
 import de.danoeh.antennapod.model.feed.SortOrder;
+import de.danoeh.antennapod.storage.database.CachedChapters;
 import de.danoeh.antennapod.storage.database.DBReader;
 import de.danoeh.antennapod.storage.database.DBWriter;
+import de.danoeh.antennapod.storage.database.FeedItemPermutors;
 import de.danoeh.antennapod.storage.database.NavDrawerData;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import de.danoeh.antennapod.storage.database.LongList;
@@ -162,6 +167,147 @@ public class DbReaderTest {
             }
         }
 
+        @Test
+        public void testGetFeedItemListPaged() {
+            final int numItems = 25;
+            final int pageSize = 10;
+            Feed feed = saveFeedlist(1, numItems, true).get(0);
+            assertEquals(numItems, DBReader.getFeedItemCount(feed, FeedItemFilter.unfiltered()));
+
+            for (SortOrder sortOrder : new SortOrder[] {SortOrder.DATE_NEW_OLD, SortOrder.DATE_OLD_NEW,
+                    SortOrder.EPISODE_TITLE_A_Z}) {
+                List<FeedItem> loaded = new ArrayList<>();
+                List<FeedItem> page;
+                do {
+                    FeedItem previousItem = loaded.isEmpty() ? null : loaded.get(loaded.size() - 1);
+                    page = DBReader.getFeedItemList(feed, FeedItemFilter.unfiltered(), sortOrder,
+                            previousItem, loaded.size(), pageSize);
+                    loaded.addAll(page);
+                } while (page.size() == pageSize);
+
+                assertEquals(numItems, loaded.size());
+                Set<Long> ids = new HashSet<>();
+                for (int i = 0; i < loaded.size(); i++) {
+                    assertTrue(ids.add(loaded.get(i).getId()));
+                    if (i > 0 && sortOrder == SortOrder.DATE_NEW_OLD) {
+                        assertTrue(loaded.get(i - 1).getPubDate().compareTo(loaded.get(i).getPubDate()) >= 0);
+                    } else if (i > 0 && sortOrder == SortOrder.DATE_OLD_NEW) {
+                        assertTrue(loaded.get(i - 1).getPubDate().compareTo(loaded.get(i).getPubDate()) <= 0);
+                    }
+                }
+            }
+        }
+
+        @Test
+        public void testGetFeedItemPage() {
+            Feed feed = saveFeedForPages(SortOrder.DATE_OLD_NEW);
+            List<FeedItem> items = feed.getItems();
+
+            List<FeedItem> firstPage = DBReader.getFeedItemPage(feed.getId(), FeedItemFilter.unfiltered(), 0, 10);
+            assertEquals(10, firstPage.size());
+            for (int i = 0; i < firstPage.size(); i++) {
+                assertEquals(items.get(i).getId(), firstPage.get(i).getId());
+                assertEquals(feed.getId(), firstPage.get(i).getFeed().getId());
+            }
+
+            List<FeedItem> lastPage = DBReader.getFeedItemPage(feed.getId(), FeedItemFilter.unfiltered(), 20, 10);
+            assertEquals(5, lastPage.size());
+            for (int i = 0; i < lastPage.size(); i++) {
+                assertEquals(items.get(20 + i).getId(), lastPage.get(i).getId());
+            }
+
+            assertTrue(DBReader.getFeedItemPage(feed.getId(), FeedItemFilter.unfiltered(), 25, 10).isEmpty());
+            assertTrue(DBReader.getFeedItemPage(feed.getId(), FeedItemFilter.unfiltered(), 100, 10).isEmpty());
+            assertTrue(DBReader.getFeedItemPage(feed.getId() + 1, FeedItemFilter.unfiltered(), 0, 10).isEmpty());
+        }
+
+        @Test
+        public void testGetFeedItemPageFiltered() {
+            Feed feed = saveFeedForPages(SortOrder.DATE_OLD_NEW);
+            List<FeedItem> itemsWithMedia = new ArrayList<>();
+            for (FeedItem item : feed.getItems()) {
+                if (item.hasMedia()) {
+                    itemsWithMedia.add(item);
+                }
+            }
+            assertEquals(13, itemsWithMedia.size());
+
+            FeedItemFilter filter = new FeedItemFilter(FeedItemFilter.HAS_MEDIA);
+            List<FeedItem> loaded = new ArrayList<>(DBReader.getFeedItemPage(feed.getId(), filter, 0, 10));
+            assertEquals(10, loaded.size());
+            List<FeedItem> lastPage = DBReader.getFeedItemPage(feed.getId(), filter, 10, 10);
+            assertEquals(3, lastPage.size());
+            loaded.addAll(lastPage);
+            for (int i = 0; i < loaded.size(); i++) {
+                assertEquals(itemsWithMedia.get(i).getId(), loaded.get(i).getId());
+                assertTrue(loaded.get(i).hasMedia());
+            }
+            assertTrue(DBReader.getFeedItemPage(feed.getId(), filter, 13, 10).isEmpty());
+        }
+
+        @Test
+        public void testGetFeedItemPageSortedInMemory() {
+            Feed feed = saveFeedForPages(SortOrder.EPISODE_FILENAME_A_Z);
+            List<FeedItem> expected = DBReader.getFeedItemList(feed,
+                    FeedItemFilter.unfiltered(), SortOrder.EPISODE_FILENAME_A_Z);
+            FeedItemPermutors.getPermutor(SortOrder.EPISODE_FILENAME_A_Z).reorder(expected);
+
+            List<FeedItem> loaded = new ArrayList<>();
+            List<FeedItem> page;
+            do {
+                page = DBReader.getFeedItemPage(feed.getId(), FeedItemFilter.unfiltered(), loaded.size(), 10);
+                loaded.addAll(page);
+            } while (page.size() == 10);
+
+            assertEquals(5, page.size());
+            assertEquals(expected.size(), loaded.size());
+            for (int i = 0; i < loaded.size(); i++) {
+                assertEquals(expected.get(i).getId(), loaded.get(i).getId());
+            }
+            assertTrue(DBReader.getFeedItemPage(feed.getId(), FeedItemFilter.unfiltered(), 100, 10).isEmpty());
+        }
+
+        /**
+         * Saves a feed with 25 items, ordered from old to new. Only the items with an even index have media.
+         */
+        private Feed saveFeedForPages(SortOrder sortOrder) {
+            Feed feed = new Feed("url", null, "title");
+            feed.setSortOrder(sortOrder);
+            List<FeedItem> items = new ArrayList<>();
+            feed.setItems(items);
+            for (int i = 0; i < 25; i++) {
+                FeedItem item = new FeedItem(0, "item " + i, "id" + i, "link" + i, new Date((i + 1) * 1000L),
+                        FeedItem.PLAYED, feed);
+                if (i % 2 == 0) {
+                    item.setMedia(new FeedMedia(item, "url" + i, 1, "audio/mp3"));
+                }
+                items.add(item);
+            }
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setCompleteFeed(feed);
+            adapter.close();
+            return feed;
+        }
+
+        @Test
+        public void testGetFeedItemsByIds() {
+            List<Feed> feeds = saveFeedlist(2, 5, true);
+            FeedItem first = feeds.get(0).getItems().get(1);
+            FeedItem second = feeds.get(1).getItems().get(3);
+            List<FeedItem> items = DBReader.getFeedItemsByIds(first.getId(), second.getId(), 12345);
+            assertEquals(2, items.size());
+            Set<Long> ids = new HashSet<>();
+            for (FeedItem item : items) {
+                ids.add(item.getId());
+                assertNotNull(item.getFeed());
+                assertNotNull(item.getMedia());
+            }
+            assertTrue(ids.contains(first.getId()));
+            assertTrue(ids.contains(second.getId()));
+            assertTrue(DBReader.getFeedItemsByIds().isEmpty());
+        }
+
         @SuppressWarnings("SameParameterValue")
         private List<FeedItem> saveQueue(int numItems) {
             if (numItems <= 0) {
@@ -258,6 +404,70 @@ public class DbReaderTest {
             }
         }
 
+        @Test
+        public void testForEachEpisode() {
+            List<Feed> feeds = saveFeedlist(3, 4, true);
+            FeedItem queued = feeds.get(1).getItems().get(2);
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setQueue(Arrays.asList(queued));
+            adapter.close();
+
+            Set<Long> expectedIds = new HashSet<>();
+            for (Feed feed : feeds) {
+                for (FeedItem item : feed.getItems()) {
+                    expectedIds.add(item.getId());
+                }
+            }
+            Set<Long> visitedIds = new HashSet<>();
+            DBReader.forEachEpisode(FeedItemFilter.unfiltered(), SortOrder.DATE_NEW_OLD, item -> {
+                visitedIds.add(item.getId());
+                assertNotNull(item.getFeed());
+                assertEquals(item.getFeedId(), item.getFeed().getId());
+                assertNotNull(item.getMedia());
+                assertEquals(item.getId() == queued.getId(), item.isTagged(FeedItem.TAG_QUEUE));
+            });
+            assertEquals(expectedIds, visitedIds);
+        }
+
+        @Test
+        public void testForEachEpisodeByFeed() {
+            List<Feed> feeds = saveFeedlist(3, 4, true);
+            List<Long> feedIds = new ArrayList<>();
+            List<Long> visitedFeedIds = new ArrayList<>();
+            for (Feed feed : feeds) {
+                for (int i = 0; i < feed.getItems().size(); i++) {
+                    feedIds.add(feed.getId());
+                }
+            }
+            DBReader.forEachEpisodeByFeed(FeedItemFilter.unfiltered(), SortOrder.DATE_NEW_OLD, item -> {
+                assertEquals(item.getFeedId(), item.getFeed().getId());
+                visitedFeedIds.add(item.getFeedId());
+            });
+            assertEquals(feedIds, visitedFeedIds);
+        }
+
+        @Test
+        public void testGetEpisodeIds() {
+            final int numItems = 10;
+            List<FeedItem> downloaded = saveDownloadedItems(numItems);
+            LongList ids = DBReader.getEpisodeIds(
+                    new FeedItemFilter(FeedItemFilter.DOWNLOADED), SortOrder.DATE_OLD_NEW);
+            assertEquals(numItems, ids.size());
+            for (FeedItem item : downloaded) {
+                assertTrue(ids.contains(item.getId()));
+            }
+            List<FeedItem> items = DBReader.getFeedItemsByIds(ids.toArray());
+            for (FeedItem item : items) {
+                int index = ids.indexOf(item.getId());
+                for (FeedItem other : items) {
+                    if (ids.indexOf(other.getId()) > index) {
+                        assertFalse(other.getPubDate().before(item.getPubDate()));
+                    }
+                }
+            }
+        }
+
         @SuppressWarnings("SameParameterValue")
         private List<FeedItem> saveNewItems(int numItems) {
             List<Feed> feeds = saveFeedlist(numItems, numItems, true);
@@ -424,6 +634,35 @@ public class DbReaderTest {
             }
         }
 
+        @Test
+        public void testGetCachedChapters() {
+            List<Feed> feeds = saveFeedlist(1, 2, false);
+            long itemId = feeds.get(0).getItems().get(0).getId();
+            long otherItemId = feeds.get(0).getItems().get(1).getId();
+            assertNull(DBReader.getCachedChapters(itemId, CachedChapters.SOURCE_MEDIA_FILE));
+
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setCachedChapters(itemId, CachedChapters.SOURCE_PODCAST_INDEX, "http://a/chapters.json",
+                    "etag", Arrays.asList(new Chapter(2000, "B", null, null), new Chapter(0, "A", null, null)));
+            adapter.setCachedChapters(otherItemId, CachedChapters.SOURCE_MEDIA_FILE, "http://a/file.mp3",
+                    null, new ArrayList<>());
+            adapter.close();
+
+            CachedChapters cached = DBReader.getCachedChapters(itemId, CachedChapters.SOURCE_PODCAST_INDEX);
+            assertNotNull(cached);
+            assertEquals("http://a/chapters.json", cached.getUrl());
+            assertEquals("etag", cached.getValidator());
+            assertEquals(2, cached.getChapters().size());
+            assertEquals("A", cached.getChapters().get(0).getTitle());
+            assertEquals(0, cached.getChapters().get(0).getId());
+            assertNull(DBReader.getCachedChapters(itemId, CachedChapters.SOURCE_MEDIA_FILE));
+
+            CachedChapters empty = DBReader.getCachedChapters(otherItemId, CachedChapters.SOURCE_MEDIA_FILE);
+            assertNotNull(empty);
+            assertTrue(empty.getChapters().isEmpty());
+        }
+
         @Test
         public void testGetItemWithChapters() {
             final int numChapters = 3;
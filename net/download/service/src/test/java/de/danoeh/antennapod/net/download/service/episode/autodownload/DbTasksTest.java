@@ -96,6 +96,28 @@ public class DbTasksTest {
         assertTrue(savedFeed1.getId() != savedFeed2.getId());
     }
 
+    @Test
+    public void testAddNewFeedsSkipsDuplicates() {
+        Feed existing = new Feed("url1", null, "title");
+        existing.setItems(new ArrayList<>());
+        FeedDatabaseWriter.updateFeed(context, existing, false);
+
+        List<Feed> feeds = new ArrayList<>();
+        for (String url : new String[] {"url1", "url2", "url3", "url2"}) {
+            Feed feed = new Feed(url, null, "title " + url);
+            feed.setItems(Collections.emptyList());
+            feeds.add(feed);
+        }
+        List<Feed> added = FeedDatabaseWriter.addNewFeeds(context, feeds);
+
+        assertEquals(2, added.size());
+        assertEquals("url2", added.get(0).getDownloadUrl());
+        assertEquals("url3", added.get(1).getDownloadUrl());
+        assertTrue(added.get(0).getId() != 0);
+        assertTrue(added.get(1).getId() != 0);
+        assertEquals(3, DBReader.getFeedList().size());
+    }
+
     @Test
     public void testUpdateFeedUpdatedFeed() {
         final int numItemsOld = 10;
@@ -139,6 +161,33 @@ public class DbTasksTest {
         updatedFeedTest(feedFromDB, feedID, itemIDs, numItemsOld, numItemsNew);
     }
 
+    @Test
+    public void testUpdateFeedReportsNewInboxItems() {
+        final Feed feed = new Feed("url", null, "title");
+        feed.setItems(new ArrayList<>());
+        for (int i = 0; i < 5; i++) {
+            feed.getItems().add(new FeedItem(0, "item " + i, "id " + i, "link " + i,
+                    new Date(i), FeedItem.PLAYED, feed));
+        }
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.setCompleteFeed(feed);
+        adapter.close();
+
+        for (int i = 5; i < 8; i++) {
+            feed.getItems().add(0, new FeedItem(0, "item " + i, "id " + i, "link " + i,
+                    new Date(i), FeedItem.UNPLAYED, feed));
+        }
+        List<FeedItem> newInboxItems = new ArrayList<>();
+        FeedDatabaseWriter.updateFeed(context, feed, false, newInboxItems);
+
+        assertEquals(3, newInboxItems.size());
+        for (FeedItem item : newInboxItems) {
+            assertTrue(item.isNew());
+            assertTrue(item.getId() != 0);
+        }
+    }
+
     @Test
     public void testUpdateFeedMediaUrlResetState() {
         final Feed feed = new Feed("url", null, "title");
@@ -464,6 +464,38 @@ public class DbWriterTest {
         adapter.close();
     }
 
+    @Test
+    public void testDeleteFeedItemsRemovesQueueAndFavorites() throws Exception {
+        Feed feed = new Feed("url", null, "title");
+        feed.setItems(new ArrayList<>());
+        for (int i = 0; i < 4; i++) {
+            FeedItem item = new FeedItem(0, "Item " + i, "Item" + i, "url", new Date(), FeedItem.PLAYED, feed);
+            item.setMedia(new FeedMedia(item, "", 0, ""));
+            feed.getItems().add(item);
+        }
+
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.setCompleteFeed(feed);
+        adapter.setQueue(feed.getItems());
+        for (FeedItem item : feed.getItems()) {
+            adapter.addFavoriteItem(item);
+        }
+        adapter.close();
+
+        DBWriter.deleteFeedItems(context, feed.getItems().subList(0, 2)).get(TIMEOUT, TimeUnit.SECONDS);
+
+        adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor queue = adapter.getQueueIDCursor(); Cursor favorites = adapter.getFavoritesIdsCursor()) {
+            assertEquals(2, queue.getCount());
+            assertEquals(2, favorites.getCount());
+        }
+        adapter.close();
+        assertQueueByItemIds("Remaining items stay in queue",
+                feed.getItems().get(2).getId(), feed.getItems().get(3).getId());
+    }
+
     private FeedMedia playbackHistorySetup(Date playbackCompletionDate) {
         Feed feed = new Feed("url", null, "title");
         feed.setItems(new ArrayList<>());
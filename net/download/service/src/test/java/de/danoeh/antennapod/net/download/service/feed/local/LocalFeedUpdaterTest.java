@@ -25,6 +25,7 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.shadows.ShadowMediaMetadataRetriever;
+import org.robolectric.shadows.util.DataSource;
 
 import java.io.File;
 import java.io.IOException;
@@ -173,6 +174,42 @@ public class LocalFeedUpdaterTest {
         assertEquals("track1.mp3", feedItems.get(0).getTitle());
     }
 
+    /**
+     * Test that metadata is only extracted again if the file was modified.
+     */
+    @Test
+    public void testUpdateFeed_RescanModifiedFilesOnly() {
+        List<FastDocumentFile> folder = mockLocalFolder(LOCAL_FEED_DIR1);
+        FastDocumentFile file = folder.get(0);
+        ShadowMediaMetadataRetriever.addMetadata(DataSource.toDataSource(context, file.getUri()),
+                MediaMetadataRetriever.METADATA_KEY_TITLE, "Title 1");
+        callUpdateFeed(folder, null);
+        assertEquals("Title 1", getSingleFeedItem().getTitle());
+
+        ShadowMediaMetadataRetriever.addMetadata(DataSource.toDataSource(context, file.getUri()),
+                MediaMetadataRetriever.METADATA_KEY_TITLE, "Title 2");
+        callUpdateFeed(folder, null);
+        assertEquals("Title 1", getSingleFeedItem().getTitle());
+
+        FastDocumentFile modifiedFile = new FastDocumentFile(file.getName(), file.getType(), file.getUri(),
+                file.getLength(), file.getLastModified() + 1000);
+        callUpdateFeed(Collections.singletonList(modifiedFile), null);
+        assertEquals("Title 2", getSingleFeedItem().getTitle());
+    }
+
+    /**
+     * Test that progress is reported for every media file.
+     */
+    @Test
+    public void testUpdateFeed_ReportsProgress() {
+        List<Integer> scanned = new ArrayList<>();
+        callUpdateFeed(mockLocalFolder(LOCAL_FEED_DIR2), (current, total) -> {
+            assertEquals(2, total);
+            scanned.add(current);
+        });
+        assertEquals(Arrays.asList(0, 1), scanned);
+    }
+
     @Test
     public void testGetImageUrl_EmptyFolder() {
         String imageUrl = LocalFeedUpdater.getImageUrl(Collections.emptyList(), Uri.EMPTY);
@@ -251,14 +288,19 @@ public class LocalFeedUpdaterTest {
      * @param localFeedDir assets local feed folder with media files
      */
     private void callUpdateFeed(@NonNull String localFeedDir) {
+        callUpdateFeed(mockLocalFolder(localFeedDir), null);
+    }
+
+    private void callUpdateFeed(@NonNull List<FastDocumentFile> files,
+                                LocalFeedUpdater.UpdaterProgressListener updaterProgressListener) {
         try (MockedStatic<FastDocumentFile> dfMock = Mockito.mockStatic(FastDocumentFile.class)) {
             // mock external storage
-            dfMock.when(() -> FastDocumentFile.list(any(), any())).thenReturn(mockLocalFolder(localFeedDir));
+            dfMock.when(() -> FastDocumentFile.list(any(), any())).thenReturn(files);
 
             // call method to test
             Feed feed = new Feed(FEED_URL, null);
             try {
-                LocalFeedUpdater.tryUpdateFeed(feed, context, null, null);
+                LocalFeedUpdater.tryUpdateFeed(feed, context, null, updaterProgressListener);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -275,6 +317,14 @@ public class LocalFeedUpdaterTest {
         return feedListAfter.get(0);
     }
 
+    @NonNull
+    private static FeedItem getSingleFeedItem() {
+        Feed feed = verifySingleFeedInDatabase();
+        List<FeedItem> feedItems = DBReader.getFeedItemList(feed, FeedItemFilter.unfiltered(), SortOrder.DATE_NEW_OLD);
+        assertEquals(1, feedItems.size());
+        return feedItems.get(0);
+    }
+
     /**
      * Verify that the database contains exactly one feed and the number of
      * items in the feed.
@@ -0,0 +1,61 @@
+package de.danoeh.antennapod.net.sync.serviceinterface;
+
+import android.util.Log;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Completable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Applies changes to the synchronization queue one after another, in the order they were submitted.
+ * Submitting never blocks: changes are added to a lock-free queue that is drained by a single worker,
+ * which only runs while there are pending changes.
+ */
+public class SynchronizationQueueExecutor {
+    private static final String TAG = "SyncQueueExecutor";
+
+    private static final Queue<Runnable> pendingChanges = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pendingCount = new AtomicInteger();
+
+    private SynchronizationQueueExecutor() {
+    }
+
+    public static void execute(Runnable change) {
+        pendingChanges.offer(change);
+        if (pendingCount.getAndIncrement() == 0) {
+            // No worker is running, and the counter makes sure that no other thread starts one
+            startWorker();
+        }
+    }
+
+    private static void startWorker() {
+        Completable.fromRunnable(SynchronizationQueueExecutor::drain)
+                .subscribeOn(Schedulers.io())
+                .subscribe();
+    }
+
+    private static void drain() {
+        boolean hasMore;
+        do {
+            // Producers add to the queue before incrementing the counter, so there is always a change to poll here
+            Runnable change = pendingChanges.poll();
+            boolean finished = false;
+            try {
+                change.run();
+                finished = true;
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to change synchronization queue", e);
+                finished = true;
+            } finally {
+                hasMore = pendingCount.decrementAndGet() != 0;
+                if (hasMore && !finished) {
+                    // An error stops this worker, so another one applies the remaining changes
+                    startWorker();
+                }
+            }
+        } while (hasMore);
+    }
+}
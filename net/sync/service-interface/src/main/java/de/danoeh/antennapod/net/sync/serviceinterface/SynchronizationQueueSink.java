@@ -5,6 +5,8 @@ import android.content.Context;
 import de.danoeh.antennapod.storage.preferences.SynchronizationSettings;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 
+import java.util.List;
+
 public class SynchronizationQueueSink {
     // To avoid a dependency loop of every class to SyncService, and from SyncService back to every class.
     private static Runnable serviceStarterImpl = () -> { };
@@ -24,24 +26,53 @@ public class SynchronizationQueueSink {
     }
 
     public static void clearQueue(Context context) {
-        LockingAsyncExecutor.executeLockedAsync(new SynchronizationQueueStorage(context)::clearQueue);
+        SynchronizationQueueExecutor.execute(new SynchronizationQueueStorage(context)::clearQueue);
+    }
+
+    /**
+     * Removes the uploaded episode actions of a snapshot from the queue, after the changes that are still pending.
+     */
+    public static void removeUploadedEpisodeActions(Context context, long sequence) {
+        SynchronizationQueueExecutor.execute(
+                () -> new SynchronizationQueueStorage(context).removeEpisodeActionsBefore(sequence));
+    }
+
+    /**
+     * Removes the uploaded subscription changes from the queue, after the changes that are still pending.
+     */
+    public static void removeUploadedFeedChanges(Context context, List<String> added, List<String> removed) {
+        SynchronizationQueueExecutor.execute(
+                () -> new SynchronizationQueueStorage(context).removeFeedChanges(added, removed));
     }
 
     public static void enqueueFeedAddedIfSynchronizationIsActive(Context context, String downloadUrl) {
         if (!SynchronizationSettings.isProviderConnected()) {
             return;
         }
-        LockingAsyncExecutor.executeLockedAsync(() -> {
+        SynchronizationQueueExecutor.execute(() -> {
             new SynchronizationQueueStorage(context).enqueueFeedAdded(downloadUrl);
             syncNow();
         });
     }
 
+    /**
+     * Enqueues all feeds at once, which is much faster than enqueueing them one by one.
+     */
+    public static void enqueueFeedsAddedIfSynchronizationIsActive(Context context, List<String> downloadUrls) {
+        if (downloadUrls.isEmpty() || !SynchronizationSettings.isProviderConnected()) {
+            return;
+        }
+        SynchronizationQueueExecutor.execute(() -> {
+            new SynchronizationQueueStorage(context).enqueueFeedsAdded(downloadUrls);
+            syncNow();
+        });
+    }
+
     public static void enqueueFeedRemovedIfSynchronizationIsActive(Context context, String downloadUrl) {
         if (!SynchronizationSettings.isProviderConnected()) {
             return;
         }
-        LockingAsyncExecutor.executeLockedAsync(() -> {
+        SynchronizationQueueExecutor.execute(() -> {
             new SynchronizationQueueStorage(context).enqueueFeedRemoved(downloadUrl);
             syncNow();
         });
@@ -51,12 +82,25 @@ public class SynchronizationQueueSink {
         if (!SynchronizationSettings.isProviderConnected()) {
             return;
         }
-        LockingAsyncExecutor.executeLockedAsync(() -> {
+        SynchronizationQueueExecutor.execute(() -> {
             new SynchronizationQueueStorage(context).enqueueEpisodeAction(action);
             syncNow();
         });
     }
 
+    /**
+     * Enqueues all actions at once, which is much faster than enqueueing them one by one.
+     */
+    public static void enqueueEpisodeActionsIfSynchronizationIsActive(Context context, List<EpisodeAction> actions) {
+        if (actions.isEmpty() || !SynchronizationSettings.isProviderConnected()) {
+            return;
+        }
+        SynchronizationQueueExecutor.execute(() -> {
+            new SynchronizationQueueStorage(context).enqueueEpisodeActions(actions);
+            syncNow();
+        });
+    }
+
     public static void enqueueEpisodePlayedIfSynchronizationIsActive(Context context, FeedMedia media,
                                                                      boolean completed) {
         if (!SynchronizationSettings.isProviderConnected()) {
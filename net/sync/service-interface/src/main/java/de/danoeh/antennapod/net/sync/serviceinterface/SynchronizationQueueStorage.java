@@ -7,6 +7,9 @@ import org.json.JSONArray;
 import org.json.JSONException;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import de.danoeh.antennapod.storage.preferences.SynchronizationSettings;
 
@@ -16,6 +19,7 @@ public class SynchronizationQueueStorage {
     private static final String QUEUED_EPISODE_ACTIONS = "sync_queued_episode_actions";
     private static final String QUEUED_FEEDS_REMOVED = "sync_removed";
     private static final String QUEUED_FEEDS_ADDED = "sync_added";
+    private static final String EPISODE_ACTION_SEQUENCE = "sync_episode_action_sequence";
     private final SharedPreferences sharedPreferences;
 
     public SynchronizationQueueStorage(Context context) {
@@ -37,6 +41,28 @@ public class SynchronizationQueueStorage {
         return actions;
     }
 
+    /**
+     * Reads the queued episode actions together with the sequence number after the last of them.
+     * The sequence number allows removing exactly these actions after uploading them, see
+     * {@link #removeEpisodeActionsBefore(long)}, even if more actions were queued in the meantime.
+     */
+    public EpisodeActionSnapshot getQueuedEpisodeActionsSnapshot() {
+        // Copies all values at once, so the queue and its sequence number match
+        Map<String, ?> values = getSharedPreferences().getAll();
+        ArrayList<EpisodeAction> actions = new ArrayList<>();
+        try {
+            Object json = values.get(QUEUED_EPISODE_ACTIONS);
+            JSONArray queue = new JSONArray(json instanceof String ? (String) json : "[]");
+            for (int i = 0; i < queue.length(); i++) {
+                actions.add(EpisodeAction.readFromJsonObject(queue.getJSONObject(i)));
+            }
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        Object sequence = values.get(EPISODE_ACTION_SEQUENCE);
+        return new EpisodeActionSnapshot(actions, sequence instanceof Long ? (Long) sequence : 0);
+    }
+
     public ArrayList<String> getQueuedRemovedFeeds() {
         ArrayList<String> removedFeedUrls = new ArrayList<>();
         try {
@@ -68,17 +94,51 @@ public class SynchronizationQueueStorage {
         return addedFeedUrls;
     }
 
-    public void clearEpisodeActionQueue() {
-        getSharedPreferences().edit()
-                .putString(QUEUED_EPISODE_ACTIONS, "[]").apply();
-
+    /**
+     * Removes the queued actions up to the sequence number of a snapshot,
+     * keeping the actions that were queued after the snapshot was taken.
+     */
+    protected void removeEpisodeActionsBefore(long sequence) {
+        SharedPreferences sharedPreferences = getSharedPreferences();
+        try {
+            JSONArray queue = new JSONArray(sharedPreferences.getString(QUEUED_EPISODE_ACTIONS, "[]"));
+            long queuedSinceSnapshot = sharedPreferences.getLong(EPISODE_ACTION_SEQUENCE, 0) - sequence;
+            long toRemove = queue.length() - queuedSinceSnapshot;
+            if (toRemove <= 0) {
+                return; // The queue was cleared since the snapshot
+            }
+            JSONArray remaining = new JSONArray();
+            for (int i = (int) toRemove; i < queue.length(); i++) {
+                remaining.put(queue.get(i));
+            }
+            sharedPreferences.edit().putString(QUEUED_EPISODE_ACTIONS, remaining.toString()).apply();
+        } catch (JSONException jsonException) {
+            jsonException.printStackTrace();
+        }
     }
 
-    public void clearFeedQueues() {
-        getSharedPreferences().edit()
-                .putString(QUEUED_FEEDS_ADDED, "[]")
-                .putString(QUEUED_FEEDS_REMOVED, "[]")
-                .apply();
+    /**
+     * Removes uploaded subscription changes. Changes to the same feeds that were queued after the upload
+     * started are kept, because adding a feed removes it from the removed queue and vice versa.
+     */
+    protected void removeFeedChanges(List<String> uploadedAdded, List<String> uploadedRemoved) {
+        SharedPreferences sharedPreferences = getSharedPreferences();
+        try {
+            JSONArray addedQueue = new JSONArray(sharedPreferences.getString(QUEUED_FEEDS_ADDED, "[]"));
+            JSONArray removedQueue = new JSONArray(sharedPreferences.getString(QUEUED_FEEDS_REMOVED, "[]"));
+            for (String downloadUrl : uploadedAdded) {
+                addedQueue.remove(indexOf(downloadUrl, addedQueue));
+            }
+            for (String downloadUrl : uploadedRemoved) {
+                removedQueue.remove(indexOf(downloadUrl, removedQueue));
+            }
+            sharedPreferences.edit()
+                    .putString(QUEUED_FEEDS_ADDED, addedQueue.toString())
+                    .putString(QUEUED_FEEDS_REMOVED, removedQueue.toString())
+                    .apply();
+        } catch (JSONException jsonException) {
+            jsonException.printStackTrace();
+        }
     }
 
     protected void clearQueue() {
@@ -92,12 +152,21 @@ public class SynchronizationQueueStorage {
     }
 
     protected void enqueueFeedAdded(String downloadUrl) {
+        enqueueFeedsAdded(Collections.singletonList(downloadUrl));
+    }
+
+    /**
+     * Adds all feeds with a single read and write of the stored queues.
+     */
+    protected void enqueueFeedsAdded(List<String> downloadUrls) {
         SharedPreferences sharedPreferences = getSharedPreferences();
         try {
             JSONArray addedQueue = new JSONArray(sharedPreferences.getString(QUEUED_FEEDS_ADDED, "[]"));
-            addedQueue.put(downloadUrl);
             JSONArray removedQueue = new JSONArray(sharedPreferences.getString(QUEUED_FEEDS_REMOVED, "[]"));
-            removedQueue.remove(indexOf(downloadUrl, removedQueue));
+            for (String downloadUrl : downloadUrls) {
+                addedQueue.put(downloadUrl);
+                removedQueue.remove(indexOf(downloadUrl, removedQueue));
+            }
             sharedPreferences.edit()
                     .putString(QUEUED_FEEDS_ADDED, addedQueue.toString())
                     .putString(QUEUED_FEEDS_REMOVED, removedQueue.toString())
@@ -138,14 +207,25 @@ public class SynchronizationQueueStorage {
     }
 
     protected void enqueueEpisodeAction(EpisodeAction action) {
+        enqueueEpisodeActions(Collections.singletonList(action));
+    }
+
+    /**
+     * Adds all actions with a single read and write of the stored queue.
+     */
+    protected void enqueueEpisodeActions(List<EpisodeAction> actions) {
         SharedPreferences sharedPreferences = getSharedPreferences();
         String json = sharedPreferences.getString(QUEUED_EPISODE_ACTIONS, "[]");
         try {
             JSONArray queue = new JSONArray(json);
-            queue.put(action.writeToJsonObject());
-            sharedPreferences.edit().putString(
-                    QUEUED_EPISODE_ACTIONS, queue.toString()
-            ).apply();
+            for (EpisodeAction action : actions) {
+                queue.put(action.writeToJsonObject());
+            }
+            long sequence = sharedPreferences.getLong(EPISODE_ACTION_SEQUENCE, 0) + actions.size();
+            sharedPreferences.edit()
+                    .putString(QUEUED_EPISODE_ACTIONS, queue.toString())
+                    .putLong(EPISODE_ACTION_SEQUENCE, sequence)
+                    .apply();
         } catch (JSONException jsonException) {
             jsonException.printStackTrace();
         }
@@ -154,4 +234,28 @@ public class SynchronizationQueueStorage {
     private SharedPreferences getSharedPreferences() {
         return sharedPreferences;
     }
+
+    /**
+     * Episode actions that were queued at a certain point in time.
+     */
+    public static class EpisodeActionSnapshot {
+        private final ArrayList<EpisodeAction> actions;
+        private final long sequence;
+
+        EpisodeActionSnapshot(ArrayList<EpisodeAction> actions, long sequence) {
+            this.actions = actions;
+            this.sequence = sequence;
+        }
+
+        public ArrayList<EpisodeAction> getActions() {
+            return actions;
+        }
+
+        /**
+         * @return The number of actions that were ever queued, up to and including the last action of the snapshot
+         */
+        public long getSequence() {
+            return sequence;
+        }
+    }
 }
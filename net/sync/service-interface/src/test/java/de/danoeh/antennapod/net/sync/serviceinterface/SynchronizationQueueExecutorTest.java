@@ -0,0 +1,79 @@
+package de.danoeh.antennapod.net.sync.serviceinterface;
+
+import io.reactivex.plugins.RxJavaPlugins;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SynchronizationQueueExecutor}.
+ */
+public class SynchronizationQueueExecutorTest {
+
+    @Before
+    public void setUp() {
+        RxJavaPlugins.setErrorHandler(error -> { });
+    }
+
+    @After
+    public void tearDown() {
+        RxJavaPlugins.reset();
+    }
+
+    @Test
+    public void testChangesRunInOrder() throws InterruptedException {
+        List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            int change = i;
+            SynchronizationQueueExecutor.execute(() -> applied.add(change));
+        }
+        SynchronizationQueueExecutor.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), applied);
+    }
+
+    @Test
+    public void testContinuesAfterError() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        SynchronizationQueueExecutor.execute(() -> {
+            throw new Error("Failed to apply change");
+        });
+        SynchronizationQueueExecutor.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRunsQueuedChangesAfterError() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        SynchronizationQueueExecutor.execute(() -> {
+            started.countDown();
+            awaitQuietly(fail);
+            throw new Error("Failed to apply change");
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        SynchronizationQueueExecutor.execute(done::countDown); // Queued while the failing change runs
+        fail.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
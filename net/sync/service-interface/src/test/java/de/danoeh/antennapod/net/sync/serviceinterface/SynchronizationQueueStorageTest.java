@@ -0,0 +1,114 @@
+package de.danoeh.antennapod.net.sync.serviceinterface;
+
+import android.content.Context;
+import androidx.test.platform.app.InstrumentationRegistry;
+import de.danoeh.antennapod.storage.preferences.SynchronizationSettings;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests removing uploaded changes from {@link SynchronizationQueueStorage} while the queue keeps changing.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SynchronizationQueueStorageTest {
+    private SynchronizationQueueStorage storage;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        SynchronizationSettings.init(context);
+        storage = new SynchronizationQueueStorage(context);
+    }
+
+    @Test
+    public void testRemoveUploadedEpisodeActions() {
+        storage.enqueueEpisodeActions(Arrays.asList(action("1"), action("2")));
+        SynchronizationQueueStorage.EpisodeActionSnapshot snapshot = storage.getQueuedEpisodeActionsSnapshot();
+        assertEquals(Arrays.asList("1", "2"), episodes(snapshot.getActions()));
+
+        storage.removeEpisodeActionsBefore(snapshot.getSequence());
+        assertTrue(storage.getQueuedEpisodeActions().isEmpty());
+    }
+
+    @Test
+    public void testActionsQueuedDuringUploadAreKept() {
+        storage.enqueueEpisodeActions(Arrays.asList(action("1"), action("2")));
+        SynchronizationQueueStorage.EpisodeActionSnapshot snapshot = storage.getQueuedEpisodeActionsSnapshot();
+        storage.enqueueEpisodeAction(action("3"));
+        storage.enqueueEpisodeActions(Arrays.asList(action("4"), action("5")));
+
+        storage.removeEpisodeActionsBefore(snapshot.getSequence());
+        assertEquals(Arrays.asList("3", "4", "5"), episodes(storage.getQueuedEpisodeActions()));
+    }
+
+    @Test
+    public void testClearQueueDuringUpload() {
+        storage.enqueueEpisodeActions(Arrays.asList(action("1"), action("2")));
+        SynchronizationQueueStorage.EpisodeActionSnapshot snapshot = storage.getQueuedEpisodeActionsSnapshot();
+        storage.clearQueue();
+
+        storage.removeEpisodeActionsBefore(snapshot.getSequence());
+        assertTrue(storage.getQueuedEpisodeActions().isEmpty());
+    }
+
+    @Test
+    public void testActionsQueuedAfterClearingDuringUploadAreKept() {
+        storage.enqueueEpisodeActions(Arrays.asList(action("1"), action("2"), action("3")));
+        SynchronizationQueueStorage.EpisodeActionSnapshot snapshot = storage.getQueuedEpisodeActionsSnapshot();
+        storage.clearQueue();
+        storage.enqueueEpisodeAction(action("4"));
+
+        storage.removeEpisodeActionsBefore(snapshot.getSequence());
+        assertEquals(Collections.singletonList("4"), episodes(storage.getQueuedEpisodeActions()));
+    }
+
+    @Test
+    public void testFeedChangesQueuedDuringUploadAreKept() {
+        storage.enqueueFeedsAdded(Arrays.asList("https://example.com/1", "https://example.com/2"));
+        storage.enqueueFeedRemoved("https://example.com/3");
+        List<String> added = storage.getQueuedAddedFeeds();
+        List<String> removed = storage.getQueuedRemovedFeeds();
+        storage.enqueueFeedAdded("https://example.com/4");
+        storage.enqueueFeedAdded("https://example.com/3");
+
+        storage.removeFeedChanges(added, removed);
+        assertEquals(Arrays.asList("https://example.com/4", "https://example.com/3"), storage.getQueuedAddedFeeds());
+        assertTrue(storage.getQueuedRemovedFeeds().isEmpty());
+    }
+
+    @Test
+    public void testFeedsQueuedAfterClearingDuringUploadAreKept() {
+        storage.enqueueFeedsAdded(Arrays.asList("https://example.com/1", "https://example.com/2"));
+        List<String> added = storage.getQueuedAddedFeeds();
+        List<String> removed = storage.getQueuedRemovedFeeds();
+        storage.clearQueue();
+        storage.enqueueFeedAdded("https://example.com/3");
+
+        storage.removeFeedChanges(added, removed);
+        assertEquals(Collections.singletonList("https://example.com/3"), storage.getQueuedAddedFeeds());
+    }
+
+    private static EpisodeAction action(String episode) {
+        return new EpisodeAction.Builder("https://example.com/feed", episode, EpisodeAction.PLAY)
+                .currentTimestamp()
+                .build();
+    }
+
+    private static List<String> episodes(List<EpisodeAction> actions) {
+        List<String> episodes = new ArrayList<>();
+        for (EpisodeAction action : actions) {
+            episodes.add(action.getEpisode());
+        }
+        return episodes;
+    }
+}
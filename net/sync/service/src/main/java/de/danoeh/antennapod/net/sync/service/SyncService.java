@@ -28,8 +28,9 @@ import de.danoeh.antennapod.event.MessageEvent;
 import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.net.download.serviceinterface.FeedUpdateManager;
-import de.danoeh.antennapod.net.sync.serviceinterface.LockingAsyncExecutor;
 import de.danoeh.antennapod.net.sync.serviceinterface.SynchronizationProvider;
+import de.danoeh.antennapod.net.sync.serviceinterface.SynchronizationQueueExecutor;
+import de.danoeh.antennapod.net.sync.serviceinterface.SynchronizationQueueSink;
 import de.danoeh.antennapod.net.sync.serviceinterface.SynchronizationQueueStorage;
 import de.danoeh.antennapod.storage.database.DBWriter;
 import de.danoeh.antennapod.storage.database.FeedDatabaseWriter;
@@ -132,7 +133,7 @@ public class SyncService extends Worker {
     }
 
     public static void fullSync(Context context) {
-        LockingAsyncExecutor.executeLockedAsync(() -> {
+        SynchronizationQueueExecutor.execute(() -> {
             SynchronizationSettings.resetTimestamps();
             OneTimeWorkRequest workRequest = getWorkRequest()
                     .setInitialDelay(0L, TimeUnit.SECONDS)
@@ -183,15 +184,12 @@ public class SyncService extends Worker {
             Log.d(TAG, "Added: " + StringUtils.join(queuedAddedFeeds, ", "));
             Log.d(TAG, "Removed: " + StringUtils.join(queuedRemovedFeeds, ", "));
 
-            LockingAsyncExecutor.lock();
-            try {
-                UploadChangesResponse uploadResponse = syncServiceImpl
-                        .uploadSubscriptionChanges(queuedAddedFeeds, queuedRemovedFeeds);
-                synchronizationQueueStorage.clearFeedQueues();
-                newTimeStamp = uploadResponse.timestamp;
-            } finally {
-                LockingAsyncExecutor.unlock();
-            }
+            UploadChangesResponse uploadResponse = syncServiceImpl
+                    .uploadSubscriptionChanges(queuedAddedFeeds, queuedRemovedFeeds);
+            // Only removes what was uploaded, changes queued during the upload stay for the next sync
+            SynchronizationQueueSink.removeUploadedFeedChanges(getApplicationContext(),
+                    queuedAddedFeeds, queuedRemovedFeeds);
+            newTimeStamp = uploadResponse.timestamp;
         }
         SynchronizationSettings.setLastSubscriptionSynchronizationAttemptTimestamp(newTimeStamp);
     }
@@ -222,7 +220,9 @@ public class SyncService extends Worker {
 
         // upload local actions
         EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_episodes_upload));
-        List<EpisodeAction> queuedEpisodeActions = synchronizationQueueStorage.getQueuedEpisodeActions();
+        SynchronizationQueueStorage.EpisodeActionSnapshot snapshot =
+                synchronizationQueueStorage.getQueuedEpisodeActionsSnapshot();
+        List<EpisodeAction> queuedEpisodeActions = snapshot.getActions();
         if (lastSync == 0) {
             EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_upload_played));
             List<FeedItem> readItems = DBReader.getEpisodes(0, Integer.MAX_VALUE,
@@ -243,17 +243,12 @@ public class SyncService extends Worker {
             }
         }
         if (!queuedEpisodeActions.isEmpty()) {
-            LockingAsyncExecutor.lock();
-            try {
-                Log.d(TAG, "Uploading " + queuedEpisodeActions.size() + " actions: "
-                        + StringUtils.join(queuedEpisodeActions, ", "));
-                UploadChangesResponse postResponse = syncServiceImpl.uploadEpisodeActions(queuedEpisodeActions);
-                newTimeStamp = postResponse.timestamp;
-                Log.d(TAG, "Upload episode response: " + postResponse);
-                synchronizationQueueStorage.clearEpisodeActionQueue();
-            } finally {
-                LockingAsyncExecutor.unlock();
-            }
+            Log.d(TAG, "Uploading " + queuedEpisodeActions.size() + " actions: "
+                    + StringUtils.join(queuedEpisodeActions, ", "));
+            UploadChangesResponse postResponse = syncServiceImpl.uploadEpisodeActions(queuedEpisodeActions);
+            newTimeStamp = postResponse.timestamp;
+            Log.d(TAG, "Upload episode response: " + postResponse);
+            SynchronizationQueueSink.removeUploadedEpisodeActions(getApplicationContext(), snapshot.getSequence());
         }
         SynchronizationSettings.setLastEpisodeActionSynchronizationAttemptTimestamp(newTimeStamp);
     }
@@ -1,9 +1,10 @@
 package de.danoeh.antennapod.parser.feed;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Stack;
 
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.model.feed.FeedFunding;
@@ -30,16 +31,17 @@ public class HandlerState {
     private final ArrayList<FeedItem> items;
     private FeedItem currentItem;
     private FeedFunding currentFunding;
-    final Stack<SyndElement> tagstack;
+    final TagStack tagstack;
     /**
      * Namespaces that have been defined so far.
      */
     final Map<String, Namespace> namespaces;
-    final Stack<Namespace> defaultNamespaces;
+    final Deque<Namespace> defaultNamespaces;
     /**
-     * Buffer for saving characters.
+     * Buffer for saving characters. Reused for all elements of the feed.
      */
-    protected StringBuilder contentBuf;
+    private final StringBuilder contentBuf = new StringBuilder();
+    private boolean collectingContent = false;
 
     /**
      * Temporarily saved objects.
@@ -50,9 +52,9 @@ public class HandlerState {
         this.feed = feed;
         alternateUrls = new HashMap<>();
         items = new ArrayList<>();
-        tagstack = new Stack<>();
+        tagstack = new TagStack();
         namespaces = new HashMap<>();
-        defaultNamespaces = new Stack<>();
+        defaultNamespaces = new ArrayDeque<>();
         tempObjects = new HashMap<>();
     }
 
@@ -68,7 +70,7 @@ public class HandlerState {
         return currentItem;
     }
 
-    public Stack<SyndElement> getTagstack() {
+    public TagStack getTagstack() {
         return tagstack;
     }
 
@@ -92,23 +94,33 @@ public class HandlerState {
      * Returns the SyndElement that comes after the top element of the tagstack.
      */
     public SyndElement getSecondTag() {
-        SyndElement top = tagstack.pop();
-        SyndElement second = tagstack.peek();
-        tagstack.push(top);
-        return second;
+        return tagstack.peek(1);
     }
 
     public SyndElement getThirdTag() {
-        SyndElement top = tagstack.pop();
-        SyndElement second = tagstack.pop();
-        SyndElement third = tagstack.peek();
-        tagstack.push(second);
-        tagstack.push(top);
-        return third;
+        return tagstack.peek(2);
     }
 
+    /**
+     * @return The text of the element that is ending, or null if the element contained other elements
+     */
     public StringBuilder getContentBuf() {
-        return contentBuf;
+        return collectingContent ? contentBuf : null;
+    }
+
+    void startContent() {
+        contentBuf.setLength(0);
+        collectingContent = true;
+    }
+
+    void appendContent(char[] ch, int start, int length) {
+        if (collectingContent) {
+            contentBuf.append(ch, start, length);
+        }
+    }
+
+    void endContent() {
+        collectingContent = false;
     }
 
     public void addAlternateFeedUrl(String title, String url) {
@@ -24,6 +24,8 @@ public class SyndHandler extends DefaultHandler {
     private static final String TAG = "SyndHandler";
     private static final String DEFAULT_PREFIX = "";
     public final HandlerState state;
+    private String lastUri = null;
+    private Namespace lastUriNamespace = null;
 
     public SyndHandler(Feed feed, TypeGetter.Type type) {
         state = new HandlerState(feed);
@@ -35,8 +37,8 @@ public class SyndHandler extends DefaultHandler {
     @Override
     public void startElement(String uri, String localName, String qualifiedName,
             Attributes attributes) throws SAXException {
-        state.contentBuf = new StringBuilder();
-        Namespace handler = getHandlingNamespace(uri, qualifiedName);
+        state.startContent();
+        Namespace handler = getHandlingNamespace(uri, localName, qualifiedName);
         if (handler != null) {
             SyndElement element = handler.handleElementStart(localName, state,
                     attributes);
@@ -48,26 +50,21 @@ public class SyndHandler extends DefaultHandler {
     @Override
     public void characters(char[] ch, int start, int length)
             throws SAXException {
-        if (!state.tagstack.empty()) {
-            if (state.getTagstack().size() >= 2) {
-                if (state.contentBuf != null) {
-                    state.contentBuf.append(ch, start, length);
-                }
-            }
+        if (state.tagstack.size() >= 2) {
+            state.appendContent(ch, start, length);
         }
     }
 
     @Override
     public void endElement(String uri, String localName, String qualifiedName)
             throws SAXException {
-        Namespace handler = getHandlingNamespace(uri, qualifiedName);
+        Namespace handler = getHandlingNamespace(uri, localName, qualifiedName);
         if (handler != null) {
             handler.handleElementEnd(localName, state);
             state.tagstack.pop();
 
         }
-        state.contentBuf = null;
-
+        state.endContent();
     }
 
     @Override
@@ -80,6 +77,7 @@ public class SyndHandler extends DefaultHandler {
     @Override
     public void startPrefixMapping(String prefix, String uri)
             throws SAXException {
+        lastUri = null;
         // Find the right namespace
         if (!state.namespaces.containsKey(uri)) {
             if (uri.equals(Atom.NSURI)) {
@@ -117,10 +115,16 @@ public class SyndHandler extends DefaultHandler {
         }
     }
 
-    private Namespace getHandlingNamespace(String uri, String qualifiedName) {
-        Namespace handler = state.namespaces.get(uri);
-        if (handler == null && !state.defaultNamespaces.empty()
-                && !qualifiedName.contains(":")) {
+    private Namespace getHandlingNamespace(String uri, String localName, String qualifiedName) {
+        // The parser passes the same URI instance for all elements of a namespace
+        if (uri != lastUri) {
+            lastUri = uri;
+            lastUriNamespace = state.namespaces.get(uri);
+        }
+        Namespace handler = lastUriNamespace;
+        // Without prefix, the qualified name is the same as the local name
+        if (handler == null && !state.defaultNamespaces.isEmpty()
+                && qualifiedName.length() == localName.length()) {
             handler = state.defaultNamespaces.peek();
         }
         return handler;
@@ -0,0 +1,53 @@
+package de.danoeh.antennapod.parser.feed;
+
+import de.danoeh.antennapod.parser.feed.element.SyndElement;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * Stack of the elements that the parser is currently in. Unlike {@link java.util.Stack}, it is not
+ * synchronized and allows to look at elements below the top without popping.
+ */
+public class TagStack {
+    private SyndElement[] elements = new SyndElement[16];
+    private int size = 0;
+
+    public void push(SyndElement element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = element;
+    }
+
+    public SyndElement pop() {
+        SyndElement element = peek();
+        elements[--size] = null;
+        return element;
+    }
+
+    /**
+     * @return The element on top of the stack
+     */
+    public SyndElement peek() {
+        return peek(0);
+    }
+
+    /**
+     * @param depth Number of elements between the top and the requested element
+     */
+    public SyndElement peek(int depth) {
+        if (depth >= size) {
+            throw new EmptyStackException();
+        }
+        return elements[size - 1 - depth];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean empty() {
+        return size == 0;
+    }
+}
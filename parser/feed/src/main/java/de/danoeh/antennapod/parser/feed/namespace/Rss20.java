@@ -41,7 +41,7 @@ public class Rss20 extends Namespace {
 
     @Override
     public SyndElement handleElementStart(String localName, HandlerState state, Attributes attributes) {
-        if (ITEM.equals(localName) && CHANNEL.equals(state.getTagstack().lastElement().getName())) {
+        if (ITEM.equals(localName) && CHANNEL.equals(state.getTagstack().peek().getName())) {
             state.setCurrentItem(new FeedItem());
             state.getItems().add(state.getCurrentItem());
             state.getCurrentItem().setFeed(state.getFeed());
@@ -9,6 +9,7 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.regex.Pattern;
 
 /**
  * Parses several date formats.
@@ -24,26 +25,80 @@ public abstract class DateUtils {
         }
     };
 
+    private static final Pattern MULTIPLE_SPACES = Pattern.compile("( ){2,}+");
+    private static final Pattern TIMEZONE_COLON = Pattern.compile("([+-]\\d\\d):(\\d\\d)$");
+    private static final Pattern CEST = Pattern.compile("CEST$");
+    private static final Pattern CET = Pattern.compile("CET$");
+    private static final Pattern SEPT = Pattern.compile("\\bSept\\b");
+    private static final Pattern STARTS_WITH_WEEKDAY = Pattern.compile("^\\w+, .*$");
+    private static final String[] PATTERNS = {
+            "dd MMM yy HH:mm:ss Z",
+            "dd MMM yy HH:mm Z",
+            "EEE, dd MMM yyyy HH:mm:ss Z",
+            "EEE, dd MMM yyyy HH:mm:ss",
+            "EEE, dd MMMM yyyy HH:mm:ss Z",
+            "EEE, dd MMMM yyyy HH:mm:ss",
+            "EEEE, dd MMM yyyy HH:mm:ss Z",
+            "EEEE, dd MMM yy HH:mm:ss Z",
+            "EEEE, dd MMM yyyy HH:mm:ss",
+            "EEEE, dd MMM yy HH:mm:ss",
+            "EEE MMM d HH:mm:ss yyyy",
+            "EEE, dd MMM yyyy HH:mm Z",
+            "EEE, dd MMM yyyy HH:mm",
+            "EEE, dd MMMM yyyy HH:mm Z",
+            "EEE, dd MMMM yyyy HH:mm",
+            "EEEE, dd MMM yyyy HH:mm Z",
+            "EEEE, dd MMM yy HH:mm Z",
+            "EEEE, dd MMM yyyy HH:mm",
+            "EEEE, dd MMM yy HH:mm",
+            "EEE MMM d HH:mm yyyy",
+            "yyyy-MM-dd'T'HH:mm:ss",
+            "yyyy-MM-dd'T'HH:mm:ss.SSS Z",
+            "yyyy-MM-dd'T'HH:mm:ss.SSS",
+            "yyyy-MM-dd'T'HH:mm:ssZ",
+            "yyyy-MM-dd'T'HH:mm:ss'Z'",
+            "yyyy-MM-dd'T'HH:mm:ss.SSSZ",
+            "yyyy-MM-ddZ",
+            "yyyy-MM-dd",
+            "EEE d MMM yyyy HH:mm:ss 'GMT'Z (z)"
+    };
+    private static final ThreadLocal<SimpleDateFormat[]> PATTERN_FORMATS = new ThreadLocal<>() {
+        @Override
+        protected SimpleDateFormat[] initialValue() {
+            SimpleDateFormat[] formats = new SimpleDateFormat[PATTERNS.length];
+            for (int i = 0; i < PATTERNS.length; i++) {
+                formats[i] = new SimpleDateFormat(PATTERNS[i], Locale.US);
+                formats[i].setLenient(false);
+                formats[i].setTimeZone(TIME_ZONE_GMT);
+            }
+            return formats;
+        }
+    };
+
     public static Date parse(final String input) {
         if (input == null) {
             throw new IllegalArgumentException("Date must not be null");
         }
+        Date result = FastDateParser.parse(input);
+        if (result != null) {
+            return result;
+        }
         try {
             return RFC822_DATE_FORMAT.get().parse(input);
         } catch (ParseException ignored) {
             // Feed not following the specification? Now start all our expensive workarounds.
         }
-        String date = input.trim().replace('/', '-').replaceAll("( ){2,}+", " ");
+        String date = MULTIPLE_SPACES.matcher(input.trim().replace('/', '-')).replaceAll(" ");
 
         // remove colon from timezone to avoid differences between Android and Java SimpleDateFormat
-        date = date.replaceAll("([+-]\\d\\d):(\\d\\d)$", "$1$2");
+        date = TIMEZONE_COLON.matcher(date).replaceAll("$1$2");
 
         // CEST is widely used but not in the "ISO 8601 Time zone" list. Let's hack around.
-        date = date.replaceAll("CEST$", "+0200");
-        date = date.replaceAll("CET$", "+0100");
+        date = CEST.matcher(date).replaceAll("+0200");
+        date = CET.matcher(date).replaceAll("+0100");
 
         // some generators use "Sept" for September
-        date = date.replaceAll("\\bSept\\b", "Sep");
+        date = SEPT.matcher(date).replaceAll("Sep");
 
         // if datetime is more precise than seconds, make sure the value is in ms
         if (date.contains(".")) {
@@ -69,48 +124,12 @@ public abstract class DateUtils {
                 }
             }
         }
-        final String[] patterns = {
-                "dd MMM yy HH:mm:ss Z",
-                "dd MMM yy HH:mm Z",
-                "EEE, dd MMM yyyy HH:mm:ss Z",
-                "EEE, dd MMM yyyy HH:mm:ss",
-                "EEE, dd MMMM yyyy HH:mm:ss Z",
-                "EEE, dd MMMM yyyy HH:mm:ss",
-                "EEEE, dd MMM yyyy HH:mm:ss Z",
-                "EEEE, dd MMM yy HH:mm:ss Z",
-                "EEEE, dd MMM yyyy HH:mm:ss",
-                "EEEE, dd MMM yy HH:mm:ss",
-                "EEE MMM d HH:mm:ss yyyy",
-                "EEE, dd MMM yyyy HH:mm Z",
-                "EEE, dd MMM yyyy HH:mm",
-                "EEE, dd MMMM yyyy HH:mm Z",
-                "EEE, dd MMMM yyyy HH:mm",
-                "EEEE, dd MMM yyyy HH:mm Z",
-                "EEEE, dd MMM yy HH:mm Z",
-                "EEEE, dd MMM yyyy HH:mm",
-                "EEEE, dd MMM yy HH:mm",
-                "EEE MMM d HH:mm yyyy",
-                "yyyy-MM-dd'T'HH:mm:ss",
-                "yyyy-MM-dd'T'HH:mm:ss.SSS Z",
-                "yyyy-MM-dd'T'HH:mm:ss.SSS",
-                "yyyy-MM-dd'T'HH:mm:ssZ",
-                "yyyy-MM-dd'T'HH:mm:ss'Z'",
-                "yyyy-MM-dd'T'HH:mm:ss.SSSZ",
-                "yyyy-MM-ddZ",
-                "yyyy-MM-dd",
-                "EEE d MMM yyyy HH:mm:ss 'GMT'Z (z)"
-        };
-
-        SimpleDateFormat parser = new SimpleDateFormat("", Locale.US);
-        parser.setLenient(false);
-        parser.setTimeZone(TIME_ZONE_GMT);
-
+        // The order matters: a string can match several patterns, for example with two and four digit years
         ParsePosition pos = new ParsePosition(0);
-        for (String pattern : patterns) {
-            parser.applyPattern(pattern);
+        for (SimpleDateFormat format : PATTERN_FORMATS.get()) {
             pos.setIndex(0);
             try {
-                Date result = parser.parse(date, pos);
+                result = format.parse(date, pos);
                 if (result != null && pos.getIndex() == date.length()) {
                     return result;
                 }
@@ -120,7 +139,7 @@ public abstract class DateUtils {
         }
 
         // if date string starts with a weekday, try parsing date string without it
-        if (date.matches("^\\w+, .*$")) {
+        if (STARTS_WITH_WEEKDAY.matcher(date).matches()) {
             return parse(date.substring(date.indexOf(',') + 1));
         }
 
@@ -0,0 +1,321 @@
+package de.danoeh.antennapod.parser.feed.util;
+
+import androidx.annotation.Nullable;
+
+import java.util.Date;
+
+/**
+ * Parses the date formats that most feeds use (RFC 822 and ISO 8601, including their common variations)
+ * in a single pass over the string, without creating formatters or intermediate strings.
+ * Returns null for everything else, so that {@link DateUtils} can fall back to its list of patterns.
+ */
+final class FastDateParser {
+    private static final String[] MONTHS = {"jan", "feb", "mar", "apr", "may", "jun",
+            "jul", "aug", "sep", "oct", "nov", "dec"};
+    private static final String[] FULL_MONTHS = {"january", "february", "march", "april", "may", "june",
+            "july", "august", "september", "october", "november", "december"};
+    private static final int MIN_YEAR = 1900;
+    private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+    private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+    private static final int NO_ZONE = Integer.MIN_VALUE;
+
+    private final String input;
+    private int pos;
+
+    private FastDateParser(String input) {
+        this.input = input;
+    }
+
+    @Nullable
+    static Date parse(String input) {
+        FastDateParser parser = new FastDateParser(input);
+        parser.skipSpaces();
+        if (parser.startsWithIsoDate()) {
+            return parser.parseIso8601();
+        }
+        return parser.parseRfc822();
+    }
+
+    private boolean startsWithIsoDate() {
+        if (pos + 4 >= input.length()) {
+            return false;
+        }
+        for (int i = pos; i < pos + 4; i++) {
+            if (!isDigit(input.charAt(i))) {
+                return false;
+            }
+        }
+        char separator = input.charAt(pos + 4);
+        return separator == '-' || separator == '/';
+    }
+
+    /**
+     * yyyy-MM-dd['T'HH:mm:ss[.fraction]][ ][zone]
+     */
+    @Nullable
+    private Date parseIso8601() {
+        int year = readNumber(4, 4);
+        char separator = input.charAt(pos);
+        pos++;
+        int month = readNumber(2, 2);
+        if (month < 0 || !consume(separator)) {
+            return null;
+        }
+        int day = readNumber(2, 2);
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millis = 0;
+        if (consume('T')) {
+            hour = readNumber(2, 2);
+            if (hour < 0 || !consume(':')) {
+                return null;
+            }
+            minute = readNumber(2, 2);
+            if (minute < 0 || !consume(':')) {
+                return null;
+            }
+            second = readNumber(2, 2);
+            if (second < 0) {
+                return null;
+            }
+            if (consume('.')) {
+                int digits = 0;
+                while (pos < input.length() && isDigit(input.charAt(pos))) {
+                    if (digits < 3) {
+                        millis = millis * 10 + (input.charAt(pos) - '0');
+                    }
+                    digits++;
+                    pos++;
+                }
+                if (digits == 0) {
+                    return null;
+                }
+                for (int i = digits; i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+        }
+        skipSpaces();
+        int offsetMinutes = 0;
+        if (pos < input.length()) {
+            offsetMinutes = readZone();
+            skipSpaces();
+            if (offsetMinutes == NO_ZONE || pos != input.length()) {
+                return null;
+            }
+        }
+        return toDate(year, month, day, hour, minute, second, millis, offsetMinutes);
+    }
+
+    /**
+     * [weekday[,]] d MMM yyyy HH:mm[:ss] [zone]
+     */
+    @Nullable
+    private Date parseRfc822() {
+        if (pos < input.length() && isLetter(input.charAt(pos))) {
+            while (pos < input.length() && isLetter(input.charAt(pos))) {
+                pos++;
+            }
+            consume(',');
+            skipSpaces();
+        }
+        int day = readNumber(1, 2);
+        if (day < 0 || !skipSpaces()) {
+            return null;
+        }
+        int month = readMonth();
+        if (month < 0 || !skipSpaces()) {
+            return null;
+        }
+        // Two-digit years are left to SimpleDateFormat, which has its own rules for them
+        int year = readNumber(4, 4);
+        if (year < 0 || !skipSpaces()) {
+            return null;
+        }
+        int hour = readNumber(1, 2);
+        if (hour < 0 || !consume(':')) {
+            return null;
+        }
+        int minute = readNumber(2, 2);
+        int second = 0;
+        if (consume(':')) {
+            second = readNumber(2, 2);
+        }
+        if (minute < 0 || second < 0) {
+            return null;
+        }
+        skipSpaces();
+        int offsetMinutes = 0;
+        if (pos < input.length()) {
+            offsetMinutes = readZone();
+            skipSpaces();
+            if (offsetMinutes == NO_ZONE || pos != input.length()) {
+                return null;
+            }
+        }
+        return toDate(year, month, day, hour, minute, second, 0, offsetMinutes);
+    }
+
+    @Nullable
+    private static Date toDate(int year, int month, int day, int hour, int minute, int second, int millis,
+                               int offsetMinutes) {
+        if (year < MIN_YEAR || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return null; // Let the lenient fallback decide what to do with this
+        }
+        long days = daysSinceEpoch(year, month, day);
+        long time = days * MILLIS_PER_DAY + ((hour * 60L + minute) * 60 + second) * 1000 + millis;
+        return new Date(time - offsetMinutes * MILLIS_PER_MINUTE);
+    }
+
+    /**
+     * Reads a numeric offset (+hh:mm, +hhmm) or one of the common zone names.
+     *
+     * @return Offset in minutes, or NO_ZONE if the zone is not known
+     */
+    private int readZone() {
+        char c = input.charAt(pos);
+        if (c == '+' || c == '-') {
+            pos++;
+            int hours = readNumber(2, 2);
+            consume(':');
+            int minutes = readNumber(2, 2);
+            if (hours < 0 || minutes < 0 || minutes > 59) {
+                return NO_ZONE;
+            }
+            int offset = hours * 60 + minutes;
+            return c == '-' ? -offset : offset;
+        }
+        int start = pos;
+        while (pos < input.length() && isLetter(input.charAt(pos))) {
+            pos++;
+        }
+        switch (input.substring(start, pos)) {
+            case "Z":
+            case "UT":
+            case "UTC":
+            case "GMT":
+                return 0;
+            case "EDT":
+                return -4 * 60;
+            case "EST":
+            case "CDT":
+                return -5 * 60;
+            case "CST":
+            case "MDT":
+                return -6 * 60;
+            case "MST":
+            case "PDT":
+                return -7 * 60;
+            case "PST":
+                return -8 * 60;
+            case "CET":
+                return 60;
+            case "CEST":
+                return 2 * 60;
+            default:
+                return NO_ZONE;
+        }
+    }
+
+    /**
+     * Reads an English month name, abbreviated or in full, and "Sept".
+     *
+     * @return Month from 1 to 12, or -1
+     */
+    private int readMonth() {
+        int start = pos;
+        while (pos < input.length() && isLetter(input.charAt(pos))) {
+            pos++;
+        }
+        int length = pos - start;
+        if (length < 3) {
+            return -1;
+        }
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (input.regionMatches(true, start, MONTHS[i], 0, 3)) {
+                if (length == 3 || (i == 8 && length == 4 && Character.toLowerCase(input.charAt(start + 3)) == 't')) {
+                    return i + 1;
+                }
+                String fullName = FULL_MONTHS[i];
+                if (length == fullName.length() && input.regionMatches(true, start, fullName, 0, length)) {
+                    return i + 1;
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The number, or -1 if there are not enough digits
+     */
+    private int readNumber(int minDigits, int maxDigits) {
+        int value = 0;
+        int digits = 0;
+        while (digits < maxDigits && pos < input.length() && isDigit(input.charAt(pos))) {
+            value = value * 10 + (input.charAt(pos) - '0');
+            digits++;
+            pos++;
+        }
+        if (digits < minDigits) {
+            return -1;
+        }
+        return value;
+    }
+
+    private boolean consume(char c) {
+        if (pos < input.length() && input.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return True if at least one space was skipped
+     */
+    private boolean skipSpaces() {
+        int start = pos;
+        while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+            pos++;
+        }
+        return pos > start;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Days between 1970-01-01 and the given date of the proleptic Gregorian calendar.
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
@@ -0,0 +1,125 @@
+package de.danoeh.antennapod.parser.feed.element.namespace;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Locale;
+
+import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedMedia;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Tests that every item of large RSS and Atom feeds keeps its own content.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LargeFeedParserTest {
+    private static final int NUM_ITEMS = 500;
+    private static final long FIRST_PUB_DATE = 1578286800000L; // 2020-01-06 05:00:00 UTC
+    private static final String DESCRIPTION = "&lt;p&gt;Episode %d talks about feeds, parsers and "
+            + "everything in between. Links: &lt;a href=\"https://example.com\"&gt;example&lt;/a&gt;&lt;/p&gt;";
+    private static final String PARSED_DESCRIPTION = "<p>Episode %d talks about feeds, parsers and "
+            + "everything in between. Links: <a href=\"https://example.com\">example</a></p>";
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("feed", ".xml");
+    }
+
+    @After
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void testLargeRss() throws Exception {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\" "
+                    + "xmlns:itunes=\"http://www.itunes.com/dtds/podcast-1.0.dtd\" "
+                    + "xmlns:content=\"http://purl.org/rss/1.0/modules/content/\">\n<channel>\n"
+                    + "<title>Large feed</title>\n<link>https://example.com</link>\n");
+            for (int i = 0; i < NUM_ITEMS; i++) {
+                out.write("<item>\n<title>Episode " + i + "</title>\n"
+                        + "<guid>https://example.com/episode/" + i + "</guid>\n"
+                        + "<link>https://example.com/episode/" + i + "</link>\n"
+                        + String.format(Locale.US, "<pubDate>Mon, 06 Jan 2020 05:%02d:%02d +0000</pubDate>\n",
+                                i / 60, i % 60)
+                        + "<description>" + String.format(Locale.US, DESCRIPTION, i) + "</description>\n"
+                        + "<content:encoded>" + description(DESCRIPTION, i) + "</content:encoded>\n"
+                        + "<itunes:duration>01:02:03</itunes:duration>\n"
+                        + "<enclosure url=\"https://example.com/" + i + ".mp3\" length=\"50000000\" "
+                        + "type=\"audio/mpeg\"/>\n</item>\n");
+            }
+            out.write("</channel>\n</rss>\n");
+        }
+        Feed feed = FeedParserTestHelper.runFeedParser(file);
+        assertEquals(Feed.TYPE_RSS2, feed.getType());
+        assertEquals("Large feed", feed.getTitle());
+        assertItems(feed);
+    }
+
+    @Test
+    public void testLargeAtom() throws Exception {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<feed xmlns=\"http://www.w3.org/2005/Atom\">\n"
+                    + "<title>Large feed</title>\n<id>https://example.com</id>\n");
+            for (int i = 0; i < NUM_ITEMS; i++) {
+                out.write("<entry>\n<title>Episode " + i + "</title>\n"
+                        + "<id>https://example.com/episode/" + i + "</id>\n"
+                        + "<link rel=\"alternate\" href=\"https://example.com/episode/" + i + "\"/>\n"
+                        + "<link rel=\"enclosure\" href=\"https://example.com/" + i + ".mp3\" "
+                        + "type=\"audio/mpeg\" length=\"50000000\"/>\n"
+                        + String.format(Locale.US, "<published>2020-01-06T05:%02d:%02dZ</published>\n",
+                                i / 60, i % 60)
+                        + "<summary>" + String.format(Locale.US, DESCRIPTION, i) + "</summary>\n"
+                        + "<content>" + description(DESCRIPTION, i) + "</content>\n</entry>\n");
+            }
+            out.write("</feed>\n");
+        }
+        Feed feed = FeedParserTestHelper.runFeedParser(file);
+        assertEquals(Feed.TYPE_ATOM1, feed.getType());
+        assertEquals("Large feed", feed.getTitle());
+        assertItems(feed);
+    }
+
+    private static void assertItems(Feed feed) {
+        assertEquals(NUM_ITEMS, feed.getItems().size());
+        for (int i = 0; i < NUM_ITEMS; i++) {
+            FeedItem item = feed.getItems().get(i);
+            assertEquals("Episode " + i, item.getTitle());
+            assertEquals("https://example.com/episode/" + i, item.getItemIdentifier());
+            assertEquals("https://example.com/episode/" + i, item.getLink());
+            assertEquals(new Date(FIRST_PUB_DATE + i * 1000L), item.getPubDate());
+            assertEquals(description(PARSED_DESCRIPTION, i), item.getDescription());
+            FeedMedia media = item.getMedia();
+            assertNotNull(media);
+            assertEquals("https://example.com/" + i + ".mp3", media.getDownloadUrl());
+            assertEquals(50000000, media.getSize());
+            assertEquals("audio/mpeg", media.getMimeType());
+        }
+    }
+
+    /**
+     * @return The description of an item, twice to make it longer than the summary
+     */
+    private static String description(String format, int item) {
+        String description = String.format(Locale.US, format, item);
+        return description + description;
+    }
+}
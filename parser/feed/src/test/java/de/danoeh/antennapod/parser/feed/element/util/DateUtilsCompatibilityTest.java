@@ -0,0 +1,142 @@
+package de.danoeh.antennapod.parser.feed.element.util;
+
+import de.danoeh.antennapod.parser.feed.util.DateUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Compares {@link DateUtils#parse} to the pattern cascade that it used before, on date strings
+ * as they appear in real-world feeds. Makes sure that both return the same dates.
+ */
+public class DateUtilsCompatibilityTest {
+    private static final String[] CORPUS = {
+            "Tue, 10 Jun 2003 04:00:00 GMT",
+            "Wed, 02 Oct 2002 13:00:00 +0000",
+            "Mon, 06 Jan 2020 05:00:00 -0000",
+            "Fri, 19 Jun 2020 17:00:00 PDT",
+            "Sat, 28 Mar 2015 01:31:04 EST",
+            "Sat, 28 Mar 2015 01:31 EST",
+            "Sat, 28 March 2015 08:16:12 -0400",
+            "Friday, 19 June 2020 17:00:00 +0200",
+            "Thu, 8 Oct 2014 09:00:00 GMT",
+            "Mon, 8 Sept 2014 00:00:00 GMT",
+            "Sun, 29 Jan 2017 00:00:00 CEST",
+            "Sun, 29 Jan 2017 00:00:00 CET",
+            "Tue,  23 Mar   2010 01:06:26 -0500",
+            "Wed, 25 May 2011 12:33:00",
+            "Sun 01 Mar 2015 01:00:00 GMT-0400 (EDT)",
+            "2015-03-28T13:31:04.963870",
+            "2015-03-28T13:31:04.96 +0700",
+            "2017-02-22T14:28:00.002-08:00",
+            "2019-07-01T05:00:00Z",
+            "2018-05-04T12:00:00.000Z",
+            "2020-01-15T10:30:00+01:00",
+            "2020-01-15T10:30:00+0100",
+            "2021-11-30",
+            "2021/11/30",
+    };
+
+    @Test
+    public void testMatchesPatternCascade() {
+        for (String date : CORPUS) {
+            Date actual = DateUtils.parse(date);
+            assertNotNull(date, actual);
+            Date expected = parseWithCascade(date);
+            if (expected != null) { // Some ISO 8601 zones only work with the cascade on Android
+                assertEquals(date, expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testResultDoesNotDependOnPreviousDates() {
+        for (int i = CORPUS.length - 1; i >= 0; i--) {
+            Date expected = DateUtils.parse(CORPUS[i]);
+            for (String other : CORPUS) {
+                DateUtils.parse(other);
+                assertEquals(CORPUS[i] + " after " + other, expected, DateUtils.parse(CORPUS[i]));
+            }
+        }
+    }
+
+    /**
+     * The implementation of DateUtils.parse before it got a fast path for common formats.
+     */
+    private static Date parseWithCascade(String input) {
+        SimpleDateFormat rfc822 = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss Z", Locale.US);
+        rfc822.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return rfc822.parse(input);
+        } catch (ParseException ignored) {
+            // Continue with workarounds
+        }
+        String date = input.trim().replace('/', '-').replaceAll("( ){2,}+", " ");
+        date = date.replaceAll("([+-]\\d\\d):(\\d\\d)$", "$1$2");
+        date = date.replaceAll("CEST$", "+0200");
+        date = date.replaceAll("CET$", "+0100");
+        date = date.replaceAll("\\bSept\\b", "Sep");
+        if (date.contains(".")) {
+            int start = date.indexOf('.');
+            int current = start + 1;
+            while (current < date.length() && Character.isDigit(date.charAt(current))) {
+                current++;
+            }
+            if (current - start > 4) {
+                if (current < date.length() - 1) {
+                    date = date.substring(0, start + 4) + date.substring(current);
+                } else {
+                    date = date.substring(0, start + 4);
+                }
+            } else if (current - start < 4) {
+                if (current < date.length() - 1) {
+                    date = date.substring(0, current) + StringUtils.repeat("0", 4 - (current - start))
+                            + date.substring(current);
+                } else {
+                    date = date.substring(0, current) + StringUtils.repeat("0", 4 - (current - start));
+                }
+            }
+        }
+        final String[] patterns = {
+                "dd MMM yy HH:mm:ss Z", "dd MMM yy HH:mm Z", "EEE, dd MMM yyyy HH:mm:ss Z",
+                "EEE, dd MMM yyyy HH:mm:ss", "EEE, dd MMMM yyyy HH:mm:ss Z", "EEE, dd MMMM yyyy HH:mm:ss",
+                "EEEE, dd MMM yyyy HH:mm:ss Z", "EEEE, dd MMM yy HH:mm:ss Z", "EEEE, dd MMM yyyy HH:mm:ss",
+                "EEEE, dd MMM yy HH:mm:ss", "EEE MMM d HH:mm:ss yyyy", "EEE, dd MMM yyyy HH:mm Z",
+                "EEE, dd MMM yyyy HH:mm", "EEE, dd MMMM yyyy HH:mm Z", "EEE, dd MMMM yyyy HH:mm",
+                "EEEE, dd MMM yyyy HH:mm Z", "EEEE, dd MMM yy HH:mm Z", "EEEE, dd MMM yyyy HH:mm",
+                "EEEE, dd MMM yy HH:mm", "EEE MMM d HH:mm yyyy", "yyyy-MM-dd'T'HH:mm:ss",
+                "yyyy-MM-dd'T'HH:mm:ss.SSS Z", "yyyy-MM-dd'T'HH:mm:ss.SSS", "yyyy-MM-dd'T'HH:mm:ssZ",
+                "yyyy-MM-dd'T'HH:mm:ss'Z'", "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "yyyy-MM-ddZ", "yyyy-MM-dd",
+                "EEE d MMM yyyy HH:mm:ss 'GMT'Z (z)"
+        };
+        SimpleDateFormat parser = new SimpleDateFormat("", Locale.US);
+        parser.setLenient(false);
+        parser.setTimeZone(TimeZone.getTimeZone("GMT"));
+        ParsePosition pos = new ParsePosition(0);
+        for (String pattern : patterns) {
+            parser.applyPattern(pattern);
+            pos.setIndex(0);
+            try {
+                Date result = parser.parse(date, pos);
+                if (result != null && pos.getIndex() == date.length()) {
+                    return result;
+                }
+            } catch (Exception ignored) {
+                // Ignore
+            }
+        }
+        if (date.matches("^\\w+, .*$")) {
+            return parseWithCascade(date.substring(date.indexOf(',') + 1));
+        }
+        return null;
+    }
+}
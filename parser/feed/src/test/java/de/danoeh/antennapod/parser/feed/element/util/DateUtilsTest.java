@@ -172,4 +172,22 @@ public class DateUtilsTest {
         final Date actual = DateUtils.parse("Sun 01 Mar 2015 01:00:00 GMT-0400 (EDT)");
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void testParseDateWithZuluTimeAndMilliseconds() {
+        GregorianCalendar exp = new GregorianCalendar(2018, 4, 4, 12, 0, 0);
+        exp.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Date expected = new Date(exp.getTimeInMillis() + 5);
+        Date actual = DateUtils.parse("2018-05-04T12:00:00.005Z");
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testParseDateWithDayOutOfRange() {
+        GregorianCalendar exp = new GregorianCalendar(2014, 2, 3, 9, 0, 0);
+        exp.setTimeZone(TimeZone.getTimeZone("GMT"));
+        Date expected = new Date(exp.getTimeInMillis());
+        Date actual = DateUtils.parse("Mon, 31 Feb 2014 09:00:00 GMT"); // rolled over like before
+        assertEquals(expected, actual);
+    }
 }
@@ -0,0 +1,181 @@
+package de.danoeh.antennapod.parser.media;
+
+import androidx.annotation.NonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream over a media file that is read using range requests.
+ * Data is requested in windows. Skipping does not download the skipped bytes.
+ * Instead, the next read opens a new range at the target position.
+ */
+public class RangeInputStream extends InputStream {
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+    /**
+     * Gaps smaller than this are read from the current range instead of opening a new one.
+     */
+    private static final int MAX_READ_THROUGH_GAP = 8 * 1024;
+
+    /**
+     * Opens a stream for a range of the media file.
+     */
+    public interface RangeSource {
+        /**
+         * @param position Offset of the first byte in the file
+         * @param length   Maximum number of bytes that will be read from the returned stream
+         * @return Stream starting at the given position. It may end early if the file is shorter.
+         */
+        @NonNull
+        InputStream open(long position, long length) throws IOException;
+    }
+
+    private final RangeSource source;
+    private final long limit;
+    private final int windowSize;
+    private InputStream current = null;
+    private long currentPosition = 0;
+    private long currentEnd = 0;
+    private long position = 0;
+    private boolean endOfFile = false;
+
+    /**
+     * @param source Source for the ranges
+     * @param limit  Position after which nothing will be read, for example the end of an ID3 tag
+     */
+    public RangeInputStream(@NonNull RangeSource source, long limit) {
+        this(source, limit, DEFAULT_WINDOW_SIZE);
+    }
+
+    public RangeInputStream(@NonNull RangeSource source, long limit, int windowSize) {
+        this.source = source;
+        this.limit = limit;
+        this.windowSize = windowSize;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!prepareRead()) {
+            return -1;
+        }
+        int b = current.read();
+        if (b == -1) {
+            endOfFile = true;
+            return -1;
+        }
+        position++;
+        currentPosition++;
+        return b;
+    }
+
+    @Override
+    public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!prepareRead()) {
+            return -1;
+        }
+        int maxLength = (int) Math.min(length, currentEnd - position);
+        int read = current.read(buffer, offset, maxLength);
+        if (read == -1) {
+            endOfFile = true;
+            return -1;
+        }
+        position += read;
+        currentPosition += read;
+        return read;
+    }
+
+    /**
+     * Moves the position forward without downloading the skipped bytes.
+     */
+    @Override
+    public long skip(long n) {
+        if (n <= 0) {
+            return 0;
+        }
+        long skipped = Math.min(n, limit - position);
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeCurrent();
+    }
+
+    /**
+     * Makes sure that the current range stream is positioned at {@link #position}.
+     *
+     * @return false if there is nothing more to read
+     */
+    private boolean prepareRead() throws IOException {
+        if (position >= limit) {
+            return false;
+        }
+        if (current != null && position >= currentPosition && position < currentEnd
+                && position - currentPosition <= MAX_READ_THROUGH_GAP) {
+            long gap = position - currentPosition;
+            long skipped = skipUpTo(current, gap);
+            currentPosition += skipped;
+            if (skipped < gap) {
+                // The file ends within the gap. Report it like any other end of file.
+                endOfFile = true;
+            }
+            return !endOfFile;
+        }
+        closeCurrent();
+        long length = Math.min(windowSize, limit - position);
+        current = source.open(position, length);
+        currentPosition = position;
+        currentEnd = position + length;
+        endOfFile = false;
+        return true;
+    }
+
+    private void closeCurrent() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    /**
+     * Skips bytes of a range stream, reading them if the stream can not skip.
+     *
+     * @return The number of skipped bytes, which is less than requested only at the end of the stream
+     */
+    private static long skipUpTo(InputStream input, long toSkip) throws IOException {
+        long remaining = toSkip;
+        while (remaining > 0) {
+            long skipped = input.skip(remaining);
+            if (skipped <= 0) {
+                if (input.read() == -1) {
+                    break;
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+        return toSkip - remaining;
+    }
+
+    /**
+     * Skips bytes using {@link InputStream#skip(long)}, which seeks instead of reading
+     * for streams like {@link RangeInputStream} or file streams.
+     *
+     * @throws EOFException if the end of the stream is reached before skipping all bytes
+     */
+    public static void skipFully(InputStream input, long toSkip) throws IOException {
+        long skipped = skipUpTo(input, toSkip);
+        if (skipped < toSkip) {
+            throw new EOFException("Bytes to skip: " + toSkip + " actual: " + skipped);
+        }
+    }
+}
@@ -2,34 +2,186 @@ package de.danoeh.antennapod.parser.media.id3;
 
 import android.util.Log;
 import androidx.annotation.NonNull;
+import de.danoeh.antennapod.parser.media.RangeInputStream;
 import de.danoeh.antennapod.parser.media.id3.model.FrameHeader;
 import de.danoeh.antennapod.parser.media.id3.model.TagHeader;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.CountingInputStream;
 
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Reads the ID3 Tag of a given file.
+ * The tag can either be streamed or, if it was loaded with {@link #readTag(InputStream)}, decoded from a buffer.
  * See https://id3.org/id3v2.3.0
  */
 public class ID3Reader {
     private static final String TAG = "ID3Reader";
     private static final int FRAME_ID_LENGTH = 4;
+    public static final int HEADER_LENGTH = 10;
+    private static final int FOOTER_LENGTH = 10;
     public static final byte ENCODING_ISO = 0;
     public static final byte ENCODING_UTF16_WITH_BOM = 1;
     public static final byte ENCODING_UTF16_WITHOUT_BOM = 2;
     public static final byte ENCODING_UTF8 = 3;
+    /**
+     * Tags up to this size keep their buffer for the next tag read on the same thread.
+     */
+    private static final int MAX_POOLED_TAG_LENGTH = 1024 * 1024;
+    private static final int INITIAL_TAG_BUFFER_LENGTH = 64 * 1024;
+    /**
+     * Larger frames, like embedded pictures, are skipped by {@link #readTag(InputStream)}.
+     * Positions in a buffered tag therefore do not always match the file offsets.
+     */
+    static final int MAX_BUFFERED_FRAME_LENGTH = 256 * 1024;
+    static final int MAX_BUFFERED_TAG_LENGTH = 4 * 1024 * 1024;
+    private static final ThreadLocal<ByteBuffer> tagBufferPool = new ThreadLocal<>();
+    /**
+     * Frame IDs that are compared by the readers, so decoding them from a buffer does not create a new string.
+     */
+    private static final String[] KNOWN_FRAME_IDS = {"CHAP", "CTOC", "TIT2", "WXXX", "APIC", "COMM", "TXXX", "PRIV"};
+    private static final int[] KNOWN_FRAME_ID_VALUES = new int[KNOWN_FRAME_IDS.length];
+
+    static {
+        for (int i = 0; i < KNOWN_FRAME_IDS.length; i++) {
+            byte[] bytes = KNOWN_FRAME_IDS[i].getBytes(StandardCharsets.ISO_8859_1);
+            KNOWN_FRAME_ID_VALUES[i] = ByteBuffer.wrap(bytes).getInt();
+        }
+    }
 
     private TagHeader tagHeader;
     private final CountingInputStream inputStream;
+    private final ByteBuffer buffer;
 
     public ID3Reader(CountingInputStream input) {
         inputStream = input;
+        buffer = null;
+    }
+
+    /**
+     * @param tag Buffer containing the complete tag, starting with the ID3 header. See {@link #readTag(InputStream)}.
+     */
+    public ID3Reader(@NonNull ByteBuffer tag) {
+        inputStream = null;
+        buffer = tag;
+    }
+
+    /**
+     * Reads the tag, whose length is known from its header, into a buffer.
+     * Frames larger than {@link #MAX_BUFFERED_FRAME_LENGTH}, usually embedded pictures, are skipped
+     * and not part of the buffer. At most {@link #MAX_BUFFERED_TAG_LENGTH} bytes of frames are buffered,
+     * so a corrupted or malicious header can not make this allocate the size it declares.
+     * The buffer is pooled and only valid until the next call of this method on the same thread.
+     */
+    @NonNull
+    public static ByteBuffer readTag(@NonNull InputStream input) throws IOException, ID3ReaderException {
+        byte[] header = new byte[HEADER_LENGTH];
+        IOUtils.readFully(input, header);
+        getTagLength(header); // Validates the header
+        boolean synchsafeFrameSizes = header[3] >= 4;
+        int contentLength = unsynchsafe(readInt(header, 6));
+
+        ByteBuffer tag = tagBufferPool.get();
+        if (tag == null) {
+            tag = ByteBuffer.allocate(INITIAL_TAG_BUFFER_LENGTH);
+        }
+        tag.clear();
+        tag.put(header);
+        tag.array()[5] &= ~0b00010000; // The footer is not buffered
+
+        int consumed = 0;
+        if ((header[5] & 0b01000000) != 0) {
+            byte[] extendedHeaderSize = new byte[4];
+            IOUtils.readFully(input, extendedHeaderSize);
+            int extendedHeaderLength = readInt(extendedHeaderSize, 0);
+            if (extendedHeaderLength < 4 || extendedHeaderLength > MAX_BUFFERED_FRAME_LENGTH) {
+                throw new ID3ReaderException("Invalid extended header length: " + extendedHeaderLength);
+            }
+            tag = ensureCapacity(tag, extendedHeaderLength);
+            tag.put(extendedHeaderSize);
+            consumed += 4 + readInto(input, tag, extendedHeaderLength - 4);
+        }
+
+        byte[] frameHeader = new byte[HEADER_LENGTH];
+        while (consumed + HEADER_LENGTH <= contentLength) {
+            if (IOUtils.read(input, frameHeader) < HEADER_LENGTH) {
+                break; // File is truncated
+            }
+            consumed += HEADER_LENGTH;
+            int frameLength = readInt(frameHeader, 4);
+            if (synchsafeFrameSizes) {
+                frameLength = unsynchsafe(frameLength);
+            }
+            if (frameHeader[0] == 0 || frameLength < 0) {
+                break; // Padding or invalid frame, the readers stop there as well
+            } else if (frameLength > MAX_BUFFERED_FRAME_LENGTH) {
+                Log.d(TAG, "Not buffering large frame: " + new String(frameHeader, 0, FRAME_ID_LENGTH,
+                        StandardCharsets.ISO_8859_1) + ", size: " + frameLength);
+                try {
+                    RangeInputStream.skipFully(input, frameLength);
+                } catch (EOFException e) {
+                    break;
+                }
+                consumed += frameLength;
+                continue;
+            } else if (tag.position() + HEADER_LENGTH + frameLength > MAX_BUFFERED_TAG_LENGTH) {
+                Log.d(TAG, "Tag is too large, not buffering the remaining frames");
+                break;
+            }
+            tag = ensureCapacity(tag, HEADER_LENGTH + frameLength);
+            tag.put(frameHeader);
+            int read = readInto(input, tag, frameLength);
+            consumed += read;
+            if (read < frameLength) {
+                break; // File is truncated
+            }
+        }
+
+        // The skipped frames are not part of the buffer, so its header needs the new size
+        int bufferedContentLength = tag.position() - HEADER_LENGTH;
+        tag.put(6, (byte) ((bufferedContentLength >> 21) & 0x7F));
+        tag.put(7, (byte) ((bufferedContentLength >> 14) & 0x7F));
+        tag.put(8, (byte) ((bufferedContentLength >> 7) & 0x7F));
+        tag.put(9, (byte) (bufferedContentLength & 0x7F));
+        tag.flip();
+        if (tag.capacity() <= MAX_POOLED_TAG_LENGTH) {
+            tagBufferPool.set(tag);
+        } else {
+            tagBufferPool.remove();
+        }
+        return tag;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int additionalBytes) {
+        if (buffer.remaining() >= additionalBytes) {
+            return buffer;
+        }
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + additionalBytes);
+        ByteBuffer larger = ByteBuffer.allocate(Math.min(capacity, MAX_BUFFERED_TAG_LENGTH));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    /**
+     * @return The number of bytes read, which is less than requested only at the end of the stream
+     */
+    private static int readInto(InputStream input, ByteBuffer buffer, int length) throws IOException {
+        int read = IOUtils.read(input, buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+        buffer.position(buffer.position() + read);
+        return read;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
     }
 
     public void readInputStream() throws IOException, ID3ReaderException {
@@ -51,39 +203,67 @@ public class ID3Reader {
     }
 
     int getPosition() {
+        if (buffer != null) {
+            return buffer.position();
+        }
         return inputStream.getCount();
     }
 
     /**
      * Skip a certain number of bytes on the given input stream.
+     * Uses seeking if the underlying stream supports it, so large frames like embedded pictures are not read.
      */
     void skipBytes(int number) throws IOException, ID3ReaderException {
         if (number < 0) {
             throw new ID3ReaderException("Trying to read a negative number of bytes");
         }
-        IOUtils.skipFully(inputStream, number);
+        if (buffer != null) {
+            if (number > buffer.remaining()) {
+                buffer.position(buffer.limit());
+                throw new EOFException("Bytes to skip: " + number + " remaining: " + buffer.remaining());
+            }
+            buffer.position(buffer.position() + number);
+            return;
+        }
+        RangeInputStream.skipFully(inputStream, number);
+    }
+
+    /**
+     * Reads a byte. Like on a stream, reading after the end returns -1.
+     */
+    private int read() throws IOException {
+        if (buffer != null) {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+        return inputStream.read();
     }
 
     byte readByte() throws IOException {
-        return (byte) inputStream.read();
+        return (byte) read();
     }
 
     short readShort() throws IOException {
-        char firstByte = (char) inputStream.read();
-        char secondByte = (char) inputStream.read();
+        if (buffer != null && buffer.remaining() >= 2) {
+            return buffer.getShort();
+        }
+        char firstByte = (char) read();
+        char secondByte = (char) read();
         return (short) ((firstByte << 8) | secondByte);
     }
 
     int readInt() throws IOException {
-        char firstByte = (char) inputStream.read();
-        char secondByte = (char) inputStream.read();
-        char thirdByte = (char) inputStream.read();
-        char fourthByte = (char) inputStream.read();
+        if (buffer != null && buffer.remaining() >= 4) {
+            return buffer.getInt();
+        }
+        char firstByte = (char) read();
+        char secondByte = (char) read();
+        char thirdByte = (char) read();
+        char fourthByte = (char) read();
         return (firstByte << 24) | (secondByte << 16) | (thirdByte << 8) | fourthByte;
     }
 
     void expectChar(char expected) throws ID3ReaderException, IOException {
-        char read = (char) inputStream.read();
+        char read = (char) read();
         if (read != expected) {
             throw new ID3ReaderException("Expected " + expected + " and got " + read);
         }
@@ -115,7 +295,26 @@ public class ID3Reader {
         return new FrameHeader(id, size, flags);
     }
 
-    private int unsynchsafe(int in) {
+    /**
+     * Calculates the length of the complete tag from its header, so that readers of streamed media
+     * can request exactly the bytes that belong to the tag.
+     *
+     * @param header The first {@link #HEADER_LENGTH} bytes of the file
+     * @return Length of the tag including header and footer
+     */
+    public static int getTagLength(@NonNull byte[] header) throws ID3ReaderException {
+        if (header.length < HEADER_LENGTH || header[0] != 'I' || header[1] != 'D' || header[2] != '3') {
+            throw new ID3ReaderException("No ID3 header");
+        }
+        byte flags = header[5];
+        int length = HEADER_LENGTH + unsynchsafe(readInt(header, 6));
+        if ((flags & 0b00010000) != 0) {
+            length += FOOTER_LENGTH;
+        }
+        return length;
+    }
+
+    private static int unsynchsafe(int in) {
         int out = 0;
         int mask = 0x7F000000;
 
@@ -137,6 +336,21 @@ public class ID3Reader {
     }
 
     protected String readPlainBytesToString(int length) throws IOException {
+        if (buffer != null && buffer.remaining() >= length) {
+            if (length == FRAME_ID_LENGTH) {
+                int value = buffer.getInt(buffer.position());
+                for (int i = 0; i < KNOWN_FRAME_ID_VALUES.length; i++) {
+                    if (KNOWN_FRAME_ID_VALUES[i] == value) {
+                        buffer.position(buffer.position() + length);
+                        return KNOWN_FRAME_IDS[i];
+                    }
+                }
+            }
+            String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    length, StandardCharsets.ISO_8859_1);
+            buffer.position(buffer.position() + length);
+            return string;
+        }
         StringBuilder stringBuilder = new StringBuilder();
         int bytesRead = 0;
         while (bytesRead < length) {
@@ -165,6 +379,16 @@ public class ID3Reader {
      * Reads chars where the encoding uses 1 char per symbol.
      */
     private String readEncodedString1(Charset charset, int max) throws IOException {
+        if (buffer != null) {
+            int start = buffer.position();
+            int end = Math.min(buffer.limit(), start + Math.max(max, 0));
+            int terminator = start;
+            while (terminator < end && buffer.get(terminator) != 0) {
+                terminator++;
+            }
+            buffer.position(Math.min(end, terminator + 1));
+            return decodeInPlace(charset, start, terminator - start);
+        }
         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
         int bytesRead = 0;
         while (bytesRead < max) {
@@ -182,6 +406,9 @@ public class ID3Reader {
      * Reads chars where the encoding uses 2 chars per symbol.
      */
     private String readEncodedString2(Charset charset, int max) throws IOException {
+        if (buffer != null) {
+            return readEncodedString2InPlace(charset, max);
+        }
         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
         int bytesRead = 0;
         boolean foundEnd = false;
@@ -209,4 +436,40 @@ public class ID3Reader {
             return "";
         }
     }
+
+    /**
+     * Same as {@link #readEncodedString2(Charset, int)}, but decodes directly from the buffer.
+     */
+    private String readEncodedString2InPlace(Charset charset, int max) throws IOException {
+        int start = buffer.position();
+        int bytesRead = 0;
+        boolean foundEnd = false;
+        while (bytesRead + 1 < max && start + bytesRead + 2 <= buffer.limit()) {
+            if (buffer.get(start + bytesRead) == 0 && buffer.get(start + bytesRead + 1) == 0) {
+                foundEnd = true;
+                break;
+            }
+            bytesRead += 2;
+        }
+        int length = bytesRead;
+        buffer.position(start + bytesRead + (foundEnd ? 2 : 0));
+        if (!foundEnd && bytesRead < max && buffer.hasRemaining()) {
+            // Last character
+            if (buffer.get() != 0) {
+                length++;
+            }
+        }
+        try {
+            return decodeInPlace(charset, start, length);
+        } catch (MalformedInputException e) {
+            return "";
+        }
+    }
+
+    private String decodeInPlace(Charset charset, int offset, int length) throws IOException {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset);
+        slice.limit(offset + length);
+        return charset.newDecoder().decode(slice).toString();
+    }
 }
@@ -5,6 +5,7 @@ import de.danoeh.antennapod.parser.media.id3.model.FrameHeader;
 import org.apache.commons.io.input.CountingInputStream;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Reads general ID3 metadata like comment, which Android's MediaMetadataReceiver does not support.
@@ -18,6 +19,10 @@ public class Id3MetadataReader extends ID3Reader {
         super(input);
     }
 
+    public Id3MetadataReader(@NonNull ByteBuffer tag) {
+        super(tag);
+    }
+
     @Override
     protected void readFrame(@NonNull FrameHeader frameHeader) throws IOException, ID3ReaderException {
         if (FRAME_ID_COMMENT.equals(frameHeader.getId())) {
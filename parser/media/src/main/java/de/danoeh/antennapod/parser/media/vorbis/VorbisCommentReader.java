@@ -1,6 +1,7 @@
 package de.danoeh.antennapod.parser.media.vorbis;
 
 import androidx.annotation.NonNull;
+import de.danoeh.antennapod.parser.media.RangeInputStream;
 import org.apache.commons.io.EndianUtils;
 import org.apache.commons.io.IOUtils;
 import android.util.Log;
@@ -76,7 +77,8 @@ public abstract class VorbisCommentReader {
                 String value = readUtf8String(vectorLength - key.length() - 1);
                 onContentVectorValue(key, value);
             } else {
-                IOUtils.skipFully(input, vectorLength - key.length() - 1);
+                // Values that are not needed can be large, for example embedded pictures. Seek over them.
+                RangeInputStream.skipFully(input, vectorLength - key.length() - 1);
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -0,0 +1,124 @@
+package de.danoeh.antennapod.parser.media;
+
+import androidx.annotation.NonNull;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class RangeInputStreamTest {
+    private static final int FILE_SIZE = 1024 * 1024;
+
+    @Test
+    public void testReadSequentially() throws IOException {
+        CountingRangeSource source = new CountingRangeSource();
+        RangeInputStream in = new RangeInputStream(source, Long.MAX_VALUE, 100);
+        for (int i = 0; i < 250; i++) {
+            assertEquals(valueAt(i), in.read());
+        }
+        assertEquals(3, source.requests);
+        assertEquals(300, source.bytesRequested);
+    }
+
+    @Test
+    public void testSkipDoesNotLoadSkippedBytes() throws IOException {
+        CountingRangeSource source = new CountingRangeSource();
+        RangeInputStream in = new RangeInputStream(source, Long.MAX_VALUE, 100);
+        assertEquals(valueAt(0), in.read());
+        RangeInputStream.skipFully(in, 500000);
+        assertEquals(valueAt(500001), in.read());
+        assertEquals(500002, in.getPosition());
+        assertEquals(2, source.requests);
+        assertEquals(200, source.bytesRequested);
+    }
+
+    @Test
+    public void testSmallSkipUsesCurrentRange() throws IOException {
+        CountingRangeSource source = new CountingRangeSource();
+        RangeInputStream in = new RangeInputStream(source, Long.MAX_VALUE, 100);
+        assertEquals(valueAt(0), in.read());
+        RangeInputStream.skipFully(in, 10);
+        assertEquals(valueAt(11), in.read());
+        assertEquals(1, source.requests);
+    }
+
+    @Test
+    public void testLimit() throws IOException {
+        CountingRangeSource source = new CountingRangeSource();
+        RangeInputStream in = new RangeInputStream(source, 42);
+        byte[] buffer = new byte[100];
+        assertEquals(42, in.read(buffer, 0, buffer.length));
+        assertEquals(-1, in.read());
+        assertEquals(42, source.bytesRequested);
+    }
+
+    @Test
+    public void testSkipAfterEndOfFile() throws IOException {
+        RangeInputStream in = new RangeInputStream(new CountingRangeSource(), Long.MAX_VALUE, 100);
+        RangeInputStream.skipFully(in, FILE_SIZE + 1);
+        assertEquals(-1, in.read());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testSkipAfterLimit() throws IOException {
+        RangeInputStream in = new RangeInputStream(new CountingRangeSource(), 42, 100);
+        RangeInputStream.skipFully(in, 43);
+    }
+
+    @Test
+    public void testEndOfFileWithinSmallGap() throws IOException {
+        RangeInputStream in = new RangeInputStream(new ShortRangeSource(10), Long.MAX_VALUE, 100);
+        assertEquals(valueAt(0), in.read());
+        RangeInputStream.skipFully(in, 20);
+        assertEquals(-1, in.read());
+        byte[] buffer = new byte[10];
+        assertEquals(-1, in.read(buffer, 0, buffer.length));
+    }
+
+    private static int valueAt(long position) {
+        return (int) (position % 251);
+    }
+
+    private static class CountingRangeSource implements RangeInputStream.RangeSource {
+        int requests = 0;
+        long bytesRequested = 0;
+
+        @NonNull
+        @Override
+        public InputStream open(long position, long length) {
+            requests++;
+            long end = Math.min(FILE_SIZE, position + length);
+            byte[] data = new byte[(int) Math.max(0, end - position)];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) valueAt(position + i);
+            }
+            bytesRequested += data.length;
+            return new ByteArrayInputStream(data);
+        }
+    }
+
+    /**
+     * A file that is shorter than the ranges that are requested.
+     */
+    private static class ShortRangeSource implements RangeInputStream.RangeSource {
+        private final int fileSize;
+
+        ShortRangeSource(int fileSize) {
+            this.fileSize = fileSize;
+        }
+
+        @NonNull
+        @Override
+        public InputStream open(long position, long length) {
+            byte[] data = new byte[(int) Math.max(0, Math.min(fileSize, position + length) - position)];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) valueAt(position + i);
+            }
+            return new ByteArrayInputStream(data);
+        }
+    }
+}
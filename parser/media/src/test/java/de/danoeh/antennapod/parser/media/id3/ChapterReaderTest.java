@@ -2,6 +2,7 @@ package de.danoeh.antennapod.parser.media.id3;
 
 import de.danoeh.antennapod.model.feed.Chapter;
 import de.danoeh.antennapod.model.feed.EmbeddedChapterImage;
+import de.danoeh.antennapod.parser.media.RangeInputStream;
 import de.danoeh.antennapod.parser.media.id3.model.FrameHeader;
 import org.apache.commons.io.input.CountingInputStream;
 import org.junit.Test;
@@ -13,6 +14,7 @@ import java.io.IOException;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(RobolectricTestRunner.class)
 public class ChapterReaderTest {
@@ -57,6 +59,41 @@ public class ChapterReaderTest {
         assertEquals(CHAPTER_WITHOUT_SUBFRAME_START_TIME, reader.getChapters().get(1).getStart());
     }
 
+    @Test
+    public void testReadTagUsingRangesSkipsLargeFrames() throws IOException, ID3ReaderException {
+        byte[] chapter = Id3ReaderTest.concat(
+                Id3ReaderTest.generateFrameHeader(ChapterReader.FRAME_ID_CHAPTER, CHAPTER_WITHOUT_SUBFRAME.length),
+                CHAPTER_WITHOUT_SUBFRAME);
+        byte[] picture = new byte[500000];
+        byte[] tagContent = Id3ReaderTest.concat(
+                Id3ReaderTest.generateFrameHeader(ChapterReader.FRAME_ID_PICTURE, picture.length),
+                picture,
+                chapter);
+        int size = tagContent.length;
+        byte[] synchsafeHeader = {
+                'I', 'D', '3', // Identifier
+                3, 0, // Version
+                0, // Flags
+                (byte) ((size >> 21) & 0x7F), (byte) ((size >> 14) & 0x7F),
+                (byte) ((size >> 7) & 0x7F), (byte) (size & 0x7F), // Size
+        };
+        byte[] data = Id3ReaderTest.concat(synchsafeHeader, tagContent, new byte[1000]); // Audio data
+        assertEquals(data.length - 1000, ID3Reader.getTagLength(data));
+
+        int[] bytesLoaded = {0};
+        RangeInputStream.RangeSource source = (position, length) -> {
+            int end = (int) Math.min(data.length, position + length);
+            bytesLoaded[0] += end - (int) position;
+            return new ByteArrayInputStream(data, (int) position, end - (int) position);
+        };
+        RangeInputStream rangeStream = new RangeInputStream(source, ID3Reader.getTagLength(data), 1024);
+        ChapterReader reader = new ChapterReader(new CountingInputStream(rangeStream));
+        reader.readInputStream();
+        assertEquals(1, reader.getChapters().size());
+        assertEquals(CHAPTER_WITHOUT_SUBFRAME_START_TIME, reader.getChapters().get(0).getStart());
+        assertTrue(bytesLoaded[0] < 4096);
+    }
+
     @Test
     public void testReadChapterWithoutSubframes() throws IOException, ID3ReaderException {
         FrameHeader header = new FrameHeader(ChapterReader.FRAME_ID_CHAPTER,
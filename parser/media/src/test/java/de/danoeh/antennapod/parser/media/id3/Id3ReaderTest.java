@@ -10,6 +10,7 @@ import org.robolectric.RobolectricTestRunner;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertEquals;
@@ -101,6 +102,65 @@ public class Id3ReaderTest {
         assertTrue("Should respect limit even if it breaks a symbol", reader.getPosition() <= 6);
     }
 
+    @Test
+    public void testReadStringsFromBuffer() throws IOException {
+        byte[] data = {
+            ID3Reader.ENCODING_ISO,
+            'F', 'o', 'o',
+            0, // Null-terminated
+            ID3Reader.ENCODING_UTF16_WITH_BOM,
+            (byte) 0xff, (byte) 0xfe, // BOM: Little-endian
+            'A', 0, 'B', 0, 'C', 0,
+            0, 0, // Null-terminated
+            ID3Reader.ENCODING_UTF8,
+            'D', 'E', 'F', 'G'
+        };
+        ID3Reader reader = new ID3Reader(ByteBuffer.wrap(data));
+        assertEquals("Foo", reader.readEncodingAndString(1000));
+        assertEquals("ABC", reader.readEncodingAndString(1000));
+        assertEquals("DEF", reader.readEncodingAndString(4)); // Includes encoding
+        assertEquals('G', reader.readByte());
+        assertEquals(data.length, reader.getPosition());
+    }
+
+    @Test
+    public void testReadTagOnlyReadsTag() throws IOException, ID3ReaderException {
+        byte[] frame = concat(generateFrameHeader("TIT2", 3), new byte[] {ID3Reader.ENCODING_ISO, 'A', 'B'});
+        byte[] data = concat(generateId3Header(frame.length), frame, new byte[100]);
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(data);
+        ByteBuffer tag = ID3Reader.readTag(inputStream);
+        assertEquals(ID3Reader.HEADER_LENGTH + frame.length, tag.remaining());
+        assertEquals(100, inputStream.available());
+
+        ID3Reader reader = new ID3Reader(tag);
+        assertEquals(frame.length, reader.readTagHeader().getSize());
+        assertEquals("TIT2", reader.readFrameHeader().getId());
+    }
+
+    @Test
+    public void testReadTagSkipsLargeFrames() throws IOException, ID3ReaderException {
+        byte[] picture = concat(generateFrameHeader("APIC", ID3Reader.MAX_BUFFERED_FRAME_LENGTH + 1),
+                new byte[ID3Reader.MAX_BUFFERED_FRAME_LENGTH + 1]);
+        byte[] frame = concat(generateFrameHeader("TIT2", 3), new byte[] {ID3Reader.ENCODING_ISO, 'A', 'B'});
+        byte[] content = concat(picture, frame);
+        ByteBuffer tag = ID3Reader.readTag(new ByteArrayInputStream(concat(generateSynchsafeId3Header(content.length),
+                content)));
+        assertEquals(ID3Reader.HEADER_LENGTH + frame.length, tag.remaining());
+
+        ID3Reader reader = new ID3Reader(tag);
+        assertEquals(frame.length, reader.readTagHeader().getSize());
+        assertEquals("TIT2", reader.readFrameHeader().getId());
+    }
+
+    @Test
+    public void testReadTagDoesNotAllocateDeclaredLength() throws IOException, ID3ReaderException {
+        byte[] frame = concat(generateFrameHeader("TIT2", 3), new byte[] {ID3Reader.ENCODING_ISO, 'A', 'B'});
+        byte[] header = {'I', 'D', '3', 3, 0, 0, 0x7f, 0x7f, 0x7f, 0x7f}; // About 256 MB
+        ByteBuffer tag = ID3Reader.readTag(new ByteArrayInputStream(concat(header, frame)));
+        assertTrue(tag.capacity() <= ID3Reader.MAX_BUFFERED_TAG_LENGTH);
+        assertEquals(ID3Reader.HEADER_LENGTH + frame.length, tag.remaining());
+    }
+
     @Test
     public void testReadTagHeader() throws IOException, ID3ReaderException {
         byte[] data = generateId3Header(23);
@@ -140,6 +200,16 @@ public class Id3ReaderTest {
         };
     }
 
+    static byte[] generateSynchsafeId3Header(int size) {
+        return new byte[] {
+                'I', 'D', '3', // Identifier
+                3, 0, // Version
+                0, // Flags
+                (byte) ((size >> 21) & 0x7f), (byte) ((size >> 14) & 0x7f),
+                (byte) ((size >> 7) & 0x7f), (byte) (size & 0x7f), // Size
+        };
+    }
+
     static byte[] concat(byte[]... arrays) {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         try {
@@ -53,6 +53,7 @@ import androidx.media.MediaBrowserServiceCompat;
 import de.danoeh.antennapod.event.PlayerStatusEvent;
 import de.danoeh.antennapod.net.sync.serviceinterface.SynchronizationQueueSink;
 import de.danoeh.antennapod.playback.service.internal.LocalPSMP;
+import de.danoeh.antennapod.playback.service.internal.MediaBrowserCache;
 import de.danoeh.antennapod.playback.service.internal.PlayableUtils;
 import de.danoeh.antennapod.playback.service.internal.PlaybackServiceNotificationBuilder;
 import de.danoeh.antennapod.playback.service.internal.PlaybackServiceStateManager;
@@ -70,6 +71,7 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
 import de.danoeh.antennapod.storage.preferences.PlaybackPreferences;
@@ -94,7 +96,6 @@ import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.model.feed.FeedPreferences;
-import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.model.playback.MediaType;
 import de.danoeh.antennapod.model.playback.Playable;
 import de.danoeh.antennapod.playback.base.PlaybackServiceMediaPlayer;
@@ -169,6 +170,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
      * Used for Lollipop notifications, Android Wear, and Android Auto.
      */
     private MediaSessionCompat mediaSession;
+    private final MediaBrowserCache<MediaBrowserCompat.MediaItem> browseCache = new MediaBrowserCache<>();
 
     private static volatile MediaType currentMediaType = MediaType.UNKNOWN;
 
@@ -237,6 +239,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         registerReceiver(bluetoothStateUpdated, new IntentFilter(BluetoothA2dp.ACTION_CONNECTION_STATE_CHANGED));
         registerReceiver(audioBecomingNoisy, new IntentFilter(AudioManager.ACTION_AUDIO_BECOMING_NOISY));
         EventBus.getDefault().register(this);
+        EventBus.getDefault().register(browseCache);
         taskManager = new PlaybackServiceTaskManager(this, taskManagerCallback);
 
         recreateMediaSessionIfNeeded();
@@ -332,6 +335,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         mediaPlayer.shutdown();
         taskManager.shutdown();
         EventBus.getDefault().unregister(this);
+        EventBus.getDefault().unregister(browseCache);
     }
 
     @Override
@@ -403,11 +407,23 @@ public class PlaybackService extends MediaBrowserServiceCompat {
     @Override
     public void onLoadChildren(@NonNull String parentId,
                                @NonNull Result<List<MediaBrowserCompat.MediaItem>> result) {
-        Log.d(TAG, "OnLoadChildren: parentMediaId=" + parentId);
+        onLoadChildren(parentId, result, Bundle.EMPTY);
+    }
+
+    @Override
+    public void onLoadChildren(@NonNull String parentId,
+                               @NonNull Result<List<MediaBrowserCompat.MediaItem>> result,
+                               @NonNull Bundle options) {
+        Log.d(TAG, "OnLoadChildren: parentMediaId=" + parentId + ", options=" + options);
+        int page = options.getInt(MediaBrowserCompat.EXTRA_PAGE, -1);
+        int pageSize = options.getInt(MediaBrowserCompat.EXTRA_PAGE_SIZE, -1);
+        boolean paged = page >= 0 && pageSize > 0;
+        int offset = paged ? page * pageSize : 0;
+        int limit = paged ? pageSize : MAX_ANDROID_AUTO_EPISODES_PER_FEED;
         result.detach();
 
         Completable.create(emitter -> {
-            result.sendResult(loadChildrenSynchronous(parentId));
+            result.sendResult(loadChildrenSynchronous(parentId, paged, offset, limit));
             emitter.onComplete();
         })
                 .subscribeOn(Schedulers.io())
@@ -420,67 +436,95 @@ public class PlaybackService extends MediaBrowserServiceCompat {
                     });
     }
 
-    private List<MediaBrowserCompat.MediaItem> loadChildrenSynchronous(@NonNull String parentId) {
-        List<MediaBrowserCompat.MediaItem> mediaItems = new ArrayList<>();
+    private List<MediaBrowserCompat.MediaItem> loadChildrenSynchronous(@NonNull String parentId, boolean paged,
+                                                                       int offset, int limit) {
         if (parentId.equals(getResources().getString(R.string.app_name))) {
+            List<MediaBrowserCompat.MediaItem> mediaItems = new ArrayList<>();
             long currentlyPlaying = PlaybackPreferences.getCurrentPlayerStatus();
             if (currentlyPlaying == PlaybackPreferences.PLAYER_STATUS_PLAYING
                     || currentlyPlaying == PlaybackPreferences.PLAYER_STATUS_PAUSED) {
                 mediaItems.add(createBrowsableMediaItem(R.string.current_playing_episode, R.drawable.ic_play_48dp, 1));
             }
-            mediaItems.add(createBrowsableMediaItem(R.string.queue_label, R.drawable.ic_playlist_play_black,
-                    DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.QUEUED))));
-            mediaItems.add(createBrowsableMediaItem(R.string.downloads_label, R.drawable.ic_download_black,
-                    DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.DOWNLOADED))));
-            mediaItems.add(createBrowsableMediaItem(R.string.episodes_label, R.drawable.ic_feed_black,
-                    DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.UNPLAYED))));
-            List<Feed> feeds = DBReader.getFeedList();
-            for (Feed feed : feeds) {
-                mediaItems.add(createBrowsableMediaItemForFeed(feed));
+            mediaItems.addAll(loadCached(parentId, this::loadRootChildren));
+            if (paged) {
+                return subList(mediaItems, offset, limit);
             }
             return mediaItems;
+        } else if (parentId.equals(getString(R.string.current_playing_episode))) {
+            FeedMedia playable = DBReader.getFeedMedia(PlaybackPreferences.getCurrentlyPlayingFeedMediaId());
+            if (playable != null && playable.getMediaItem() != null) {
+                return Collections.singletonList(playable.getMediaItem());
+            }
+            return null;
         }
 
-        List<FeedItem> feedItems;
+        String key = parentId + "/" + offset + "/" + limit;
         if (parentId.equals(getResources().getString(R.string.queue_label))) {
-            feedItems = DBReader.getQueue();
+            return loadCached(key, () -> toMediaItems(subList(DBReader.getQueue(), offset, limit)));
         } else if (parentId.equals(getResources().getString(R.string.downloads_label))) {
-            feedItems = DBReader.getEpisodes(0, MAX_ANDROID_AUTO_EPISODES_PER_FEED,
-                    new FeedItemFilter(FeedItemFilter.DOWNLOADED), UserPreferences.getDownloadsSortedOrder());
+            return loadCached(key, () -> toMediaItems(DBReader.getEpisodes(offset, limit,
+                    new FeedItemFilter(FeedItemFilter.DOWNLOADED), UserPreferences.getDownloadsSortedOrder())));
         } else if (parentId.equals(getResources().getString(R.string.episodes_label))) {
-            feedItems = DBReader.getEpisodes(0, MAX_ANDROID_AUTO_EPISODES_PER_FEED,
-                    new FeedItemFilter(FeedItemFilter.UNPLAYED), UserPreferences.getAllEpisodesSortOrder());
+            return loadCached(key, () -> toMediaItems(DBReader.getEpisodes(offset, limit,
+                    new FeedItemFilter(FeedItemFilter.UNPLAYED, FeedItemFilter.HAS_MEDIA),
+                    UserPreferences.getAllEpisodesSortOrder())));
         } else if (parentId.startsWith("FeedId:")) {
             long feedId = Long.parseLong(parentId.split(":")[1]);
-            Feed feed = DBReader.getFeed(feedId);
-            SortOrder sortOrder = feed.getSortOrder();
-            if (sortOrder == null) {
-                sortOrder = SortOrder.DATE_NEW_OLD;
-            }
-            feedItems = DBReader.getFeedItemList(feed, FeedItemFilter.unfiltered(), sortOrder);
-        } else if (parentId.equals(getString(R.string.current_playing_episode))) {
-            FeedMedia playable = DBReader.getFeedMedia(PlaybackPreferences.getCurrentlyPlayingFeedMediaId());
-            if (playable != null) {
-                feedItems = Collections.singletonList(playable.getItem());
-            } else {
-                return null;
-            }
-        } else {
-            Log.e(TAG, "Parent ID not found: " + parentId);
-            return null;
+            // Only loads the requested page instead of all episodes of the feed
+            return loadCached(key, () -> toMediaItems(DBReader.getFeedItemPage(feedId,
+                    new FeedItemFilter(FeedItemFilter.HAS_MEDIA), offset, limit)));
         }
-        int count = 0;
+        Log.e(TAG, "Parent ID not found: " + parentId);
+        return null;
+    }
+
+    private List<MediaBrowserCompat.MediaItem> loadRootChildren() {
+        List<MediaBrowserCompat.MediaItem> mediaItems = new ArrayList<>();
+        mediaItems.add(createBrowsableMediaItem(R.string.queue_label, R.drawable.ic_playlist_play_black,
+                DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.QUEUED))));
+        mediaItems.add(createBrowsableMediaItem(R.string.downloads_label, R.drawable.ic_download_black,
+                DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.DOWNLOADED))));
+        mediaItems.add(createBrowsableMediaItem(R.string.episodes_label, R.drawable.ic_feed_black,
+                DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.UNPLAYED))));
+        List<Feed> feeds = DBReader.getFeedList();
+        for (Feed feed : feeds) {
+            mediaItems.add(createBrowsableMediaItemForFeed(feed));
+        }
+        return mediaItems;
+    }
+
+    private List<MediaBrowserCompat.MediaItem> loadCached(String key,
+                                                          Callable<List<MediaBrowserCompat.MediaItem>> loader) {
+        List<MediaBrowserCompat.MediaItem> cached = browseCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = browseCache.getGeneration();
+        List<MediaBrowserCompat.MediaItem> children;
+        try {
+            children = loader.call();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        browseCache.put(key, children, generation);
+        return children;
+    }
+
+    private static List<MediaBrowserCompat.MediaItem> toMediaItems(List<FeedItem> feedItems) {
+        List<MediaBrowserCompat.MediaItem> mediaItems = new ArrayList<>();
         for (FeedItem feedItem : feedItems) {
             if (feedItem.getMedia() != null && feedItem.getMedia().getMediaItem() != null) {
                 mediaItems.add(feedItem.getMedia().getMediaItem());
-                if (++count >= MAX_ANDROID_AUTO_EPISODES_PER_FEED) {
-                    break;
-                }
             }
         }
         return mediaItems;
     }
 
+    private static <T> List<T> subList(List<T> list, int offset, int limit) {
+        int from = Math.min(offset, list.size());
+        return new ArrayList<>(list.subList(from, Math.min(from + limit, list.size())));
+    }
+
     @Override
     public IBinder onBind(Intent intent) {
         Log.d(TAG, "Received onBind event");
@@ -0,0 +1,80 @@
+package de.danoeh.antennapod.playback.service.internal;
+
+import androidx.annotation.Nullable;
+import de.danoeh.antennapod.event.FeedItemEvent;
+import de.danoeh.antennapod.event.FeedListUpdateEvent;
+import de.danoeh.antennapod.event.QueueEvent;
+import de.danoeh.antennapod.event.UnreadItemsUpdateEvent;
+import org.greenrobot.eventbus.Subscribe;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps recently loaded nodes of the media browser tree, so that car head units that load the same
+ * nodes again and again do not query the database each time.
+ * Results of loads that started before the last invalidation are not stored.
+ * When registered on the event bus, the cache is invalidated whenever feeds, episodes or the queue change.
+ */
+public class MediaBrowserCache<T> {
+    static final int MAX_ENTRIES = 16;
+
+    private final Map<String, List<T>> entries = new LinkedHashMap<String, List<T>>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<T>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private long generation = 0;
+
+    /**
+     * @return The generation to pass to {@link #put} after loading the node
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    @Nullable
+    public synchronized List<T> get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores the node, unless the cache was invalidated since the given generation.
+     */
+    public synchronized void put(String key, List<T> children, long loadGeneration) {
+        if (loadGeneration == generation) {
+            entries.put(key, children);
+        }
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+
+    @Subscribe
+    @SuppressWarnings("unused")
+    public void onFeedListChanged(FeedListUpdateEvent event) {
+        invalidate();
+    }
+
+    @Subscribe
+    @SuppressWarnings("unused")
+    public void onQueueChanged(QueueEvent event) {
+        invalidate();
+    }
+
+    @Subscribe
+    @SuppressWarnings("unused")
+    public void onFeedItemChanged(FeedItemEvent event) {
+        invalidate();
+    }
+
+    @Subscribe
+    @SuppressWarnings("unused")
+    public void onUnreadItemsChanged(UnreadItemsUpdateEvent event) {
+        invalidate();
+    }
+}
@@ -0,0 +1,85 @@
+package de.danoeh.antennapod.playback.service.internal;
+
+import de.danoeh.antennapod.event.FeedItemEvent;
+import de.danoeh.antennapod.event.FeedListUpdateEvent;
+import de.danoeh.antennapod.event.QueueEvent;
+import de.danoeh.antennapod.event.UnreadItemsUpdateEvent;
+import de.danoeh.antennapod.model.feed.FeedItem;
+import org.greenrobot.eventbus.EventBus;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MediaBrowserCacheTest {
+    private static final List<String> CHILDREN = Collections.singletonList("child");
+
+    @Test
+    public void testGetReturnsStoredChildren() {
+        MediaBrowserCache<String> cache = new MediaBrowserCache<>();
+        assertNull(cache.get("node"));
+        cache.put("node", CHILDREN, cache.getGeneration());
+        assertEquals(CHILDREN, cache.get("node"));
+    }
+
+    @Test
+    public void testEventsDropStaleChildren() {
+        List<Object> events = Arrays.asList(
+                new FeedListUpdateEvent(1),
+                QueueEvent.cleared(),
+                FeedItemEvent.updated(new FeedItem()),
+                new UnreadItemsUpdateEvent());
+        for (Object event : events) {
+            EventBus eventBus = new EventBus();
+            MediaBrowserCache<String> cache = new MediaBrowserCache<>();
+            eventBus.register(cache);
+
+            long generation = cache.getGeneration();
+            cache.put("cached", CHILDREN, generation);
+            eventBus.post(event);
+            String eventName = event.getClass().getSimpleName();
+            assertTrue(eventName, cache.getGeneration() > generation);
+            assertNull(eventName, cache.get("cached"));
+
+            // A load that started before the event must not be stored
+            cache.put("loading", CHILDREN, generation);
+            assertNull(eventName, cache.get("loading"));
+
+            cache.put("loading", CHILDREN, cache.getGeneration());
+            assertEquals(eventName, CHILDREN, cache.get("loading"));
+        }
+    }
+
+    @Test
+    public void testUnregisteredCacheKeepsChildren() {
+        EventBus eventBus = new EventBus();
+        MediaBrowserCache<String> cache = new MediaBrowserCache<>();
+        eventBus.register(cache);
+        eventBus.unregister(cache);
+        cache.put("node", CHILDREN, cache.getGeneration());
+        eventBus.post(QueueEvent.cleared());
+        assertEquals(CHILDREN, cache.get("node"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedEntry() {
+        MediaBrowserCache<String> cache = new MediaBrowserCache<>();
+        for (int i = 0; i < MediaBrowserCache.MAX_ENTRIES; i++) {
+            cache.put("node" + i, CHILDREN, cache.getGeneration());
+        }
+        assertNotNull(cache.get("node0")); // Now the most recently used entry
+
+        cache.put("node" + MediaBrowserCache.MAX_ENTRIES, CHILDREN, cache.getGeneration());
+        assertNotNull(cache.get("node0"));
+        assertNull(cache.get("node1"));
+        for (int i = 2; i <= MediaBrowserCache.MAX_ENTRIES; i++) {
+            assertNotNull(cache.get("node" + i));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package de.danoeh.antennapod.storage.database;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import de.danoeh.antennapod.model.feed.Chapter;
+
+import java.util.List;
+
+/**
+ * Chapters that were parsed from a source other than the feed itself, together with
+ * the information needed to decide whether they are still up to date.
+ */
+public class CachedChapters {
+    public static final int SOURCE_MEDIA_FILE = 1;
+    public static final int SOURCE_PODCAST_INDEX = 2;
+
+    private final String url;
+    private final String validator;
+    private final List<Chapter> chapters;
+
+    public CachedChapters(String url, String validator, @NonNull List<Chapter> chapters) {
+        this.url = url;
+        this.validator = validator;
+        this.chapters = chapters;
+    }
+
+    /**
+     * URL the chapters were loaded from.
+     */
+    @Nullable
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * HTTP ETag of the response the chapters were parsed from, if the server provided one.
+     */
+    @Nullable
+    public String getValidator() {
+        return validator;
+    }
+
+    /**
+     * @return The cached chapters. An empty list means that the source was parsed but contains no chapters.
+     */
+    @NonNull
+    public List<Chapter> getChapters() {
+        return chapters;
+    }
+}
@@ -25,10 +25,12 @@ import de.danoeh.antennapod.model.feed.FeedPreferences;
 import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.model.feed.SubscriptionsFilter;
 import de.danoeh.antennapod.model.download.DownloadResult;
+import de.danoeh.antennapod.storage.database.mapper.ChapterCacheCursor;
 import de.danoeh.antennapod.storage.database.mapper.ChapterCursor;
 import de.danoeh.antennapod.storage.database.mapper.DownloadResultCursor;
 import de.danoeh.antennapod.storage.database.mapper.FeedCursor;
 import de.danoeh.antennapod.storage.database.mapper.FeedItemCursor;
+import de.danoeh.antennapod.storage.database.mapper.FeedItemSortQuery;
 
 /**
  * Provides methods for reading data from the AntennaPod database.
@@ -72,6 +74,24 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Passes all Feeds to the consumer, one at a time and sorted alphabetically by their title.
+     * Unlike {@link #getFeedList()}, this does not keep all feeds in memory at the same time.
+     * The FeedItem-lists of the feeds are not loaded.
+     */
+    public static <E extends Exception> void forEachFeed(@NonNull ItemConsumer<Feed, E> consumer) throws E {
+        Log.d(TAG, "forEachFeed() called");
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (FeedCursor cursor = new FeedCursor(adapter.getAllFeedsCursor())) {
+            while (cursor.moveToNext()) {
+                consumer.accept(cursor.getFeed());
+            }
+        } finally {
+            adapter.close();
+        }
+    }
+
     /**
      * Returns a list with the download URLs of all feeds.
      *
@@ -126,20 +146,28 @@ public final class DBReader {
      * @param items The FeedItems whose Feed-objects should be loaded.
      */
     private static void loadFeedDataOfFeedItemList(List<FeedItem> items) {
-        List<Feed> feeds = getFeedList();
+        Map<Long, Feed> feedIndex = getFeedIndex();
+        for (FeedItem item : items) {
+            setFeedOfItem(item, feedIndex);
+        }
+    }
 
+    private static Map<Long, Feed> getFeedIndex() {
+        List<Feed> feeds = getFeedList();
         Map<Long, Feed> feedIndex = new ArrayMap<>(feeds.size());
         for (Feed feed : feeds) {
             feedIndex.put(feed.getId(), feed);
         }
-        for (FeedItem item : items) {
-            Feed feed = feedIndex.get(item.getFeedId());
-            if (feed == null) {
-                Log.w(TAG, "No match found for item with ID " + item.getId() + ". Feed ID was " + item.getFeedId());
-                feed = new Feed("", "", "Error: Item without feed");
-            }
-            item.setFeed(feed);
+        return feedIndex;
+    }
+
+    private static void setFeedOfItem(FeedItem item, Map<Long, Feed> feedIndex) {
+        Feed feed = feedIndex.get(item.getFeedId());
+        if (feed == null) {
+            Log.w(TAG, "No match found for item with ID " + item.getId() + ". Feed ID was " + item.getFeedId());
+            feed = new Feed("", "", "Error: Item without feed");
         }
+        item.setFeed(feed);
     }
 
     /**
@@ -166,6 +194,48 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Loads a page of the FeedItems of a Feed. Unlike {@link #getFeedItemList(Feed, FeedItemFilter, SortOrder)},
+     * this does not set the items of the feed.
+     *
+     * @param previousItem The last item of the previous page, or null when loading the first page.
+     *                     For sort orders by date, the page starts after this item without skipping rows.
+     * @param offset       The number of items on the previous pages. Used for the other sort orders.
+     * @param limit        The maximum number of items to load
+     * @return A list with the FeedItems of the page. The Feed-attribute of the FeedItems will be set correctly.
+     */
+    @NonNull
+    public static List<FeedItem> getFeedItemList(final Feed feed, final FeedItemFilter filter, SortOrder sortOrder,
+                                                 @Nullable FeedItem previousItem, int offset, int limit) {
+        Log.d(TAG, "getFeedItemList() called with: feed = [" + feed + "], offset=" + offset + ", limit=" + limit);
+
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (FeedItemCursor cursor = new FeedItemCursor(
+                adapter.getItemsOfFeedCursor(feed, filter, sortOrder, previousItem, offset, limit))) {
+            List<FeedItem> items = extractItemlistFromCursor(cursor);
+            for (FeedItem item : items) {
+                item.setFeed(feed);
+            }
+            return items;
+        } finally {
+            adapter.close();
+        }
+    }
+
+    public static int getFeedItemCount(final Feed feed, final FeedItemFilter filter) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getItemsOfFeedCountCursor(feed, filter)) {
+            if (cursor.moveToFirst()) {
+                return cursor.getInt(0);
+            }
+            return -1;
+        } finally {
+            adapter.close();
+        }
+    }
+
     @NonNull
     private static List<FeedItem> extractItemlistFromCursor(FeedItemCursor cursor) {
         List<FeedItem> result = new ArrayList<>(cursor.getCount());
@@ -253,6 +323,80 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Passes all episodes matching the filter to the consumer, one at a time. Unlike
+     * {@link #getEpisodes}, this does not keep all episodes in memory at the same time.
+     * Tags and feeds of the items are set like for the other methods.
+     */
+    public static <E extends Exception> void forEachEpisode(FeedItemFilter filter, SortOrder sortOrder,
+            @NonNull ItemConsumer<FeedItem, E> consumer) throws E {
+        Log.d(TAG, "forEachEpisode() called");
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (FeedItemCursor cursor = new FeedItemCursor(
+                adapter.getEpisodesCursor(0, Integer.MAX_VALUE, filter, sortOrder))) {
+            forEachEpisode(cursor, consumer);
+        } finally {
+            adapter.close();
+        }
+    }
+
+    /**
+     * Like {@link #forEachEpisode(FeedItemFilter, SortOrder, ItemConsumer)}, but the episodes are grouped
+     * by the ID of their feed. Within a feed, they are sorted by the sort order.
+     */
+    public static <E extends Exception> void forEachEpisodeByFeed(FeedItemFilter filter, SortOrder sortOrder,
+            @NonNull ItemConsumer<FeedItem, E> consumer) throws E {
+        Log.d(TAG, "forEachEpisodeByFeed() called");
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (FeedItemCursor cursor = new FeedItemCursor(adapter.getEpisodesByFeedCursor(filter, sortOrder))) {
+            forEachEpisode(cursor, consumer);
+        } finally {
+            adapter.close();
+        }
+    }
+
+    private static <E extends Exception> void forEachEpisode(FeedItemCursor cursor,
+            ItemConsumer<FeedItem, E> consumer) throws E {
+        LongList favoriteIds = getFavoriteIDList();
+        LongList queueIds = getQueueIDList();
+        Map<Long, Feed> feedIndex = getFeedIndex();
+        cursor.forEachItem(item -> {
+            if (favoriteIds.contains(item.getId())) {
+                item.addTag(FeedItem.TAG_FAVORITE);
+            }
+            if (queueIds.contains(item.getId())) {
+                item.addTag(FeedItem.TAG_QUEUE);
+            }
+            setFeedOfItem(item, feedIndex);
+            consumer.accept(item);
+        });
+    }
+
+    /**
+     * Loads only the IDs of the episodes matching the filter. This should be preferred over
+     * {@link #getEpisodes} when only a few of the items are needed afterwards,
+     * for example to load them with {@link #getFeedItemsByIds}.
+     *
+     * @return The IDs, sorted by the sort order. Items with equal values are sorted by ID.
+     */
+    @NonNull
+    public static LongList getEpisodeIds(FeedItemFilter filter, SortOrder sortOrder) {
+        Log.d(TAG, "getEpisodeIds() called");
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getEpisodeIdsCursor(filter, sortOrder)) {
+            LongList ids = new LongList(cursor.getCount());
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getLong(0));
+            }
+            return ids;
+        } finally {
+            adapter.close();
+        }
+    }
+
     public static int getTotalEpisodeCount(FeedItemFilter filter) {
         PodDBAdapter adapter = PodDBAdapter.getInstance();
         adapter.open();
@@ -336,6 +480,73 @@ public final class DBReader {
         return getFeed(feedId, false);
     }
 
+    /**
+     * Loads a specific Feed from the database, together with the first page of its items.
+     * If the database cannot sort by the sort order of the feed, all items are loaded and sorted in memory.
+     *
+     * @param feedId The ID of the Feed
+     * @param filtered <code>true</code> if only the visible items should be loaded according to the feed filter.
+     * @param limit The maximum number of items to load
+     * @return The Feed or null if the Feed could not be found.
+     */
+    @Nullable
+    public static Feed getFeed(final long feedId, boolean filtered, int limit) {
+        Log.d(TAG, "getFeed() called with: " + "feedId = [" + feedId + "], limit = " + limit);
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        Feed feed = null;
+        try (FeedCursor cursor = new FeedCursor(adapter.getFeedCursor(feedId))) {
+            if (cursor.moveToNext()) {
+                feed = cursor.getFeed();
+                FeedItemFilter filter = filtered ? feed.getItemFilter() : FeedItemFilter.unfiltered();
+                if (FeedItemSortQuery.isSupported(feed.getSortOrder())) {
+                    feed.setItems(getFeedItemList(feed, filter, feed.getSortOrder(), null, 0, limit));
+                } else {
+                    List<FeedItem> items = getFeedItemList(feed, filter, feed.getSortOrder());
+                    FeedItemPermutors.getPermutor(feed.getSortOrder()).reorder(items);
+                    feed.setItems(items);
+                }
+            } else {
+                Log.e(TAG, "getFeed could not find feed with id " + feedId);
+            }
+            return feed;
+        } finally {
+            adapter.close();
+        }
+    }
+
+    /**
+     * Loads a page of the items of a feed in the sort order of the feed, without loading the other items.
+     * Items of sort orders that the database cannot handle are sorted in memory.
+     *
+     * @param feedId The ID of the Feed
+     * @param filter The filter describing which items to load
+     * @param offset The number of items on the previous pages
+     * @param limit  The maximum number of items to load
+     * @return The items of the page, with their feed set. Empty if the feed could not be found.
+     */
+    @NonNull
+    public static List<FeedItem> getFeedItemPage(final long feedId, FeedItemFilter filter, int offset, int limit) {
+        Log.d(TAG, "getFeedItemPage() called with: feedId = [" + feedId + "], offset=" + offset + ", limit=" + limit);
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (FeedCursor cursor = new FeedCursor(adapter.getFeedCursor(feedId))) {
+            if (!cursor.moveToNext()) {
+                return new ArrayList<>();
+            }
+            Feed feed = cursor.getFeed();
+            if (FeedItemSortQuery.isSupported(feed.getSortOrder())) {
+                return getFeedItemList(feed, filter, feed.getSortOrder(), null, offset, limit);
+            }
+            List<FeedItem> items = getFeedItemList(feed, filter, feed.getSortOrder());
+            FeedItemPermutors.getPermutor(feed.getSortOrder()).reorder(items);
+            int from = Math.min(offset, items.size());
+            return new ArrayList<>(items.subList(from, Math.min(from + limit, items.size())));
+        } finally {
+            adapter.close();
+        }
+    }
+
     /**
      * Loads a specific Feed from the database.
      *
@@ -499,6 +710,35 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Loads the chapters of an item that were cached from the given source.
+     *
+     * @param itemId The id of the FeedItem
+     * @param source One of the source constants of {@link CachedChapters}
+     * @return The cached chapters, or null if the source was not parsed yet
+     */
+    @Nullable
+    public static CachedChapters getCachedChapters(final long itemId, final int source) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (ChapterCacheCursor cursor = new ChapterCacheCursor(adapter.getCachedChaptersCursor(itemId, source))) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            String url = cursor.getUrl();
+            String validator = cursor.getValidator();
+            List<Chapter> chapters = new ArrayList<>();
+            do {
+                if (cursor.isChapter()) {
+                    chapters.add(cursor.getChapter());
+                }
+            } while (cursor.moveToNext());
+            return new CachedChapters(url, validator, chapters);
+        } finally {
+            adapter.close();
+        }
+    }
+
     /**
      * Searches the DB for a FeedMedia of the given id.
      *
@@ -522,6 +762,36 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Loads the FeedItems with the given IDs, including their tags and feeds.
+     * Used to refresh only the items that changed instead of reloading whole lists.
+     *
+     * @param itemIds IDs of the items. IDs that do not exist in the database are ignored.
+     * @return The items in no particular order
+     */
+    @NonNull
+    public static List<FeedItem> getFeedItemsByIds(long... itemIds) {
+        List<FeedItem> items = new ArrayList<>(itemIds.length);
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try {
+            for (int start = 0; start < itemIds.length; start += PodDBAdapter.IN_OPERATOR_MAXIMUM) {
+                int end = Math.min(itemIds.length, start + PodDBAdapter.IN_OPERATOR_MAXIMUM);
+                String[] ids = new String[end - start];
+                for (int i = start; i < end; i++) {
+                    ids[i - start] = String.valueOf(itemIds[i]);
+                }
+                try (FeedItemCursor itemCursor = new FeedItemCursor(adapter.getFeedItemCursor(ids))) {
+                    items.addAll(extractItemlistFromCursor(itemCursor));
+                }
+            }
+            loadAdditionalFeedItemListData(items);
+            return items;
+        } finally {
+            adapter.close();
+        }
+    }
+
     public static List<FeedItem> getFeedItemsWithUrl(List<String> urls) {
         PodDBAdapter adapter = PodDBAdapter.getInstance();
         adapter.open();
@@ -338,6 +338,13 @@ class DBUpgrader {
             db.execSQL("ALTER TABLE " + PodDBAdapter.TABLE_NAME_FEEDS
                     + " ADD COLUMN " + PodDBAdapter.KEY_FEED_SKIP_SILENCE + " INTEGER");
         }
+        if (oldVersion < 3050000) {
+            db.execSQL(PodDBAdapter.CREATE_TABLE_CHAPTER_CACHE);
+            db.execSQL(PodDBAdapter.CREATE_INDEX_CHAPTER_CACHE_FEEDITEM);
+            db.execSQL("ALTER TABLE " + PodDBAdapter.TABLE_NAME_FEED_MEDIA
+                    + " ADD COLUMN " + PodDBAdapter.KEY_LAST_MODIFIED + " INTEGER DEFAULT 0");
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDITEMS_FEED_PUBDATE);
+        }
     }
 
 }
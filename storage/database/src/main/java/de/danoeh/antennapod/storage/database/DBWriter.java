@@ -12,6 +12,7 @@ import androidx.annotation.Nullable;
 import androidx.documentfile.provider.DocumentFile;
 
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
 import de.danoeh.antennapod.event.DownloadLogEvent;
 
 import de.danoeh.antennapod.net.download.serviceinterface.AutoDownloadManager;
@@ -23,10 +24,12 @@ import org.greenrobot.eventbus.EventBus;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -43,6 +46,7 @@ import de.danoeh.antennapod.event.FeedEvent;
 import de.danoeh.antennapod.storage.preferences.PlaybackPreferences;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import de.danoeh.antennapod.model.download.DownloadResult;
+import de.danoeh.antennapod.model.feed.Chapter;
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedMedia;
@@ -63,6 +67,8 @@ public class DBWriter {
 
     private static final ExecutorService dbExec;
 
+    private static final ExecutorService fileExec;
+
     static {
         dbExec = Executors.newSingleThreadExecutor(r -> {
             Thread t = new Thread(r);
@@ -70,6 +76,12 @@ public class DBWriter {
             t.setPriority(Thread.MIN_PRIORITY);
             return t;
         });
+        fileExec = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("FileDeletionExecutor");
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
     }
 
     private DBWriter() {
@@ -160,24 +172,19 @@ public class DBWriter {
      * @param feedId  ID of the Feed that should be deleted.
      */
     public static Future<?> deleteFeed(final Context context, final long feedId) {
-        return runOnDbThread(() -> {
+        return runDeletion(() -> {
             final Feed feed = DBReader.getFeed(feedId, false);
             if (feed == null) {
-                return;
+                return Collections.emptyList();
             }
 
-            deleteFeedItemsSynchronous(context, feed.getItems());
-
-            // delete feed
-            PodDBAdapter adapter = PodDBAdapter.getInstance();
-            adapter.open();
-            adapter.removeFeed(feed);
-            adapter.close();
+            List<File> files = deleteFeedItemsSynchronous(context, feed.getItems(), feed);
 
             if (!feed.isLocalFeed()) {
                 SynchronizationQueueSink.enqueueFeedRemovedIfSynchronizationIsActive(context, feed.getDownloadUrl());
             }
             EventBus.getDefault().post(new FeedListUpdateEvent(feed));
+            return files;
         });
     }
 
@@ -187,47 +194,85 @@ public class DBWriter {
      */
     @NonNull
     public static Future<?> deleteFeedItems(@NonNull Context context, @NonNull List<FeedItem> items) {
-        return runOnDbThread(() -> deleteFeedItemsSynchronous(context, items));
+        return runDeletion(() -> deleteFeedItemsSynchronous(context, items, null));
     }
 
     /**
      * Remove the listed items and their FeedMedia entries.
      * Deleting media also removes the download log entries.
+     * All items are removed from the database at once, and all events are sent once at the end.
+     *
+     * @param feed If not null, the feed is removed together with all of its items
+     * @return The downloaded files of the items, which still need to be deleted
      */
-    private static void deleteFeedItemsSynchronous(@NonNull Context context, @NonNull List<FeedItem> items) {
-        List<FeedItem> queue = DBReader.getQueue();
-        List<FeedItem> removedFromQueue = new ArrayList<>();
+    private static List<File> deleteFeedItemsSynchronous(@NonNull Context context, @NonNull List<FeedItem> items,
+                                                         @Nullable Feed feed) {
+        LongList queueIds = DBReader.getQueueIDList();
+        long currentlyPlayingMediaId = PlaybackPreferences.getCurrentlyPlayingFeedMediaId();
+        boolean removedFromQueue = false;
+        boolean removedCurrentlyPlaying = false;
+        List<File> files = new ArrayList<>();
+        List<FeedItem> itemsWithDeletedMedia = new ArrayList<>();
+        List<EpisodeAction> deleteActions = new ArrayList<>();
         for (FeedItem item : items) {
-            if (queue.remove(item)) {
-                removedFromQueue.add(item);
+            if (queueIds.contains(item.getId())) {
+                removedFromQueue = true;
             }
-            if (item.getMedia() != null) {
-                if (item.getMedia().getId() == PlaybackPreferences.getCurrentlyPlayingFeedMediaId()) {
-                    // Applies to both downloaded and streamed media
-                    PlaybackPreferences.writeNoMediaPlaying();
-                    context.sendBroadcast(MediaButtonStarter.createIntent(context, KeyEvent.KEYCODE_MEDIA_STOP));
-                }
-                if (!item.getFeed().isLocalFeed()) {
-                    if (DownloadServiceInterface.get().isDownloadingEpisode(item.getMedia().getDownloadUrl())) {
-                        DownloadServiceInterface.get().cancel(context, item.getMedia());
-                    }
-                    if (item.getMedia().isDownloaded()) {
-                        deleteFeedMediaSynchronous(context, item.getMedia());
-                    }
-                }
+            FeedMedia media = item.getMedia();
+            if (media == null) {
+                continue;
+            }
+            if (media.getId() == currentlyPlayingMediaId) {
+                // Applies to both downloaded and streamed media
+                removedCurrentlyPlaying = true;
             }
+            if (item.getFeed().isLocalFeed()) {
+                continue;
+            }
+            if (DownloadServiceInterface.get().isDownloadingEpisode(media.getDownloadUrl())) {
+                DownloadServiceInterface.get().cancel(context, media);
+            }
+            if (!media.isDownloaded()) {
+                continue;
+            }
+            if (media.getLocalFileUrl() != null && media.getLocalFileUrl().startsWith("content://")) {
+                deleteFeedMediaSynchronous(context, media);
+                continue;
+            }
+            if (media.getLocalFileUrl() != null) {
+                files.add(new File(media.getLocalFileUrl()));
+            }
+            media.setDownloaded(false);
+            media.setLocalFileUrl(null);
+            media.setHasEmbeddedPicture(false);
+            itemsWithDeletedMedia.add(item);
+            deleteActions.add(new EpisodeAction.Builder(item, EpisodeAction.DELETE)
+                    .currentTimestamp()
+                    .build());
+        }
+
+        if (removedCurrentlyPlaying) {
+            PlaybackPreferences.writeNoMediaPlaying();
+            context.sendBroadcast(MediaButtonStarter.createIntent(context, KeyEvent.KEYCODE_MEDIA_STOP));
         }
 
         PodDBAdapter adapter = PodDBAdapter.getInstance();
         adapter.open();
-        if (!removedFromQueue.isEmpty()) {
-            adapter.setQueue(queue);
+        if (feed != null) {
+            adapter.removeFeed(feed);
+        } else {
+            adapter.removeFeedItems(items);
         }
-        adapter.removeFeedItems(items);
         adapter.close();
 
-        for (FeedItem item : removedFromQueue) {
-            EventBus.getDefault().post(QueueEvent.irreversibleRemoved(item));
+        // Gpodder: queue delete actions for synchronization
+        SynchronizationQueueSink.enqueueEpisodeActionsIfSynchronizationIsActive(context, deleteActions);
+
+        if (!itemsWithDeletedMedia.isEmpty()) {
+            EventBus.getDefault().post(FeedItemEvent.updated(itemsWithDeletedMedia));
+        }
+        if (removedFromQueue) {
+            EventBus.getDefault().post(QueueEvent.setQueue(DBReader.getQueue()));
         }
 
         // we assume we also removed download log entries for the feed or its media files.
@@ -237,6 +282,35 @@ public class DBWriter {
 
         BackupManager backupManager = new BackupManager(context);
         backupManager.dataChanged();
+        return files;
+    }
+
+    /**
+     * Runs the database part of a deletion on the database thread. The files it returns are then deleted
+     * on a separate thread, so that deleting thousands of files does not block other database operations.
+     *
+     * @return Future that completes after the files are deleted as well
+     */
+    private static Future<?> runDeletion(Callable<List<File>> databaseTask) {
+        SettableFuture<Object> result = SettableFuture.create();
+        runOnDbThread(() -> {
+            List<File> files;
+            try {
+                files = databaseTask.call();
+            } catch (Exception e) {
+                result.setException(e);
+                return;
+            }
+            fileExec.execute(() -> {
+                for (File file : files) {
+                    if (file.exists() && !file.delete()) {
+                        Log.d(TAG, "Deletion of downloaded file failed: " + file);
+                    }
+                }
+                result.set(null);
+            });
+        });
+        return result;
     }
 
     /**
@@ -713,7 +787,7 @@ public class DBWriter {
             adapter.setFeedItemRead(played, itemIds);
             adapter.close();
             if (broadcastUpdate) {
-                EventBus.getDefault().post(new UnreadItemsUpdateEvent());
+                EventBus.getDefault().post(new UnreadItemsUpdateEvent(itemIds));
             }
         });
     }
@@ -744,7 +818,7 @@ public class DBWriter {
                     resetMediaPosition);
             adapter.close();
 
-            EventBus.getDefault().post(new UnreadItemsUpdateEvent());
+            EventBus.getDefault().post(new UnreadItemsUpdateEvent(new long[] {itemId}));
         });
     }
 
@@ -785,11 +859,13 @@ public class DBWriter {
             adapter.setCompleteFeed(feeds);
             adapter.close();
 
+            List<String> downloadUrls = new ArrayList<>();
             for (Feed feed : feeds) {
                 if (!feed.isLocalFeed()) {
-                    SynchronizationQueueSink.enqueueFeedAddedIfSynchronizationIsActive(context, feed.getDownloadUrl());
+                    downloadUrls.add(feed.getDownloadUrl());
                 }
             }
+            SynchronizationQueueSink.enqueueFeedsAddedIfSynchronizationIsActive(context, downloadUrls);
 
             BackupManager backupManager = new BackupManager(context);
             backupManager.dataChanged();
@@ -830,6 +906,25 @@ public class DBWriter {
         });
     }
 
+    /**
+     * Replaces the cached chapters of a FeedItem from the given source.
+     *
+     * @param itemId    The id of the FeedItem
+     * @param source    One of the source constants of {@link CachedChapters}
+     * @param url       The URL the chapters were loaded from
+     * @param validator The ETag of the response, if available
+     * @param chapters  The parsed chapters. Pass an empty list to remember that the source has no chapters.
+     */
+    public static Future<?> setCachedChapters(final long itemId, final int source, final String url,
+                                              final String validator, final List<Chapter> chapters) {
+        return runOnDbThread(() -> {
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setCachedChapters(itemId, source, url, validator, chapters);
+            adapter.close();
+        });
+    }
+
     /**
      * Saves the 'position', 'duration' and 'last played time' attributes of a FeedMedia object
      *
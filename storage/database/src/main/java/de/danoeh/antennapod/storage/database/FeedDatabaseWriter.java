@@ -3,6 +3,7 @@ package de.danoeh.antennapod.storage.database;
 import android.content.Context;
 import android.text.TextUtils;
 import android.util.Log;
+import androidx.annotation.Nullable;
 import de.danoeh.antennapod.event.FeedListUpdateEvent;
 import de.danoeh.antennapod.model.download.DownloadError;
 import de.danoeh.antennapod.model.download.DownloadResult;
@@ -19,8 +20,10 @@ import org.greenrobot.eventbus.EventBus;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -87,7 +90,19 @@ public abstract class FeedDatabaseWriter {
      *                            I.e. items are removed from the database if they are not in this item list.
      * @return The updated Feed from the database if it already existed, or the new Feed from the parameters otherwise.
      */
-    public static synchronized Feed updateFeed(Context context, Feed newFeed, boolean removeUnlistedItems) {
+    public static Feed updateFeed(Context context, Feed newFeed, boolean removeUnlistedItems) {
+        return updateFeed(context, newFeed, removeUnlistedItems, null);
+    }
+
+    /**
+     * Like {@link #updateFeed(Context, Feed, boolean)}, but also reports which items were added to the inbox.
+     * This allows counting new episodes without querying the database again.
+     *
+     * @param newInboxItems If not null, the new items of an existing feed that were added to the inbox
+     *                      are added to this list.
+     */
+    public static synchronized Feed updateFeed(Context context, Feed newFeed, boolean removeUnlistedItems,
+                                               @Nullable List<FeedItem> newInboxItems) {
         Feed resultFeed;
         List<FeedItem> unlistedItems = new ArrayList<>();
         List<FeedItem> itemsToAddToQueue = new ArrayList<>();
@@ -193,6 +208,9 @@ public abstract class FeedDatabaseWriter {
                         switch (action) {
                             case ADD_TO_INBOX:
                                 item.setNew();
+                                if (newInboxItems != null) {
+                                    newInboxItems.add(item);
+                                }
                                 break;
                             case ADD_TO_QUEUE:
                                 itemsToAddToQueue.add(item);
@@ -253,6 +271,39 @@ public abstract class FeedDatabaseWriter {
         return resultFeed;
     }
 
+    /**
+     * Adds many new feeds at once, for example when importing subscriptions from another app.
+     * Feeds that are already subscribed or that occur twice in the list are skipped.
+     * All new feeds are inserted in a single transaction. They are not refreshed by this method.
+     *
+     * @param context  Used for accessing the DB.
+     * @param newFeeds Feeds to add, usually without items.
+     * @return The feeds that were actually added.
+     */
+    public static synchronized List<Feed> addNewFeeds(Context context, List<Feed> newFeeds) {
+        Set<String> knownIdentifyingValues = new HashSet<>();
+        for (Feed feed : DBReader.getFeedList()) {
+            knownIdentifyingValues.add(feed.getIdentifyingValue());
+        }
+        List<Feed> feedsToAdd = new ArrayList<>();
+        for (Feed feed : newFeeds) {
+            if (knownIdentifyingValues.add(feed.getIdentifyingValue())) {
+                feedsToAdd.add(feed);
+            }
+        }
+        Log.d(TAG, "Adding " + feedsToAdd.size() + " of " + newFeeds.size() + " feeds");
+        if (feedsToAdd.isEmpty()) {
+            return feedsToAdd;
+        }
+        try {
+            DBWriter.addNewFeed(context, feedsToAdd.toArray(new Feed[0])).get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        EventBus.getDefault().post(new FeedListUpdateEvent(feedsToAdd));
+        return feedsToAdd;
+    }
+
     private static String duplicateEpisodeDetails(FeedItem item) {
         return "Title: " + item.getTitle()
                 + "\nID: " + item.getItemIdentifier()
@@ -6,7 +6,6 @@ import androidx.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -40,10 +39,10 @@ public class FeedItemPermutors {
                 comparator = (f1, f2) -> itemTitle(f2).compareTo(itemTitle(f1));
                 break;
             case DATE_OLD_NEW:
-                comparator = (f1, f2) -> pubDate(f1).compareTo(pubDate(f2));
+                comparator = (f1, f2) -> Long.compare(pubDate(f1), pubDate(f2));
                 break;
             case DATE_NEW_OLD:
-                comparator = (f1, f2) -> pubDate(f2).compareTo(pubDate(f1));
+                comparator = (f1, f2) -> Long.compare(pubDate(f2), pubDate(f1));
                 break;
             case DURATION_SHORT_LONG:
                 comparator = (f1, f2) -> Integer.compare(duration(f1), duration(f2));
@@ -79,8 +78,8 @@ public class FeedItemPermutors {
                 comparator = (f1, f2) -> Long.compare(size(f2), size(f1));
                 break;
             case COMPLETION_DATE_NEW_OLD:
-                comparator = (f1, f2) -> f2.getMedia().getPlaybackCompletionDate()
-                        .compareTo(f1.getMedia().getPlaybackCompletionDate());
+                comparator = (f1, f2) -> Long.compare(f2.getMedia().getPlaybackCompletionTime(),
+                        f1.getMedia().getPlaybackCompletionTime());
                 break;
             default:
                 throw new IllegalArgumentException("Permutor not implemented");
@@ -95,9 +94,8 @@ public class FeedItemPermutors {
 
     // Null-safe accessors
 
-    @NonNull
-    private static Date pubDate(@Nullable FeedItem item) {
-        return (item != null && item.getPubDate() != null) ? item.getPubDate() : new Date(0);
+    private static long pubDate(@Nullable FeedItem item) {
+        return item != null ? item.getPubDateMillis() : 0;
     }
 
     @NonNull
@@ -159,8 +157,8 @@ public class FeedItemPermutors {
 
         // Sort each individual list by PubDate (ascending/descending)
         Comparator<FeedItem> itemComparator = ascending
-                ? (f1, f2) -> f1.getPubDate().compareTo(f2.getPubDate())
-                : (f1, f2) -> f2.getPubDate().compareTo(f1.getPubDate());
+                ? (f1, f2) -> Long.compare(f1.getPubDateMillis(), f2.getPubDateMillis())
+                : (f1, f2) -> Long.compare(f2.getPubDateMillis(), f1.getPubDateMillis());
         List<List<FeedItem>> feeds = new ArrayList<>();
         for (Map.Entry<Long, List<FeedItem>> mapEntry : map.entrySet()) {
             Collections.sort(mapEntry.getValue(), itemComparator);
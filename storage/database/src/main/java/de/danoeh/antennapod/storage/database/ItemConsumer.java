@@ -0,0 +1,9 @@
+package de.danoeh.antennapod.storage.database;
+
+/**
+ * Receives the rows of a query one at a time. Unlike a plain consumer, it may throw,
+ * for example when writing the items to a file while reading them.
+ */
+public interface ItemConsumer<T, E extends Exception> {
+    void accept(T item) throws E;
+}
@@ -52,12 +52,12 @@ public class PodDBAdapter {
 
     private static final String TAG = "PodDBAdapter";
     public static final String DATABASE_NAME = "Antennapod.db";
-    public static final int VERSION = 3040000;
+    public static final int VERSION = 3050000;
 
     /**
      * Maximum number of arguments for IN-operator.
      */
-    private static final int IN_OPERATOR_MAXIMUM = 800;
+    static final int IN_OPERATOR_MAXIMUM = 800;
 
     // Key-constants
     public static final String KEY_ID = "id";
@@ -110,6 +110,7 @@ public class PodDBAdapter {
     public static final String KEY_LAST_UPDATE_FAILED = "last_update_failed";
     public static final String KEY_HAS_EMBEDDED_PICTURE = "has_embedded_picture";
     public static final String KEY_LAST_PLAYED_TIME = "last_played_time";
+    public static final String KEY_LAST_MODIFIED = "last_modified";
     public static final String KEY_INCLUDE_FILTER = "include_filter";
     public static final String KEY_EXCLUDE_FILTER = "exclude_filter";
     public static final String KEY_MINIMAL_DURATION_FILTER = "minimal_duration_filter";
@@ -121,6 +122,8 @@ public class PodDBAdapter {
     public static final String KEY_EPISODE_NOTIFICATION = "episode_notification";
     public static final String KEY_NEW_EPISODES_ACTION = "new_episodes_action";
     public static final String KEY_PODCASTINDEX_CHAPTER_URL = "podcastindex_chapter_url";
+    public static final String KEY_CHAPTER_SOURCE = "chapter_source";
+    public static final String KEY_VALIDATOR = "validator";
 
     // Table names
     public static final String TABLE_NAME_FEEDS = "Feeds";
@@ -131,6 +134,7 @@ public class PodDBAdapter {
     public static final String TABLE_NAME_QUEUE = "Queue";
     public static final String TABLE_NAME_SIMPLECHAPTERS = "SimpleChapters";
     public static final String TABLE_NAME_FAVORITES = "Favorites";
+    public static final String TABLE_NAME_CHAPTER_CACHE = "ChapterCache";
 
     // SQL Statements for creating new tables
     private static final String TABLE_PRIMARY_KEY = KEY_ID
@@ -193,7 +197,8 @@ public class PodDBAdapter {
             + KEY_FEEDITEM + " INTEGER,"
             + KEY_PLAYED_DURATION + " INTEGER,"
             + KEY_HAS_EMBEDDED_PICTURE + " INTEGER,"
-            + KEY_LAST_PLAYED_TIME + " INTEGER" + ")";
+            + KEY_LAST_PLAYED_TIME + " INTEGER,"
+            + KEY_LAST_MODIFIED + " INTEGER DEFAULT 0" + ")";
 
     private static final String CREATE_TABLE_DOWNLOAD_LOG = "CREATE TABLE "
             + TABLE_NAME_DOWNLOAD_LOG + " (" + TABLE_PRIMARY_KEY + KEY_FEEDFILE
@@ -211,6 +216,12 @@ public class PodDBAdapter {
             + " TEXT," + KEY_START + " INTEGER," + KEY_FEEDITEM + " INTEGER,"
             + KEY_LINK + " TEXT," + KEY_IMAGE_URL + " TEXT)";
 
+    static final String CREATE_TABLE_CHAPTER_CACHE = "CREATE TABLE "
+            + TABLE_NAME_CHAPTER_CACHE + " (" + TABLE_PRIMARY_KEY + KEY_FEEDITEM + " INTEGER,"
+            + KEY_CHAPTER_SOURCE + " INTEGER," + KEY_DOWNLOAD_URL + " TEXT," + KEY_VALIDATOR + " TEXT,"
+            + KEY_TITLE + " TEXT," + KEY_START + " INTEGER," + KEY_LINK + " TEXT,"
+            + KEY_IMAGE_URL + " TEXT)";
+
     // SQL Statements for creating indexes
     static final String CREATE_INDEX_FEEDITEMS_FEED = "CREATE INDEX "
             + TABLE_NAME_FEED_ITEMS + "_" + KEY_FEED + " ON " + TABLE_NAME_FEED_ITEMS + " ("
@@ -220,6 +231,10 @@ public class PodDBAdapter {
             + TABLE_NAME_FEED_ITEMS + "_" + KEY_PUBDATE + " ON " + TABLE_NAME_FEED_ITEMS + " ("
             + KEY_PUBDATE + ")";
 
+    static final String CREATE_INDEX_FEEDITEMS_FEED_PUBDATE = "CREATE INDEX "
+            + TABLE_NAME_FEED_ITEMS + "_" + KEY_FEED + "_" + KEY_PUBDATE + " ON " + TABLE_NAME_FEED_ITEMS + " ("
+            + KEY_FEED + ", " + KEY_PUBDATE + ")";
+
     static final String CREATE_INDEX_FEEDITEMS_READ = "CREATE INDEX "
             + TABLE_NAME_FEED_ITEMS + "_" + KEY_READ + " ON " + TABLE_NAME_FEED_ITEMS + " ("
             + KEY_READ + ")";
@@ -236,6 +251,10 @@ public class PodDBAdapter {
             + TABLE_NAME_SIMPLECHAPTERS + "_" + KEY_FEEDITEM + " ON " + TABLE_NAME_SIMPLECHAPTERS + " ("
             + KEY_FEEDITEM + ")";
 
+    static final String CREATE_INDEX_CHAPTER_CACHE_FEEDITEM = "CREATE INDEX "
+            + TABLE_NAME_CHAPTER_CACHE + "_" + KEY_FEEDITEM + " ON " + TABLE_NAME_CHAPTER_CACHE + " ("
+            + KEY_FEEDITEM + ", " + KEY_CHAPTER_SOURCE + ")";
+
     static final String CREATE_TABLE_FAVORITES = "CREATE TABLE "
             + TABLE_NAME_FAVORITES + "(" + KEY_ID + " INTEGER PRIMARY KEY,"
             + KEY_FEEDITEM + " INTEGER," + KEY_FEED + " INTEGER)";
@@ -250,7 +269,8 @@ public class PodDBAdapter {
             TABLE_NAME_DOWNLOAD_LOG,
             TABLE_NAME_QUEUE,
             TABLE_NAME_SIMPLECHAPTERS,
-            TABLE_NAME_FAVORITES
+            TABLE_NAME_FAVORITES,
+            TABLE_NAME_CHAPTER_CACHE
     };
 
     public static final String SELECT_KEY_ITEM_ID = "item_id";
@@ -285,7 +305,8 @@ public class PodDBAdapter {
             + TABLE_NAME_FEED_MEDIA + "." + KEY_FEEDITEM + ", "
             + TABLE_NAME_FEED_MEDIA + "." + KEY_PLAYED_DURATION + ", "
             + TABLE_NAME_FEED_MEDIA + "." + KEY_HAS_EMBEDDED_PICTURE + ", "
-            + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME;
+            + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME + ", "
+            + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_MODIFIED;
 
     private static final String KEYS_FEED =
             TABLE_NAME_FEEDS + "." + KEY_ID + " AS " + SELECT_KEY_FEED_ID + ", "
@@ -508,6 +529,7 @@ public class PodDBAdapter {
         values.put(KEY_FILE_URL, media.getLocalFileUrl());
         values.put(KEY_HAS_EMBEDDED_PICTURE, media.hasEmbeddedPicture());
         values.put(KEY_LAST_PLAYED_TIME, media.getLastPlayedTime());
+        values.put(KEY_LAST_MODIFIED, media.getLastModified());
 
         if (media.getPlaybackCompletionDate() != null) {
             values.put(KEY_PLAYBACK_COMPLETION_DATE, media.getPlaybackCompletionDate().getTime());
@@ -747,6 +769,39 @@ public class PodDBAdapter {
         }
     }
 
+    /**
+     * Replaces the cached chapters of an item from the given source.
+     * An empty list is stored as a single row without start time, so that the absence of chapters is cached as well.
+     */
+    public void setCachedChapters(long itemId, int source, String url, String validator, List<Chapter> chapters) {
+        try {
+            db.beginTransactionNonExclusive();
+            db.delete(TABLE_NAME_CHAPTER_CACHE, KEY_FEEDITEM + "=? AND " + KEY_CHAPTER_SOURCE + "=?",
+                    new String[]{String.valueOf(itemId), String.valueOf(source)});
+            ContentValues values = new ContentValues();
+            values.put(KEY_FEEDITEM, itemId);
+            values.put(KEY_CHAPTER_SOURCE, source);
+            values.put(KEY_DOWNLOAD_URL, url);
+            values.put(KEY_VALIDATOR, validator);
+            if (chapters.isEmpty()) {
+                values.putNull(KEY_START);
+                db.insert(TABLE_NAME_CHAPTER_CACHE, null, values);
+            }
+            for (Chapter chapter : chapters) {
+                values.put(KEY_TITLE, chapter.getTitle());
+                values.put(KEY_START, chapter.getStart());
+                values.put(KEY_LINK, chapter.getLink());
+                values.put(KEY_IMAGE_URL, chapter.getImageUrl());
+                db.insert(TABLE_NAME_CHAPTER_CACHE, null, values);
+            }
+            db.setTransactionSuccessful();
+        } catch (SQLException e) {
+            Log.e(TAG, Log.getStackTraceString(e));
+        } finally {
+            db.endTransaction();
+        }
+    }
+
     public void resetPagedFeedPage(Feed feed) {
         final String sql = "UPDATE " + TABLE_NAME_FEEDS
                 + " SET " + KEY_NEXT_PAGE_LINK + "=" + KEY_DOWNLOAD_URL
@@ -887,6 +942,9 @@ public class PodDBAdapter {
 
             db.beginTransactionNonExclusive();
             db.delete(TABLE_NAME_SIMPLECHAPTERS, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_CHAPTER_CACHE, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_QUEUE, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_FAVORITES, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
             db.delete(TABLE_NAME_DOWNLOAD_LOG, KEY_FEEDFILETYPE + "=" + FeedMedia.FEEDFILETYPE_FEEDMEDIA
                             + " AND " + KEY_FEEDFILE + " IN (" + mediaIds + ")", null);
             db.delete(TABLE_NAME_FEED_MEDIA, KEY_ID + " IN (" + mediaIds + ")", null);
@@ -901,13 +959,23 @@ public class PodDBAdapter {
 
     /**
      * Remove a feed with all its FeedItems and Media entries.
+     * The items are deleted with one statement per table, so the list of items does not need to be loaded.
      */
     public void removeFeed(Feed feed) {
+        String feedId = String.valueOf(feed.getId());
+        String itemIds = "SELECT " + KEY_ID + " FROM " + TABLE_NAME_FEED_ITEMS + " WHERE " + KEY_FEED + "=" + feedId;
+        String mediaIds = "SELECT " + KEY_ID + " FROM " + TABLE_NAME_FEED_MEDIA
+                + " WHERE " + KEY_FEEDITEM + " IN (" + itemIds + ")";
         try {
             db.beginTransactionNonExclusive();
-            if (feed.getItems() != null) {
-                removeFeedItems(feed.getItems());
-            }
+            db.delete(TABLE_NAME_SIMPLECHAPTERS, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_CHAPTER_CACHE, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_QUEUE, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_FAVORITES, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_DOWNLOAD_LOG, KEY_FEEDFILETYPE + "=" + FeedMedia.FEEDFILETYPE_FEEDMEDIA
+                    + " AND " + KEY_FEEDFILE + " IN (" + mediaIds + ")", null);
+            db.delete(TABLE_NAME_FEED_MEDIA, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_FEED_ITEMS, KEY_FEED + "=?", new String[]{feedId});
             // delete download log entries for feed
             db.delete(TABLE_NAME_DOWNLOAD_LOG, KEY_FEEDFILE + "=? AND " + KEY_FEEDFILETYPE + "=?",
                     new String[]{String.valueOf(feed.getId()), String.valueOf(Feed.FEEDFILETYPE_FEED)});
@@ -965,6 +1033,45 @@ public class PodDBAdapter {
         return db.rawQuery(query, null);
     }
 
+    /**
+     * Returns a page of the items of a feed. If the sort order supports it, the page starts after the
+     * previous item (keyset paging). Otherwise, the offset is used.
+     *
+     * @param previousItem The last item of the previous page, or null for the first page
+     * @param offset The number of items on the previous pages
+     */
+    public final Cursor getItemsOfFeedCursor(final Feed feed, FeedItemFilter filter, SortOrder sortOrder,
+                                             @Nullable FeedItem previousItem, int offset, int limit) {
+        String orderByQuery = FeedItemSortQuery.generateWithTieBreaker(sortOrder);
+        String filterQuery = FeedItemFilterQuery.generateFrom(filter);
+        String whereClauseAnd = "".equals(filterQuery) ? "" : " AND " + filterQuery;
+        String keysetCondition = previousItem == null
+                ? null : FeedItemSortQuery.generateKeysetCondition(sortOrder, previousItem);
+        String limitQuery;
+        if (keysetCondition != null) {
+            whereClauseAnd += " AND " + keysetCondition;
+            limitQuery = " LIMIT " + limit;
+        } else {
+            limitQuery = " LIMIT " + offset + ", " + limit;
+        }
+        final String query = SELECT_FEED_ITEMS_AND_MEDIA
+                + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + feed.getId()
+                + whereClauseAnd
+                + " ORDER BY " + orderByQuery
+                + limitQuery;
+        return db.rawQuery(query, null);
+    }
+
+    public final Cursor getItemsOfFeedCountCursor(final Feed feed, FeedItemFilter filter) {
+        String filterQuery = FeedItemFilterQuery.generateFrom(filter);
+        String whereClauseAnd = "".equals(filterQuery) ? "" : " AND " + filterQuery;
+        final String query = "SELECT count(" + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + ") FROM " + TABLE_NAME_FEED_ITEMS
+                + JOIN_FEED_ITEM_AND_MEDIA
+                + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + feed.getId()
+                + whereClauseAnd;
+        return db.rawQuery(query, null);
+    }
+
     /**
      * Return the description and content_encoded of item
      */
@@ -982,6 +1089,12 @@ public class PodDBAdapter {
         );
     }
 
+    public final Cursor getCachedChaptersCursor(long itemId, int source) {
+        return db.query(TABLE_NAME_CHAPTER_CACHE, null,
+                KEY_FEEDITEM + "=? AND " + KEY_CHAPTER_SOURCE + "=?",
+                new String[]{String.valueOf(itemId), String.valueOf(source)}, null, null, KEY_START + " ASC");
+    }
+
     public final Cursor getDownloadLog(final int feedFileType, final long feedFileId) {
         final String query = "SELECT * FROM " + TABLE_NAME_DOWNLOAD_LOG +
                 " WHERE " + KEY_FEEDFILE + "=" + feedFileId + " AND " + KEY_FEEDFILETYPE + "=" + feedFileType
@@ -1074,6 +1187,30 @@ public class PodDBAdapter {
         return db.rawQuery(query, null);
     }
 
+    /**
+     * Like {@link #getEpisodesCursor}, but sorted by feed ID first.
+     */
+    public final Cursor getEpisodesByFeedCursor(FeedItemFilter filter, SortOrder sortOrder) {
+        String orderByQuery = FeedItemSortQuery.generateFrom(sortOrder);
+        String filterQuery = FeedItemFilterQuery.generateFrom(filter);
+        String whereClause = "".equals(filterQuery) ? "" : " WHERE " + filterQuery;
+        final String query = SELECT_FEED_ITEMS_AND_MEDIA + whereClause
+                + " ORDER BY " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + " ASC, " + orderByQuery;
+        return db.rawQuery(query, null);
+    }
+
+    /**
+     * Like {@link #getEpisodesCursor}, but only selects the item IDs.
+     */
+    public final Cursor getEpisodeIdsCursor(FeedItemFilter filter, SortOrder sortOrder) {
+        String filterQuery = FeedItemFilterQuery.generateFrom(filter);
+        String whereClause = "".equals(filterQuery) ? "" : " WHERE " + filterQuery;
+        final String query = "SELECT " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + " FROM " + TABLE_NAME_FEED_ITEMS
+                + JOIN_FEED_ITEM_AND_MEDIA + whereClause
+                + " ORDER BY " + FeedItemSortQuery.generateWithTieBreaker(sortOrder);
+        return db.rawQuery(query, null);
+    }
+
     public final Cursor getEpisodeCountCursor(FeedItemFilter filter) {
         String filterQuery = FeedItemFilterQuery.generateFrom(filter);
         String whereClause = "".equals(filterQuery) ? "" : " WHERE " + filterQuery;
@@ -1470,13 +1607,16 @@ public class PodDBAdapter {
             db.execSQL(CREATE_TABLE_QUEUE);
             db.execSQL(CREATE_TABLE_SIMPLECHAPTERS);
             db.execSQL(CREATE_TABLE_FAVORITES);
+            db.execSQL(CREATE_TABLE_CHAPTER_CACHE);
 
             db.execSQL(CREATE_INDEX_FEEDITEMS_FEED);
             db.execSQL(CREATE_INDEX_FEEDITEMS_PUBDATE);
+            db.execSQL(CREATE_INDEX_FEEDITEMS_FEED_PUBDATE);
             db.execSQL(CREATE_INDEX_FEEDITEMS_READ);
             db.execSQL(CREATE_INDEX_FEEDMEDIA_FEEDITEM);
             db.execSQL(CREATE_INDEX_QUEUE_FEEDITEM);
             db.execSQL(CREATE_INDEX_SIMPLECHAPTERS_FEEDITEM);
+            db.execSQL(CREATE_INDEX_CHAPTER_CACHE_FEEDITEM);
         }
 
         @Override
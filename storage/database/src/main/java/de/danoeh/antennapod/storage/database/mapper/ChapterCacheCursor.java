@@ -0,0 +1,58 @@
+package de.danoeh.antennapod.storage.database.mapper;
+
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import androidx.annotation.NonNull;
+import de.danoeh.antennapod.model.feed.Chapter;
+import de.danoeh.antennapod.storage.database.PodDBAdapter;
+
+/**
+ * Converts a {@link Cursor} over the chapter cache table to {@link Chapter} objects.
+ */
+public class ChapterCacheCursor extends CursorWrapper {
+    private final int indexUrl;
+    private final int indexValidator;
+    private final int indexTitle;
+    private final int indexStart;
+    private final int indexLink;
+    private final int indexImage;
+
+    public ChapterCacheCursor(Cursor cursor) {
+        super(cursor);
+        indexUrl = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_DOWNLOAD_URL);
+        indexValidator = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_VALIDATOR);
+        indexTitle = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_TITLE);
+        indexStart = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_START);
+        indexLink = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_LINK);
+        indexImage = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_IMAGE_URL);
+    }
+
+    public String getUrl() {
+        return getString(indexUrl);
+    }
+
+    public String getValidator() {
+        return getString(indexValidator);
+    }
+
+    /**
+     * Rows without start time only mark that the source was parsed and did not contain chapters.
+     */
+    public boolean isChapter() {
+        return !isNull(indexStart);
+    }
+
+    /**
+     * Create a {@link Chapter} instance from a database row (cursor).
+     * The database ID is deliberately not set, so that the chapter is stored as a new chapter
+     * when the item is saved.
+     */
+    @NonNull
+    public Chapter getChapter() {
+        return new Chapter(
+                getLong(indexStart),
+                getString(indexTitle),
+                getString(indexLink),
+                getString(indexImage));
+    }
+}
@@ -4,10 +4,9 @@ import android.database.Cursor;
 import android.database.CursorWrapper;
 import androidx.annotation.NonNull;
 import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.storage.database.ItemConsumer;
 import de.danoeh.antennapod.storage.database.PodDBAdapter;
 
-import java.util.Date;
-
 /**
  * Converts a {@link Cursor} to a {@link FeedItem} object.
  */
@@ -26,6 +25,7 @@ public class FeedItemCursor extends CursorWrapper {
     private final int indexImageUrl;
     private final int indexPodcastIndexChapterUrl;
     private final int indexMediaId;
+    private final StringPool stringPool = new StringPool();
 
     public FeedItemCursor(Cursor cursor) {
         super(new FeedMediaCursor(cursor));
@@ -54,11 +54,11 @@ public class FeedItemCursor extends CursorWrapper {
                 getInt(indexId),
                 getString(indexTitle),
                 getString(indexLink),
-                new Date(getLong(indexPubDate)),
+                getLong(indexPubDate),
                 getString(indexPaymentLink),
                 getLong(indexFeedId),
                 getInt(indexHasChapters) > 0,
-                getString(indexImageUrl),
+                stringPool.get(getString(indexImageUrl)),
                 getInt(indexRead),
                 getString(indexItemIdentifier),
                 getLong(indexAutoDownload) > 0,
@@ -68,4 +68,13 @@ public class FeedItemCursor extends CursorWrapper {
         }
         return item;
     }
+
+    /**
+     * Passes each remaining row to the consumer without building a list of all items.
+     */
+    public <E extends Exception> void forEachItem(@NonNull ItemConsumer<FeedItem, E> consumer) throws E {
+        while (moveToNext()) {
+            consumer.accept(getFeedItem());
+        }
+    }
 }
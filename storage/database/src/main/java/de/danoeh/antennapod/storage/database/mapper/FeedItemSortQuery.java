@@ -1,5 +1,8 @@
 package de.danoeh.antennapod.storage.database.mapper;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.storage.database.PodDBAdapter;
 
@@ -10,9 +13,9 @@ public class FeedItemSortQuery {
         }
         switch (sortOrder) {
             case EPISODE_TITLE_A_Z:
-                return PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_TITLE + " " + "ASC";
+                return PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_TITLE + " COLLATE NOCASE ASC";
             case EPISODE_TITLE_Z_A:
-                return PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_TITLE + " " + "DESC";
+                return PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_TITLE + " COLLATE NOCASE DESC";
             case DURATION_SHORT_LONG:
                 return PodDBAdapter.TABLE_NAME_FEED_MEDIA + "." + PodDBAdapter.KEY_DURATION + " " + "ASC";
             case DURATION_LONG_SHORT:
@@ -31,4 +34,70 @@ public class FeedItemSortQuery {
                 return PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_PUBDATE + " " + "DESC";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks if {@link #generateFrom(SortOrder)} sorts the same way as the sort order.
+     * Other sort orders fall back to sorting by date and need to be sorted in memory.
+     */
+    public static boolean isSupported(SortOrder sortOrder) {
+        if (sortOrder == null) {
+            return true;
+        }
+        switch (sortOrder) {
+            case EPISODE_TITLE_A_Z:
+            case EPISODE_TITLE_Z_A:
+            case DURATION_SHORT_LONG:
+            case DURATION_LONG_SHORT:
+            case SIZE_SMALL_LARGE:
+            case SIZE_LARGE_SMALL:
+            case COMPLETION_DATE_NEW_OLD:
+            case DATE_OLD_NEW:
+            case DATE_NEW_OLD:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Like {@link #generateFrom(SortOrder)}, but uses the item ID to sort items with equal values.
+     * This makes the order stable, which is needed for paging.
+     */
+    public static String generateWithTieBreaker(SortOrder sortOrder) {
+        String order = generateFrom(sortOrder);
+        String direction = order.endsWith("DESC") ? " DESC" : " ASC";
+        return order + ", " + PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_ID + direction;
+    }
+
+    /**
+     * Generates a condition that selects the items sorted after the given item when using
+     * {@link #generateWithTieBreaker(SortOrder)}. This allows paging without skipping rows.
+     *
+     * @return The condition, or null if the sort order does not support keyset paging
+     */
+    @Nullable
+    public static String generateKeysetCondition(SortOrder sortOrder, @NonNull FeedItem previousItem) {
+        if (sortOrder == null) {
+            sortOrder = SortOrder.DATE_NEW_OLD;
+        }
+        String comparison;
+        switch (sortOrder) {
+            case DATE_OLD_NEW:
+                comparison = ">";
+                break;
+            case DATE_NEW_OLD:
+                comparison = "<";
+                break;
+            default:
+                return null;
+        }
+        if (previousItem.getPubDate() == null) {
+            return null;
+        }
+        String pubDate = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_PUBDATE;
+        String id = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_ID;
+        long previousPubDate = previousItem.getPubDate().getTime();
+        return "(" + pubDate + comparison + previousPubDate
+                + " OR (" + pubDate + "=" + previousPubDate + " AND " + id + comparison + previousItem.getId() + "))";
+    }
+}
@@ -6,8 +6,6 @@ import androidx.annotation.NonNull;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.storage.database.PodDBAdapter;
 
-import java.util.Date;
-
 /**
  * Converts a {@link Cursor} to a {@link FeedMedia} object.
  */
@@ -24,6 +22,8 @@ public class FeedMediaCursor extends CursorWrapper {
     private final int indexPlayedDuration;
     private final int indexLastPlayedTime;
     private final int indexHasEmbeddedPicture;
+    private final int indexLastModified;
+    private final StringPool stringPool = new StringPool();
 
     public FeedMediaCursor(Cursor cursor) {
         super(cursor);
@@ -39,6 +39,7 @@ public class FeedMediaCursor extends CursorWrapper {
         indexPlayedDuration = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_PLAYED_DURATION);
         indexLastPlayedTime = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_LAST_PLAYED_TIME);
         indexHasEmbeddedPicture = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_HAS_EMBEDDED_PICTURE);
+        indexLastModified = cursor.getColumnIndexOrThrow(PodDBAdapter.KEY_LAST_MODIFIED);
     }
 
     /**
@@ -46,9 +47,6 @@ public class FeedMediaCursor extends CursorWrapper {
      */
     @NonNull
     public FeedMedia getFeedMedia() {
-        long playbackCompletionTime = getLong(indexPlaybackCompletionDate);
-        Date playbackCompletionDate = playbackCompletionTime > 0 ? new Date(playbackCompletionTime) : null;
-
         Boolean hasEmbeddedPicture;
         switch (getInt(indexHasEmbeddedPicture)) {
             case 1:
@@ -62,20 +60,22 @@ public class FeedMediaCursor extends CursorWrapper {
                 break;
         }
 
-        return new FeedMedia(
+        FeedMedia media = new FeedMedia(
                 getLong(indexId),
                 null,
                 getInt(indexDuration),
                 getInt(indexPosition),
                 getLong(indexSize),
-                getString(indexMimeType),
+                stringPool.get(getString(indexMimeType)),
                 getString(indexFileUrl),
                 getString(indexDownloadUrl),
                 getInt(indexDownloaded) > 0,
-                playbackCompletionDate,
+                getLong(indexPlaybackCompletionDate),
                 getInt(indexPlayedDuration),
-                hasEmbeddedPicture,
                 getLong(indexLastPlayedTime)
         );
+        media.setHasEmbeddedPicture(hasEmbeddedPicture);
+        media.setLastModified(getLong(indexLastModified));
+        return media;
     }
 }
@@ -0,0 +1,31 @@
+package de.danoeh.antennapod.storage.database.mapper;
+
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Returns the same instance for equal strings read from one cursor.
+ * Values like mime types or episode images that are shared by all episodes of a feed
+ * are then only kept in memory once, even for long lists.
+ */
+class StringPool {
+    private static final int MAX_SIZE = 512;
+    private final Map<String, String> pool = new HashMap<>();
+
+    @Nullable
+    String get(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = pool.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (pool.size() < MAX_SIZE) {
+            pool.put(value, value);
+        }
+        return value;
+    }
+}
@@ -21,6 +21,7 @@ import androidx.work.WorkerParameters;
 import de.danoeh.antennapod.event.MessageEvent;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import de.danoeh.antennapod.ui.notifications.NotificationUtils;
+import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -31,10 +32,18 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import org.greenrobot.eventbus.EventBus;
 
 public class AutomaticDatabaseExportWorker extends Worker {
     private static final String WORK_ID_AUTOMATIC_DATABASE_EXPORT = "de.danoeh.antennapod.AutomaticDbExport";
+    private static final String INDEX_FILE_NAME = "automatic-backup-index";
+    private static final String FULL_SUFFIX = "-full.apbk";
+    private static final String DELTA_SUFFIX = "-delta.apbk";
+    private static final Pattern BACKUP_FILE_NAME = Pattern.compile(
+            "AntennaPodBackup-\\d\\d\\d\\d-\\d\\d-\\d\\d(\\.db|-full\\.apbk|-delta\\.apbk)");
+    private static final int NUM_BACKUPS_TO_KEEP = 5;
+    private static final int MAX_DELTAS_PER_FULL_BACKUP = 4;
 
     public static void enqueueIfNeeded(Context context, boolean replace) {
         if (UserPreferences.getAutomaticExportFolder() == null) {
@@ -73,24 +82,60 @@ public class AutomaticDatabaseExportWorker extends Worker {
         if (documentFolder == null || !documentFolder.exists() || !documentFolder.canWrite()) {
             throw new IOException("Unable to open export folder");
         }
-        String filename = String.format("AntennaPodBackup-%s.db",
-                new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date()));
-        DocumentFile exportFile = documentFolder.createFile("application/x-sqlite3", filename);
+        File indexFile = new File(getApplicationContext().getFilesDir(), INDEX_FILE_NAME);
+        IncrementalDatabaseBackup.PageIndex base = IncrementalDatabaseBackup.PageIndex.read(indexFile);
+        if (base != null && (base.getDeltaCount() >= MAX_DELTAS_PER_FULL_BACKUP
+                || documentFolder.findFile(base.getBaseName()) == null)) {
+            base = null;
+        }
+        String filename = "AntennaPodBackup-" + new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date())
+                + (base == null ? FULL_SUFFIX : DELTA_SUFFIX);
+        DocumentFile exportFile = documentFolder.createFile("application/octet-stream", filename);
         if (exportFile == null || !exportFile.canWrite()) {
             throw new IOException("Unable to create export file");
         }
-        DatabaseExporter.exportToDocument(exportFile.getUri(), getApplicationContext());
+        IncrementalDatabaseBackup.PageIndex newIndex;
+        try {
+            newIndex = DatabaseExporter.exportIncrementalToDocument(exportFile.getUri(), getApplicationContext(), base);
+        } catch (IOException e) {
+            exportFile.delete();
+            throw e;
+        }
+        if (base != null) {
+            base.withNextDelta().write(indexFile);
+        } else if (exportFile.getName() != null) {
+            newIndex.withBaseName(exportFile.getName()).write(indexFile);
+        } else {
+            indexFile.delete();
+        }
+        deleteOldBackups(documentFolder);
+    }
+
+    /**
+     * Keeps the most recent backups and the full backup that the oldest kept delta backups are based on.
+     */
+    private static void deleteOldBackups(DocumentFile documentFolder) {
         List<DocumentFile> files = new ArrayList<>(Arrays.asList(documentFolder.listFiles()));
         Iterator<DocumentFile> itr = files.iterator();
         while (itr.hasNext()) {
             DocumentFile file = itr.next();
-            if (!file.getName().matches("AntennaPodBackup-\\d\\d\\d\\d-\\d\\d-\\d\\d\\.db")) {
+            if (file.getName() == null || !BACKUP_FILE_NAME.matcher(file.getName()).matches()) {
                 itr.remove();
             }
         }
         Collections.sort(files, (o1, o2) -> Long.compare(o2.lastModified(), o1.lastModified()));
-        for (int i = 5; i < files.size(); i++) {
-            files.get(i).delete();
+        int kept = 0;
+        boolean needsFullBackup = false;
+        for (DocumentFile file : files) {
+            boolean isDelta = file.getName().endsWith(DELTA_SUFFIX);
+            if (kept < NUM_BACKUPS_TO_KEEP) {
+                kept++;
+                needsFullBackup = isDelta;
+            } else if (needsFullBackup && !isDelta) {
+                needsFullBackup = false;
+            } else {
+                file.delete();
+            }
         }
     }
 
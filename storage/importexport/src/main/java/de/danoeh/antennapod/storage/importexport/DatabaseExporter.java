@@ -1,22 +1,31 @@
 package de.danoeh.antennapod.storage.importexport;
 
+import android.content.ContentResolver;
 import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
 import android.net.Uri;
 import android.os.ParcelFileDescriptor;
+import android.provider.DocumentsContract;
 import android.text.format.Formatter;
 import android.util.Log;
+import androidx.annotation.Nullable;
+import androidx.documentfile.provider.DocumentFile;
 import de.danoeh.antennapod.storage.database.PodDBAdapter;
+import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.channels.FileChannel;
+import java.util.List;
 
 public class DatabaseExporter {
     private static final String TAG = "DatabaseExporter";
@@ -76,12 +85,64 @@ public class DatabaseExporter {
         }
     }
 
+    /**
+     * Writes a compressed backup of the database for the automatic export.
+     *
+     * @param base Index of the full backup to write a delta against, or null to write a full backup
+     * @return Index for delta backups based on the written backup, if it was a full backup
+     */
+    static IncrementalDatabaseBackup.PageIndex exportIncrementalToDocument(Uri uri, Context context,
+            @Nullable IncrementalDatabaseBackup.PageIndex base) throws IOException {
+        File currentDB = context.getDatabasePath(PodDBAdapter.DATABASE_NAME);
+        if (!currentDB.exists()) {
+            throw new IOException("Can not access current database");
+        }
+        try (OutputStream out = context.getContentResolver().openOutputStream(uri, "wt")) {
+            if (out == null) {
+                throw new IOException("Unable to open export file");
+            }
+            BufferedOutputStream bufferedOut = new BufferedOutputStream(out);
+            IncrementalDatabaseBackup.PageIndex index = null;
+            if (base == null) {
+                index = IncrementalDatabaseBackup.writeFull(currentDB, bufferedOut);
+            } else {
+                IncrementalDatabaseBackup.writeDelta(currentDB, base, bufferedOut);
+            }
+            bufferedOut.flush();
+            return index;
+        } catch (IOException e) {
+            Log.e(TAG, Log.getStackTraceString(e));
+            throw e;
+        }
+    }
+
     public static void importBackup(Uri inputUri, Context context) throws IOException {
+        importBackup(inputUri, null, context);
+    }
+
+    /**
+     * Restores the database from a backup file or from an automatic backup.
+     *
+     * @param fullBackupUri The full backup that a delta backup is based on, if the user selected it.
+     *                      Otherwise, it is looked up next to the backup and in the automatic backup folder.
+     * @throws MissingFullBackupException If the backup only contains changes and the full backup was not found
+     */
+    public static void importBackup(Uri inputUri, @Nullable Uri fullBackupUri, Context context) throws IOException {
         InputStream inputStream = null;
         try {
             File tempDB = context.getDatabasePath(TEMP_DB_NAME);
-            inputStream = context.getContentResolver().openInputStream(inputUri);
-            FileUtils.copyInputStreamToFile(inputStream, tempDB);
+            inputStream = new BufferedInputStream(context.getContentResolver().openInputStream(inputUri));
+            if (IncrementalDatabaseBackup.isIncrementalBackup(inputStream)) {
+                try {
+                    IncrementalDatabaseBackup.restore(inputStream,
+                            name -> openFullBackup(context, inputUri, fullBackupUri, name), tempDB);
+                } catch (IncrementalDatabaseBackup.MissingBaseBackupException e) {
+                    throw new MissingFullBackupException(context.getString(R.string.import_missing_full_backup),
+                            e.getBaseName());
+                }
+            } else {
+                FileUtils.copyInputStreamToFile(inputStream, tempDB);
+            }
 
             SQLiteDatabase db = SQLiteDatabase.openDatabase(tempDB.getAbsolutePath(),
                     null, SQLiteDatabase.OPEN_READONLY);
@@ -103,4 +164,66 @@ public class DatabaseExporter {
             IOUtils.closeQuietly(inputStream);
         }
     }
+
+    /**
+     * Delta backups are created by the automatic export, so their full backup is usually in the same folder.
+     * That folder might not be configured, for example after a new installation.
+     */
+    @Nullable
+    private static InputStream openFullBackup(Context context, Uri backupUri, @Nullable Uri fullBackupUri,
+                                              String name) throws IOException {
+        if (fullBackupUri != null) {
+            return context.getContentResolver().openInputStream(fullBackupUri);
+        }
+        DocumentFile file = findNextTo(context, backupUri, name);
+        String folderUri = UserPreferences.getAutomaticExportFolder();
+        if (file == null && folderUri != null) {
+            DocumentFile folder = DocumentFile.fromTreeUri(context, Uri.parse(folderUri));
+            file = folder != null ? folder.findFile(name) : null;
+        }
+        if (file == null) {
+            return null;
+        }
+        return context.getContentResolver().openInputStream(file.getUri());
+    }
+
+    /**
+     * Looks for a file in the folder of the backup. This only works if the app is allowed to list that folder,
+     * which is the case for plain files and for documents inside a folder that the app has access to.
+     */
+    @Nullable
+    private static DocumentFile findNextTo(Context context, Uri backupUri, String name) {
+        if (ContentResolver.SCHEME_FILE.equals(backupUri.getScheme()) && backupUri.getPath() != null) {
+            File file = new File(new File(backupUri.getPath()).getParentFile(), name);
+            return file.exists() ? DocumentFile.fromFile(file) : null;
+        }
+        List<String> segments = backupUri.getPathSegments();
+        if (ContentResolver.SCHEME_CONTENT.equals(backupUri.getScheme())
+                && segments.size() >= 4 && "tree".equals(segments.get(0))) {
+            Uri treeUri = DocumentsContract.buildTreeDocumentUri(backupUri.getAuthority(),
+                    DocumentsContract.getTreeDocumentId(backupUri));
+            DocumentFile folder = DocumentFile.fromTreeUri(context, treeUri);
+            return folder != null ? folder.findFile(name) : null;
+        }
+        return null;
+    }
+
+    /**
+     * The backup only contains the changes since a full backup, which was not found.
+     */
+    public static class MissingFullBackupException extends IOException {
+        private final String fullBackupName;
+
+        MissingFullBackupException(String message, String fullBackupName) {
+            super(message);
+            this.fullBackupName = fullBackupName;
+        }
+
+        /**
+         * @return File name of the full backup that is needed to restore the backup
+         */
+        public String getFullBackupName() {
+            return fullBackupName;
+        }
+    }
 }
@@ -8,13 +8,12 @@ import org.apache.commons.io.IOUtils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedItemFilter;
+import de.danoeh.antennapod.model.feed.SortOrder;
+import de.danoeh.antennapod.storage.database.DBReader;
 
 /** Writes saved favorites to file. */
 public class FavoritesWriter {
@@ -23,7 +22,12 @@ public class FavoritesWriter {
     private static final String FEED_TEMPLATE = "html-export-feed-template.html";
     private static final String UTF_8 = "UTF-8";
 
-    public static void writeDocument(List<FeedItem> allFavorites, Writer writer, Context context)
+    /**
+     * Writes all favorite episodes, grouped by feed and sorted by publishing date in descending order.
+     * The feeds are sorted by ID. The episodes are written while reading them from the database,
+     * so the favorites of all feeds are never in memory at the same time.
+     */
+    public static void writeDocument(Writer writer, Context context)
             throws IllegalArgumentException, IllegalStateException, IOException {
         Log.d(TAG, "Starting to write document");
 
@@ -38,19 +42,23 @@ public class FavoritesWriter {
         InputStream feedTemplateStream = context.getAssets().open(FEED_TEMPLATE);
         String feedTemplate = IOUtils.toString(feedTemplateStream, UTF_8);
 
-        Map<Long, List<FeedItem>> favoriteByFeed = getFeedMap(allFavorites);
-
         writer.append(templateParts[0]);
 
-        for (Long feedId : favoriteByFeed.keySet()) {
-            List<FeedItem> favorites = favoriteByFeed.get(feedId);
-            writer.append("<li><div>\n");
-            writeFeed(writer, favorites.get(0).getFeed(), feedTemplate);
-
-            writer.append("<ul>\n");
-            for (FeedItem item : favorites) {
-                writeFavoriteItem(writer, item, favTemplate);
-            }
+        long[] currentFeedId = {-1};
+        DBReader.forEachEpisodeByFeed(new FeedItemFilter(FeedItemFilter.IS_FAVORITE), SortOrder.DATE_NEW_OLD,
+                item -> {
+                    if (item.getFeedId() != currentFeedId[0]) {
+                        if (currentFeedId[0] != -1) {
+                            writer.append("</ul></div></li>\n");
+                        }
+                        currentFeedId[0] = item.getFeedId();
+                        writer.append("<li><div>\n");
+                        writeFeed(writer, item.getFeed(), feedTemplate);
+                        writer.append("<ul>\n");
+                    }
+                    writeFavoriteItem(writer, item, favTemplate);
+                });
+        if (currentFeedId[0] != -1) {
             writer.append("</ul></div></li>\n");
         }
 
@@ -59,29 +67,6 @@ public class FavoritesWriter {
         Log.d(TAG, "Finished writing document");
     }
 
-    /**
-     * Group favorite episodes by feed, sorting them by publishing date in descending order.
-     *
-     * @param favoritesList {@code List} of all favorite episodes.
-     * @return A {@code Map} favorite episodes, keyed by feed ID.
-     */
-    private static Map<Long, List<FeedItem>> getFeedMap(List<FeedItem> favoritesList) {
-        Map<Long, List<FeedItem>> feedMap = new TreeMap<>();
-
-        for (FeedItem item : favoritesList) {
-            List<FeedItem> feedEpisodes = feedMap.get(item.getFeedId());
-
-            if (feedEpisodes == null) {
-                feedEpisodes = new ArrayList<>();
-                feedMap.put(item.getFeedId(), feedEpisodes);
-            }
-
-            feedEpisodes.add(item);
-        }
-
-        return feedMap;
-    }
-
     private static void writeFeed(Writer writer, Feed feed, String feedTemplate) throws IOException {
         String feedInfo = feedTemplate
                 .replace("{FEED_IMG}", feed.getImageUrl())
@@ -3,6 +3,7 @@ package de.danoeh.antennapod.storage.importexport;
 import android.content.Context;
 import android.util.Log;
 import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.storage.database.DBReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
@@ -19,26 +20,45 @@ public class HtmlWriter {
      */
     public static void writeDocument(List<Feed> feeds, Writer writer, Context context)
             throws IllegalArgumentException, IllegalStateException, IOException {
-        Log.d(TAG, "Starting to write document");
-
-        InputStream templateStream = context.getAssets().open("html-export-template.html");
-        String template = IOUtils.toString(templateStream, "UTF-8");
-        template = template.replaceAll("\\{TITLE\\}", "Subscriptions");
-        String[] templateParts = template.split("\\{FEEDS\\}");
-
+        String[] templateParts = loadTemplate(context);
         writer.append(templateParts[0]);
         for (Feed feed : feeds) {
-            writer.append("<li><div><img src=\"");
-            writer.append(feed.getImageUrl());
-            writer.append("\" /><p>");
-            writer.append(feed.getTitle());
-            writer.append(" <span><a href=\"");
-            writer.append(feed.getLink());
-            writer.append("\">Website</a> • <a href=\"");
-            writer.append(feed.getDownloadUrl());
-            writer.append("\">Feed</a></span></p></div></li>\n");
+            writeFeed(writer, feed);
         }
         writer.append(templateParts[1]);
         Log.d(TAG, "Finished writing document");
     }
+
+    /**
+     * Writes all subscriptions into an HTML document while reading them from the database,
+     * without keeping the whole list of feeds in memory.
+     */
+    public static void writeDocument(Writer writer, Context context)
+            throws IllegalArgumentException, IllegalStateException, IOException {
+        String[] templateParts = loadTemplate(context);
+        writer.append(templateParts[0]);
+        DBReader.forEachFeed(feed -> writeFeed(writer, feed));
+        writer.append(templateParts[1]);
+        Log.d(TAG, "Finished writing document");
+    }
+
+    private static String[] loadTemplate(Context context) throws IOException {
+        Log.d(TAG, "Starting to write document");
+        InputStream templateStream = context.getAssets().open("html-export-template.html");
+        String template = IOUtils.toString(templateStream, "UTF-8");
+        template = template.replaceAll("\\{TITLE\\}", "Subscriptions");
+        return template.split("\\{FEEDS\\}");
+    }
+
+    private static void writeFeed(Writer writer, Feed feed) throws IOException {
+        writer.append("<li><div><img src=\"");
+        writer.append(feed.getImageUrl());
+        writer.append("\" /><p>");
+        writer.append(feed.getTitle());
+        writer.append(" <span><a href=\"");
+        writer.append(feed.getLink());
+        writer.append("\">Website</a> • <a href=\"");
+        writer.append(feed.getDownloadUrl());
+        writer.append("\">Feed</a></span></p></div></li>\n");
+    }
 }
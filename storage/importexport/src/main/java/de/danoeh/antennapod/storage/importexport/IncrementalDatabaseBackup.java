@@ -0,0 +1,347 @@
+package de.danoeh.antennapod.storage.importexport;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressed database backups that only contain the pages that changed since the last full backup.
+ * A full backup contains all pages of the database. A delta backup contains the pages that differ
+ * from the full backup it is based on and can only be restored together with that full backup.
+ * Both end with a digest of the complete database, so restored files can be validated.
+ */
+class IncrementalDatabaseBackup {
+    private static final byte[] MAGIC = {'A', 'P', 'B', 'K'};
+    private static final int FORMAT_VERSION = 1;
+    private static final int TYPE_FULL = 0;
+    private static final int TYPE_DELTA = 1;
+    private static final int DEFAULT_PAGE_SIZE = 4096;
+    private static final int END_OF_PAGES = -1;
+    private static final String DIGEST_ALGORITHM = "MD5";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    interface BaseBackupOpener {
+        /**
+         * @return The full backup with the given file name, or null if it does not exist
+         */
+        @Nullable
+        InputStream open(String name) throws IOException;
+    }
+
+    /**
+     * Hashes of the pages of a full backup, kept by the app to find the pages that changed since.
+     */
+    static class PageIndex {
+        private final String baseName;
+        private final int pageSize;
+        private final byte[][] hashes;
+        private final int deltaCount;
+
+        PageIndex(String baseName, int pageSize, byte[][] hashes, int deltaCount) {
+            this.baseName = baseName;
+            this.pageSize = pageSize;
+            this.hashes = hashes;
+            this.deltaCount = deltaCount;
+        }
+
+        /**
+         * @return File name of the full backup that the hashes belong to
+         */
+        String getBaseName() {
+            return baseName;
+        }
+
+        /**
+         * @return Number of delta backups that were created based on the full backup
+         */
+        int getDeltaCount() {
+            return deltaCount;
+        }
+
+        PageIndex withBaseName(String baseName) {
+            return new PageIndex(baseName, pageSize, hashes, deltaCount);
+        }
+
+        PageIndex withNextDelta() {
+            return new PageIndex(baseName, pageSize, hashes, deltaCount + 1);
+        }
+
+        void write(File file) throws IOException {
+            File temp = new File(file.getPath() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(baseName);
+                out.writeInt(pageSize);
+                out.writeInt(deltaCount);
+                out.writeInt(hashes.length);
+                for (byte[] hash : hashes) {
+                    out.write(hash);
+                }
+            }
+            if (!temp.renameTo(file)) {
+                throw new IOException("Unable to write backup index");
+            }
+        }
+
+        /**
+         * @return The index, or null if there is none or it can not be read
+         */
+        @Nullable
+        static PageIndex read(File file) {
+            if (!file.exists()) {
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() != FORMAT_VERSION) {
+                    return null;
+                }
+                String baseName = in.readUTF();
+                int pageSize = in.readInt();
+                int deltaCount = in.readInt();
+                byte[][] hashes = new byte[in.readInt()][];
+                int hashLength = newDigest().getDigestLength();
+                for (int i = 0; i < hashes.length; i++) {
+                    hashes[i] = new byte[hashLength];
+                    in.readFully(hashes[i]);
+                }
+                return new PageIndex(baseName, pageSize, hashes, deltaCount);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    private IncrementalDatabaseBackup() {
+    }
+
+    /**
+     * Writes all pages of the database.
+     *
+     * @return The index to use for delta backups based on this backup. Its base name still needs to be set.
+     */
+    @NonNull
+    static PageIndex writeFull(File database, OutputStream out) throws IOException {
+        return write(database, null, out);
+    }
+
+    /**
+     * Writes the pages of the database that changed since the full backup described by the index.
+     */
+    static void writeDelta(File database, PageIndex base, OutputStream out) throws IOException {
+        write(database, base, out);
+    }
+
+    private static PageIndex write(File database, @Nullable PageIndex base, OutputStream outputStream)
+            throws IOException {
+        int pageSize = base != null ? base.pageSize : readPageSize(database);
+        long length = database.length();
+        int pageCount = (int) ((length + pageSize - 1) / pageSize);
+        byte[][] hashes = new byte[pageCount][];
+        MessageDigest fileDigest = newDigest();
+        MessageDigest pageDigest = newDigest();
+
+        outputStream.write(MAGIC);
+        outputStream.write(FORMAT_VERSION);
+        outputStream.write(base == null ? TYPE_FULL : TYPE_DELTA);
+        GZIPOutputStream gzip = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeUTF(base == null ? "" : base.baseName);
+        out.writeInt(pageSize);
+        out.writeLong(length);
+
+        byte[] page = new byte[pageSize];
+        try (InputStream in = new BufferedInputStream(new FileInputStream(database), BUFFER_SIZE)) {
+            for (int i = 0; i < pageCount; i++) {
+                int pageLength = (int) Math.min(pageSize, length - (long) i * pageSize);
+                readFully(in, page, pageLength);
+                fileDigest.update(page, 0, pageLength);
+                pageDigest.update(page, 0, pageLength);
+                hashes[i] = pageDigest.digest();
+                if (base == null || i >= base.hashes.length || !Arrays.equals(base.hashes[i], hashes[i])) {
+                    out.writeInt(i);
+                    out.writeInt(pageLength);
+                    out.write(page, 0, pageLength);
+                }
+            }
+        }
+        out.writeInt(END_OF_PAGES);
+        out.write(fileDigest.digest());
+        out.flush();
+        gzip.finish();
+        return new PageIndex("", pageSize, hashes, 0);
+    }
+
+    /**
+     * @return True if the stream starts like a backup of this format. The stream needs to support marks.
+     */
+    static boolean isIncrementalBackup(InputStream in) throws IOException {
+        in.mark(MAGIC.length);
+        byte[] start = new byte[MAGIC.length];
+        int read = 0;
+        while (read < start.length) {
+            int count = in.read(start, read, start.length - read);
+            if (count < 0) {
+                break;
+            }
+            read += count;
+        }
+        in.reset();
+        return read == start.length && Arrays.equals(start, MAGIC);
+    }
+
+    /**
+     * Restores the database from a full backup or from a delta backup and its full backup.
+     *
+     * @throws IOException If the backup is damaged, the full backup is missing or the result does not match
+     */
+    static void restore(InputStream backup, BaseBackupOpener baseOpener, File target) throws IOException {
+        int type = readHeader(backup);
+        DataInputStream in = new DataInputStream(new GZIPInputStream(backup, BUFFER_SIZE));
+        String baseName = in.readUTF();
+        if (type == TYPE_DELTA) {
+            try (InputStream base = baseOpener.open(baseName)) {
+                if (base == null) {
+                    throw new MissingBaseBackupException(baseName);
+                }
+                InputStream baseStream = new BufferedInputStream(base, BUFFER_SIZE);
+                if (readHeader(baseStream) != TYPE_FULL) {
+                    throw new IOException("Backup " + baseName + " is not a full backup");
+                }
+                DataInputStream baseIn = new DataInputStream(new GZIPInputStream(baseStream, BUFFER_SIZE));
+                baseIn.readUTF();
+                restorePages(baseIn, target, false);
+            }
+        }
+        restorePages(in, target, type == TYPE_DELTA);
+    }
+
+    private static int readHeader(InputStream backup) throws IOException {
+        DataInputStream header = new DataInputStream(backup);
+        byte[] magic = new byte[MAGIC.length];
+        header.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a database backup");
+        }
+        if (header.readUnsignedByte() != FORMAT_VERSION) {
+            throw new IOException("Unsupported backup version");
+        }
+        int type = header.readUnsignedByte();
+        if (type != TYPE_FULL && type != TYPE_DELTA) {
+            throw new IOException("Unsupported backup type");
+        }
+        return type;
+    }
+
+    private static void restorePages(DataInputStream in, File target, boolean applyOnExisting) throws IOException {
+        int pageSize = in.readInt();
+        long length = in.readLong();
+        if (pageSize <= 0 || length < 0) {
+            throw new IOException("Invalid backup header");
+        }
+        try (RandomAccessFile file = new RandomAccessFile(target, "rw")) {
+            if (!applyOnExisting) {
+                file.setLength(0);
+            }
+            byte[] page = new byte[pageSize];
+            int index;
+            while ((index = in.readInt()) != END_OF_PAGES) {
+                int pageLength = in.readInt();
+                if (index < 0 || pageLength < 0 || pageLength > pageSize) {
+                    throw new IOException("Invalid page in backup");
+                }
+                in.readFully(page, 0, pageLength);
+                file.seek((long) index * pageSize);
+                file.write(page, 0, pageLength);
+            }
+            file.setLength(length);
+
+            byte[] expected = new byte[newDigest().getDigestLength()];
+            in.readFully(expected);
+            if (!Arrays.equals(expected, digestOf(file))) {
+                throw new IOException("Backup is damaged");
+            }
+        } catch (EOFException e) {
+            throw new IOException("Backup is incomplete", e);
+        }
+    }
+
+    private static byte[] digestOf(RandomAccessFile file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        file.seek(0);
+        int count;
+        while ((count = file.read(buffer)) > 0) {
+            digest.update(buffer, 0, count);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Reads the page size from the SQLite file header, so that pages of the backup match database pages.
+     */
+    private static int readPageSize(File database) throws IOException {
+        byte[] header = new byte[18];
+        try (InputStream in = new FileInputStream(database)) {
+            if (in.read(header) < header.length) {
+                return DEFAULT_PAGE_SIZE;
+            }
+        }
+        int pageSize = ((header[16] & 0xff) << 8) | (header[17] & 0xff);
+        if (pageSize == 1) {
+            return 65536;
+        } else if (pageSize < 512 || Integer.bitCount(pageSize) != 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return pageSize;
+    }
+
+    private static void readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int count = in.read(buffer, read, length - read);
+            if (count < 0) {
+                throw new IOException("Database changed its size during backup");
+            }
+            read += count;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class MissingBaseBackupException extends IOException {
+        private final String baseName;
+
+        MissingBaseBackupException(String baseName) {
+            super("Full backup " + baseName + " not found");
+            this.baseName = baseName;
+        }
+
+        String getBaseName() {
+            return baseName;
+        }
+    }
+}
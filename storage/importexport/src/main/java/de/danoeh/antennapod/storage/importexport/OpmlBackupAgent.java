@@ -8,28 +8,31 @@ import android.content.Context;
 import android.os.ParcelFileDescriptor;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import de.danoeh.antennapod.net.download.serviceinterface.FeedUpdateManager;
 import de.danoeh.antennapod.storage.database.FeedDatabaseWriter;
 import org.apache.commons.io.IOUtils;
 import org.xmlpull.v1.XmlPullParserException;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.math.BigInteger;
 import java.nio.charset.Charset;
-import java.security.DigestInputStream;
-import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.storage.database.DBReader;
@@ -45,18 +48,15 @@ public class OpmlBackupAgent extends BackupAgentHelper {
     /**
      * Class for backing up and restoring the OPML file.
      */
-    private static class OpmlBackupHelper implements BackupHelper {
+    @VisibleForTesting
+    static class OpmlBackupHelper implements BackupHelper {
         private static final String TAG = "OpmlBackupHelper";
 
-        private static final String OPML_ENTITY_KEY = "antennapod-feeds.opml";
+        static final String OPML_ENTITY_KEY = "antennapod-feeds.opml";
+        private static final int BUFFER_SIZE = 8192;
 
         private final Context mContext;
 
-        /**
-         * Checksum of restored OPML file
-         */
-        private byte[] mChecksum;
-
         public OpmlBackupHelper(Context context) {
             mContext = context;
         }
@@ -64,56 +64,90 @@ public class OpmlBackupAgent extends BackupAgentHelper {
         @Override
         public void performBackup(ParcelFileDescriptor oldState, BackupDataOutput data, ParcelFileDescriptor newState) {
             Log.d(TAG, "Performing backup");
-            ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-            MessageDigest digester = null;
-            Writer writer;
+            File opmlFile = null;
+            try {
+                // Compare the subscriptions to the last backup to see if we need to perform a backup at all
+                byte[] newFingerprint = getSubscriptionsFingerprint();
+                byte[] oldFingerprint = readStateDescription(oldState);
+                if (newFingerprint != null && Arrays.equals(oldFingerprint, newFingerprint)) {
+                    Log.d(TAG, "Subscriptions did not change; won't backup");
+                    writeNewStateDescription(newState, newFingerprint);
+                    return;
+                }
 
+                // The entity header needs the size up front, so write the OPML to a file instead of memory
+                Log.d(TAG, "Backing up OPML");
+                opmlFile = File.createTempFile("opml-backup", null, mContext.getCacheDir());
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(opmlFile), Charset.forName("UTF-8")))) {
+                    OpmlWriter.writeDocument(writer);
+                }
+                data.writeEntityHeader(OPML_ENTITY_KEY, (int) opmlFile.length());
+                try (InputStream in = new FileInputStream(opmlFile)) {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    int count;
+                    while ((count = in.read(buffer)) > 0) {
+                        data.writeEntityData(buffer, count);
+                    }
+                }
+                writeNewStateDescription(newState, newFingerprint);
+            } catch (IOException e) {
+                Log.e(TAG, "Error during backup", e);
+            } finally {
+                if (opmlFile != null) {
+                    //noinspection ResultOfMethodCallIgnored
+                    opmlFile.delete();
+                }
+            }
+        }
+
+        /**
+         * Hashes everything that the OPML file contains about the subscriptions, without creating the file.
+         *
+         * @return The fingerprint, or null if it can not be calculated
+         */
+        @Nullable
+        private static byte[] getSubscriptionsFingerprint() {
+            MessageDigest digester;
             try {
                 digester = MessageDigest.getInstance("MD5");
-                writer = new OutputStreamWriter(new DigestOutputStream(byteStream, digester),
-                        Charset.forName("UTF-8"));
             } catch (NoSuchAlgorithmException e) {
-                writer = new OutputStreamWriter(byteStream, Charset.forName("UTF-8"));
+                return null;
             }
+            int[] count = {0};
+            DBReader.forEachFeed(feed -> {
+                count[0]++;
+                updateDigest(digester, feed.getTitle());
+                updateDigest(digester, feed.getType());
+                updateDigest(digester, feed.getDownloadUrl());
+                updateDigest(digester, feed.getLink());
+            });
+            updateDigest(digester, String.valueOf(count[0]));
+            byte[] fingerprint = digester.digest();
+            Log.d(TAG, "New fingerprint: " + new BigInteger(1, fingerprint).toString(16));
+            return fingerprint;
+        }
 
-            try {
-                // Write OPML
-                OpmlWriter.writeDocument(DBReader.getFeedList(), writer);
-
-                // Compare checksum of new and old file to see if we need to perform a backup at all
-                if (digester != null) {
-                    byte[] newChecksum = digester.digest();
-                    Log.d(TAG, "New checksum: " + new BigInteger(1, newChecksum).toString(16));
-
-                    // Get the old checksum
-                    if (oldState != null) {
-                        try (final FileInputStream inState = new FileInputStream(oldState.getFileDescriptor())) {
-                            int len = inState.read();
-
-                            if (len != -1) {
-                                byte[] oldChecksum = new byte[len];
-                                IOUtils.read(inState, oldChecksum, 0, len);
-                                Log.d(TAG, "Old checksum: " + new BigInteger(1, oldChecksum).toString(16));
-
-                                if (Arrays.equals(oldChecksum, newChecksum)) {
-                                    Log.d(TAG, "Checksums are the same; won't backup");
-                                    return;
-                                }
-                            }
-                        }
-                    }
+        private static void updateDigest(MessageDigest digester, String value) {
+            if (value != null) {
+                digester.update(value.getBytes(Charset.forName("UTF-8")));
+            }
+            digester.update((byte) (value == null ? 1 : 0)); // Separator that also tells null and "" apart
+        }
 
-                    writeNewStateDescription(newState, newChecksum);
+        @Nullable
+        private static byte[] readStateDescription(ParcelFileDescriptor oldState) throws IOException {
+            if (oldState == null) {
+                return null;
+            }
+            try (FileInputStream inState = new FileInputStream(oldState.getFileDescriptor())) {
+                int len = inState.read();
+                if (len == -1) {
+                    return null;
                 }
-
-                Log.d(TAG, "Backing up OPML");
-                byte[] bytes = byteStream.toByteArray();
-                data.writeEntityHeader(OPML_ENTITY_KEY, bytes.length);
-                data.writeEntityData(bytes, bytes.length);
-            } catch (IOException e) {
-                Log.e(TAG, "Error during backup", e);
-            } finally {
-                IOUtils.closeQuietly(writer);
+                byte[] oldFingerprint = new byte[len];
+                IOUtils.read(inState, oldFingerprint, 0, len);
+                return oldFingerprint;
             }
         }
 
@@ -126,25 +160,15 @@ public class OpmlBackupAgent extends BackupAgentHelper {
                 return;
             }
 
-            MessageDigest digester = null;
-            Reader reader;
-
+            Reader reader = new InputStreamReader(data, Charset.forName("UTF-8"));
             try {
-                digester = MessageDigest.getInstance("MD5");
-                reader = new InputStreamReader(new DigestInputStream(data, digester),
-                        Charset.forName("UTF-8"));
-            } catch (NoSuchAlgorithmException e) {
-                reader = new InputStreamReader(data, Charset.forName("UTF-8"));
-            }
-
-            try {
-                ArrayList<OpmlElement> opmlElements = new OpmlReader().readDocument(reader);
-                mChecksum = digester == null ? null : digester.digest();
-                for (OpmlElement opmlElem : opmlElements) {
+                List<Feed> feeds = new ArrayList<>();
+                new OpmlReader().readDocument(reader, opmlElem -> {
                     Feed feed = new Feed(opmlElem.getXmlUrl(), null, opmlElem.getText());
                     feed.setItems(Collections.emptyList());
-                    FeedDatabaseWriter.updateFeed(mContext, feed, false);
-                }
+                    feeds.add(feed);
+                });
+                FeedDatabaseWriter.addNewFeeds(mContext, feeds);
                 FeedUpdateManager.getInstance().runOnce(mContext);
             } catch (XmlPullParserException e) {
                 Log.e(TAG, "Error while parsing the OPML file", e);
@@ -157,16 +181,17 @@ public class OpmlBackupAgent extends BackupAgentHelper {
 
         @Override
         public void writeNewStateDescription(ParcelFileDescriptor newState) {
-            writeNewStateDescription(newState, mChecksum);
+            // The restored subscriptions are what the backup contains now
+            writeNewStateDescription(newState, getSubscriptionsFingerprint());
         }
 
         /**
-         * Writes the new state description, which is the checksum of the OPML file.
+         * Writes the new state description, which is the fingerprint of the subscriptions.
          *
          * @param newState
          * @param checksum
          */
-        private void writeNewStateDescription(ParcelFileDescriptor newState, byte[] checksum) {
+        private void writeNewStateDescription(ParcelFileDescriptor newState, @Nullable byte[] checksum) {
             if (checksum == null) {
                 return;
             }
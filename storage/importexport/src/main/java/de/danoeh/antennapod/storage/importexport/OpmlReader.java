@@ -3,6 +3,7 @@ package de.danoeh.antennapod.storage.importexport;
 import android.text.TextUtils;
 import android.util.Log;
 
+import androidx.core.util.Consumer;
 import de.danoeh.antennapod.storage.preferences.BuildConfig;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
@@ -27,6 +28,16 @@ public class OpmlReader {
     public ArrayList<OpmlElement> readDocument(Reader reader)
             throws XmlPullParserException, IOException {
         ArrayList<OpmlElement> elementList = new ArrayList<>();
+        readDocument(reader, elementList::add);
+        return elementList;
+    }
+
+    /**
+     * Reads an Opml document and passes each OPML element to the consumer as soon as it is found.
+     * This avoids keeping all elements of very large documents in memory.
+     */
+    public void readDocument(Reader reader, Consumer<OpmlElement> consumer)
+            throws XmlPullParserException, IOException {
         XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
         factory.setNamespaceAware(true);
         XmlPullParser xpp = factory.newPullParser();
@@ -68,7 +79,7 @@ public class OpmlReader {
                                 Log.i(TAG, "Opml element has no text attribute.");
                                 element.setText(element.getXmlUrl());
                             }
-                            elementList.add(element);
+                            consumer.accept(element);
                         } else {
                             if (BuildConfig.DEBUG) {
                                 Log.d(TAG, "Skipping element because of missing xml url");
@@ -85,8 +96,6 @@ public class OpmlReader {
         if (BuildConfig.DEBUG) {
             Log.d(TAG, "Parsing finished.");
         }
-
-        return elementList;
     }
 
 }
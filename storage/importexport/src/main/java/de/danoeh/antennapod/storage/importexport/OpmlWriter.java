@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Locale;
 
 import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.storage.database.DBReader;
 
 /** Writes OPML documents. */
 public class OpmlWriter {
@@ -28,6 +29,25 @@ public class OpmlWriter {
      */
     public static void writeDocument(List<Feed> feeds, Writer writer)
             throws IllegalArgumentException, IllegalStateException, IOException {
+        XmlSerializer xs = startDocument(writer);
+        for (Feed feed : feeds) {
+            writeOutline(xs, feed);
+        }
+        endDocument(xs);
+    }
+
+    /**
+     * Writes all subscriptions into an OPML document while reading them from the database,
+     * without keeping the whole list of feeds in memory.
+     */
+    public static void writeDocument(Writer writer)
+            throws IllegalArgumentException, IllegalStateException, IOException {
+        XmlSerializer xs = startDocument(writer);
+        DBReader.forEachFeed(feed -> writeOutline(xs, feed));
+        endDocument(xs);
+    }
+
+    private static XmlSerializer startDocument(Writer writer) throws IOException {
         Log.d(TAG, "Starting to write document");
         XmlSerializer xs = Xml.newSerializer();
         xs.setFeature(OpmlSymbols.XML_FEATURE_INDENT_OUTPUT, true);
@@ -47,19 +67,24 @@ public class OpmlWriter {
         xs.endTag(null, OpmlSymbols.HEAD);
 
         xs.startTag(null, OpmlSymbols.BODY);
-        for (Feed feed : feeds) {
-            xs.startTag(null, OpmlSymbols.OUTLINE);
-            xs.attribute(null, OpmlSymbols.TEXT, feed.getTitle());
-            xs.attribute(null, OpmlSymbols.TITLE, feed.getTitle());
-            if (feed.getType() != null) {
-                xs.attribute(null, OpmlSymbols.TYPE, feed.getType());
-            }
-            xs.attribute(null, OpmlSymbols.XMLURL, feed.getDownloadUrl());
-            if (feed.getLink() != null) {
-                xs.attribute(null, OpmlSymbols.HTMLURL, feed.getLink());
-            }
-            xs.endTag(null, OpmlSymbols.OUTLINE);
+        return xs;
+    }
+
+    private static void writeOutline(XmlSerializer xs, Feed feed) throws IOException {
+        xs.startTag(null, OpmlSymbols.OUTLINE);
+        xs.attribute(null, OpmlSymbols.TEXT, feed.getTitle());
+        xs.attribute(null, OpmlSymbols.TITLE, feed.getTitle());
+        if (feed.getType() != null) {
+            xs.attribute(null, OpmlSymbols.TYPE, feed.getType());
         }
+        xs.attribute(null, OpmlSymbols.XMLURL, feed.getDownloadUrl());
+        if (feed.getLink() != null) {
+            xs.attribute(null, OpmlSymbols.HTMLURL, feed.getLink());
+        }
+        xs.endTag(null, OpmlSymbols.OUTLINE);
+    }
+
+    private static void endDocument(XmlSerializer xs) throws IOException {
         xs.endTag(null, OpmlSymbols.BODY);
         xs.endTag(null, OpmlSymbols.OPML);
         xs.endDocument();
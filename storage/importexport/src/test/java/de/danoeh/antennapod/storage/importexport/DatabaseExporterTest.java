@@ -0,0 +1,124 @@
+package de.danoeh.antennapod.storage.importexport;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+import androidx.test.platform.app.InstrumentationRegistry;
+import de.danoeh.antennapod.storage.database.PodDBAdapter;
+import de.danoeh.antennapod.storage.preferences.UserPreferences;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for restoring backups with {@link DatabaseExporter}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DatabaseExporterTest {
+    private static final String FULL_BACKUP_NAME = "AntennaPodBackup-full.db.gz";
+
+    private Context context;
+    private File folder;
+    private File database;
+    private File fullBackup;
+    private File deltaBackup;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        UserPreferences.init(context);
+        assertNull(UserPreferences.getAutomaticExportFolder());
+
+        File currentDatabase = context.getDatabasePath(PodDBAdapter.DATABASE_NAME);
+        currentDatabase.getParentFile().mkdirs();
+        FileUtils.writeStringToFile(currentDatabase, "current", "UTF-8");
+
+        folder = Files.createTempDirectory("backup").toFile();
+        database = new File(folder, "database");
+        insertEpisodes(0, 50);
+        fullBackup = new File(folder, FULL_BACKUP_NAME);
+        IncrementalDatabaseBackup.PageIndex index;
+        try (FileOutputStream out = new FileOutputStream(fullBackup)) {
+            index = IncrementalDatabaseBackup.writeFull(database, out).withBaseName(FULL_BACKUP_NAME);
+        }
+        insertEpisodes(50, 60);
+        deltaBackup = new File(folder, "AntennaPodBackup-delta.db.gz");
+        try (FileOutputStream out = new FileOutputStream(deltaBackup)) {
+            IncrementalDatabaseBackup.writeDelta(database, index, out);
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(folder);
+    }
+
+    @Test
+    public void testRestoreDeltaNextToFullBackup() throws IOException {
+        DatabaseExporter.importBackup(Uri.fromFile(deltaBackup), context);
+        assertEquals(60, countRestoredEpisodes());
+    }
+
+    @Test
+    public void testRestoreDeltaWithSelectedFullBackup() throws IOException {
+        File otherFolder = new File(folder, "other");
+        otherFolder.mkdir();
+        File movedFullBackup = new File(otherFolder, "renamed.gz");
+        FileUtils.moveFile(fullBackup, movedFullBackup);
+
+        DatabaseExporter.importBackup(Uri.fromFile(deltaBackup), Uri.fromFile(movedFullBackup), context);
+        assertEquals(60, countRestoredEpisodes());
+    }
+
+    @Test
+    public void testRestoreDeltaWithoutFullBackup() throws IOException {
+        assertTrue(fullBackup.delete());
+        try {
+            DatabaseExporter.importBackup(Uri.fromFile(deltaBackup), context);
+            fail("Expected the missing full backup to be reported");
+        } catch (DatabaseExporter.MissingFullBackupException e) {
+            assertEquals(FULL_BACKUP_NAME, e.getFullBackupName());
+        }
+    }
+
+    private void insertEpisodes(int from, int to) {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(database, null);
+        db.setVersion(1);
+        db.execSQL("CREATE TABLE IF NOT EXISTS Episodes (id INTEGER PRIMARY KEY, description TEXT)");
+        for (int i = from; i < to; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int j = 0; j < 50; j++) {
+                description.append("Episode ").append(i).append(" talks about topic ").append(j).append(". ");
+            }
+            db.execSQL("INSERT INTO Episodes (id, description) VALUES (?, ?)",
+                    new Object[] {i, description.toString()});
+        }
+        db.close();
+    }
+
+    private int countRestoredEpisodes() {
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(
+                context.getDatabasePath(PodDBAdapter.DATABASE_NAME).getAbsolutePath(),
+                null, SQLiteDatabase.OPEN_READONLY);
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM Episodes", null)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        } finally {
+            db.close();
+        }
+    }
+}
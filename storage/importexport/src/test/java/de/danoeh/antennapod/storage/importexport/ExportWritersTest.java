@@ -0,0 +1,158 @@
+package de.danoeh.antennapod.storage.importexport;
+
+import android.content.Context;
+import androidx.test.platform.app.InstrumentationRegistry;
+import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedItemFilter;
+import de.danoeh.antennapod.model.feed.FeedMedia;
+import de.danoeh.antennapod.model.feed.SortOrder;
+import de.danoeh.antennapod.storage.database.DBReader;
+import de.danoeh.antennapod.storage.database.DBWriter;
+import de.danoeh.antennapod.storage.database.PodDBAdapter;
+import de.danoeh.antennapod.storage.preferences.UserPreferences;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the exports that are written while reading from the database to the exports of the loaded lists.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ExportWritersTest {
+    private static final String[] FEED_TITLES = {"b feed", "A feed", "c feed", "no favorites"};
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        UserPreferences.init(context);
+        PodDBAdapter.init(context);
+        PodDBAdapter.deleteDatabase();
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        List<FeedItem> favorites = new ArrayList<>();
+        for (int i = 0; i < FEED_TITLES.length; i++) {
+            Feed feed = new Feed(0, null, FEED_TITLES[i], "https://example.com/" + i, "Description", null, null,
+                    null, null, "id" + i, "https://example.com/" + i + ".png", null,
+                    "https://example.com/" + i + ".xml", 0);
+            feed.setItems(new ArrayList<>());
+            for (int j = 0; j < 4; j++) {
+                FeedItem item = new FeedItem(0, "Episode " + i + "-" + j, "episode" + i + "-" + j,
+                        "https://example.com/" + i + "/" + j, new Date((j * 7 % 4) * 60000L), FeedItem.PLAYED, feed);
+                item.setMedia(new FeedMedia(item, "https://example.com/" + i + "/" + j + ".mp3", 1, "audio/mp3"));
+                feed.getItems().add(item);
+            }
+            adapter.setCompleteFeed(feed);
+            if (i != FEED_TITLES.length - 1) {
+                favorites.add(feed.getItems().get(0));
+                favorites.add(feed.getItems().get(1));
+                favorites.add(feed.getItems().get(3));
+            }
+        }
+        adapter.setFavorites(favorites);
+        adapter.close();
+    }
+
+    @After
+    public void tearDown() {
+        PodDBAdapter.tearDownTests();
+        DBWriter.tearDownTests();
+    }
+
+    @Test
+    public void testOpmlMatchesFeedList() throws IOException {
+        StringWriter expected = new StringWriter();
+        OpmlWriter.writeDocument(DBReader.getFeedList(), expected);
+        StringWriter actual = new StringWriter();
+        OpmlWriter.writeDocument(actual);
+        assertEquals(withoutDateCreated(expected.toString()), withoutDateCreated(actual.toString()));
+        assertTrue(actual.toString().contains("https://example.com/2.xml"));
+    }
+
+    @Test
+    public void testHtmlMatchesFeedList() throws IOException {
+        StringWriter expected = new StringWriter();
+        HtmlWriter.writeDocument(DBReader.getFeedList(), expected, context);
+        StringWriter actual = new StringWriter();
+        HtmlWriter.writeDocument(actual, context);
+        assertEquals(expected.toString(), actual.toString());
+        assertTrue(actual.toString().contains("https://example.com/2.xml"));
+    }
+
+    @Test
+    public void testFavoritesMatchLoadedFavorites() throws IOException {
+        List<FeedItem> allFavorites = DBReader.getEpisodes(0, Integer.MAX_VALUE,
+                new FeedItemFilter(FeedItemFilter.IS_FAVORITE), SortOrder.DATE_NEW_OLD);
+        assertEquals(9, allFavorites.size());
+        StringWriter expected = new StringWriter();
+        writeFavoritesBefore(allFavorites, expected, context);
+        StringWriter actual = new StringWriter();
+        FavoritesWriter.writeDocument(actual, context);
+        assertEquals(expected.toString(), actual.toString());
+        assertTrue(actual.toString().contains("https://example.com/2/3.mp3"));
+    }
+
+    private static String withoutDateCreated(String opml) {
+        return opml.replaceAll("<dateCreated>[^<]*</dateCreated>", "");
+    }
+
+    /**
+     * The implementation of FavoritesWriter before it read the favorites from the database.
+     */
+    private static void writeFavoritesBefore(List<FeedItem> allFavorites, Writer writer, Context context)
+            throws IOException {
+        String template = IOUtils.toString(context.getAssets().open("html-export-template.html"), "UTF-8");
+        template = template.replaceAll("\\{TITLE\\}", "Favorites");
+        String[] templateParts = template.split("\\{FEEDS\\}");
+        String favTemplate = IOUtils.toString(
+                context.getAssets().open("html-export-favorites-item-template.html"), "UTF-8");
+        String feedTemplate = IOUtils.toString(context.getAssets().open("html-export-feed-template.html"), "UTF-8");
+
+        Map<Long, List<FeedItem>> favoriteByFeed = new TreeMap<>();
+        for (FeedItem item : allFavorites) {
+            List<FeedItem> feedEpisodes = favoriteByFeed.get(item.getFeedId());
+            if (feedEpisodes == null) {
+                feedEpisodes = new ArrayList<>();
+                favoriteByFeed.put(item.getFeedId(), feedEpisodes);
+            }
+            feedEpisodes.add(item);
+        }
+
+        writer.append(templateParts[0]);
+        for (List<FeedItem> favorites : favoriteByFeed.values()) {
+            Feed feed = favorites.get(0).getFeed();
+            writer.append("<li><div>\n");
+            writer.append(feedTemplate
+                    .replace("{FEED_IMG}", feed.getImageUrl())
+                    .replace("{FEED_TITLE}", feed.getTitle())
+                    .replace("{FEED_LINK}", feed.getLink())
+                    .replace("{FEED_WEBSITE}", feed.getDownloadUrl()));
+            writer.append("<ul>\n");
+            for (FeedItem item : favorites) {
+                writer.append(favTemplate
+                        .replace("{FAV_TITLE}", item.getTitle().trim())
+                        .replace("{FAV_WEBSITE}", item.getLink())
+                        .replace("{FAV_MEDIA}", item.getMedia().getDownloadUrl()));
+            }
+            writer.append("</ul></div></li>\n");
+        }
+        writer.append(templateParts[1]);
+    }
+}
@@ -0,0 +1,211 @@
+package de.danoeh.antennapod.storage.importexport;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for {@link IncrementalDatabaseBackup}.
+ */
+public class IncrementalDatabaseBackupTest {
+    private static final int PAGE_SIZE = 4096;
+
+    private File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("backup").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(folder);
+    }
+
+    @Test
+    public void testRestoreFullBackup() throws IOException {
+        File database = createDatabase(100);
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        IncrementalDatabaseBackup.writeFull(database, full);
+
+        File restored = newFile();
+        IncrementalDatabaseBackup.restore(new ByteArrayInputStream(full.toByteArray()), name -> null, restored);
+        assertArrayEquals(Files.readAllBytes(database.toPath()), Files.readAllBytes(restored.toPath()));
+    }
+
+    @Test
+    public void testRestoreDeltaBackup() throws IOException {
+        File database = createDatabase(100);
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        IncrementalDatabaseBackup.PageIndex index = IncrementalDatabaseBackup.writeFull(database, full)
+                .withBaseName("base");
+
+        changePage(database, 3);
+        changePage(database, 50);
+        appendPages(database, 2);
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        IncrementalDatabaseBackup.writeDelta(database, index, delta);
+        assertTrue(delta.size() < full.size() / 10);
+
+        File restored = newFile();
+        IncrementalDatabaseBackup.restore(new ByteArrayInputStream(delta.toByteArray()),
+                name -> "base".equals(name) ? new ByteArrayInputStream(full.toByteArray()) : null, restored);
+        assertArrayEquals(Files.readAllBytes(database.toPath()), Files.readAllBytes(restored.toPath()));
+    }
+
+    @Test
+    public void testRestoreDeltaBackupOfSmallerDatabase() throws IOException {
+        File database = createDatabase(100);
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        IncrementalDatabaseBackup.PageIndex index = IncrementalDatabaseBackup.writeFull(database, full)
+                .withBaseName("base");
+
+        try (RandomAccessFile file = new RandomAccessFile(database, "rw")) {
+            file.setLength(60L * PAGE_SIZE);
+        }
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        IncrementalDatabaseBackup.writeDelta(database, index, delta);
+
+        File restored = newFile();
+        IncrementalDatabaseBackup.restore(new ByteArrayInputStream(delta.toByteArray()),
+                name -> new ByteArrayInputStream(full.toByteArray()), restored);
+        assertArrayEquals(Files.readAllBytes(database.toPath()), Files.readAllBytes(restored.toPath()));
+    }
+
+    @Test(expected = IncrementalDatabaseBackup.MissingBaseBackupException.class)
+    public void testRestoreDeltaBackupWithoutBase() throws IOException {
+        File database = createDatabase(10);
+        IncrementalDatabaseBackup.PageIndex index = IncrementalDatabaseBackup.writeFull(database,
+                new ByteArrayOutputStream()).withBaseName("base");
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        IncrementalDatabaseBackup.writeDelta(database, index, delta);
+        IncrementalDatabaseBackup.restore(new ByteArrayInputStream(delta.toByteArray()), name -> null,
+                newFile());
+    }
+
+    @Test
+    public void testRestoreDamagedBackup() throws IOException {
+        File database = createDatabase(10);
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        IncrementalDatabaseBackup.writeFull(database, full);
+        byte[] damaged = full.toByteArray();
+        damaged[damaged.length / 2] ^= 0x55;
+        try {
+            IncrementalDatabaseBackup.restore(new ByteArrayInputStream(damaged), name -> null, newFile());
+            fail("Expected damaged backup to be rejected");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testPageIndexRoundTrip() throws IOException {
+        File database = createDatabase(10);
+        IncrementalDatabaseBackup.PageIndex index = IncrementalDatabaseBackup.writeFull(database,
+                new ByteArrayOutputStream()).withBaseName("base").withNextDelta();
+        File indexFile = new File(folder, "index");
+        index.write(indexFile);
+
+        IncrementalDatabaseBackup.PageIndex read = IncrementalDatabaseBackup.PageIndex.read(indexFile);
+        assertEquals("base", read.getBaseName());
+        assertEquals(1, read.getDeltaCount());
+    }
+
+    @Test
+    public void testIsIncrementalBackup() throws IOException {
+        File database = createDatabase(10);
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        IncrementalDatabaseBackup.writeFull(database, full);
+        assertTrue(IncrementalDatabaseBackup.isIncrementalBackup(new ByteArrayInputStream(full.toByteArray())));
+        assertFalse(IncrementalDatabaseBackup.isIncrementalBackup(
+                new ByteArrayInputStream(Files.readAllBytes(database.toPath()))));
+    }
+
+    @Test
+    public void testDeltaBackupIsSmallerThanFullBackup() throws IOException {
+        File database = createDatabase(200);
+        File full = new File(folder, "full");
+        IncrementalDatabaseBackup.PageIndex index;
+        try (FileOutputStream out = new FileOutputStream(full)) {
+            index = IncrementalDatabaseBackup.writeFull(database, out).withBaseName("full");
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 4; i++) {
+            changePage(database, random.nextInt(200));
+        }
+        File delta = new File(folder, "delta");
+        try (FileOutputStream out = new FileOutputStream(delta)) {
+            IncrementalDatabaseBackup.writeDelta(database, index, out);
+        }
+        assertTrue(full.length() < database.length());
+        assertTrue(delta.length() < full.length() / 10);
+    }
+
+    /**
+     * Creates a file that looks like a database with the given number of pages of episode descriptions.
+     */
+    private File createDatabase(int pages) throws IOException {
+        File database = newFile();
+        Random random = new Random(pages);
+        try (FileOutputStream out = new FileOutputStream(database)) {
+            byte[] header = new byte[PAGE_SIZE];
+            System.arraycopy("SQLite format 3\0".getBytes(StandardCharsets.US_ASCII), 0, header, 0, 16);
+            header[16] = (byte) (PAGE_SIZE >> 8);
+            header[17] = (byte) PAGE_SIZE;
+            out.write(header);
+            for (int i = 1; i < pages; i++) {
+                out.write(createPage(random));
+            }
+        }
+        return database;
+    }
+
+    private File newFile() throws IOException {
+        return File.createTempFile("backup", null, folder);
+    }
+
+    private static byte[] createPage(Random random) {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < PAGE_SIZE) {
+            text.append("<p>Episode ").append(random.nextInt(100000))
+                    .append(" of the podcast talks about topic ").append(random.nextInt(1000)).append(".</p>");
+        }
+        byte[] page = new byte[PAGE_SIZE];
+        System.arraycopy(text.toString().getBytes(StandardCharsets.US_ASCII), 0, page, 0, PAGE_SIZE);
+        return page;
+    }
+
+    private static void changePage(File database, int page) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(database, "rw")) {
+            file.seek((long) page * PAGE_SIZE);
+            file.write(createPage(new Random(page + 12345)));
+        }
+    }
+
+    private static void appendPages(File database, int count) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(database, "rw")) {
+            for (int i = 0; i < count; i++) {
+                file.seek(file.length());
+                file.write(createPage(new Random(i)));
+            }
+        }
+    }
+}
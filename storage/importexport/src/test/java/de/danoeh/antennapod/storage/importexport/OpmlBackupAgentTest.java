@@ -0,0 +1,109 @@
+package de.danoeh.antennapod.storage.importexport;
+
+import android.app.backup.BackupDataOutput;
+import android.content.Context;
+import android.os.ParcelFileDescriptor;
+import androidx.test.platform.app.InstrumentationRegistry;
+import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.storage.database.DBWriter;
+import de.danoeh.antennapod.storage.database.PodDBAdapter;
+import de.danoeh.antennapod.storage.preferences.UserPreferences;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests that {@link OpmlBackupAgent} only backs up the subscriptions when they changed.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class OpmlBackupAgentTest {
+    private File folder;
+    private OpmlBackupAgent.OpmlBackupHelper helper;
+
+    @Before
+    public void setUp() throws IOException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        UserPreferences.init(context);
+        PodDBAdapter.init(context);
+        PodDBAdapter.deleteDatabase();
+        addFeed(1);
+        addFeed(2);
+        folder = Files.createTempDirectory("state").toFile();
+        helper = new OpmlBackupAgent.OpmlBackupHelper(context);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        PodDBAdapter.tearDownTests();
+        DBWriter.tearDownTests();
+        FileUtils.deleteDirectory(folder);
+    }
+
+    @Test
+    public void testFirstBackupIsWritten() throws IOException {
+        BackupDataOutput data = mock(BackupDataOutput.class);
+        performBackup(null, new File(folder, "state"), data);
+        verify(data).writeEntityHeader(eq(OpmlBackupAgent.OpmlBackupHelper.OPML_ENTITY_KEY), anyInt());
+    }
+
+    @Test
+    public void testUnchangedSubscriptionsAreSkipped() throws IOException {
+        File firstState = new File(folder, "first");
+        performBackup(null, firstState, mock(BackupDataOutput.class));
+
+        BackupDataOutput data = mock(BackupDataOutput.class);
+        File secondState = new File(folder, "second");
+        performBackup(firstState, secondState, data);
+        verify(data, never()).writeEntityHeader(eq(OpmlBackupAgent.OpmlBackupHelper.OPML_ENTITY_KEY), anyInt());
+        assertTrue(FileUtils.contentEquals(firstState, secondState));
+    }
+
+    @Test
+    public void testChangedSubscriptionsAreWritten() throws IOException {
+        File firstState = new File(folder, "first");
+        performBackup(null, firstState, mock(BackupDataOutput.class));
+        addFeed(3);
+
+        BackupDataOutput data = mock(BackupDataOutput.class);
+        performBackup(firstState, new File(folder, "second"), data);
+        verify(data).writeEntityHeader(eq(OpmlBackupAgent.OpmlBackupHelper.OPML_ENTITY_KEY), anyInt());
+    }
+
+    private void performBackup(File oldStateFile, File newStateFile, BackupDataOutput data) throws IOException {
+        ParcelFileDescriptor oldState = oldStateFile == null
+                ? null : ParcelFileDescriptor.open(oldStateFile, ParcelFileDescriptor.MODE_READ_ONLY);
+        try (ParcelFileDescriptor newState = ParcelFileDescriptor.open(newStateFile,
+                ParcelFileDescriptor.MODE_WRITE_ONLY | ParcelFileDescriptor.MODE_CREATE)) {
+            helper.performBackup(oldState, data, newState);
+        } finally {
+            if (oldState != null) {
+                oldState.close();
+            }
+        }
+    }
+
+    private static void addFeed(int number) {
+        Feed feed = new Feed(0, null, "Feed " + number, "https://example.com/" + number, "Description", null,
+                null, null, null, "id" + number, null, null, "https://example.com/" + number + ".xml", 0);
+        feed.setItems(new ArrayList<>());
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.setCompleteFeed(feed);
+        adapter.close();
+    }
+}
@@ -6,12 +6,17 @@ import android.net.Uri;
 import android.text.TextUtils;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import de.danoeh.antennapod.model.feed.Chapter;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.net.common.AntennapodHttpClient;
+import de.danoeh.antennapod.storage.database.CachedChapters;
 import de.danoeh.antennapod.storage.database.DBReader;
+import de.danoeh.antennapod.storage.database.DBWriter;
 import de.danoeh.antennapod.parser.feed.PodcastIndexChapterParser;
+import de.danoeh.antennapod.parser.media.RangeInputStream;
 import de.danoeh.antennapod.parser.media.id3.ChapterReader;
+import de.danoeh.antennapod.parser.media.id3.ID3Reader;
 import de.danoeh.antennapod.parser.media.id3.ID3ReaderException;
 import de.danoeh.antennapod.model.playback.Playable;
 import de.danoeh.antennapod.parser.media.vorbis.VorbisCommentChapterReader;
@@ -19,6 +24,7 @@ import de.danoeh.antennapod.parser.media.vorbis.VorbisCommentReaderException;
 import okhttp3.CacheControl;
 import okhttp3.Request;
 import okhttp3.Response;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.CountingInputStream;
 
 import java.io.BufferedInputStream;
@@ -27,6 +33,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -37,6 +44,9 @@ import java.util.List;
 public class ChapterUtils {
 
     private static final String TAG = "ChapterUtils";
+    private static final int MAGIC_LENGTH = 4;
+    private static final byte[] MAGIC_ID3 = {'I', 'D', '3'};
+    private static final byte[] MAGIC_OGG = {'O', 'g', 'g', 'S'};
 
     private ChapterUtils() {
     }
@@ -50,6 +60,7 @@ public class ChapterUtils {
         try {
             List<Chapter> chaptersFromDatabase = null;
             List<Chapter> chaptersFromPodcastIndex = null;
+            List<Chapter> chaptersFromMediaFile;
             if (playable instanceof FeedMedia) {
                 FeedMedia feedMedia = (FeedMedia) playable;
                 if (feedMedia.getItem() == null) {
@@ -60,13 +71,14 @@ public class ChapterUtils {
                 }
 
                 if (!TextUtils.isEmpty(feedMedia.getItem().getPodcastIndexChapterUrl())) {
-                    chaptersFromPodcastIndex = ChapterUtils.loadChaptersFromUrl(
+                    chaptersFromPodcastIndex = ChapterUtils.loadChaptersFromUrl(feedMedia.getItem().getId(),
                             feedMedia.getItem().getPodcastIndexChapterUrl(), forceRefresh);
                 }
-
+                chaptersFromMediaFile = loadCachedChaptersFromMediaFile(feedMedia, context, forceRefresh);
+            } else {
+                chaptersFromMediaFile = ChapterUtils.loadChaptersFromMediaFile(playable, context);
             }
 
-            List<Chapter> chaptersFromMediaFile = ChapterUtils.loadChaptersFromMediaFile(playable, context);
             List<Chapter> chaptersMergePhase1 = ChapterMerger.merge(chaptersFromDatabase, chaptersFromMediaFile);
             List<Chapter> chapters = ChapterMerger.merge(chaptersMergePhase1, chaptersFromPodcastIndex);
             if (chapters == null) {
@@ -81,35 +93,139 @@ public class ChapterUtils {
         }
     }
 
+    /**
+     * Loads the chapters embedded in the media file, using the chapter cache of the database.
+     * The media file is only opened if it was not parsed before or if a refresh is forced.
+     */
+    @Nullable
+    private static List<Chapter> loadCachedChaptersFromMediaFile(FeedMedia media, Context context,
+                                                                 boolean forceRefresh) throws InterruptedIOException {
+        long itemId = media.getItemId();
+        CachedChapters cached = DBReader.getCachedChapters(itemId, CachedChapters.SOURCE_MEDIA_FILE);
+        if (!forceRefresh && cached != null && TextUtils.equals(cached.getUrl(), media.getStreamUrl())) {
+            return cached.getChapters().isEmpty() ? null : cached.getChapters();
+        }
+
+        List<Chapter> chapters;
+        try {
+            chapters = readChaptersFromMediaFile(media, context);
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            // Do not cache, the file might be readable next time
+            Log.e(TAG, "Unable to load chapters from media file: " + e.getMessage());
+            return null;
+        }
+        DBWriter.setCachedChapters(itemId, CachedChapters.SOURCE_MEDIA_FILE, media.getStreamUrl(), null, chapters);
+        return chapters.isEmpty() ? null : chapters;
+    }
+
+    @Nullable
     public static List<Chapter> loadChaptersFromMediaFile(Playable playable, Context context)
             throws InterruptedIOException {
-        try (CountingInputStream in = openStream(playable, context)) {
-            List<Chapter> chapters = readId3ChaptersFrom(in);
-            if (!chapters.isEmpty()) {
-                Log.i(TAG, "Chapters loaded");
-                return chapters;
-            }
+        try {
+            List<Chapter> chapters = readChaptersFromMediaFile(playable, context);
+            return chapters.isEmpty() ? null : chapters;
         } catch (InterruptedIOException e) {
             throw e;
-        } catch (IOException | ID3ReaderException e) {
-            Log.e(TAG, "Unable to load ID3 chapters: " + e.getMessage());
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to load chapters from media file: " + e.getMessage());
+            return null;
         }
+    }
 
-        try (CountingInputStream in = openStream(playable, context)) {
-            List<Chapter> chapters = readOggChaptersFromInputStream(in);
-            if (!chapters.isEmpty()) {
-                Log.i(TAG, "Chapters loaded");
+    /**
+     * Opens the media file once and uses its first bytes to decide which chapter parser to use.
+     * Remote files are read using range requests, so only the parts of the file containing chapters are loaded.
+     * If the server does not support range requests, the file is read with a single request instead.
+     *
+     * @return The chapters, or an empty list if the file does not contain (valid) chapters
+     * @throws IOException if the media file could not be read
+     */
+    @NonNull
+    private static List<Chapter> readChaptersFromMediaFile(Playable playable, Context context) throws IOException {
+        if (!playable.localFileAvailable() && !playable.getStreamUrl().startsWith(ContentResolver.SCHEME_CONTENT)) {
+            try {
+                return readChaptersFromRemoteFile(playable.getStreamUrl());
+            } catch (HttpRangeSource.RangeRequestsNotSupportedException e) {
+                // Usually detected with the first request, so this downloads the file only once more
+                Log.d(TAG, "Range requests not supported, reading the file sequentially");
+            }
+        }
+        try (BufferedInputStream in = openStream(playable, context)) {
+            byte[] magic = new byte[MAGIC_LENGTH];
+            in.mark(MAGIC_LENGTH);
+            int magicLength = IOUtils.read(in, magic);
+            in.reset();
+            return readChaptersFrom(in, magic, magicLength);
+        }
+    }
+
+    @NonNull
+    private static List<Chapter> readChaptersFromRemoteFile(String url) throws IOException {
+        RangeInputStream.RangeSource source = new HttpRangeSource(url);
+        byte[] header = new byte[ID3Reader.HEADER_LENGTH];
+        int headerLength;
+        try (InputStream in = source.open(0, header.length)) {
+            headerLength = IOUtils.read(in, header);
+        }
+
+        long limit = Long.MAX_VALUE;
+        if (startsWith(header, headerLength, MAGIC_ID3)) {
+            try {
+                // Only request the tag, not the audio data after it
+                limit = ID3Reader.getTagLength(header);
+            } catch (ID3ReaderException e) {
+                Log.e(TAG, "Unable to load ID3 chapters: " + e.getMessage());
+                return Collections.emptyList();
+            }
+        }
+        try (RangeInputStream in = new RangeInputStream(source, limit)) {
+            return readChaptersFrom(in, header, headerLength);
+        }
+    }
+
+    @NonNull
+    private static List<Chapter> readChaptersFrom(InputStream in, byte[] magic, int magicLength) throws IOException {
+        if (startsWith(magic, magicLength, MAGIC_ID3)) {
+            try {
+                List<Chapter> chapters = readId3ChaptersFrom(new CountingInputStream(in));
+                if (!chapters.isEmpty()) {
+                    Log.i(TAG, "Chapters loaded");
+                }
                 return chapters;
+            } catch (ID3ReaderException e) {
+                Log.e(TAG, "Unable to load ID3 chapters: " + e.getMessage());
             }
-        } catch (InterruptedIOException e) {
-            throw e;
-        } catch (IOException | VorbisCommentReaderException e) {
-            Log.e(TAG, "Unable to load vorbis chapters: " + e.getMessage());
+        } else if (startsWith(magic, magicLength, MAGIC_OGG)) {
+            try {
+                List<Chapter> chapters = readOggChaptersFromInputStream(in);
+                if (!chapters.isEmpty()) {
+                    Log.i(TAG, "Chapters loaded");
+                }
+                return chapters;
+            } catch (VorbisCommentReaderException e) {
+                Log.e(TAG, "Unable to load vorbis chapters: " + e.getMessage());
+            }
+        } else {
+            Log.d(TAG, "Media file has no supported chapter format");
         }
-        return null;
+        return Collections.emptyList();
     }
 
-    private static CountingInputStream openStream(Playable playable, Context context) throws IOException {
+    private static boolean startsWith(byte[] data, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BufferedInputStream openStream(Playable playable, Context context) throws IOException {
         if (playable.localFileAvailable()) {
             if (playable.getLocalFileUrl() == null) {
                 throw new IOException("No local url");
@@ -118,40 +234,52 @@ public class ChapterUtils {
             if (!source.exists()) {
                 throw new IOException("Local file does not exist");
             }
-            return new CountingInputStream(new BufferedInputStream(new FileInputStream(source)));
+            return new BufferedInputStream(new FileInputStream(source));
         } else if (playable.getStreamUrl().startsWith(ContentResolver.SCHEME_CONTENT)) {
             Uri uri = Uri.parse(playable.getStreamUrl());
-            return new CountingInputStream(new BufferedInputStream(context.getContentResolver().openInputStream(uri)));
+            return new BufferedInputStream(context.getContentResolver().openInputStream(uri));
         } else {
             Request request = new Request.Builder().url(playable.getStreamUrl()).build();
             Response response = AntennapodHttpClient.getHttpClient().newCall(request).execute();
             if (response.body() == null) {
                 throw new IOException("Body is null");
             }
-            return new CountingInputStream(new BufferedInputStream(response.body().byteStream()));
+            return new BufferedInputStream(response.body().byteStream());
         }
     }
 
-    public static List<Chapter> loadChaptersFromUrl(String url, boolean forceRefresh) throws InterruptedIOException {
-        if (forceRefresh) {
-            return loadChaptersFromUrl(url, CacheControl.FORCE_NETWORK);
+    /**
+     * Loads PodcastIndex chapters of an item. Chapters are stored in the chapter cache of the database,
+     * together with the ETag of the response, so that later refreshes can be conditional.
+     */
+    @Nullable
+    public static List<Chapter> loadChaptersFromUrl(long itemId, String url, boolean forceRefresh)
+            throws InterruptedIOException {
+        CachedChapters cached = DBReader.getCachedChapters(itemId, CachedChapters.SOURCE_PODCAST_INDEX);
+        if (cached != null && !url.equals(cached.getUrl())) {
+            cached = null;
         }
-        List<Chapter> cachedChapters = loadChaptersFromUrl(url, CacheControl.FORCE_CACHE);
-        if (cachedChapters == null || cachedChapters.size() <= 1) {
-            // Some publishers use one dummy chapter before actual chapters are available
-            return loadChaptersFromUrl(url, CacheControl.FORCE_NETWORK);
+        // Some publishers use one dummy chapter before actual chapters are available
+        if (!forceRefresh && cached != null && cached.getChapters().size() > 1) {
+            return cached.getChapters();
         }
-        return cachedChapters;
-    }
 
-    private static List<Chapter> loadChaptersFromUrl(String url, CacheControl cacheControl)
-            throws InterruptedIOException {
         Response response = null;
         try {
-            Request request = new Request.Builder().url(url).cacheControl(cacheControl).build();
-            response = AntennapodHttpClient.getHttpClient().newCall(request).execute();
-            if (response.isSuccessful() && response.body() != null) {
-                return PodcastIndexChapterParser.parse(response.body().string());
+            Request.Builder request = new Request.Builder().url(url).cacheControl(CacheControl.FORCE_NETWORK);
+            if (cached != null && !TextUtils.isEmpty(cached.getValidator())) {
+                request.header("If-None-Match", cached.getValidator());
+            }
+            response = AntennapodHttpClient.getHttpClient().newCall(request.build()).execute();
+            if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                return cached.getChapters().isEmpty() ? null : cached.getChapters();
+            } else if (response.isSuccessful() && response.body() != null) {
+                List<Chapter> chapters = PodcastIndexChapterParser.parse(response.body().string());
+                if (chapters != null) {
+                    DBWriter.setCachedChapters(itemId, CachedChapters.SOURCE_PODCAST_INDEX,
+                            url, response.header("ETag"), chapters);
+                }
+                return chapters;
             }
         } catch (InterruptedIOException e) {
             throw e;
@@ -162,7 +290,8 @@ public class ChapterUtils {
                 response.close();
             }
         }
-        return null;
+        // Network failed, fall back to outdated data
+        return cached != null && !cached.getChapters().isEmpty() ? cached.getChapters() : null;
     }
 
     @NonNull
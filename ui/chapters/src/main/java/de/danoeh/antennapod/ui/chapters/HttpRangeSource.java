@@ -0,0 +1,61 @@
+package de.danoeh.antennapod.ui.chapters;
+
+import androidx.annotation.NonNull;
+import de.danoeh.antennapod.net.common.AntennapodHttpClient;
+import de.danoeh.antennapod.parser.media.RangeInputStream;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.commons.io.input.BoundedInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+
+/**
+ * Loads ranges of a remote media file using HTTP range requests.
+ * Fails with {@link RangeRequestsNotSupportedException} if the server does not support them.
+ */
+class HttpRangeSource implements RangeInputStream.RangeSource {
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    private final String url;
+
+    HttpRangeSource(String url) {
+        this.url = url;
+    }
+
+    @NonNull
+    @Override
+    public InputStream open(long position, long length) throws IOException {
+        Request request = new Request.Builder()
+                .url(url)
+                .header("Range", "bytes=" + position + "-" + (position + length - 1))
+                .build();
+        Response response = AntennapodHttpClient.getHttpClient().newCall(request).execute();
+        if (response.code() == HTTP_RANGE_NOT_SATISFIABLE) {
+            // Range starts after the end of the file
+            response.close();
+            return new ByteArrayInputStream(new byte[0]);
+        } else if (!response.isSuccessful() || response.body() == null) {
+            response.close();
+            throw new IOException("Unable to load range: HTTP " + response.code());
+        }
+        if (response.code() != HttpURLConnection.HTTP_PARTIAL) {
+            // Skipping to the position would download the file again for every range
+            response.close();
+            throw new RangeRequestsNotSupportedException();
+        }
+        return new BoundedInputStream(response.body().byteStream(), length);
+    }
+
+    /**
+     * Thrown if the server ignores the Range header and sends the complete file.
+     * The file can then only be read with a single sequential request.
+     */
+    static class RangeRequestsNotSupportedException extends IOException {
+        RangeRequestsNotSupportedException() {
+            super("Server does not support range requests");
+        }
+    }
+}
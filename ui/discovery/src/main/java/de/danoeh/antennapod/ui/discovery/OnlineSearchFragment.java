@@ -22,10 +22,12 @@ import com.google.android.material.appbar.MaterialToolbar;
 import java.util.ArrayList;
 import java.util.List;
 
+import de.danoeh.antennapod.net.discovery.CombinedSearcher;
 import de.danoeh.antennapod.net.discovery.PodcastSearchResult;
 import de.danoeh.antennapod.net.discovery.PodcastSearcher;
 import de.danoeh.antennapod.net.discovery.PodcastSearcherRegistry;
 import de.danoeh.antennapod.ui.appstartintent.OnlineFeedviewActivityStarter;
+import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 
 public class OnlineSearchFragment extends Fragment {
@@ -183,15 +185,22 @@ public class OnlineSearchFragment extends Fragment {
             disposable.dispose();
         }
         showOnlyProgressBar();
-        disposable = searchProvider.search(query).subscribe(result -> {
+        Observable<List<PodcastSearchResult>> search;
+        if (searchProvider instanceof CombinedSearcher) {
+            search = ((CombinedSearcher) searchProvider).searchIncremental(query);
+        } else {
+            search = searchProvider.search(query).toObservable();
+        }
+        disposable = search.subscribe(result -> {
             searchResults = result;
-            progressBar.setVisibility(View.GONE);
             adapter.clear();
             adapter.addAll(searchResults);
             adapter.notifyDataSetInvalidated();
-            gridView.setVisibility(!searchResults.isEmpty() ? View.VISIBLE : View.GONE);
-            txtvEmpty.setVisibility(searchResults.isEmpty() ? View.VISIBLE : View.GONE);
-            txtvEmpty.setText(getString(R.string.no_results_for_query, query));
+            if (!searchResults.isEmpty()) {
+                // Show partial results while slower providers are still loading
+                progressBar.setVisibility(View.GONE);
+                gridView.setVisibility(View.VISIBLE);
+            }
         }, error -> {
                 Log.e(TAG, Log.getStackTraceString(error));
                 progressBar.setVisibility(View.GONE);
@@ -199,6 +208,12 @@ public class OnlineSearchFragment extends Fragment {
                 txtvError.setVisibility(View.VISIBLE);
                 butRetry.setOnClickListener(v -> search(query));
                 butRetry.setVisibility(View.VISIBLE);
+            }, () -> {
+                progressBar.setVisibility(View.GONE);
+                boolean isEmpty = searchResults == null || searchResults.isEmpty();
+                gridView.setVisibility(!isEmpty ? View.VISIBLE : View.GONE);
+                txtvEmpty.setVisibility(isEmpty ? View.VISIBLE : View.GONE);
+                txtvEmpty.setText(getString(R.string.no_results_for_query, query));
             });
     }
 
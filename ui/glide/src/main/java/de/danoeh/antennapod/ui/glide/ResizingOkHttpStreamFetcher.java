@@ -12,25 +12,32 @@ import com.bumptech.glide.integration.okhttp3.OkHttpStreamFetcher;
 import com.bumptech.glide.load.data.DataFetcher;
 import com.bumptech.glide.load.model.GlideUrl;
 import okhttp3.Call;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-
+import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+
+/**
+ * Downloads images and scales down large ones before they are cached.
+ * The start of the image is kept in memory to check its size and dimensions. Large images are then
+ * decoded with sampling directly from the network stream and encoded once, without temporary files.
+ * If that fails, the original image is downloaded again and delivered unchanged.
+ */
 public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
     private static final String TAG = "ResizingOkHttpStreamFet";
     private static final int MAX_DIMENSIONS = 1500;
     private static final int MAX_FILE_SIZE = 1024 * 1024; // 1 MB
+    private static final int DECODE_TEMP_STORAGE_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 4;
+    private static final ArrayDeque<byte[]> headBufferPool = new ArrayDeque<>();
+    private static final ThreadLocal<byte[]> decodeTempStorage = new ThreadLocal<>();
 
-    private FileInputStream stream;
-    private File tempIn;
-    private File tempOut;
+    private InputStream stream;
+    private byte[] headBuffer;
 
     public ResizingOkHttpStreamFetcher(Call.Factory client, GlideUrl url) {
         super(client, url);
@@ -46,78 +53,61 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
                     return;
                 }
                 try {
-                    tempIn = File.createTempFile("resize_", null);
-                    tempOut = File.createTempFile("resize_", null);
-                    OutputStream outputStream = new FileOutputStream(tempIn);
-                    IOUtils.copy(data, outputStream);
-                    outputStream.close();
-                    IOUtils.closeQuietly(data);
-
-                    if (tempIn.length() <= MAX_FILE_SIZE) {
-                        try {
-                            stream = new FileInputStream(tempIn);
-                            callback.onDataReady(stream); // Just deliver the original, non-scaled image
-                        } catch (FileNotFoundException fileNotFoundException) {
-                            callback.onLoadFailed(fileNotFoundException);
-                        }
+                    // Read one byte more than the limit to know if the image is larger
+                    headBuffer = obtainHeadBuffer();
+                    int headLength = IOUtils.read(data, headBuffer, 0, headBuffer.length);
+                    if (headLength <= MAX_FILE_SIZE) {
+                        IOUtils.closeQuietly(data);
+                        stream = new ByteArrayInputStream(headBuffer, 0, headLength);
+                        callback.onDataReady(stream); // Just deliver the original, non-scaled image
                         return;
                     }
 
                     BitmapFactory.Options options = new BitmapFactory.Options();
                     options.inJustDecodeBounds = true;
-                    FileInputStream in = new FileInputStream(tempIn);
-                    BitmapFactory.decodeStream(in, null, options);
-                    IOUtils.closeQuietly(in);
-
+                    BitmapFactory.decodeByteArray(headBuffer, 0, headLength, options);
+                    InputStream fullImage = new SequenceInputStream(
+                            new ByteArrayInputStream(headBuffer, 0, headLength), data);
                     if (options.outWidth == -1 || options.outHeight == -1) {
-                        throw new IOException("Not a valid image");
+                        Log.d(TAG, "Unable to read image dimensions, delivering original");
+                        stream = fullImage;
+                        callback.onDataReady(stream);
+                        return;
                     } else if (Math.max(options.outHeight, options.outWidth) >= MAX_DIMENSIONS) {
                         double sampleSize = (double) Math.max(options.outHeight, options.outWidth) / MAX_DIMENSIONS;
                         options.inSampleSize = (int) Math.pow(2d, Math.floor(Math.log(sampleSize) / Math.log(2d)));
                     }
 
                     options.inJustDecodeBounds = false;
-                    in = new FileInputStream(tempIn);
-                    Bitmap bitmap = BitmapFactory.decodeStream(in, null, options);
-                    IOUtils.closeQuietly(in);
+                    options.inTempStorage = getDecodeTempStorage();
+                    Bitmap bitmap = BitmapFactory.decodeStream(fullImage, null, options);
+                    IOUtils.closeQuietly(fullImage);
+                    releaseHeadBuffer(headBuffer);
+                    headBuffer = null;
+                    if (bitmap == null) {
+                        throw new IOException("Not a valid image");
+                    }
 
                     Bitmap.CompressFormat format = Build.VERSION.SDK_INT < 30
                             ? Bitmap.CompressFormat.WEBP : Bitmap.CompressFormat.WEBP_LOSSY;
-
-                    int quality = 100;
-                    while (true) {
-                        FileOutputStream out = new FileOutputStream(tempOut);
-                        bitmap.compress(format, quality, out);
-                        IOUtils.closeQuietly(out);
-
-                        if (tempOut.length() > 3 * MAX_FILE_SIZE && quality >= 45) {
-                            quality -= 40;
-                        } else if (tempOut.length() > 2 * MAX_FILE_SIZE && quality >= 25) {
-                            quality -= 20;
-                        } else if (tempOut.length() > MAX_FILE_SIZE && quality >= 15) {
-                            quality -= 10;
-                        } else if (tempOut.length() > MAX_FILE_SIZE && quality >= 10) {
-                            quality -= 5;
-                        } else {
-                            break;
-                        }
-                    }
+                    int quality = getQuality(bitmap.getWidth() * bitmap.getHeight());
+                    ExposedByteArrayOutputStream out = new ExposedByteArrayOutputStream();
+                    bitmap.compress(format, quality, out);
                     bitmap.recycle();
 
-                    stream = new FileInputStream(tempOut);
+                    stream = out.toInputStream();
                     callback.onDataReady(stream);
-                    Log.d(TAG, "Compressed image from " + tempIn.length() / 1024
-                            + " to " + tempOut.length() / 1024 + " kB (quality: " + quality + "%)");
+                    Log.d(TAG, "Compressed image to " + out.size() / 1024 + " kB (quality: " + quality + "%)");
                 } catch (Throwable e) {
                     e.printStackTrace();
-
-                    try {
-                        stream = new FileInputStream(tempIn);
-                        callback.onDataReady(stream); // Just deliver the original, non-scaled image
-                    } catch (FileNotFoundException fileNotFoundException) {
-                        e.printStackTrace();
-                        callback.onLoadFailed(fileNotFoundException);
+                    IOUtils.closeQuietly(data);
+                    if (headBuffer != null) {
+                        releaseHeadBuffer(headBuffer);
+                        headBuffer = null;
                     }
+                    // The network stream was consumed while decoding, so download the original again
+                    Log.d(TAG, "Unable to resize image, delivering original");
+                    ResizingOkHttpStreamFetcher.super.loadData(priority, callback);
                 }
             }
 
@@ -131,8 +121,69 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
     @Override
     public void cleanup() {
         IOUtils.closeQuietly(stream);
-        FileUtils.deleteQuietly(tempIn);
-        FileUtils.deleteQuietly(tempOut);
+        stream = null;
+        if (headBuffer != null) {
+            releaseHeadBuffer(headBuffer);
+            headBuffer = null;
+        }
         super.cleanup();
     }
+
+    /**
+     * Picks a WebP quality that keeps the encoded image around {@link #MAX_FILE_SIZE},
+     * based on the number of bits available per pixel.
+     */
+    static int getQuality(int pixels) {
+        double bitsPerPixel = 8.0 * MAX_FILE_SIZE / Math.max(1, pixels);
+        if (bitsPerPixel >= 4) {
+            return 90;
+        } else if (bitsPerPixel >= 2) {
+            return 80;
+        } else if (bitsPerPixel >= 1) {
+            return 65;
+        } else if (bitsPerPixel >= 0.5) {
+            return 45;
+        }
+        return 25;
+    }
+
+    private static byte[] obtainHeadBuffer() {
+        synchronized (headBufferPool) {
+            byte[] buffer = headBufferPool.poll();
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return new byte[MAX_FILE_SIZE + 1];
+    }
+
+    private static void releaseHeadBuffer(byte[] buffer) {
+        synchronized (headBufferPool) {
+            if (headBufferPool.size() < MAX_POOLED_BUFFERS) {
+                headBufferPool.push(buffer);
+            }
+        }
+    }
+
+    private static byte[] getDecodeTempStorage() {
+        byte[] buffer = decodeTempStorage.get();
+        if (buffer == null) {
+            buffer = new byte[DECODE_TEMP_STORAGE_SIZE];
+            decodeTempStorage.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Allows reading the written data without copying it.
+     */
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream() {
+            super(MAX_FILE_SIZE / 4);
+        }
+
+        InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
 }
@@ -0,0 +1,215 @@
+package de.danoeh.antennapod.ui.glide;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stack Blur Algorithm by Mario Klingemann <mario@quasimondo.com>, on opaque packed RGB pixels.
+ * The image is blurred in a horizontal and a vertical pass. Large images are split into bands of lines
+ * that are blurred in parallel. The intermediate image of each calling thread is kept for the next call,
+ * unless the image is unusually large.
+ */
+final class StackBlur {
+    private static final int PARALLEL_MIN_PIXELS = 64 * 1024;
+    private static final int MIN_LINES_PER_TASK = 16;
+    private static final int MAX_RETAINED_PIXELS = 512 * 1024;
+
+    private static final ThreadLocal<int[]> intermediateBuffer = new ThreadLocal<>();
+    private static volatile DivisionTable divisionTable;
+    private static ForkJoinPool pool;
+
+    private StackBlur() {
+    }
+
+    /**
+     * Blurs the pixels in place. The alpha channel of the result is opaque.
+     */
+    static void blur(int[] pixels, int width, int height, int radius) {
+        if (radius < 1) {
+            throw new IllegalArgumentException("Radius must be at least 1");
+        }
+        int[] intermediate = getBuffer(intermediateBuffer, width * height);
+        int[] divide = getDivisionTable(radius);
+        run(new LineTask(pixels, intermediate, width, 1, width, 0, height, radius, divide), width * height);
+        run(new LineTask(intermediate, pixels, height, width, 1, 0, width, radius, divide), width * height);
+    }
+
+    /**
+     * @return A buffer with at least the given number of pixels. Buffers up to {@link #MAX_RETAINED_PIXELS}
+     *         are kept for the next call on the same thread, larger ones are left to the garbage collector.
+     */
+    static int[] getBuffer(ThreadLocal<int[]> buffer, int pixelCount) {
+        int[] pixels = buffer.get();
+        if (pixels != null && pixels.length >= pixelCount) {
+            return pixels;
+        }
+        pixels = new int[pixelCount];
+        if (pixelCount <= MAX_RETAINED_PIXELS) {
+            buffer.set(pixels);
+        }
+        return pixels;
+    }
+
+    private static void run(LineTask task, int pixelCount) {
+        if (pixelCount < PARALLEL_MIN_PIXELS || Runtime.getRuntime().availableProcessors() == 1) {
+            task.blurLines();
+        } else {
+            getPool().invoke(task);
+        }
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return pool;
+    }
+
+    /**
+     * @return A table that divides the weighted sums of the color values by the sum of the weights
+     */
+    private static int[] getDivisionTable(int radius) {
+        DivisionTable table = divisionTable;
+        if (table == null || table.radius != radius) {
+            table = new DivisionTable(radius);
+            divisionTable = table;
+        }
+        return table.values;
+    }
+
+    private static class DivisionTable {
+        final int radius;
+        final int[] values;
+
+        DivisionTable(int radius) {
+            this.radius = radius;
+            int weightSum = (radius + 1) * (radius + 1);
+            values = new int[256 * weightSum];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i / weightSum;
+            }
+        }
+    }
+
+    /**
+     * Blurs a range of lines, which are rows or columns depending on the strides.
+     */
+    private static class LineTask extends RecursiveAction {
+        private final int[] source;
+        private final int[] target;
+        private final int lineLength;
+        private final int pixelStride;
+        private final int lineStride;
+        private final int fromLine;
+        private final int toLine;
+        private final int radius;
+        private final int[] divide;
+
+        LineTask(int[] source, int[] target, int lineLength, int pixelStride, int lineStride,
+                 int fromLine, int toLine, int radius, int[] divide) {
+            this.source = source;
+            this.target = target;
+            this.lineLength = lineLength;
+            this.pixelStride = pixelStride;
+            this.lineStride = lineStride;
+            this.fromLine = fromLine;
+            this.toLine = toLine;
+            this.radius = radius;
+            this.divide = divide;
+        }
+
+        @Override
+        protected void compute() {
+            int lines = toLine - fromLine;
+            if (lines <= MIN_LINES_PER_TASK * 2) {
+                blurLines();
+                return;
+            }
+            int middle = fromLine + lines / 2;
+            invokeAll(new LineTask(source, target, lineLength, pixelStride, lineStride,
+                            fromLine, middle, radius, divide),
+                    new LineTask(source, target, lineLength, pixelStride, lineStride,
+                            middle, toLine, radius, divide));
+        }
+
+        void blurLines() {
+            int div = radius + radius + 1;
+            int last = lineLength - 1;
+            int[] stack = new int[div];
+            for (int line = fromLine; line < toLine; line++) {
+                int offset = line * lineStride;
+                int redSum = 0;
+                int greenSum = 0;
+                int blueSum = 0;
+                int redIn = 0;
+                int greenIn = 0;
+                int blueIn = 0;
+                int redOut = 0;
+                int greenOut = 0;
+                int blueOut = 0;
+                for (int i = -radius; i <= radius; i++) {
+                    int pixel = source[offset + Math.min(last, Math.max(i, 0)) * pixelStride];
+                    stack[i + radius] = pixel;
+                    int weight = radius + 1 - Math.abs(i);
+                    redSum += ((pixel >> 16) & 0xff) * weight;
+                    greenSum += ((pixel >> 8) & 0xff) * weight;
+                    blueSum += (pixel & 0xff) * weight;
+                    if (i > 0) {
+                        redIn += (pixel >> 16) & 0xff;
+                        greenIn += (pixel >> 8) & 0xff;
+                        blueIn += pixel & 0xff;
+                    } else {
+                        redOut += (pixel >> 16) & 0xff;
+                        greenOut += (pixel >> 8) & 0xff;
+                        blueOut += pixel & 0xff;
+                    }
+                }
+
+                int stackPointer = radius;
+                int targetIndex = offset;
+                for (int x = 0; x < lineLength; x++) {
+                    target[targetIndex] = 0xff000000 | (divide[redSum] << 16) | (divide[greenSum] << 8)
+                            | divide[blueSum];
+                    targetIndex += pixelStride;
+
+                    redSum -= redOut;
+                    greenSum -= greenOut;
+                    blueSum -= blueOut;
+
+                    // The oldest pixel leaves the stack, the next pixel on the right enters in its place
+                    int stackStart = stackPointer + radius + 1;
+                    if (stackStart >= div) {
+                        stackStart -= div;
+                    }
+                    int pixel = stack[stackStart];
+                    redOut -= (pixel >> 16) & 0xff;
+                    greenOut -= (pixel >> 8) & 0xff;
+                    blueOut -= pixel & 0xff;
+
+                    pixel = source[offset + Math.min(x + radius + 1, last) * pixelStride];
+                    stack[stackStart] = pixel;
+                    redIn += (pixel >> 16) & 0xff;
+                    greenIn += (pixel >> 8) & 0xff;
+                    blueIn += pixel & 0xff;
+
+                    redSum += redIn;
+                    greenSum += greenIn;
+                    blueSum += blueIn;
+
+                    // The pixel in the middle of the stack moves from the right half to the left half
+                    stackPointer++;
+                    if (stackPointer == div) {
+                        stackPointer = 0;
+                    }
+                    pixel = stack[stackPointer];
+                    redOut += (pixel >> 16) & 0xff;
+                    greenOut += (pixel >> 8) & 0xff;
+                    blueOut += pixel & 0xff;
+                    redIn -= (pixel >> 16) & 0xff;
+                    greenIn -= (pixel >> 8) & 0xff;
+                    blueIn -= pixel & 0xff;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package de.danoeh.antennapod.ui.glide;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Compares {@link StackBlur} to the single-threaded implementation that {@link FastBlurTransformation} used before.
+ */
+public class StackBlurTest {
+
+    @Test
+    public void testSmallImage() {
+        assertSameAsBefore(120, 68, 5);
+        assertSameAsBefore(120, 68, 25);
+    }
+
+    @Test
+    public void testParallelImage() {
+        // Large enough to be split into bands that are blurred in parallel
+        assertSameAsBefore(360, 640, 10);
+    }
+
+    @Test
+    public void testSmallerThanRadius() {
+        int[] image = createImage(3, 2);
+        int[] expected = image.clone();
+        fastBlurBefore(expected, 3, 2, 10);
+        StackBlur.blur(image, 3, 2, 10);
+        assertArrayEquals(expected, image);
+    }
+
+    @Test
+    public void testLargeBufferIsNotKept() {
+        ThreadLocal<int[]> buffer = new ThreadLocal<>();
+        int[] small = StackBlur.getBuffer(buffer, 100);
+        assertSame(small, StackBlur.getBuffer(buffer, 50));
+        int[] large = StackBlur.getBuffer(buffer, 1080 * 1920);
+        assertEquals(1080 * 1920, large.length);
+        assertSame(small, buffer.get());
+    }
+
+    private static void assertSameAsBefore(int width, int height, int radius) {
+        int[] image = createImage(width, height);
+        int[] expected = image.clone();
+        fastBlurBefore(expected, width, height, radius);
+        StackBlur.blur(image, width, height, radius);
+        assertArrayEquals(width + "x" + height + ", radius " + radius, expected, image);
+    }
+
+    /**
+     * A cover-like image: smooth gradients with some noise.
+     */
+    private static int[] createImage(int width, int height) {
+        Random random = new Random(width * 31 + height);
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int red = (x * 255 / width + random.nextInt(32)) & 0xff;
+                int green = (y * 255 / height + random.nextInt(32)) & 0xff;
+                int blue = random.nextInt(256);
+                pixels[y * width + x] = 0xff000000 | (red << 16) | (green << 8) | blue;
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * The implementation of FastBlurTransformation before it was split into passes, working on the pixel array.
+     * Stack Blur Algorithm by Mario Klingemann <mario@quasimondo.com>
+     */
+    private static void fastBlurBefore(int[] pix, int w, int h, int radius) {
+        int wm = w - 1;
+        int hm = h - 1;
+        int wh = w * h;
+        int div = radius + radius + 1;
+
+        int[] r = new int[wh];
+        int[] g = new int[wh];
+        int[] b = new int[wh];
+        int rsum;
+        int gsum;
+        int bsum;
+        int x;
+        int y;
+        int i;
+        int p;
+        int yp;
+        int yi;
+        int yw;
+        int[] vmin = new int[Math.max(w, h)];
+
+        int divsum = (div + 1) >> 1;
+        divsum *= divsum;
+        int[] dv = new int[256 * divsum];
+        for (i = 0; i < 256 * divsum; i++) {
+            dv[i] = (i / divsum);
+        }
+
+        yw = yi = 0;
+
+        int[][] stack = new int[div][3];
+        int stackpointer;
+        int stackstart;
+        int[] sir;
+        int rbs;
+        int r1 = radius + 1;
+        int routsum;
+        int goutsum;
+        int boutsum;
+        int rinsum;
+        int ginsum;
+        int binsum;
+
+        for (y = 0; y < h; y++) {
+            rinsum = ginsum = binsum = routsum = goutsum = boutsum = rsum = gsum = bsum = 0;
+            for (i = -radius; i <= radius; i++) {
+                p = pix[yi + Math.min(wm, Math.max(i, 0))];
+                sir = stack[i + radius];
+                sir[0] = (p & 0xff0000) >> 16;
+                sir[1] = (p & 0x00ff00) >> 8;
+                sir[2] = (p & 0x0000ff);
+                rbs = r1 - Math.abs(i);
+                rsum += sir[0] * rbs;
+                gsum += sir[1] * rbs;
+                bsum += sir[2] * rbs;
+                if (i > 0) {
+                    rinsum += sir[0];
+                    ginsum += sir[1];
+                    binsum += sir[2];
+                } else {
+                    routsum += sir[0];
+                    goutsum += sir[1];
+                    boutsum += sir[2];
+                }
+            }
+            stackpointer = radius;
+
+            for (x = 0; x < w; x++) {
+                r[yi] = dv[rsum];
+                g[yi] = dv[gsum];
+                b[yi] = dv[bsum];
+
+                rsum -= routsum;
+                gsum -= goutsum;
+                bsum -= boutsum;
+
+                stackstart = stackpointer - radius + div;
+                sir = stack[stackstart % div];
+
+                routsum -= sir[0];
+                goutsum -= sir[1];
+                boutsum -= sir[2];
+
+                if (y == 0) {
+                    vmin[x] = Math.min(x + radius + 1, wm);
+                }
+                p = pix[yw + vmin[x]];
+
+                sir[0] = (p & 0xff0000) >> 16;
+                sir[1] = (p & 0x00ff00) >> 8;
+                sir[2] = (p & 0x0000ff);
+
+                rinsum += sir[0];
+                ginsum += sir[1];
+                binsum += sir[2];
+
+                rsum += rinsum;
+                gsum += ginsum;
+                bsum += binsum;
+
+                stackpointer = (stackpointer + 1) % div;
+                sir = stack[(stackpointer) % div];
+
+                routsum += sir[0];
+                goutsum += sir[1];
+                boutsum += sir[2];
+
+                rinsum -= sir[0];
+                ginsum -= sir[1];
+                binsum -= sir[2];
+
+                yi++;
+            }
+            yw += w;
+        }
+        for (x = 0; x < w; x++) {
+            rinsum = ginsum = binsum = routsum = goutsum = boutsum = rsum = gsum = bsum = 0;
+            yp = -radius * w;
+            for (i = -radius; i <= radius; i++) {
+                yi = Math.max(0, yp) + x;
+
+                sir = stack[i + radius];
+
+                sir[0] = r[yi];
+                sir[1] = g[yi];
+                sir[2] = b[yi];
+
+                rbs = r1 - Math.abs(i);
+
+                rsum += r[yi] * rbs;
+                gsum += g[yi] * rbs;
+                bsum += b[yi] * rbs;
+
+                if (i > 0) {
+                    rinsum += sir[0];
+                    ginsum += sir[1];
+                    binsum += sir[2];
+                } else {
+                    routsum += sir[0];
+                    goutsum += sir[1];
+                    boutsum += sir[2];
+                }
+
+                if (i < hm) {
+                    yp += w;
+                }
+            }
+            yi = x;
+            stackpointer = radius;
+            for (y = 0; y < h; y++) {
+                pix[yi] = 0xff000000 | (dv[rsum] << 16) | (dv[gsum] << 8) | dv[bsum];
+
+                rsum -= routsum;
+                gsum -= goutsum;
+                bsum -= boutsum;
+
+                stackstart = stackpointer - radius + div;
+                sir = stack[stackstart % div];
+
+                routsum -= sir[0];
+                goutsum -= sir[1];
+                boutsum -= sir[2];
+
+                if (x == 0) {
+                    vmin[y] = Math.min(y + r1, hm) * w;
+                }
+                p = x + vmin[y];
+
+                sir[0] = r[p];
+                sir[1] = g[p];
+                sir[2] = b[p];
+
+                rinsum += sir[0];
+                ginsum += sir[1];
+                binsum += sir[2];
+
+                rsum += rinsum;
+                gsum += ginsum;
+                bsum += binsum;
+
+                stackpointer = (stackpointer + 1) % div;
+                sir = stack[stackpointer];
+
+                routsum += sir[0];
+                goutsum += sir[1];
+                boutsum += sir[2];
+
+                rinsum -= sir[0];
+                ginsum -= sir[1];
+                binsum -= sir[2];
+
+                yi += w;
+            }
+        }
+    }
+}